@@ -0,0 +1,30 @@
+package aima.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the AIMA benchmarks and writes the results in machine-readable JSON
+ * format. The first (optional) argument is a regular expression which selects
+ * the benchmarks to be run, the second (optional) argument specifies the result
+ * file.
+ */
+public class BenchmarkRunner {
+
+	public static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+
+	public static void main(String[] args) throws RunnerException {
+		String include = args.length > 0 ? args[0] : "aima\\.benchmarks\\..*";
+		String resultFile = args.length > 1 ? args[1] : DEFAULT_RESULT_FILE;
+
+		Options options = new OptionsBuilder()
+				.include(include)
+				.resultFormat(ResultFormatType.JSON)
+				.result(resultFile)
+				.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,57 @@
+package aima.benchmarks.csp;
+
+import aima.core.search.csp.Assignment;
+import aima.core.search.csp.CSP;
+import aima.core.search.csp.Variable;
+import aima.core.search.csp.examples.MapCSP;
+import aima.core.search.csp.examples.NQueensCSP;
+import aima.core.search.csp.solver.CspHeuristics;
+import aima.core.search.csp.solver.FlexibleBacktrackingSolver;
+import aima.core.search.csp.solver.inference.AC3Strategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures backtracking search with AC-3 constraint propagation on the
+ * N-Queens problem and on the map coloring problem of Australia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CspBenchmark {
+
+	@Param({"8", "16"})
+	public int queens;
+
+	private CSP<Variable, Integer> nQueensCsp;
+	private CSP<Variable, String> mapCsp;
+
+	@Setup
+	public void setup() {
+		nQueensCsp = new NQueensCSP(queens);
+		mapCsp = new MapCSP();
+	}
+
+	@Benchmark
+	public Optional<Assignment<Variable, Integer>> nQueensAC3() {
+		return new FlexibleBacktrackingSolver<Variable, Integer>()
+				.set(new AC3Strategy<>()).solve(nQueensCsp);
+	}
+
+	@Benchmark
+	public Optional<Assignment<Variable, Integer>> nQueensMrvAC3() {
+		return new FlexibleBacktrackingSolver<Variable, Integer>()
+				.set(CspHeuristics.mrv()).set(new AC3Strategy<>()).solve(nQueensCsp);
+	}
+
+	@Benchmark
+	public Optional<Assignment<Variable, String>> mapColoringAC3() {
+		return new FlexibleBacktrackingSolver<Variable, String>()
+				.set(new AC3Strategy<>()).solve(mapCsp);
+	}
+}
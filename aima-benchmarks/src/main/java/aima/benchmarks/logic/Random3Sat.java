@@ -0,0 +1,50 @@
+package aima.benchmarks.logic;
+
+import aima.core.logic.propositional.kb.data.Clause;
+import aima.core.logic.propositional.kb.data.Literal;
+import aima.core.logic.propositional.parsing.ast.PropositionSymbol;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generates random 3-SAT instances with a fixed number of symbols and clauses.
+ * Each clause contains three distinct symbols with random polarity. Instances
+ * with about 4.26 clauses per symbol are the hardest ones for most solvers.
+ */
+public class Random3Sat {
+
+	private final List<PropositionSymbol> symbols = new ArrayList<>();
+	private final Set<Clause> clauses = new LinkedHashSet<>();
+
+	public Random3Sat(int numSymbols, int numClauses, long seed) {
+		if (numSymbols < 3)
+			throw new IllegalArgumentException("At least three symbols are needed.");
+		Random random = new Random(seed);
+		for (int i = 1; i <= numSymbols; i++)
+			symbols.add(new PropositionSymbol("P" + i));
+		while (clauses.size() < numClauses) {
+			int s1 = random.nextInt(numSymbols);
+			int s2 = random.nextInt(numSymbols);
+			int s3 = random.nextInt(numSymbols);
+			if (s1 != s2 && s1 != s3 && s2 != s3)
+				clauses.add(new Clause(createLiteral(s1, random), createLiteral(s2, random),
+						createLiteral(s3, random)));
+		}
+	}
+
+	public List<PropositionSymbol> getSymbols() {
+		return symbols;
+	}
+
+	public Set<Clause> getClauses() {
+		return clauses;
+	}
+
+	private Literal createLiteral(int symbolIdx, Random random) {
+		return new Literal(symbols.get(symbolIdx), random.nextBoolean());
+	}
+}
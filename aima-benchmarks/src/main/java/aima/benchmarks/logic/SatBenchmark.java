@@ -0,0 +1,45 @@
+package aima.benchmarks.logic;
+
+import aima.core.logic.propositional.inference.DPLL;
+import aima.core.logic.propositional.inference.WalkSAT;
+import aima.core.logic.propositional.kb.data.Model;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures DPLL and WalkSAT on generated random 3-SAT instances. Instances are
+ * generated with a fixed seed, so all runs work on the same clauses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SatBenchmark {
+
+	@Param({"20", "30"})
+	public int symbols;
+
+	@Param({"3.0", "4.26"})
+	public double clauseSymbolRatio;
+
+	private Random3Sat instance;
+
+	@Setup
+	public void setup() {
+		instance = new Random3Sat(symbols, (int) Math.round(symbols * clauseSymbolRatio), 42);
+	}
+
+	@Benchmark
+	public boolean dpll() {
+		return new DPLL().dpll(instance.getClauses(), instance.getSymbols(), new Model());
+	}
+
+	@Benchmark
+	public Model walkSAT() {
+		return new WalkSAT(new Random(42)).walkSAT(instance.getClauses(), 0.5, 10000);
+	}
+}
@@ -0,0 +1,71 @@
+package aima.benchmarks.probability;
+
+import aima.core.probability.CategoricalDistribution;
+import aima.core.probability.RandomVariable;
+import aima.core.probability.bayes.BayesianNetwork;
+import aima.core.probability.bayes.approx.LikelihoodWeighting;
+import aima.core.probability.bayes.exact.EliminationAsk;
+import aima.core.probability.example.BayesNetExampleFactory;
+import aima.core.probability.example.ExampleRV;
+import aima.core.probability.proposition.AssignmentProposition;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures exact and approximate inference in the burglary alarm network
+ * (AIMA3e Figure 14.2) and the cloudy sprinkler rain wet grass network (AIMA3e
+ * Figure 14.12a).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BayesInferenceBenchmark {
+
+	@Param({"1000"})
+	public int samples;
+
+	private BayesianNetwork burglaryAlarmNet;
+	private BayesianNetwork sprinklerNet;
+	private AssignmentProposition[] johnAndMaryCall;
+	private AssignmentProposition[] cloudyAndWetGrass;
+
+	@Setup
+	public void setup() {
+		burglaryAlarmNet = BayesNetExampleFactory.constructBurglaryAlarmNetwork();
+		sprinklerNet = BayesNetExampleFactory.constructCloudySprinklerRainWetGrassNetwork();
+		johnAndMaryCall = new AssignmentProposition[] {
+				new AssignmentProposition(ExampleRV.JOHN_CALLS_RV, Boolean.TRUE),
+				new AssignmentProposition(ExampleRV.MARY_CALLS_RV, Boolean.TRUE) };
+		cloudyAndWetGrass = new AssignmentProposition[] {
+				new AssignmentProposition(ExampleRV.CLOUDY_RV, Boolean.TRUE),
+				new AssignmentProposition(ExampleRV.WET_GRASS_RV, Boolean.TRUE) };
+	}
+
+	@Benchmark
+	public CategoricalDistribution eliminationAskBurglary() {
+		return new EliminationAsk().ask(new RandomVariable[] { ExampleRV.BURGLARY_RV }, johnAndMaryCall,
+				burglaryAlarmNet);
+	}
+
+	@Benchmark
+	public CategoricalDistribution eliminationAskSprinkler() {
+		return new EliminationAsk().ask(new RandomVariable[] { ExampleRV.RAIN_RV }, cloudyAndWetGrass,
+				sprinklerNet);
+	}
+
+	@Benchmark
+	public CategoricalDistribution likelihoodWeightingBurglary() {
+		return new LikelihoodWeighting().ask(new RandomVariable[] { ExampleRV.BURGLARY_RV }, johnAndMaryCall,
+				burglaryAlarmNet, samples);
+	}
+
+	@Benchmark
+	public CategoricalDistribution likelihoodWeightingSprinkler() {
+		return new LikelihoodWeighting().ask(new RandomVariable[] { ExampleRV.RAIN_RV }, cloudyAndWetGrass,
+				sprinklerNet, samples);
+	}
+}
@@ -0,0 +1,73 @@
+package aima.benchmarks.search;
+
+import aima.core.environment.connectfour.ConnectFourAIPlayer;
+import aima.core.environment.connectfour.ConnectFourGame;
+import aima.core.environment.connectfour.ConnectFourState;
+import aima.core.search.adversarial.Game;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures iterative deepening alpha-beta search for Connect Four. To obtain a
+ * stable workload, search is stopped after a fixed depth instead of a time
+ * limit. The transposition table and the move ordering of the player can be
+ * switched off. The metrics of the search show the number of cutoffs and the
+ * share of cutoffs caused by the first action.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConnectFourBenchmark {
+
+	@Param({"6", "8"})
+	public int depth;
+
+	@Param({"false", "true"})
+	public boolean transpositionTable;
+
+	@Param({"false", "true"})
+	public boolean moveOrdering;
+
+	private ConnectFourGame game;
+	private ConnectFourState state;
+
+	@Setup
+	public void setup() {
+		game = new ConnectFourGame();
+		state = game.getInitialState();
+		for (int col : new int[] { 3, 3, 2, 4 })
+			state = game.getResult(state, col);
+	}
+
+	@Benchmark
+	public Integer iterativeDeepeningAlphaBeta() {
+		FixedDepthAIPlayer player = new FixedDepthAIPlayer(game, depth);
+		if (!transpositionTable)
+			player.setTranspositionTable(null);
+		if (!moveOrdering)
+			player.setMoveOrdering(null);
+		return player.makeDecision(state);
+	}
+
+	/**
+	 * Stops iterative deepening as soon as the specified depth has been
+	 * reached. The time limit is just a safety net.
+	 */
+	private static class FixedDepthAIPlayer extends ConnectFourAIPlayer {
+		private final int maxDepth;
+
+		FixedDepthAIPlayer(Game<ConnectFourState, Integer, String> game, int maxDepth) {
+			super(game, 60);
+			this.maxDepth = maxDepth;
+		}
+
+		@Override
+		protected boolean isSignificantlyBetter(double newUtility, double utility) {
+			return currDepthLimit >= maxDepth || super.isSignificantlyBetter(newUtility, utility);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package aima.benchmarks.search;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.BidirectionalEightPuzzleProblem;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.framework.qsearch.GraphSearchBFS;
+import aima.core.search.framework.qsearch.GraphSearchReducedFrontier;
+import aima.core.search.framework.qsearch.QueueSearch;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.uninformed.BreadthFirstSearch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures queue based search on an eight puzzle instance which needs 23 moves
+ * to be solved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EightPuzzleBenchmark {
+
+	@Param({"GraphSearch", "GraphSearchReducedFrontier"})
+	public String impl;
+
+	private Problem<EightPuzzleBoard, Action> problem;
+
+	@Setup
+	public void setup() {
+		problem = new BidirectionalEightPuzzleProblem(new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 }));
+	}
+
+	@Benchmark
+	public Optional<List<Action>> aStarManhattan() {
+		return new AStarSearch<>(createImpl(), EightPuzzleFunctions::getManhattanDistance).findActions(problem);
+	}
+
+	@Benchmark
+	public Optional<List<Action>> aStarMisplacedTiles() {
+		return new AStarSearch<>(createImpl(), EightPuzzleFunctions::getNumberOfMisplacedTiles).findActions(problem);
+	}
+
+	@Benchmark
+	public Optional<List<Action>> breadthFirst() {
+		return new BreadthFirstSearch<>(new GraphSearchBFS<EightPuzzleBoard, Action>()).findActions(problem);
+	}
+
+	private QueueSearch<EightPuzzleBoard, Action> createImpl() {
+		return impl.equals("GraphSearch") ? new GraphSearch<>() : new GraphSearchReducedFrontier<>();
+	}
+}
@@ -0,0 +1,50 @@
+package aima.benchmarks.search;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.BidirectionalEightPuzzleProblem;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.GraphSearchReducedFrontier;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.informed.HashDistributedAStarSearch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares hash distributed A* with different numbers of worker threads to
+ * sequential A* on an eight puzzle instance which needs 27 moves to be solved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HashDistributedAStarBenchmark {
+
+	@Param({"1", "2", "4", "8"})
+	public int threads;
+
+	private Problem<EightPuzzleBoard, Action> problem;
+
+	@Setup
+	public void setup() {
+		problem = new BidirectionalEightPuzzleProblem(new EightPuzzleBoard(new int[] { 8, 6, 7, 2, 5, 4, 3, 0, 1 }));
+	}
+
+	@Benchmark
+	public Optional<List<Action>> hdaStar() {
+		return new HashDistributedAStarSearch<>(EightPuzzleFunctions::getManhattanDistance, threads)
+				.findActions(problem);
+	}
+
+	@Benchmark
+	public Optional<List<Action>> aStarBaseline() {
+		return new AStarSearch<>(new GraphSearchReducedFrontier<>(), EightPuzzleFunctions::getManhattanDistance)
+				.findActions(problem);
+	}
+}
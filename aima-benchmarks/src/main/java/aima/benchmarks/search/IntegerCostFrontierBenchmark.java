@@ -0,0 +1,87 @@
+package aima.benchmarks.search;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.BidirectionalEightPuzzleProblem;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.framework.qsearch.GraphSearchReducedFrontier;
+import aima.core.search.framework.qsearch.QueueSearch;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.uninformed.UniformCostSearch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Compares the default priority queue frontier with bucket queue and radix
+ * heap frontiers for uniform-cost and A* search on an eight puzzle instance
+ * with unit step costs, which needs 23 moves to be solved.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IntegerCostFrontierBenchmark {
+
+	@Param({"AddressablePriorityQueue", "BucketQueue", "RadixHeap"})
+	public String frontier;
+
+	@Param({"GraphSearch", "GraphSearchReducedFrontier"})
+	public String impl;
+
+	private Problem<EightPuzzleBoard, Action> problem;
+
+	@Setup
+	public void setup() {
+		problem = new BidirectionalEightPuzzleProblem(new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 }));
+	}
+
+	@Benchmark
+	public Optional<List<Action>> uniformCost() {
+		UniformCostSearch<EightPuzzleBoard, Action> search;
+		switch (frontier) {
+		case "BucketQueue":
+			search = UniformCostSearch.createWithBucketQueue(createImpl());
+			break;
+		case "RadixHeap":
+			search = UniformCostSearch.createWithRadixHeap(createImpl());
+			break;
+		default:
+			search = new UniformCostSearch<>(createImpl());
+		}
+		return search.findActions(problem);
+	}
+
+	@Benchmark
+	public Optional<List<Action>> aStarManhattan() {
+		return createAStar(EightPuzzleFunctions::getManhattanDistance).findActions(problem);
+	}
+
+	@Benchmark
+	public Optional<List<Action>> aStarMisplacedTiles() {
+		return createAStar(EightPuzzleFunctions::getNumberOfMisplacedTiles).findActions(problem);
+	}
+
+	private AStarSearch<EightPuzzleBoard, Action> createAStar(ToDoubleFunction<Node<EightPuzzleBoard, Action>> h) {
+		switch (frontier) {
+		case "BucketQueue":
+			return AStarSearch.createWithBucketQueue(createImpl(), h);
+		case "RadixHeap":
+			return AStarSearch.createWithRadixHeap(createImpl(), h);
+		default:
+			return new AStarSearch<>(createImpl(), h);
+		}
+	}
+
+	private QueueSearch<EightPuzzleBoard, Action> createImpl() {
+		return impl.equals("GraphSearch") ? new GraphSearch<>() : new GraphSearchReducedFrontier<>();
+	}
+}
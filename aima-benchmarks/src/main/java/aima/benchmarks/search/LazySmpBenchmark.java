@@ -0,0 +1,66 @@
+package aima.benchmarks.search;
+
+import aima.core.environment.connectfour.ConnectFourAIPlayer;
+import aima.core.environment.connectfour.ConnectFourGame;
+import aima.core.environment.connectfour.ConnectFourState;
+import aima.core.search.adversarial.Game;
+import aima.core.search.adversarial.LazySmpAlphaBetaSearch;
+import aima.core.search.adversarial.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time which Lazy SMP search needs to complete a fixed depth in
+ * Connect Four. The effective speedup is the time for one thread divided by
+ * the time for several threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LazySmpBenchmark {
+
+	@Param({"1", "2", "4"})
+	public int threads;
+
+	@Param({"10"})
+	public int depth;
+
+	private ConnectFourGame game;
+	private ConnectFourState state;
+
+	@Setup
+	public void setup() {
+		game = new ConnectFourGame();
+		state = game.getInitialState();
+		for (int col : new int[] { 3, 3, 2, 4 })
+			state = game.getResult(state, col);
+	}
+
+	@Benchmark
+	public Integer lazySmp() {
+		return new LazySmpAlphaBetaSearch<>(() -> new FixedDepthAIPlayer(game, depth), threads,
+				new TranspositionTable<Integer>(1 << 18)).makeDecision(state);
+	}
+
+	/**
+	 * Stops iterative deepening as soon as the specified depth has been
+	 * reached. The time limit is just a safety net.
+	 */
+	private static class FixedDepthAIPlayer extends ConnectFourAIPlayer {
+		private final int maxDepth;
+
+		FixedDepthAIPlayer(Game<ConnectFourState, Integer, String> game, int maxDepth) {
+			super(game, 60);
+			this.maxDepth = maxDepth;
+		}
+
+		@Override
+		protected boolean isSignificantlyBetter(double newUtility, double utility) {
+			return currDepthLimit >= maxDepth || super.isSignificantlyBetter(newUtility, utility);
+		}
+	}
+}
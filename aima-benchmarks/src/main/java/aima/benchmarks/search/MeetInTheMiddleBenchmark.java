@@ -0,0 +1,101 @@
+package aima.benchmarks.search;
+
+import aima.core.environment.map.BidirectionalMapProblem;
+import aima.core.environment.map.ExtendableMap;
+import aima.core.environment.map.MapFunctions;
+import aima.core.environment.map.MoveToAction;
+import aima.core.environment.map.SimplifiedRoadMapOfRomania;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.informed.MeetInTheMiddleSearch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares bidirectional MM search to A* on route finding problems. Besides
+ * the simplified road map of Romania, a synthetic road network is used: a
+ * jittered grid with 10000 locations, detour factors between 1 and 1.5 and
+ * about 10% of the links removed. Routes lead from one corner to the opposite
+ * one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MeetInTheMiddleBenchmark {
+
+	private static final int GRID_SIZE = 100;
+
+	@Param({"Romania", "Grid"})
+	public String map;
+
+	private ExtendableMap roadMap;
+	private String from;
+	private String to;
+	private Problem<String, MoveToAction> problem;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		if (map.equals("Romania")) {
+			roadMap = new SimplifiedRoadMapOfRomania();
+			from = SimplifiedRoadMapOfRomania.ARAD;
+			to = SimplifiedRoadMapOfRomania.BUCHAREST;
+		} else {
+			roadMap = createGrid(new Random(42));
+			from = location(0, 0);
+			to = location(GRID_SIZE - 1, GRID_SIZE - 1);
+		}
+		problem = new BidirectionalMapProblem(roadMap, from, to);
+	}
+
+	@Benchmark
+	public Optional<List<MoveToAction>> aStar() {
+		return createAStar().findActions(problem);
+	}
+
+	@Benchmark
+	public Optional<List<MoveToAction>> meetInTheMiddle() {
+		return createMM().findActions(problem);
+	}
+
+	private AStarSearch<String, MoveToAction> createAStar() {
+		return new AStarSearch<>(new GraphSearch<>(), MapFunctions.createSLDHeuristicFunction(to, roadMap));
+	}
+
+	private MeetInTheMiddleSearch<String, MoveToAction> createMM() {
+		return new MeetInTheMiddleSearch<>(MapFunctions.createSLDHeuristicFunction(to, roadMap),
+				MapFunctions.createSLDHeuristicFunction(from, roadMap));
+	}
+
+	private static ExtendableMap createGrid(Random random) {
+		ExtendableMap result = new ExtendableMap();
+		for (int x = 0; x < GRID_SIZE; x++)
+			for (int y = 0; y < GRID_SIZE; y++)
+				result.setPosition(location(x, y), x * 10 + random.nextDouble() * 6, y * 10 + random.nextDouble() * 6);
+		for (int x = 0; x < GRID_SIZE; x++) {
+			for (int y = 0; y < GRID_SIZE; y++) {
+				if (x + 1 < GRID_SIZE && (y == 0 || random.nextInt(10) > 0))
+					addLink(result, location(x, y), location(x + 1, y), random);
+				if (y + 1 < GRID_SIZE && (x == 0 || random.nextInt(10) > 0))
+					addLink(result, location(x, y), location(x, y + 1), random);
+			}
+		}
+		return result;
+	}
+
+	private static void addLink(ExtendableMap map, String loc1, String loc2, Random random) {
+		double distance = map.getPosition(loc1).distance(map.getPosition(loc2)) * (1 + random.nextDouble() / 2);
+		map.addBidirectionalLink(loc1, loc2, distance);
+	}
+
+	private static String location(int x, int y) {
+		return x + "/" + y;
+	}
+}
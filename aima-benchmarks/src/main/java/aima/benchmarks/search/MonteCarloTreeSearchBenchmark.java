@@ -0,0 +1,54 @@
+package aima.benchmarks.search;
+
+import aima.core.environment.connectfour.ConnectFourGame;
+import aima.core.environment.connectfour.ConnectFourState;
+import aima.core.search.adversarial.MonteCarloTreeSearch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time of Monte Carlo tree search decisions with a fixed number
+ * of playouts in Connect Four. With tree reuse, the search plays against
+ * itself, so each decision starts with the subtree of the previous one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MonteCarloTreeSearchBenchmark {
+
+	@Param({"1000", "10000"})
+	public int playouts;
+
+	private ConnectFourGame game;
+	private ConnectFourState initialState;
+
+	@Setup
+	public void setup() {
+		game = new ConnectFourGame();
+		initialState = game.getInitialState();
+	}
+
+	@Benchmark
+	public Integer singleDecision() {
+		MonteCarloTreeSearch<ConnectFourState, Integer, String> search =
+				new MonteCarloTreeSearch<>(game, playouts);
+		search.setRandom(new Random(0));
+		return search.makeDecision(initialState);
+	}
+
+	@Benchmark
+	public ConnectFourState selfPlayWithTreeReuse() {
+		MonteCarloTreeSearch<ConnectFourState, Integer, String> search =
+				new MonteCarloTreeSearch<>(game, playouts);
+		search.setRandom(new Random(0));
+		ConnectFourState state = initialState;
+		for (int i = 0; i < 6 && !game.isTerminal(state); i++)
+			state = game.getResult(state, search.makeDecision(state));
+		return state;
+	}
+}
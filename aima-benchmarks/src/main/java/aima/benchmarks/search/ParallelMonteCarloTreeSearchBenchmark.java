@@ -0,0 +1,66 @@
+package aima.benchmarks.search;
+
+import aima.core.environment.connectfour.ConnectFourGame;
+import aima.core.environment.connectfour.ConnectFourState;
+import aima.core.environment.tictactoe.TicTacToeGame;
+import aima.core.environment.tictactoe.TicTacToeState;
+import aima.core.search.adversarial.AdversarialSearch;
+import aima.core.search.adversarial.Game;
+import aima.core.search.adversarial.RootParallelMonteCarloTreeSearch;
+import aima.core.search.adversarial.TreeParallelMonteCarloTreeSearch;
+import aima.core.util.datastructure.XYLocation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time of Monte Carlo tree search decisions with a fixed total
+ * number of playouts for root and tree parallelization. The speedup is the
+ * time for one thread divided by the time for several threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParallelMonteCarloTreeSearchBenchmark {
+
+	@Param({"root", "tree"})
+	public String parallelization;
+
+	@Param({"1", "2", "4"})
+	public int threads;
+
+	@Param({"20000"})
+	public int playouts;
+
+	private ConnectFourGame connectFour;
+	private ConnectFourState connectFourState;
+	private TicTacToeGame ticTacToe;
+	private TicTacToeState ticTacToeState;
+
+	@Setup
+	public void setup() {
+		connectFour = new ConnectFourGame();
+		connectFourState = connectFour.getInitialState();
+		ticTacToe = new TicTacToeGame();
+		ticTacToeState = ticTacToe.getInitialState();
+	}
+
+	@Benchmark
+	public Integer connectFour() {
+		return createSearch(connectFour).makeDecision(connectFourState);
+	}
+
+	@Benchmark
+	public XYLocation ticTacToe() {
+		return createSearch(ticTacToe).makeDecision(ticTacToeState);
+	}
+
+	private <S, A, P> AdversarialSearch<S, A> createSearch(Game<S, A, P> game) {
+		return parallelization.equals("root")
+				? new RootParallelMonteCarloTreeSearch<>(game, playouts, threads)
+				: new TreeParallelMonteCarloTreeSearch<>(game, playouts, threads);
+	}
+}
@@ -0,0 +1,73 @@
+package aima.benchmarks.search;
+
+import aima.core.environment.map.Map;
+import aima.core.environment.map.MapFunctions;
+import aima.core.environment.map.MoveToAction;
+import aima.core.environment.map.SimplifiedRoadMapOfRomania;
+import aima.core.search.framework.problem.GeneralProblem;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.framework.qsearch.GraphSearchReducedFrontier;
+import aima.core.search.framework.qsearch.QueueSearch;
+import aima.core.search.framework.qsearch.TreeSearch;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.uninformed.UniformCostSearch;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Measures route finding from Arad to Bucharest in the simplified road map of
+ * Romania (AIMA3e Figure 3.2). The map is tiny, so this benchmark mainly
+ * reflects the constant overhead of the search framework per node.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RomaniaBenchmark {
+
+	@Param({"TreeSearch", "GraphSearch", "GraphSearchReducedFrontier"})
+	public String impl;
+
+	private Map map;
+	private Problem<String, MoveToAction> problem;
+
+	@Setup
+	public void setup() {
+		map = new SimplifiedRoadMapOfRomania();
+		problem = new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+				MapFunctions.createActionsFunction(map),
+				MapFunctions.createResultFunction(),
+				Predicate.isEqual(SimplifiedRoadMapOfRomania.BUCHAREST),
+				MapFunctions.createDistanceStepCostFunction(map));
+	}
+
+	@Benchmark
+	public Optional<List<MoveToAction>> aStar() {
+		return new AStarSearch<>(createImpl(),
+				MapFunctions.createSLDHeuristicFunction(SimplifiedRoadMapOfRomania.BUCHAREST, map))
+				.findActions(problem);
+	}
+
+	@Benchmark
+	public Optional<List<MoveToAction>> uniformCost() {
+		return new UniformCostSearch<>(createImpl()).findActions(problem);
+	}
+
+	private QueueSearch<String, MoveToAction> createImpl() {
+		switch (impl) {
+		case "TreeSearch":
+			return new TreeSearch<>();
+		case "GraphSearch":
+			return new GraphSearch<>();
+		default:
+			return new GraphSearchReducedFrontier<>();
+		}
+	}
+}
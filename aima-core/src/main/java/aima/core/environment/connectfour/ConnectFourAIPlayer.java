@@ -4,11 +4,16 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import aima.core.search.adversarial.Game;
+import aima.core.search.adversarial.HashedGame;
 import aima.core.search.adversarial.IterativeDeepeningAlphaBetaSearch;
+import aima.core.search.adversarial.MoveOrdering;
+import aima.core.search.adversarial.TranspositionTable;
 
 /**
  * Implements an iterative deepening Minimax search with alpha-beta pruning and
- * a special action ordering optimized for the Connect Four game.
+ * a special action ordering optimized for the Connect Four game. Below the
+ * root, actions are ordered dynamically by a {@link MoveOrdering}. If the game
+ * provides state hashes, a transposition table is used.
  * 
  * @author Ruediger Lunde
  */
@@ -17,6 +22,9 @@ public class ConnectFourAIPlayer extends
 
 	public ConnectFourAIPlayer(Game<ConnectFourState, Integer, String> game, int time) {
 		super(game, 0.0, 1.0, time);
+		setMoveOrdering(new MoveOrdering<>());
+		if (game instanceof HashedGame)
+			setTranspositionTable(new TranspositionTable<>(1 << 18));
 	}
 
 	@Override
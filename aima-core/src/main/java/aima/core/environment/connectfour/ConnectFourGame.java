@@ -4,7 +4,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
 
-import aima.core.search.adversarial.Game;
+import aima.core.search.adversarial.HashedGame;
 
 /**
  * Provides an implementation of the ConnectFour game which can be used for
@@ -13,7 +13,7 @@ import aima.core.search.adversarial.Game;
  * @author Ruediger Lunde
  * 
  */
-public class ConnectFourGame implements Game<ConnectFourState, Integer, String> {
+public class ConnectFourGame implements HashedGame<ConnectFourState, Integer, String> {
 
 	private String[] players = new String[] { "red", "yellow" };
 	private ConnectFourState initialState = new ConnectFourState(6, 7);
@@ -76,6 +76,11 @@ public class ConnectFourGame implements Game<ConnectFourState, Integer, String>
 		return result;
 	}
 
+	@Override
+	public long getHash(ConnectFourState state) {
+		return state.getZobristHash();
+	}
+
 	@Override
 	public boolean isTerminal(ConnectFourState state) {
 		return state.getUtility() != -1;
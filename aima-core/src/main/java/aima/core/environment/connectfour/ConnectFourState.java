@@ -1,22 +1,38 @@
 package aima.core.environment.connectfour;
 
+import aima.core.search.adversarial.Zobrist;
+
 /**
  * A state of the Connect Four game is characterized by a board containing a
  * grid of spaces for disks, the next player to move, and some utility
  * informations. A win position for a player x is an empty space which turns a
  * situation into a win situation for x if he is able to place a disk there.
- * 
+ * The state maintains a Zobrist hash of the disks.
+ * <br>
+ * The board is represented by bitboards, one long value per player. Each
+ * column occupies <code>rows + 1</code> bits, starting with the bottom space.
+ * The additional bit on top of each column separates the columns, so that
+ * four disks in a row can be detected by shifts in all four directions. The
+ * win positions of both players are maintained in the same way. Therefore,
+ * boards with up to 64 bits are supported (the standard board needs 49), and
+ * dropping a disk and cloning a state take constant time.
+ *
  * @author Ruediger Lunde
- * 
+ *
  */
 public class ConnectFourState implements Cloneable {
+	private int rows;
 	private int cols;
-	/**
-	 * Uses special bit coding. First bit: disk of player 1, second bit: disk of
-	 * player 2, third bit: win position for player 1, fourth bit: win position
-	 * for player 2.
-	 */
-	private byte[] board;
+	/** Disks of player 1 and player 2. */
+	private long disks1;
+	private long disks2;
+	/** Win positions of player 1 and player 2, empty spaces only. */
+	private long wins1;
+	private long wins2;
+	/** Bottom space of each column. */
+	private long bottomMask;
+	/** All spaces of the board. */
+	private long boardMask;
 
 	private int moveCount;
 	/**
@@ -26,15 +42,21 @@ public class ConnectFourState implements Cloneable {
 	private double utility;
 	public int winPositions1;
 	public int winPositions2;
+	private long hash;
 
 	public ConnectFourState(int rows, int cols) {
+		if ((rows + 1) * cols > 64)
+			throw new IllegalArgumentException("Board is too large for bitboards.");
 		utility = -1;
+		this.rows = rows;
 		this.cols = cols;
-		board = new byte[rows * cols];
+		for (int col = 0; col < cols; col++)
+			bottomMask |= 1L << col * (rows + 1);
+		boardMask = bottomMask * ((1L << rows) - 1);
 	}
 
 	public int getRows() {
-		return board.length / cols;
+		return rows;
 	}
 
 	public int getCols() {
@@ -46,125 +68,72 @@ public class ConnectFourState implements Cloneable {
 	}
 
 	public int getPlayerNum(int row, int col) {
-		return board[row * cols + col] & 3;
+		long bit = getBit(row, col);
+		if ((disks1 & bit) != 0)
+			return 1;
+		return (disks2 & bit) != 0 ? 2 : 0;
 	}
 
 	public int getPlayerToMove() {
 		return moveCount % 2 + 1;
 	}
-	
+
 	public int getMoves() {
 		return moveCount;
 	}
 
+	/**
+	 * Returns a 64-bit hash of the disk positions, which is updated
+	 * incrementally. The player to move is implied by the number of disks.
+	 */
+	public long getZobristHash() {
+		return hash;
+	}
+
 	public void dropDisk(int col) {
 		int playerNum = getPlayerToMove();
-		int row = getFreeRow(col);
-		if (row != -1) {
+		long move = getFreeSpace(col);
+		if (move != 0) {
 			moveCount++;
-			if (moveCount == board.length)
+			if (moveCount == rows * cols)
 				utility = 0.5;
-			if (isWinPositionFor(row, col, 1)) {
+			if ((wins1 & move) != 0) {
+				wins1 ^= move;
 				winPositions1--;
 				if (playerNum == 1)
 					utility = 1.0;
 			}
-			if (isWinPositionFor(row, col, 2)) {
+			if ((wins2 & move) != 0) {
+				wins2 ^= move;
 				winPositions2--;
 				if (playerNum == 2)
 					utility = 0.0;
 			}
-			board[row * cols + col] = (byte) playerNum;
-			if (utility == -1)
-				analyzeWinPositions(row, col);
+			int bitIdx = Long.numberOfTrailingZeros(move);
+			int row = rows - 1 - bitIdx % (rows + 1);
+			hash ^= Zobrist.key(row * cols + col, playerNum - 1, 2);
+			if (playerNum == 1) {
+				disks1 |= move;
+				if (utility == -1) {
+					wins1 = computeWinPositions(disks1);
+					winPositions1 = Long.bitCount(wins1);
+				}
+			} else {
+				disks2 |= move;
+				if (utility == -1) {
+					wins2 = computeWinPositions(disks2);
+					winPositions2 = Long.bitCount(wins2);
+				}
+			}
 		}
 	}
 
-	/**
-	 * Returns the row of the first empty space in the specified column and -1
-	 * if the column is full.
-	 */
-	private int getFreeRow(int col) {
-		for (int row = getRows() - 1; row >= 0; row--)
-			if (getPlayerNum(row, col) == 0)
-				return row;
-		return -1;
-	}
-
 	public boolean isWinMoveFor(int col, int playerNum) {
-		return isWinPositionFor(getFreeRow(col), col, playerNum);
+		return ((playerNum == 1 ? wins1 : wins2) & getFreeSpace(col)) != 0;
 	}
-	
-	public boolean isWinPositionFor(int row, int col, int playerNum) {
-		return (board[row * cols + col] & playerNum * 4) > 0;
-	}
-
-	private void setWinPositionFor(int row, int col, int playerNum) {
-		if (playerNum == 1) {
-			if (!isWinPositionFor(row, col, 1))
-				winPositions1++;
-		} else if (playerNum == 2) {
-			if (!isWinPositionFor(row, col, 2))
-				winPositions2++;
-		} else {
-			throw new IllegalArgumentException("Wrong player number.");
-		}
-		board[row * cols + col] |= playerNum * 4;
-	}
-
-	/**
-	 * Assumes a disk at position <code>moveRow</code> and <code>moveCol</code>
-	 * and analyzes the vicinity with respect to win positions.
-	 */
-	private void analyzeWinPositions(int moveRow, int moveCol) {
-		final int[] rowIncr = new int[] { 1, 0, 1, 1 };
-		final int[] colIncr = new int[] { 0, 1, -1, 1 };
-		int playerNum = getPlayerNum(moveRow, moveCol);
-		WinPositionInfo[] wInfo = new WinPositionInfo[] {
-				new WinPositionInfo(), new WinPositionInfo() };
-		for (int i = 0; i < 4; i++) {
-			int rIncr = rowIncr[i];
-			int cIncr = colIncr[i];
-			int diskCount = 1;
-
-			for (int j = 0; j < 2; j++) {
-				WinPositionInfo wInf = wInfo[j];
-				wInf.clear();
-				int rBound = rIncr > 0 ? getRows() : -1;
-				int cBound = cIncr > 0 ? getCols() : -1;
 
-				int row = moveRow + rIncr;
-				int col = moveCol + cIncr;
-				while (row != rBound && col != cBound) {
-					int plNum = getPlayerNum(row, col);
-					if (plNum == playerNum) {
-						if (wInf.hasData())
-							wInf.diskCount++;
-						else
-							diskCount++;
-					} else if (plNum == 0) {
-						if (!wInf.hasData()) {
-							wInf.row = row;
-							wInf.col = col;
-						} else {
-							break;
-						}
-					} else {
-						break;
-					}
-					row += rIncr;
-					col += cIncr;
-				}
-				rIncr = -rIncr;
-				cIncr = -cIncr;
-			}
-			for (int j = 0; j < 2; j++) {
-				WinPositionInfo wInf = wInfo[j];
-				if (wInf.hasData() && diskCount + wInf.diskCount >= 3) {
-					setWinPositionFor(wInf.row, wInf.col, playerNum);
-				}
-			}
-		}
+	public boolean isWinPositionFor(int row, int col, int playerNum) {
+		return ((playerNum == 1 ? wins1 : wins2) & getBit(row, col)) != 0;
 	}
 
 	public int analyzePotentialWinPositions(Integer action) {
@@ -209,7 +178,6 @@ public class ConnectFourState implements Cloneable {
 		ConnectFourState result = null;
 		try {
 			result = (ConnectFourState) super.clone();
-			result.board = board.clone();
 		} catch (CloneNotSupportedException e) {
 			e.printStackTrace();
 		}
@@ -218,39 +186,71 @@ public class ConnectFourState implements Cloneable {
 
 	@Override
 	public int hashCode() {
-		int result = 0;
-		for (byte aBoard : board) result = result * 7 + aBoard + 1;
-		return result;
+		return Long.hashCode(disks1 * 31 + disks2);
 	}
 
 	@Override
 	public boolean equals(Object obj) {
 		if (obj != null && getClass() == obj.getClass()) {
 			ConnectFourState s = (ConnectFourState) obj;
-			for (int i = 0; i < board.length; i++)
-				if (board[i] != s.board[i])
-					return false;
-			return true;
+			return disks1 == s.disks1 && disks2 == s.disks2 && rows == s.rows && cols == s.cols;
 		}
 		return false;
 	}
 
-	// ////////////////////////////////////////////////////////////////////
-	// nested classes
+	//
+	// PRIVATE METHODS
+	//
 
-	private static class WinPositionInfo {
-		int row = -1;
-		int col = -1;
-		int diskCount;
+	private long getBit(int row, int col) {
+		return 1L << (col * (rows + 1) + rows - 1 - row);
+	}
 
-		void clear() {
-			row = -1;
-			col = -1;
-			diskCount = 0;
-		}
+	/**
+	 * Returns the bit of the first empty space in the specified column and 0
+	 * if the column is full.
+	 */
+	private long getFreeSpace(int col) {
+		long column = ((1L << rows) - 1) << col * (rows + 1);
+		return ((disks1 | disks2) + bottomMask) & column;
+	}
 
-		boolean hasData() {
-			return row != -1;
+	/**
+	 * Returns the row of the first empty space in the specified column and -1
+	 * if the column is full.
+	 */
+	private int getFreeRow(int col) {
+		long space = getFreeSpace(col);
+		return space != 0 ? rows - 1 - Long.numberOfTrailingZeros(space) % (rows + 1) : -1;
+	}
+
+	/**
+	 * Returns the empty spaces which complete four disks in a row, in a
+	 * column, or in a diagonal together with the given disks. Directions which
+	 * cannot contain four spaces are skipped. This also keeps shift distances
+	 * below 64, as a board with at least four columns has at most 15 rows.
+	 */
+	private long computeWinPositions(long disks) {
+		int h = rows + 1;
+		long result = 0;
+		if (rows >= 4)
+			result = (disks << 1) & (disks << 2) & (disks << 3); // vertical
+		if (cols >= 4) {
+			result |= computeWinPositions(disks, h); // horizontal
+			result |= computeWinPositions(disks, h - 1); // diagonal
+			result |= computeWinPositions(disks, h + 1); // anti-diagonal
 		}
+		return result & boardMask & ~(disks1 | disks2);
+	}
+
+	/** Returns the spaces which complete four disks in a line with the given shift distance. */
+	private static long computeWinPositions(long disks, int shift) {
+		long pair = (disks << shift) & (disks << 2 * shift);
+		long result = pair & (disks << 3 * shift);
+		result |= pair & (disks >>> shift);
+		pair = (disks >>> shift) & (disks >>> 2 * shift);
+		result |= pair & (disks << shift);
+		result |= pair & (disks >>> 3 * shift);
+		return result;
 	}
 }
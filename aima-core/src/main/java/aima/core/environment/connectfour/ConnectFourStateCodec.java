@@ -0,0 +1,162 @@
+package aima.core.environment.connectfour;
+
+import aima.core.search.framework.StateCodec;
+
+/**
+ * Encodes Connect Four states with <code>rows + 1</code> bits per column.
+ * Starting at the bottom, the bits of a column contain one bit per disk (1 for
+ * player 1, 0 for player 2), followed by a marker bit with value 1 and zero
+ * bits for the remaining empty spaces. The standard board (6 rows, 7 columns)
+ * needs 49 bits and fits into a long value. Bits are ordered big-endian, so
+ * long and byte array codes are consistent.
+ * <br>
+ * Decoding replays the disks in an order which is consistent with the rules
+ * of the game, so that the decoded state provides exactly the same win
+ * position and utility information as a state which was reached by playing.
+ */
+public class ConnectFourStateCodec implements StateCodec<ConnectFourState> {
+
+	private final int rows;
+	private final int cols;
+	private final int numBits;
+	private final int padding; // unused low-order bits of long codes
+
+	public ConnectFourStateCodec() {
+		this(6, 7);
+	}
+
+	public ConnectFourStateCodec(int rows, int cols) {
+		this.rows = rows;
+		this.cols = cols;
+		numBits = cols * (rows + 1);
+		padding = encodedLength() * 8 - numBits;
+	}
+
+	@Override
+	public int encodedLength() {
+		return (numBits + 7) / 8;
+	}
+
+	@Override
+	public long encodeAsLong(ConnectFourState state) {
+		if (!fitsInLong())
+			throw new UnsupportedOperationException("Board is too large for long codes.");
+		long result = 0;
+		for (int col = 0; col < cols; col++)
+			for (int i = 0; i <= rows; i++)
+				result = (result << 1) | getBit(state, col, i);
+		return result << padding;
+	}
+
+	@Override
+	public ConnectFourState decodeFromLong(long code) {
+		if (!fitsInLong())
+			throw new UnsupportedOperationException("Board is too large for long codes.");
+		int[][] disks = new int[cols][];
+		code >>>= padding;
+		for (int col = cols - 1; col >= 0; col--) {
+			int columnBits = (int) (code & ((1 << (rows + 1)) - 1));
+			disks[col] = toDisks(columnBits);
+			code >>>= rows + 1;
+		}
+		return replay(disks);
+	}
+
+	@Override
+	public void encode(ConnectFourState state, byte[] target, int offset) {
+		for (int i = 0; i < encodedLength(); i++)
+			target[offset + i] = 0;
+		int bit = 0;
+		for (int col = 0; col < cols; col++) {
+			for (int i = 0; i <= rows; i++) {
+				if (getBit(state, col, i) != 0)
+					target[offset + (bit >> 3)] |= 0x80 >>> (bit & 7);
+				bit++;
+			}
+		}
+	}
+
+	@Override
+	public ConnectFourState decode(byte[] source, int offset) {
+		int[][] disks = new int[cols][];
+		int bit = 0;
+		for (int col = 0; col < cols; col++) {
+			int columnBits = 0;
+			for (int i = 0; i <= rows; i++) {
+				int value = (source[offset + (bit >> 3)] >>> (7 - (bit & 7))) & 1;
+				columnBits = (columnBits << 1) | value;
+				bit++;
+			}
+			disks[col] = toDisks(columnBits);
+		}
+		return replay(disks);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	/**
+	 * Returns bit <code>i</code> of the column code, counted from the bottom
+	 * of the column.
+	 */
+	private int getBit(ConnectFourState state, int col, int i) {
+		if (i == rows)
+			return state.getPlayerNum(0, col) != 0 ? 1 : 0; // marker of a full column
+		int playerNum = state.getPlayerNum(rows - 1 - i, col);
+		if (playerNum != 0)
+			return playerNum == 1 ? 1 : 0;
+		return i == 0 || state.getPlayerNum(rows - i, col) != 0 ? 1 : 0; // marker
+	}
+
+	/**
+	 * Converts the bits of one column (bottom bit first, as read from the
+	 * code) into player numbers of the disks from bottom to top.
+	 */
+	private int[] toDisks(int columnBits) {
+		// reverse bit order: afterwards, bit 0 belongs to the bottom space
+		int bits = Integer.reverse(columnBits) >>> (32 - rows - 1);
+		int height = 31 - Integer.numberOfLeadingZeros(bits);
+		if (height < 0)
+			throw new IllegalArgumentException("Missing column marker.");
+		int[] result = new int[height];
+		for (int i = 0; i < height; i++)
+			result[i] = ((bits >>> i) & 1) != 0 ? 1 : 2;
+		return result;
+	}
+
+	private ConnectFourState replay(int[][] disks) {
+		int numDisks = 0;
+		for (int[] column : disks)
+			numDisks += column.length;
+		ConnectFourState result = replay(new ConnectFourState(rows, cols), disks, new int[cols], numDisks);
+		if (result == null)
+			throw new IllegalArgumentException("Code does not represent a reachable state.");
+		return result;
+	}
+
+	/**
+	 * Drops the remaining disks with alternating players. The game must not
+	 * end before the last disk has been dropped. Backtracks if the player to
+	 * move has no disk on top of a column.
+	 */
+	private ConnectFourState replay(ConnectFourState state, int[][] disks, int[] dropped, int remaining) {
+		if (remaining == 0)
+			return state;
+		if (state.getUtility() != -1)
+			return null;
+		int playerNum = state.getPlayerToMove();
+		for (int col = 0; col < cols; col++) {
+			if (dropped[col] < disks[col].length && disks[col][dropped[col]] == playerNum) {
+				ConnectFourState next = state.clone();
+				next.dropDisk(col);
+				dropped[col]++;
+				ConnectFourState result = replay(next, disks, dropped, remaining - 1);
+				dropped[col]--;
+				if (result != null)
+					return result;
+			}
+		}
+		return null;
+	}
+}
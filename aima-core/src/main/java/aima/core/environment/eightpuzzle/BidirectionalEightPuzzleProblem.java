@@ -2,27 +2,25 @@ package aima.core.environment.eightpuzzle;
 
 import aima.core.agent.Action;
 import aima.core.search.framework.problem.BidirectionalProblem;
-import aima.core.search.framework.problem.GeneralProblem;
 import aima.core.search.framework.problem.Problem;
 
-import java.util.function.Predicate;
-
 /**
  * @author Ruediger Lunde
  * 
  */
-public class BidirectionalEightPuzzleProblem extends GeneralProblem<EightPuzzleBoard, Action>
+public class BidirectionalEightPuzzleProblem extends EightPuzzleProblem
 		implements BidirectionalProblem<EightPuzzleBoard, Action> {
 
 	private final Problem<EightPuzzleBoard, Action> reverseProblem;
 
 	public BidirectionalEightPuzzleProblem(EightPuzzleBoard initialState) {
-		super(initialState, EightPuzzleFunctions::getActions, EightPuzzleFunctions::getResult,
-				Predicate.isEqual(EightPuzzleFunctions.GOAL_STATE));
+		this(initialState, initialState.getSize() == 3 ? EightPuzzleFunctions.GOAL_STATE
+				: EightPuzzleFunctions.createGoalState(initialState.getSize()));
+	}
 
-		reverseProblem = new GeneralProblem<>(EightPuzzleFunctions.GOAL_STATE,
-				EightPuzzleFunctions::getActions, EightPuzzleFunctions::getResult,
-				Predicate.isEqual(initialState));
+	public BidirectionalEightPuzzleProblem(EightPuzzleBoard initialState, EightPuzzleBoard goalState) {
+		super(initialState, goalState);
+		reverseProblem = new EightPuzzleProblem(goalState, initialState);
 	}
 
 	public Problem<EightPuzzleBoard, Action> getOriginalProblem() {
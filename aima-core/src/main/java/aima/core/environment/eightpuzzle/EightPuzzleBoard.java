@@ -9,6 +9,10 @@ import aima.core.agent.impl.DynamicAction;
 import aima.core.util.datastructure.XYLocation;
 
 /**
+ * Board of the sliding-tile puzzle. The default size is 3x3 (eight puzzle),
+ * but all square sizes (e.g. 4x4 for the fifteen puzzle) are supported. The
+ * gap is represented by value 0.
+ *
  * @author Ravi Mohan
  * @author Ruediger Lunde
  */
@@ -19,6 +23,7 @@ public class EightPuzzleBoard implements Cloneable {
 	public static Action UP = new DynamicAction("Up");
 	public static Action DOWN = new DynamicAction("Down");
 	private int[] state;
+	private final int size;
 
 	//
 	// PUBLIC METHODS
@@ -26,12 +31,25 @@ public class EightPuzzleBoard implements Cloneable {
 
 	public EightPuzzleBoard() {
 		state = new int[] { 5, 4, 0, 6, 1, 8, 7, 3, 2 };
+		size = 3;
 	}
 
-	public EightPuzzleBoard(int[] state) { state.clone();
+	/**
+	 * Creates a board from the tile values in row-major order. The number of
+	 * values must be a square number.
+	 */
+	public EightPuzzleBoard(int[] state) {
+		size = (int) Math.round(Math.sqrt(state.length));
+		if (size * size != state.length)
+			throw new IllegalArgumentException("Number of tiles must be a square number.");
 		this.state = state.clone();
 	}
 
+	/** Returns the number of rows (and columns) of the board. */
+	public int getSize() {
+		return size;
+	}
+
 	public int[] getState() {
 		return state;
 	}
@@ -49,7 +67,7 @@ public class EightPuzzleBoard implements Cloneable {
 		int gapPos = getGapPosition();
 		int x = getXCoord(gapPos);
 		int y = getYCoord(gapPos);
-		if (x != 2) {
+		if (x != size - 1) {
 			setValue(x, y, getValueAt(x + 1, y));
 			setValue(x + 1, y, 0);
 		}
@@ -69,7 +87,7 @@ public class EightPuzzleBoard implements Cloneable {
 		int gapPos = getGapPosition();
 		int x = getXCoord(gapPos);
 		int y = getYCoord(gapPos);
-		if (y != 2) {
+		if (y != size - 1) {
 			setValue(x, y, getValueAt(x, y + 1));
 			setValue(x, y + 1, 0);
 		}
@@ -87,8 +105,8 @@ public class EightPuzzleBoard implements Cloneable {
 	}
 
 	public List<XYLocation> getPositions() {
-		ArrayList<XYLocation> result = new ArrayList<>(9);
-		for (int i = 0; i < 9; i++) {
+		ArrayList<XYLocation> result = new ArrayList<>(state.length);
+		for (int i = 0; i < state.length; i++) {
 			int pos = getPositionOf(i);
 			result.add(new XYLocation(getXCoord(pos), getYCoord(pos)));
 		}
@@ -107,11 +125,11 @@ public class EightPuzzleBoard implements Cloneable {
 		if (action.equals(LEFT))
 			result = (getXCoord(pos) != 0);
 		else if (action.equals(RIGHT))
-			result = (getXCoord(pos) != 2);
+			result = (getXCoord(pos) != size - 1);
 		else if (action.equals(UP))
 			result = (getYCoord(pos) != 0);
 		else if (action.equals(DOWN))
-			result = (getYCoord(pos) != 2);
+			result = (getYCoord(pos) != size - 1);
 		return result;
 	}
 
@@ -131,9 +149,13 @@ public class EightPuzzleBoard implements Cloneable {
 
 	@Override
 	public String toString() {
-		return state[0] + " " + state[1] + " " + state[2] + "\n"
-				+ state[3] + " " + state[4] + " " + state[5] + "\n"
-				+ state[6] + " " + state[7] + " " + state[8];
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < state.length; i++) {
+			if (i > 0)
+				result.append(i % size == 0 ? "\n" : " ");
+			result.append(state[i]);
+		}
+		return result.toString();
 	}
 
 	@Override
@@ -153,15 +175,15 @@ public class EightPuzzleBoard implements Cloneable {
 	//
 
 	private int getXCoord(int pos) {
-		return pos % 3;
+		return pos % size;
 	}
 
 	private int getYCoord(int pos) {
-		return pos / 3;
+		return pos / size;
 	}
 
 	private int getPosition(int x, int y) {
-		return x + 3 * y;
+		return x + size * y;
 	}
 
 	private int getValueAt(int x, int y) {
@@ -173,7 +195,7 @@ public class EightPuzzleBoard implements Cloneable {
 	}
 
 	private int getPositionOf(int val) {
-		for (int i = 0; i < 9; i++)
+		for (int i = 0; i < state.length; i++)
 			if (state[i] == val)
 				return i;
 		return -1;
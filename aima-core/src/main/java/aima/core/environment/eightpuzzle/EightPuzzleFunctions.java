@@ -2,20 +2,30 @@ package aima.core.environment.eightpuzzle;
 
 import aima.core.agent.Action;
 import aima.core.search.framework.Node;
-import aima.core.util.datastructure.XYLocation;
 
 import java.util.List;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 /**
- * Useful functions for solving EightPuzzle problems.
+ * Useful functions for solving EightPuzzle problems. Goal states and
+ * heuristics also support larger sliding-tile puzzles. In goal states, tile
+ * <code>i</code> is placed at position <code>i</code> (in row-major order).
  * @author Ruediger Lunde
  */
 public class EightPuzzleFunctions {
 
 	public static final EightPuzzleBoard GOAL_STATE = new EightPuzzleBoard(new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8 });
 
+	/** Returns the goal state for boards with the given number of rows. */
+	public static EightPuzzleBoard createGoalState(int size) {
+		int[] tiles = new int[size * size];
+		for (int i = 0; i < tiles.length; i++)
+			tiles[i] = i;
+		return new EightPuzzleBoard(tiles);
+	}
+
 	public static List<Action> getActions(EightPuzzleBoard state) {
 		return Stream.of(EightPuzzleBoard.UP, EightPuzzleBoard.DOWN, EightPuzzleBoard.LEFT, EightPuzzleBoard.RIGHT).
 				filter(state::canMoveGap).collect(Collectors.toList());
@@ -39,22 +49,41 @@ public class EightPuzzleFunctions {
 
 	public static double getManhattanDistance(Node<EightPuzzleBoard, Action> node) {
 		EightPuzzleBoard currState = node.getState();
+		int[] tiles = currState.getState();
+		int size = currState.getSize();
 		int result = 0;
-		for (int val = 1; val <= 8; val++) {
-			XYLocation locCurr = currState.getLocationOf(val);
-			XYLocation locGoal = GOAL_STATE.getLocationOf(val);
-			result += Math.abs(locGoal.getX() - locCurr.getX());
-			result += Math.abs(locGoal.getY() - locCurr.getY());
+		for (int pos = 0; pos < tiles.length; pos++) {
+			int val = tiles[pos];
+			if (val != 0) {
+				result += Math.abs(val % size - pos % size);
+				result += Math.abs(val / size - pos / size);
+			}
 		}
 		return result;
 	}
 
 	public static int getNumberOfMisplacedTiles(Node<EightPuzzleBoard, Action> node) {
-		EightPuzzleBoard currState = node.getState();
+		int[] tiles = node.getState().getState();
 		int result = 0;
-		for (int val = 1; val <= 8; val++)
-			if (!(currState.getLocationOf(val).equals(GOAL_STATE.getLocationOf(val))))
+		for (int pos = 0; pos < tiles.length; pos++)
+			if (tiles[pos] != 0 && tiles[pos] != pos)
 				result++;
 		return result;
 	}
+
+	/**
+	 * Returns a heuristic function which adds up the values of disjoint
+	 * pattern databases. The result is admissible if no tile is contained in
+	 * more than one of the databases.
+	 */
+	public static ToDoubleFunction<Node<EightPuzzleBoard, Action>> createPatternDatabaseHeuristic(
+			PatternDatabase... databases) {
+		return node -> {
+			int[] positions = PatternDatabase.getTilePositions(node.getState());
+			int result = 0;
+			for (PatternDatabase pdb : databases)
+				result += pdb.getCost(positions);
+			return result;
+		};
+	}
 }
\ No newline at end of file
@@ -0,0 +1,42 @@
+package aima.core.environment.eightpuzzle;
+
+import aima.core.agent.Action;
+import aima.core.search.framework.problem.GeneralProblem;
+import aima.core.search.framework.problem.SuccessorConsumer;
+import aima.core.search.framework.problem.SuccessorProblem;
+
+import java.util.function.Predicate;
+
+/**
+ * Sliding-tile puzzle problem. Besides the list based interface, successors
+ * can be streamed into a consumer, so that node expansion creates no action
+ * lists.
+ */
+public class EightPuzzleProblem extends GeneralProblem<EightPuzzleBoard, Action>
+		implements SuccessorProblem<EightPuzzleBoard, Action> {
+
+	private static final Action[] ACTIONS = new Action[] { EightPuzzleBoard.UP, EightPuzzleBoard.DOWN,
+			EightPuzzleBoard.LEFT, EightPuzzleBoard.RIGHT };
+
+	/** Creates a problem whose goal state places tile i at position i. */
+	public EightPuzzleProblem(EightPuzzleBoard initialState) {
+		this(initialState, initialState.getSize() == 3 ? EightPuzzleFunctions.GOAL_STATE
+				: EightPuzzleFunctions.createGoalState(initialState.getSize()));
+	}
+
+	public EightPuzzleProblem(EightPuzzleBoard initialState, EightPuzzleBoard goalState) {
+		super(initialState, EightPuzzleFunctions::getActions, EightPuzzleFunctions::getResult,
+				Predicate.isEqual(goalState));
+	}
+
+	@Override
+	public void forEachSuccessor(EightPuzzleBoard state, SuccessorConsumer<EightPuzzleBoard, Action> consumer) {
+		// same order as EightPuzzleFunctions.getActions
+		for (Action action : ACTIONS) {
+			if (state.canMoveGap(action)) {
+				EightPuzzleBoard result = EightPuzzleFunctions.getResult(state, action);
+				consumer.accept(action, result, stepCostFn.applyAsDouble(state, action, result));
+			}
+		}
+	}
+}
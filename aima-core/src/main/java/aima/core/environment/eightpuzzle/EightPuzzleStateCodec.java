@@ -0,0 +1,74 @@
+package aima.core.environment.eightpuzzle;
+
+import aima.core.search.framework.StateCodec;
+
+/**
+ * Encodes sliding-tile puzzle boards with four bits per tile if the board has
+ * at most 4x4 cells, and with one byte per tile otherwise. Eight puzzle boards
+ * need 36 bits, fifteen puzzle boards 64 bits, so both fit into long values.
+ */
+public class EightPuzzleStateCodec implements StateCodec<EightPuzzleBoard> {
+
+	private final int size;
+	private final int numCells;
+
+	/** Creates a codec for eight puzzle boards. */
+	public EightPuzzleStateCodec() {
+		this(3);
+	}
+
+	/** Creates a codec for boards with the given number of rows. */
+	public EightPuzzleStateCodec(int size) {
+		this.size = size;
+		numCells = size * size;
+	}
+
+	@Override
+	public int encodedLength() {
+		return size <= 4 ? (numCells * 4 + 7) / 8 : numCells;
+	}
+
+	@Override
+	public long encodeAsLong(EightPuzzleBoard board) {
+		if (!fitsInLong())
+			throw new UnsupportedOperationException("Board size " + size + " is too large for long codes.");
+		int[] tiles = board.getState();
+		long result = 0;
+		for (int i = 0; i < numCells; i++)
+			result = (result << 4) | tiles[i];
+		return result;
+	}
+
+	@Override
+	public EightPuzzleBoard decodeFromLong(long code) {
+		if (!fitsInLong())
+			throw new UnsupportedOperationException("Board size " + size + " is too large for long codes.");
+		int[] tiles = new int[numCells];
+		for (int i = numCells - 1; i >= 0; i--) {
+			tiles[i] = (int) (code & 0xF);
+			code >>>= 4;
+		}
+		return new EightPuzzleBoard(tiles);
+	}
+
+	@Override
+	public void encode(EightPuzzleBoard board, byte[] target, int offset) {
+		if (fitsInLong()) {
+			StateCodec.super.encode(board, target, offset);
+		} else {
+			int[] tiles = board.getState();
+			for (int i = 0; i < numCells; i++)
+				target[offset + i] = (byte) tiles[i];
+		}
+	}
+
+	@Override
+	public EightPuzzleBoard decode(byte[] source, int offset) {
+		if (fitsInLong())
+			return StateCodec.super.decode(source, offset);
+		int[] tiles = new int[numCells];
+		for (int i = 0; i < numCells; i++)
+			tiles[i] = source[offset + i] & 0xFF;
+		return new EightPuzzleBoard(tiles);
+	}
+}
@@ -0,0 +1,161 @@
+package aima.core.environment.eightpuzzle;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Pattern database for sliding-tile puzzles. For each placement of the pattern
+ * tiles, the database stores the minimal number of moves of pattern tiles
+ * which is needed to bring them into their goal positions. Moves of other
+ * tiles are free, so that the values of databases for disjoint tile sets can
+ * be added up without losing admissibility (see
+ * {@link EightPuzzleFunctions#createPatternDatabaseHeuristic(PatternDatabase...)}).
+ * <br>
+ * Placements are indexed by their rank as partial permutation. Entries are
+ * packed into four bits if all values are below 16, otherwise one byte is used
+ * per entry. Databases are created by a {@link PatternDatabaseBuilder} and can
+ * be written to files which are memory-mapped when loaded. So the operating
+ * system only reads the parts of the table which are really needed.
+ */
+public class PatternDatabase {
+
+	private static final int MAGIC = 0x50444231; // "PDB1"
+
+	private final int size;
+	private final int[] tiles;
+	private final int bitsPerEntry;
+	private final ByteBuffer table;
+
+	PatternDatabase(int size, int[] tiles, int bitsPerEntry, ByteBuffer table) {
+		this.size = size;
+		this.tiles = tiles.clone();
+		this.bitsPerEntry = bitsPerEntry;
+		this.table = table;
+	}
+
+	/** Returns the number of rows (and columns) of the supported boards. */
+	public int getSize() {
+		return size;
+	}
+
+	/** Returns the tiles of the pattern. */
+	public int[] getTiles() {
+		return tiles.clone();
+	}
+
+	/** Returns the number of bits used per table entry (4 or 8). */
+	public int getBitsPerEntry() {
+		return bitsPerEntry;
+	}
+
+	/** Returns the number of table entries. */
+	public int getNumberOfEntries() {
+		return (int) getNumberOfPlacements(size * size, tiles.length);
+	}
+
+	/** Returns the cost of moving the pattern tiles of the board to their goal positions. */
+	public int getCost(EightPuzzleBoard board) {
+		return getCost(getTilePositions(board));
+	}
+
+	/**
+	 * Returns the cost for a board which is given by the positions of all
+	 * tiles (array index is the tile value).
+	 */
+	public int getCost(int[] tilePositions) {
+		int numCells = size * size;
+		int index = 0;
+		for (int i = 0; i < tiles.length; i++) {
+			int pos = tilePositions[tiles[i]];
+			int digit = pos;
+			for (int j = 0; j < i; j++)
+				if (tilePositions[tiles[j]] < pos)
+					digit--;
+			index = index * (numCells - i) + digit;
+		}
+		return getEntry(index);
+	}
+
+	/** Writes the database to the specified file. */
+	public void writeTo(Path file) throws IOException {
+		ByteBuffer header = ByteBuffer.allocate(getHeaderLength(tiles.length));
+		header.putInt(MAGIC).putInt(size).putInt(tiles.length);
+		for (int tile : tiles)
+			header.putInt(tile);
+		header.putInt(bitsPerEntry);
+		header.flip();
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+			while (header.hasRemaining())
+				channel.write(header);
+			ByteBuffer data = table.duplicate();
+			data.clear();
+			while (data.hasRemaining())
+				channel.write(data);
+		}
+	}
+
+	/**
+	 * Loads a database from a file which was created by
+	 * {@link #writeTo(Path)}. The table is not read into the heap but mapped
+	 * into memory.
+	 */
+	public static PatternDatabase load(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			if (buffer.getInt() != MAGIC)
+				throw new IOException("Not a pattern database: " + file);
+			int size = buffer.getInt();
+			int[] tiles = new int[buffer.getInt()];
+			for (int i = 0; i < tiles.length; i++)
+				tiles[i] = buffer.getInt();
+			int bitsPerEntry = buffer.getInt();
+			long numEntries = getNumberOfPlacements(size * size, tiles.length);
+			if (buffer.remaining() != getTableLength(numEntries, bitsPerEntry))
+				throw new IOException("Unexpected table length in " + file);
+			return new PatternDatabase(size, tiles, bitsPerEntry, buffer.slice());
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "PatternDatabase[size=" + size + ", tiles=" + Arrays.toString(tiles) + "]";
+	}
+
+	/** Returns the positions of all tiles (array index is the tile value). */
+	static int[] getTilePositions(EightPuzzleBoard board) {
+		int[] state = board.getState();
+		int[] result = new int[state.length];
+		for (int pos = 0; pos < state.length; pos++)
+			result[state[pos]] = pos;
+		return result;
+	}
+
+	/** Returns the number of ways to place k distinguishable tiles on n cells. */
+	static long getNumberOfPlacements(int n, int k) {
+		long result = 1;
+		for (int i = 0; i < k; i++)
+			result *= n - i;
+		return result;
+	}
+
+	static int getTableLength(long numEntries, int bitsPerEntry) {
+		return (int) (bitsPerEntry == 4 ? (numEntries + 1) / 2 : numEntries);
+	}
+
+	private static int getHeaderLength(int numTiles) {
+		return (4 + numTiles) * Integer.BYTES;
+	}
+
+	private int getEntry(int index) {
+		if (bitsPerEntry == 8)
+			return table.get(index) & 0xFF;
+		int b = table.get(index >>> 1);
+		return ((index & 1) == 0 ? b : b >>> 4) & 0xF;
+	}
+}
@@ -0,0 +1,227 @@
+package aima.core.environment.eightpuzzle;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Creates pattern databases for sliding-tile puzzles by a backward
+ * breadth-first search from the goal state. The search space is the
+ * abstraction which only distinguishes the pattern tiles and the gap.
+ * Moving a pattern tile costs one, moving any other tile costs nothing (0-1
+ * breadth-first search). Afterwards, the cost of each placement of the
+ * pattern tiles is minimized over all gap positions.
+ * <br>
+ * The abstract space contains n!/(n-k-1)! states for k pattern tiles and n
+ * cells, and one byte per state is needed during construction. For the
+ * fifteen puzzle, a 7-8 partition is feasible, the 8-tile database needs
+ * about 500 MB while building.
+ */
+public class PatternDatabaseBuilder {
+
+	private static final int UNKNOWN = 0xFF;
+
+	private final int size;
+	private final int numCells;
+	private final boolean[] usedCells;
+
+	/** Creates a builder for boards with the given number of rows. */
+	public PatternDatabaseBuilder(int size) {
+		this.size = size;
+		numCells = size * size;
+		usedCells = new boolean[numCells];
+	}
+
+	/** Builds a pattern database for the specified tiles. */
+	public PatternDatabase build(int... tiles) {
+		checkTiles(tiles);
+		int numVars = tiles.length + 1; // pattern tiles and gap
+		long numStates = PatternDatabase.getNumberOfPlacements(numCells, numVars);
+		if (numStates > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Pattern " + Arrays.toString(tiles) + " is too large.");
+
+		byte[] dist = new byte[(int) numStates];
+		Arrays.fill(dist, (byte) UNKNOWN);
+		int[] start = new int[numVars];
+		for (int i = 0; i < tiles.length; i++)
+			start[i] = tiles[i]; // goal position of a tile is its value
+		start[tiles.length] = 0; // gap
+		search(dist, numVars, rank(start));
+
+		// minimize over gap positions; the gap is the last variable so
+		// placement ranks are prefixes of abstract state ranks
+		int numEntries = (int) PatternDatabase.getNumberOfPlacements(numCells, tiles.length);
+		int gapChoices = numCells - tiles.length;
+		byte[] costs = new byte[numEntries];
+		int maxCost = 0;
+		for (int entry = 0; entry < numEntries; entry++) {
+			int cost = UNKNOWN;
+			for (int i = 0; i < gapChoices; i++)
+				cost = Math.min(cost, dist[entry * gapChoices + i] & 0xFF);
+			if (cost == UNKNOWN)
+				cost = 0; // unreachable placement, never queried for solvable boards
+			costs[entry] = (byte) cost;
+			maxCost = Math.max(maxCost, cost);
+		}
+		return maxCost < 16 ? createDatabase(tiles, 4, pack(costs)) : createDatabase(tiles, 8, costs);
+	}
+
+	/**
+	 * Builds one pattern database per tile set. The tile sets should be
+	 * disjoint, so that the costs can be added up.
+	 */
+	public PatternDatabase[] buildDisjoint(int[]... partition) {
+		PatternDatabase[] result = new PatternDatabase[partition.length];
+		for (int i = 0; i < partition.length; i++)
+			result[i] = build(partition[i]);
+		return result;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	/**
+	 * 0-1 breadth-first search which processes the states level by level. A
+	 * state can be queued for the next level and later be reached by a free
+	 * move within the current level. Queue entries whose distance changed are
+	 * skipped.
+	 */
+	private void search(byte[] dist, int numVars, int startState) {
+		int[] vars = new int[numVars];
+		int[] cellContent = new int[numCells]; // variable index + 1, 0 for free cells
+		IntList current = new IntList();
+		IntList next = new IntList();
+		dist[startState] = 0;
+		current.add(startState);
+		for (int level = 0; !current.isEmpty(); level++) {
+			if (level >= UNKNOWN - 1)
+				throw new IllegalStateException("Distances exceed the supported range.");
+			for (int i = 0; i < current.size(); i++) {
+				int state = current.get(i);
+				if ((dist[state] & 0xFF) != level)
+					continue;
+				unrank(state, vars);
+				Arrays.fill(cellContent, 0);
+				for (int v = 0; v < numVars; v++)
+					cellContent[vars[v]] = v + 1;
+				int gap = vars[numVars - 1];
+				int x = gap % size;
+				int y = gap / size;
+				if (x > 0)
+					expand(dist, vars, cellContent, gap - 1, level, current, next);
+				if (x < size - 1)
+					expand(dist, vars, cellContent, gap + 1, level, current, next);
+				if (y > 0)
+					expand(dist, vars, cellContent, gap - size, level, current, next);
+				if (y < size - 1)
+					expand(dist, vars, cellContent, gap + size, level, current, next);
+			}
+			IntList tmp = current;
+			current = next;
+			next = tmp;
+			next.clear();
+		}
+	}
+
+	/** Moves the gap to the specified cell and records the successor state. */
+	private void expand(byte[] dist, int[] vars, int[] cellContent, int cell, int level, IntList current,
+			IntList next) {
+		int gapVar = vars.length - 1;
+		int gap = vars[gapVar];
+		int tileVar = cellContent[cell] - 1;
+		vars[gapVar] = cell;
+		if (tileVar >= 0)
+			vars[tileVar] = gap;
+		int succ = rank(vars);
+		int succDist = dist[succ] & 0xFF;
+		if (tileVar < 0) {
+			if (succDist > level) { // free move
+				dist[succ] = (byte) level;
+				current.add(succ);
+			}
+		} else if (succDist == UNKNOWN) {
+			dist[succ] = (byte) (level + 1);
+			next.add(succ);
+		}
+		vars[gapVar] = gap;
+		if (tileVar >= 0)
+			vars[tileVar] = cell;
+	}
+
+	/** Ranks a partial permutation of cells (mixed radix n, n-1, ...). */
+	private int rank(int[] vars) {
+		int result = 0;
+		for (int i = 0; i < vars.length; i++) {
+			int digit = vars[i];
+			for (int j = 0; j < i; j++)
+				if (vars[j] < vars[i])
+					digit--;
+			result = result * (numCells - i) + digit;
+		}
+		return result;
+	}
+
+	private void unrank(int rank, int[] vars) {
+		for (int i = vars.length - 1; i >= 0; i--) {
+			vars[i] = rank % (numCells - i);
+			rank /= numCells - i;
+		}
+		// digit i is the number of free cells below the cell of variable i
+		Arrays.fill(usedCells, false);
+		for (int i = 0; i < vars.length; i++) {
+			int cell = 0;
+			for (int free = vars[i]; usedCells[cell] || free-- > 0;)
+				cell++;
+			usedCells[cell] = true;
+			vars[i] = cell;
+		}
+	}
+
+	private void checkTiles(int[] tiles) {
+		boolean[] used = new boolean[numCells];
+		for (int tile : tiles) {
+			if (tile <= 0 || tile >= numCells || used[tile])
+				throw new IllegalArgumentException("Invalid pattern " + Arrays.toString(tiles));
+			used[tile] = true;
+		}
+	}
+
+	private PatternDatabase createDatabase(int[] tiles, int bitsPerEntry, byte[] table) {
+		return new PatternDatabase(size, tiles, bitsPerEntry, ByteBuffer.wrap(table));
+	}
+
+	private static byte[] pack(byte[] costs) {
+		byte[] result = new byte[PatternDatabase.getTableLength(costs.length, 4)];
+		for (int i = 0; i < costs.length; i++)
+			result[i >>> 1] |= (i & 1) == 0 ? costs[i] : costs[i] << 4;
+		return result;
+	}
+
+	/** Growable list of primitive int values. */
+	private static class IntList {
+		private int[] values = new int[1024];
+		private int size;
+
+		void add(int value) {
+			if (size == values.length)
+				values = Arrays.copyOf(values, size * 2);
+			values[size++] = value;
+		}
+
+		int get(int index) {
+			return values[index];
+		}
+
+		int size() {
+			return size;
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		void clear() {
+			size = 0;
+		}
+	}
+}
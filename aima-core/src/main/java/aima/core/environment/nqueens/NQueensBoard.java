@@ -108,7 +108,7 @@ public class NQueensBoard {
 		return (queenExistsAt(l.getX(), l.getY()));
 	}
 
-	private boolean queenExistsAt(int x, int y) {
+	public boolean queenExistsAt(int x, int y) {
 		return squares[x][y];
 	}
 
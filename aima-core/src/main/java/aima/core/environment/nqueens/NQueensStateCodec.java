@@ -0,0 +1,82 @@
+package aima.core.environment.nqueens;
+
+import aima.core.search.framework.StateCodec;
+import aima.core.util.datastructure.XYLocation;
+
+/**
+ * Encodes n-queens boards with one bit per square, column by column. Boards
+ * up to size 8 fit into long values, larger boards need byte array codes.
+ * Bits are ordered big-endian, so both code representations are consistent.
+ */
+public class NQueensStateCodec implements StateCodec<NQueensBoard> {
+
+	private final int size;
+	private final int numBits;
+	private final int padding; // unused low-order bits of long codes
+
+	public NQueensStateCodec(int size) {
+		this.size = size;
+		numBits = size * size;
+		padding = encodedLength() * 8 - numBits;
+	}
+
+	@Override
+	public int encodedLength() {
+		return (numBits + 7) / 8;
+	}
+
+	@Override
+	public long encodeAsLong(NQueensBoard board) {
+		if (!fitsInLong())
+			throw new UnsupportedOperationException("Board size " + size + " is too large for long codes.");
+		long result = 0;
+		for (int col = 0; col < size; col++)
+			for (int row = 0; row < size; row++)
+				result = (result << 1) | (board.queenExistsAt(col, row) ? 1 : 0);
+		return result << padding;
+	}
+
+	@Override
+	public NQueensBoard decodeFromLong(long code) {
+		if (!fitsInLong())
+			throw new UnsupportedOperationException("Board size " + size + " is too large for long codes.");
+		NQueensBoard result = new NQueensBoard(size);
+		code >>>= padding;
+		for (int col = size - 1; col >= 0; col--) {
+			for (int row = size - 1; row >= 0; row--) {
+				if ((code & 1) != 0)
+					result.addQueenAt(new XYLocation(col, row));
+				code >>>= 1;
+			}
+		}
+		return result;
+	}
+
+	@Override
+	public void encode(NQueensBoard board, byte[] target, int offset) {
+		for (int i = 0; i < encodedLength(); i++)
+			target[offset + i] = 0;
+		int bit = 0;
+		for (int col = 0; col < size; col++) {
+			for (int row = 0; row < size; row++) {
+				if (board.queenExistsAt(col, row))
+					target[offset + (bit >> 3)] |= 0x80 >>> (bit & 7);
+				bit++;
+			}
+		}
+	}
+
+	@Override
+	public NQueensBoard decode(byte[] source, int offset) {
+		NQueensBoard result = new NQueensBoard(size);
+		int bit = 0;
+		for (int col = 0; col < size; col++) {
+			for (int row = 0; row < size; row++) {
+				if ((source[offset + (bit >> 3)] & (0x80 >>> (bit & 7))) != 0)
+					result.addQueenAt(new XYLocation(col, row));
+				bit++;
+			}
+		}
+		return result;
+	}
+}
@@ -3,7 +3,7 @@ package aima.core.environment.tictactoe;
 import java.util.List;
 import java.util.Objects;
 
-import aima.core.search.adversarial.Game;
+import aima.core.search.adversarial.HashedGame;
 import aima.core.util.datastructure.XYLocation;
 
 /**
@@ -13,7 +13,7 @@ import aima.core.util.datastructure.XYLocation;
  * @author Ruediger Lunde
  * 
  */
-public class TicTacToeGame implements Game<TicTacToeState, XYLocation, String> {
+public class TicTacToeGame implements HashedGame<TicTacToeState, XYLocation, String> {
 
 	private  TicTacToeState initialState = new TicTacToeState();
 
@@ -44,6 +44,11 @@ public class TicTacToeGame implements Game<TicTacToeState, XYLocation, String> {
 		return result;
 	}
 
+	@Override
+	public long getHash(TicTacToeState state) {
+		return state.getZobristHash();
+	}
+
 	@Override
 	public boolean isTerminal(TicTacToeState state) {
 		return state.getUtility() != -1;
@@ -5,11 +5,13 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
 
+import aima.core.search.adversarial.Zobrist;
 import aima.core.util.datastructure.XYLocation;
 
 /**
  * A state of the Tic-tac-toe game is characterized by a board containing
  * symbols X and O, the next player to move, and an utility information.
+ * The state maintains a Zobrist hash of the marks and the player to move.
  * 
  * @author Ruediger Lunde
  * 
@@ -18,11 +20,13 @@ public class TicTacToeState implements Cloneable {
 	public static final String O = "O";
 	public static final String X = "X";
 	public static final String EMPTY = "-";
+	private static final long O_TO_MOVE_KEY = Zobrist.key(-1);
 	//
 	private String[] board;
 
 	private String playerToMove;
 	private double utility = -1; // 1: win for X, 0: win for O, 0.5: draw
+	private long hash;
 	
 	public TicTacToeState(){
 		this.board = new String[] { EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY, EMPTY };
@@ -34,6 +38,11 @@ public class TicTacToeState implements Cloneable {
 		this.playerToMove = (Objects.equals(playerToMove, X) ? O : X);
 		analyzeUtility();
 		this.playerToMove = playerToMove;
+		for (int i = 0; i < 9; i++)
+			if (!Objects.equals(board[i], EMPTY))
+				hash ^= getKey(i, board[i]);
+		if (Objects.equals(playerToMove, O))
+			hash ^= O_TO_MOVE_KEY;
 	}
 
 	public String getPlayerToMove() {
@@ -52,6 +61,14 @@ public class TicTacToeState implements Cloneable {
 		return utility;
 	}
 
+	/**
+	 * Returns a 64-bit hash of the marks and the player to move, which is
+	 * updated incrementally.
+	 */
+	public long getZobristHash() {
+		return hash;
+	}
+
 	public void mark(XYLocation action) {
 		mark(action.getX(), action.getY());
 	}
@@ -59,6 +76,7 @@ public class TicTacToeState implements Cloneable {
 	public void mark(int col, int row) {
 		if (utility == -1 && Objects.equals(getValue(col, row), EMPTY)) {
 			board[getAbsPosition(col, row)] = playerToMove;
+			hash ^= getKey(getAbsPosition(col, row), playerToMove) ^ O_TO_MOVE_KEY;
 			analyzeUtility();
 			playerToMove = (Objects.equals(playerToMove, X) ? O : X);
 		}
@@ -182,4 +200,8 @@ public class TicTacToeState implements Cloneable {
 	private int getAbsPosition(int col, int row) {
 		return row * 3 + col;
 	}
+
+	private static long getKey(int position, String symbol) {
+		return Zobrist.key(position, Objects.equals(symbol, X) ? 0 : 1, 2);
+	}
 }
@@ -47,6 +47,7 @@ public class AlphaBetaSearch<S, A, P> implements AdversarialSearch<S, A> {
 
     Game<S, A, P> game;
     private Metrics metrics = new Metrics();
+    private Metrics.Counter nodesExpanded = metrics.counter(METRICS_NODES_EXPANDED);
 
     /**
      * Creates a new search object for a given game.
@@ -63,6 +64,7 @@ public class AlphaBetaSearch<S, A, P> implements AdversarialSearch<S, A> {
     @Override
     public A makeDecision(S state) {
         metrics = new Metrics();
+        nodesExpanded = metrics.counter(METRICS_NODES_EXPANDED);
         A result = null;
         double resultValue = Double.NEGATIVE_INFINITY;
         P player = game.getPlayer(state);
@@ -77,7 +79,7 @@ public class AlphaBetaSearch<S, A, P> implements AdversarialSearch<S, A> {
     }
 
     public double maxValue(S state, P player, double alpha, double beta) {
-        metrics.incrementInt(METRICS_NODES_EXPANDED);
+        nodesExpanded.increment();
         if (game.isTerminal(state))
             return game.getUtility(state, player);
         double value = Double.NEGATIVE_INFINITY;
@@ -91,7 +93,7 @@ public class AlphaBetaSearch<S, A, P> implements AdversarialSearch<S, A> {
     }
 
     public double minValue(S state, P player, double alpha, double beta) {
-        metrics.incrementInt(METRICS_NODES_EXPANDED);
+        nodesExpanded.increment();
         if (game.isTerminal(state))
             return game.getUtility(state, player);
         double value = Double.POSITIVE_INFINITY;
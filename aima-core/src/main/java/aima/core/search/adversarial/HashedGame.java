@@ -0,0 +1,17 @@
+package aima.core.search.adversarial;
+
+/**
+ * A game which provides 64-bit hash values for its states. Equal states must
+ * have equal hash values, different states should have different hash values
+ * with high probability. Hash values should be maintained incrementally by the
+ * states (e.g. with {@link Zobrist} keys), so that they are available in
+ * constant time. Searches use them to recognize transpositions.
+ *
+ * @param <S> Type which is used for states in the game.
+ * @param <A> Type which is used for actions in the game.
+ * @param <P> Type which is used for players in the game.
+ */
+public interface HashedGame<S, A, P> extends Game<S, A, P> {
+
+    long getHash(S state);
+}
@@ -1,15 +1,24 @@
 package aima.core.search.adversarial;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import aima.core.search.framework.Metrics;
+import aima.core.util.Tasks;
 
 /**
  * Implements an iterative deepening Minimax search with alpha-beta pruning and
  * action ordering. Maximal computation time is specified in seconds. The
  * algorithm is implemented as template method and can be configured and tuned
- * by subclassing.
+ * by subclassing. Optionally, a {@link TranspositionTable} can be used to
+ * reuse results of earlier iterations and to recognize transpositions. It
+ * also provides the best action of the previous iteration for move ordering.
+ * Optionally, a {@link MoveOrdering} refines the action order below the root
+ * with the principal variation, killer moves, and history scores. The search
+ * stops early if the executing task is cancelled (see
+ * {@link Tasks#currIsCancelled()}).
  *
  * @param <S> Type which is used for states in the game.
  * @param <A> Type which is used for actions in the game.
@@ -20,6 +29,10 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
 
     public final static String METRICS_NODES_EXPANDED = "nodesExpanded";
     public final static String METRICS_MAX_DEPTH = "maxDepth";
+    public final static String METRICS_TRANSPOSITION_HITS = "transpositionHits";
+    public final static String METRICS_CUTOFFS = "cutoffs";
+    public final static String METRICS_FIRST_MOVE_CUTOFFS = "firstMoveCutoffs";
+    public final static String METRICS_FIRST_MOVE_CUTOFF_RATE = "firstMoveCutoffRate";
 
     protected Game<S, A, P> game;
     protected double utilMax;
@@ -28,8 +41,16 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
     private boolean heuristicEvaluationUsed; // indicates that non-terminal nodes have been evaluated.
     private Timer timer;
     private boolean logEnabled;
+    private TranspositionTable<A> transpositionTable;
+    private long playerKey; // separates values computed for different players
+    private MoveOrdering<S, A> moveOrdering;
 
     private Metrics metrics = new Metrics();
+    private Metrics.Counter nodesExpanded = metrics.counter(METRICS_NODES_EXPANDED);
+    private Metrics.Counter maxDepth = metrics.counter(METRICS_MAX_DEPTH);
+    private Metrics.Counter transpositionHits = metrics.counter(METRICS_TRANSPOSITION_HITS);
+    private Metrics.Counter cutoffs = metrics.counter(METRICS_CUTOFFS);
+    private Metrics.Counter firstMoveCutoffs = metrics.counter(METRICS_FIRST_MOVE_CUTOFFS);
 
     /**
      * Creates a new search object for a given game.
@@ -72,6 +93,36 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
         logEnabled = b;
     }
 
+    /**
+     * Sets a transposition table which is used by subsequent decisions, or
+     * null to disable its use. Entries are kept between decisions. The hashes
+     * of a {@link HashedGame} are used if available. For other games, hash
+     * codes of states are used, and states are stored in the table to verify
+     * matches.
+     */
+    public void setTranspositionTable(TranspositionTable<A> table) {
+        transpositionTable = table;
+    }
+
+    public TranspositionTable<A> getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    /**
+     * Sets a move ordering which is used below the root by subsequent
+     * decisions, or null to disable its use. Nodes directly above the depth
+     * limit keep the order of {@link #orderActions(Object, List, Object, int)},
+     * as their children are only evaluated and ordering costs more than it
+     * saves there.
+     */
+    public void setMoveOrdering(MoveOrdering<S, A> moveOrdering) {
+        this.moveOrdering = moveOrdering;
+    }
+
+    public MoveOrdering<S, A> getMoveOrdering() {
+        return moveOrdering;
+    }
+
     /**
      * Template method controlling the search. It is based on iterative
      * deepening and tries to make to a good decision in limited time. Credit
@@ -80,14 +131,41 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
      */
     @Override
     public A makeDecision(S state) {
+        if (transpositionTable != null)
+            transpositionTable.newSearch();
+        return makeDecision(state, 0);
+    }
+
+    /**
+     * Makes a decision without starting a new transposition table search.
+     * Helpers of a parallel search (index greater 0) start at depth 1 or 2
+     * and examine the actions of the state in rotated order, so that they
+     * diverge from the main search.
+     */
+    A makeDecision(S state, int helperIdx) {
         metrics = new Metrics();
+        nodesExpanded = metrics.counter(METRICS_NODES_EXPANDED);
+        maxDepth = metrics.counter(METRICS_MAX_DEPTH);
+        transpositionHits = metrics.counter(METRICS_TRANSPOSITION_HITS);
+        cutoffs = metrics.counter(METRICS_CUTOFFS);
+        firstMoveCutoffs = metrics.counter(METRICS_FIRST_MOVE_CUTOFFS);
         StringBuffer logText = null;
         P player = game.getPlayer(state);
+        if (transpositionTable != null)
+            playerKey = Zobrist.key(Integer.MIN_VALUE + Arrays.asList(game.getPlayers()).indexOf(player));
+        if (moveOrdering != null)
+            moveOrdering.startDecision();
         List<A> results = orderActions(state, game.getActions(state), player, 0);
+        if (helperIdx > 0 && results.size() > 1) {
+            results = new ArrayList<>(results);
+            Collections.rotate(results, -helperIdx);
+        }
         timer.start();
-        currDepthLimit = 0;
+        currDepthLimit = helperIdx % 2;
         do {
             incrementDepthLimit();
+            if (moveOrdering != null)
+                moveOrdering.startIteration(state, game, currDepthLimit);
             if (logEnabled)
                 logText = new StringBuffer("depth " + currDepthLimit + ": ");
             heuristicEvaluationUsed = false;
@@ -97,6 +175,8 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
                         Double.POSITIVE_INFINITY, 1);
                 if (timer.timeOutOccurred())
                     break; // exit from action loop
+                if (moveOrdering != null && (newResults.size() == 0 || value > newResults.utilValues.get(0)))
+                    moveOrdering.updatePv(action, 0);
                 newResults.add(action, value);
                 if (logEnabled)
                     logText.append(action).append("->").append(value).append(" ");
@@ -114,22 +194,34 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
                 }
             }
         } while (!timer.timeOutOccurred() && heuristicEvaluationUsed);
+        metrics.set(METRICS_FIRST_MOVE_CUTOFF_RATE,
+                cutoffs.get() > 0 ? (double) firstMoveCutoffs.get() / cutoffs.get() : 0);
         return results.get(0);
     }
 
     // returns an utility value
     public double maxValue(S state, P player, double alpha, double beta, int depth) {
         updateMetrics(depth);
+        if (moveOrdering != null)
+            moveOrdering.startNode(depth);
         if (game.isTerminal(state) || depth >= currDepthLimit || timer.timeOutOccurred()) {
             return eval(state, player);
+        } else if (transpositionTable != null) {
+            return maxValueWithTable(state, player, alpha, beta, depth);
         } else {
             double value = Double.NEGATIVE_INFINITY;
-            for (A action : orderActions(state, game.getActions(state), player, depth)) {
+            int actionIdx = 0;
+            for (A action : orderActions(state, game.getActions(state), player, depth, null, true)) {
                 value = Math.max(value, minValue(game.getResult(state, action), //
                         player, alpha, beta, depth + 1));
-                if (value >= beta)
+                if (value >= beta) {
+                    recordCutoff(action, depth, actionIdx, true);
                     return value;
+                }
+                if (value > alpha)
+                    recordImprovement(action, depth);
                 alpha = Math.max(alpha, value);
+                actionIdx++;
             }
             return value;
         }
@@ -138,24 +230,163 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
     // returns an utility value
     public double minValue(S state, P player, double alpha, double beta, int depth) {
         updateMetrics(depth);
+        if (moveOrdering != null)
+            moveOrdering.startNode(depth);
         if (game.isTerminal(state) || depth >= currDepthLimit || timer.timeOutOccurred()) {
             return eval(state, player);
+        } else if (transpositionTable != null) {
+            return minValueWithTable(state, player, alpha, beta, depth);
         } else {
             double value = Double.POSITIVE_INFINITY;
-            for (A action : orderActions(state, game.getActions(state), player, depth)) {
+            int actionIdx = 0;
+            for (A action : orderActions(state, game.getActions(state), player, depth, null, false)) {
                 value = Math.min(value, maxValue(game.getResult(state, action), //
                         player, alpha, beta, depth + 1));
-                if (value <= alpha)
+                if (value <= alpha) {
+                    recordCutoff(action, depth, actionIdx, false);
                     return value;
+                }
+                if (value < beta)
+                    recordImprovement(action, depth);
                 beta = Math.min(beta, value);
+                actionIdx++;
             }
             return value;
         }
     }
 
+    private double maxValueWithTable(S state, P player, double alpha, double beta, int depth) {
+        long hash = getHash(state);
+        S verifiedState = game instanceof HashedGame ? null : state;
+        TranspositionTable.Entry<A> entry = verifiedState != null ? transpositionTable.probe(hash, verifiedState)
+                : transpositionTable.probe(hash);
+        if (entry != null && isCutoff(entry, alpha, beta, depth))
+            return entry.getValue();
+        boolean outerHeuristicEvaluationUsed = heuristicEvaluationUsed;
+        heuristicEvaluationUsed = false;
+        double alphaOrig = alpha;
+        double value = Double.NEGATIVE_INFINITY;
+        A bestMove = null;
+        int actionIdx = 0;
+        for (A action : orderActions(state, game.getActions(state), player, depth, entry, true)) {
+            double childValue = minValue(game.getResult(state, action), player, alpha, beta, depth + 1);
+            if (childValue > value || bestMove == null) {
+                value = childValue;
+                bestMove = action;
+            }
+            if (value >= beta) {
+                recordCutoff(action, depth, actionIdx, true);
+                break;
+            }
+            if (value > alpha)
+                recordImprovement(action, depth);
+            alpha = Math.max(alpha, value);
+            actionIdx++;
+        }
+        // after a fail low, no move is known to be good
+        if (value <= alphaOrig)
+            return store(hash, verifiedState, depth, value, TranspositionTable.UPPER_BOUND, null,
+                    outerHeuristicEvaluationUsed);
+        byte bound = value >= beta ? TranspositionTable.LOWER_BOUND : TranspositionTable.EXACT;
+        return store(hash, verifiedState, depth, value, bound, bestMove, outerHeuristicEvaluationUsed);
+    }
+
+    private double minValueWithTable(S state, P player, double alpha, double beta, int depth) {
+        long hash = getHash(state);
+        S verifiedState = game instanceof HashedGame ? null : state;
+        TranspositionTable.Entry<A> entry = verifiedState != null ? transpositionTable.probe(hash, verifiedState)
+                : transpositionTable.probe(hash);
+        if (entry != null && isCutoff(entry, alpha, beta, depth))
+            return entry.getValue();
+        boolean outerHeuristicEvaluationUsed = heuristicEvaluationUsed;
+        heuristicEvaluationUsed = false;
+        double betaOrig = beta;
+        double value = Double.POSITIVE_INFINITY;
+        A bestMove = null;
+        int actionIdx = 0;
+        for (A action : orderActions(state, game.getActions(state), player, depth, entry, false)) {
+            double childValue = maxValue(game.getResult(state, action), player, alpha, beta, depth + 1);
+            if (childValue < value || bestMove == null) {
+                value = childValue;
+                bestMove = action;
+            }
+            if (value <= alpha) {
+                recordCutoff(action, depth, actionIdx, false);
+                break;
+            }
+            if (value < beta)
+                recordImprovement(action, depth);
+            beta = Math.min(beta, value);
+            actionIdx++;
+        }
+        // after a fail high, no move is known to be good
+        if (value >= betaOrig)
+            return store(hash, verifiedState, depth, value, TranspositionTable.LOWER_BOUND, null,
+                    outerHeuristicEvaluationUsed);
+        byte bound = value <= alpha ? TranspositionTable.UPPER_BOUND : TranspositionTable.EXACT;
+        return store(hash, verifiedState, depth, value, bound, bestMove, outerHeuristicEvaluationUsed);
+    }
+
+    /**
+     * Returns the hash of the state for the player to decide. Hash codes of
+     * states are spread over 64 bits if the game provides no hashes.
+     */
+    private long getHash(S state) {
+        long hash = game instanceof HashedGame ? ((HashedGame<S, A, P>) game).getHash(state)
+                : Zobrist.key(state.hashCode());
+        return hash ^ playerKey;
+    }
+
+    /**
+     * Checks whether the entry makes a search of the state unnecessary. Values
+     * of entries with smaller depth can only be used if they are proven.
+     */
+    private boolean isCutoff(TranspositionTable.Entry<A> entry, double alpha, double beta, int depth) {
+        if (entry.getDepth() < currDepthLimit - depth && !entry.isProven())
+            return false;
+        double value = entry.getValue();
+        boolean result = entry.getBound() == TranspositionTable.EXACT
+                || entry.getBound() == TranspositionTable.LOWER_BOUND && value >= beta
+                || entry.getBound() == TranspositionTable.UPPER_BOUND && value <= alpha;
+        if (result) {
+            transpositionHits.increment();
+            if (!entry.isProven())
+                heuristicEvaluationUsed = true;
+        }
+        return result;
+    }
+
+    /**
+     * Stores the result unless it is unreliable because of a time-out, and
+     * restores the heuristic evaluation flag of the enclosing search.
+     */
+    private double store(long hash, S verifiedState, int depth, double value, byte bound, A bestMove,
+                         boolean outerHeuristicEvaluationUsed) {
+        if (!timer.timeOutOccurred())
+            transpositionTable.store(hash, verifiedState, currDepthLimit - depth, value, bound, bestMove,
+                    !heuristicEvaluationUsed);
+        heuristicEvaluationUsed |= outerHeuristicEvaluationUsed;
+        return value;
+    }
+
+    /** Counts a cutoff and records it for move ordering. */
+    private void recordCutoff(A action, int depth, int actionIdx, boolean isMaxNode) {
+        cutoffs.increment();
+        if (actionIdx == 0)
+            firstMoveCutoffs.increment();
+        if (moveOrdering != null)
+            moveOrdering.recordCutoff(action, depth, currDepthLimit - depth, isMaxNode);
+    }
+
+    /** Records an action which improved the value of a node within the search window. */
+    private void recordImprovement(A action, int depth) {
+        if (moveOrdering != null)
+            moveOrdering.updatePv(action, depth);
+    }
+
     private void updateMetrics(int depth) {
-        metrics.incrementInt(METRICS_NODES_EXPANDED);
-        metrics.set(METRICS_MAX_DEPTH, Math.max(metrics.getInt(METRICS_MAX_DEPTH), depth));
+        nodesExpanded.increment();
+        maxDepth.updateMax(depth);
     }
 
     /**
@@ -217,6 +448,28 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
         return actions;
     }
 
+    /**
+     * Orders actions with {@link #orderActions(Object, List, Object, int)},
+     * refines the order with the move ordering if available and the remaining
+     * depth is greater than one, and moves the best action of the
+     * transposition table entry to the front.
+     */
+    private List<A> orderActions(S state, List<A> actions, P player, int depth, TranspositionTable.Entry<A> entry,
+                                 boolean isMaxNode) {
+        List<A> result = orderActions(state, actions, player, depth);
+        if (moveOrdering != null && currDepthLimit - depth > 1)
+            result = moveOrdering.order(state, result, depth, isMaxNode);
+        A bestMove = entry != null ? entry.getBestMove() : null;
+        if (bestMove != null) {
+            int idx = result.indexOf(bestMove);
+            if (idx > 0) {
+                result = new ArrayList<>(result);
+                result.add(0, result.remove(idx));
+            }
+        }
+        return result;
+    }
+
     ///////////////////////////////////////////////////////////////////////////////////////////
     // nested helper classes
 
@@ -233,7 +486,7 @@ public class IterativeDeepeningAlphaBetaSearch<S, A, P> implements AdversarialSe
         }
 
         boolean timeOutOccurred() {
-            return System.currentTimeMillis() > startTime + duration;
+            return System.currentTimeMillis() > startTime + duration || Tasks.currIsCancelled();
         }
     }
 
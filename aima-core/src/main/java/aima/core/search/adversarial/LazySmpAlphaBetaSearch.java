@@ -0,0 +1,147 @@
+package aima.core.search.adversarial;
+
+import aima.core.search.framework.Metrics;
+import aima.core.util.TaskScope;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
+
+/**
+ * Parallel iterative deepening alpha-beta search based on Lazy SMP. Several
+ * {@link IterativeDeepeningAlphaBetaSearch} objects search the same state
+ * concurrently and share a {@link TranspositionTable}. There is no further
+ * communication between them. The main search runs in the calling thread and
+ * makes the decision. Helper searches run as child tasks of a
+ * {@link TaskScope}. They start at different depths and with different root
+ * action orders, and fill the table with results which the main search
+ * would need later. When the main search is finished, the helpers are
+ * cancelled.
+ * <br>
+ * The searches are created by a factory, so subclasses with game-specific
+ * evaluation and action ordering (e.g. ConnectFourAIPlayer) can be used. Each
+ * search keeps its own utility bounds and time limit. Game and evaluation
+ * functions must be thread-safe. Any game can be used, but a
+ * {@link HashedGame} avoids storing states in the table.
+ * <br>
+ * Metrics contain the metrics of each search with prefix "thread" + index +
+ * "." (index 0 for the main search), the total number of expanded nodes, and
+ * the node speedup, which is the number of expanded nodes divided by the
+ * number of nodes expanded by the main search. The node speedup is an upper
+ * bound for the effective speedup, as helpers partly repeat the work of
+ * others. The effective speedup is the ratio of the times needed by one and
+ * by several threads to complete a given depth.
+ *
+ * @param <S> Type which is used for states in the game.
+ * @param <A> Type which is used for actions in the game.
+ * @param <P> Type which is used for players in the game.
+ */
+public class LazySmpAlphaBetaSearch<S, A, P> implements AdversarialSearch<S, A> {
+
+    public final static String METRICS_NODES_EXPANDED = "nodesExpanded";
+    public final static String METRICS_MAX_DEPTH = "maxDepth";
+    public final static String METRICS_NODE_SPEEDUP = "nodeSpeedup";
+
+    private final List<IterativeDeepeningAlphaBetaSearch<S, A, P>> searches = new ArrayList<>();
+    private final TranspositionTable<A> transpositionTable;
+    private Metrics metrics = new Metrics();
+
+    /**
+     * Creates a parallel search for a given game, which uses plain iterative
+     * deepening alpha-beta searches.
+     *
+     * @param game       The game.
+     * @param utilMin    Utility value of worst state for this player.
+     * @param utilMax    Utility value of best state for this player.
+     * @param time       Maximal computation time in seconds.
+     * @param numThreads Number of concurrent searches.
+     */
+    public static <STATE, ACTION, PLAYER> LazySmpAlphaBetaSearch<STATE, ACTION, PLAYER> createFor(
+            Game<STATE, ACTION, PLAYER> game, double utilMin, double utilMax, int time, int numThreads) {
+        return new LazySmpAlphaBetaSearch<>(() -> new IterativeDeepeningAlphaBetaSearch<>(game, utilMin, utilMax,
+                time), numThreads, new TranspositionTable<>(1 << 20));
+    }
+
+    /**
+     * Creates a parallel search.
+     *
+     * @param searchFactory      Creates the searches. Each call must return a
+     *                           new object.
+     * @param numThreads         Number of concurrent searches.
+     * @param transpositionTable Table which is shared by the searches.
+     */
+    public LazySmpAlphaBetaSearch(Supplier<? extends IterativeDeepeningAlphaBetaSearch<S, A, P>> searchFactory,
+                                  int numThreads, TranspositionTable<A> transpositionTable) {
+        if (numThreads < 1)
+            throw new IllegalArgumentException("At least one thread is needed.");
+        this.transpositionTable = transpositionTable;
+        for (int i = 0; i < numThreads; i++) {
+            IterativeDeepeningAlphaBetaSearch<S, A, P> search = searchFactory.get();
+            search.setTranspositionTable(transpositionTable);
+            searches.add(search);
+        }
+    }
+
+    /** Returns the number of concurrent searches. */
+    public int getNumThreads() {
+        return searches.size();
+    }
+
+    public TranspositionTable<A> getTranspositionTable() {
+        return transpositionTable;
+    }
+
+    @Override
+    public A makeDecision(S state) {
+        transpositionTable.newSearch();
+        A result;
+        try (TaskScope scope = TaskScope.open()) {
+            for (int i = 1; i < searches.size(); i++) {
+                IterativeDeepeningAlphaBetaSearch<S, A, P> helper = searches.get(i);
+                int helperIdx = i;
+                scope.fork(() -> helper.makeDecision(state, helperIdx));
+            }
+            result = searches.get(0).makeDecision(state, 0);
+            scope.cancel();
+            scope.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for helper searches.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException)
+                throw (RuntimeException) e.getCause();
+            throw new IllegalStateException("Helper search failed.", e.getCause());
+        }
+        updateMetrics();
+        return result;
+    }
+
+    /**
+     * Returns the metrics of all searches, the total number of expanded nodes,
+     * the maximal depth of the main search, and the node speedup.
+     */
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    //
+    // PRIVATE METHODS
+    //
+
+    private void updateMetrics() {
+        metrics = new Metrics();
+        long total = 0;
+        for (int i = 0; i < searches.size(); i++) {
+            Metrics m = searches.get(i).getMetrics();
+            metrics.merge("thread" + i + ".", m);
+            total += m.getLong(IterativeDeepeningAlphaBetaSearch.METRICS_NODES_EXPANDED);
+        }
+        Metrics main = searches.get(0).getMetrics();
+        long mainNodes = main.getLong(IterativeDeepeningAlphaBetaSearch.METRICS_NODES_EXPANDED);
+        metrics.set(METRICS_NODES_EXPANDED, total);
+        metrics.set(METRICS_MAX_DEPTH, main.getLong(IterativeDeepeningAlphaBetaSearch.METRICS_MAX_DEPTH));
+        metrics.set(METRICS_NODE_SPEEDUP, mainNodes > 0 ? (double) total / mainNodes : 1.0);
+    }
+}
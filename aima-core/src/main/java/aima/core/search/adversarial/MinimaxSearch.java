@@ -45,6 +45,7 @@ public class MinimaxSearch<S, A, P> implements AdversarialSearch<S, A> {
 
 	private Game<S, A, P> game;
 	private Metrics metrics = new Metrics();
+	private Metrics.Counter nodesExpanded = metrics.counter(METRICS_NODES_EXPANDED);
 
 	/**
 	 * Creates a new search object for a given game.
@@ -60,6 +61,7 @@ public class MinimaxSearch<S, A, P> implements AdversarialSearch<S, A> {
 	@Override
 	public A makeDecision(S state) {
 		metrics = new Metrics();
+		nodesExpanded = metrics.counter(METRICS_NODES_EXPANDED);
 		A result = null;
 		double resultValue = Double.NEGATIVE_INFINITY;
 		P player = game.getPlayer(state);
@@ -84,7 +86,7 @@ public class MinimaxSearch<S, A, P> implements AdversarialSearch<S, A> {
 //    }
 
 	public double maxValue(S state, P player) { // returns an utility value
-		metrics.incrementInt(METRICS_NODES_EXPANDED);
+		nodesExpanded.increment();
 		if (game.isTerminal(state))
 			return game.getUtility(state, player);
 		return game.getActions(state).stream()
@@ -93,7 +95,7 @@ public class MinimaxSearch<S, A, P> implements AdversarialSearch<S, A> {
 	}
 
 	public double minValue(S state, P player) { // returns an utility value
-		metrics.incrementInt(METRICS_NODES_EXPANDED);
+		nodesExpanded.increment();
 		if (game.isTerminal(state))
 			return game.getUtility(state, player);
 		return game.getActions(state).stream()
@@ -1,12 +1,14 @@
 package aima.core.search.adversarial;
 
-import aima.core.search.framework.GameTree;
 import aima.core.search.framework.Metrics;
-import aima.core.search.framework.Node;
-import aima.core.search.framework.NodeFactory;
+import aima.core.util.Tasks;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
 
 /**
@@ -28,7 +30,16 @@ import java.util.Random;
  * Figure ?.? The Monte Carlo tree search algorithm. A game tree, tree, is initialized, and
  * then we repeat the cycle of SELECT / EXPAND / SIMULATE/ BACKPROPAGATE until we run  out
  * of time, and return the move that led to the node with the highest number of playouts.
- *
+ * <br>
+ * This implementation selects children by UCB1 (UCT). Each node stores the
+ * summed utility of the playouts through it from the point of view of the
+ * player who made the move leading to it, so utilities should be in [0, 1].
+ * Nodes are kept in a pool of parallel arrays and are addressed by index.
+ * Each node stores the actions which have not been tried yet, so expansion
+ * computes one successor state only. The budget of a decision is a number of
+ * iterations, a time limit, or both. After a decision, the subtree below the
+ * state which results from the opponent's reply is reused by the next
+ * decision, if that state can be found in the tree.
  *
  * @author Suyash Jain
  *
@@ -39,105 +50,320 @@ import java.util.Random;
  * @param <P>
  *            Type which is used for players in the game.
  */
-
 public class MonteCarloTreeSearch<S, A, P> implements AdversarialSearch<S, A> {
-	private int iterations = 0;
+
+	public static final String METRICS_PLAYOUTS = "playouts";
+	public static final String METRICS_PLAYOUTS_PER_SECOND = "playoutsPerSecond";
+	public static final String METRICS_TREE_SIZE = "treeSize";
+	public static final String METRICS_REUSED_NODES = "reusedNodes";
+
+	private static final int NONE = -1;
+
 	private final Game<S, A, P> game;
-	private final GameTree<S, A> tree;
-	
+	private final List<P> players;
+	private int iterations; // 0 means no limit
+	private long timeLimit; // in milliseconds, 0 means no limit
+	private double explorationConstant = Math.sqrt(2);
+	private Random random = new Random();
+	private Metrics metrics = new Metrics();
+
+	// node pool
+	private int size;
+	private Object[] states;
+	private Object[] actions; // action which leads to the node
+	private Object[] untriedActions; // null if not yet computed
+	private int[] parents;
+	private int[] firstChildren;
+	private int[] nextSiblings;
+	private int[] movers; // index of the player who made the move
+	private int[] visits;
+	private double[] rewards;
+	private int root = NONE;
+
+	/** Creates a search which performs the given number of iterations per decision. */
 	public MonteCarloTreeSearch(Game<S, A, P> game, int iterations) {
 		this.game = game;
+		this.players = Arrays.asList(game.getPlayers());
 		this.iterations = iterations;
-		tree = new GameTree<>();
+		clear(64);
+	}
+
+	/** Creates a search which stops after the given time per decision. */
+	public static <S, A, P> MonteCarloTreeSearch<S, A, P> createWithTimeLimit(Game<S, A, P> game, long millis) {
+		MonteCarloTreeSearch<S, A, P> result = new MonteCarloTreeSearch<>(game, 0);
+		result.setTimeLimit(millis);
+		return result;
+	}
+
+	/** Sets the number of iterations per decision, 0 means no limit. */
+	public void setIterations(int iterations) {
+		this.iterations = iterations;
+	}
+
+	/** Sets the time limit per decision in milliseconds, 0 means no limit. */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
+	/** Sets the constant which weights exploration against exploitation (default sqrt(2)). */
+	public void setExplorationConstant(double c) {
+		explorationConstant = c;
+	}
+
+	/** Sets the random number generator, e.g. a seeded one for reproducible results. */
+	public void setRandom(Random random) {
+		this.random = random;
 	}
-	
+
 	@Override
 	public A makeDecision(S state) {
+		if (iterations <= 0 && timeLimit <= 0)
+			throw new IllegalStateException("Neither iterations nor time limit specified.");
+		long startTime = System.currentTimeMillis();
 		// tree <-- NODE(state)
-		tree.addRoot(state);
+		int reused = reuseSubtree(state);
+		int count = 0;
 		// while TIME-REMAINING() do
-		while (iterations != 0) {
+		do {
 			// leaf <-- SELECT(tree)
-			Node<S, A> leaf = select(tree);
+			int leaf = select();
 			// child <-- EXPAND(leaf)
-			Node<S, A> child = expand(leaf);
+			int child = expand(leaf);
 			// result <-- SIMULATE(child)
-			// result = true if player of root node wins
-			boolean result = simulate(child);
+			double[] result = simulate(child);
 			// BACKPROPAGATE(result, child)
 			backpropagate(result, child);
-			// repeat the four steps for set number of iterations
-			--iterations;
-		}
+			count++;
+		} while ((iterations <= 0 || count < iterations)
+				&& (timeLimit <= 0 || System.currentTimeMillis() - startTime < timeLimit)
+				&& !Tasks.currIsCancelled());
+		long time = Math.max(1, System.currentTimeMillis() - startTime);
+		metrics = new Metrics();
+		metrics.set(METRICS_PLAYOUTS, count);
+		metrics.set(METRICS_PLAYOUTS_PER_SECOND, count * 1000.0 / time);
+		metrics.set(METRICS_TREE_SIZE, size);
+		metrics.set(METRICS_REUSED_NODES, reused);
 		// return the move in ACTIONS(state) whose node has highest number of playouts
-		return bestAction(tree.getRoot());
+		return bestAction();
 	}
-	
-	private Node<S, A> select(GameTree<S, A> gameTree) {
-		Node<S, A> node = gameTree.getRoot();
-		while (!game.isTerminal(node.getState()) && isNodeFullyExpanded(node)) {
-			node = gameTree.getChildWithMaxUCT(node);
+
+	/**
+	 * Returns the number of playouts, playouts per second, the size of the
+	 * tree, and the number of nodes reused from the previous decision.
+	 */
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Adds the number of playouts and the summed rewards of the root's
+	 * children to the statistics, which map actions to pairs of these values.
+	 * Used to merge the trees of several searches.
+	 */
+	void addRootStatistics(Map<A, double[]> statistics) {
+		for (int child = firstChildren[root]; child != NONE; child = nextSiblings[child]) {
+			@SuppressWarnings("unchecked")
+			double[] values = statistics.computeIfAbsent((A) actions[child], a -> new double[2]);
+			values[0] += visits[child];
+			values[1] += rewards[child];
 		}
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	/** Descends from the root by UCT until a node with untried actions or a terminal node is reached. */
+	private int select() {
+		int node = root;
+		while (isFullyExpanded(node) && firstChildren[node] != NONE)
+			node = getChildWithMaxUCT(node);
 		return node;
 	}
-	
-	private Node<S, A> expand(Node<S, A> leaf) {
-		if (game.isTerminal(leaf.getState()))
-			return leaf;
-		else
-			return randomlySelectUnvisitedChild(leaf);
-	}
-	
-	private boolean simulate(Node<S, A> node) {
-		while (!game.isTerminal(node.getState())) {
-			Random rand = new Random();
-			A a = game.getActions(node.getState()).get(rand.nextInt(game.getActions(node.getState()).size()));
-			S result = game.getResult(node.getState(), a);
-			NodeFactory<S, A> nodeFactory = new NodeFactory<>();
-			node = nodeFactory.createNode(result);
+
+	/** Adds a child for a randomly chosen untried action or returns the node if it is terminal. */
+	@SuppressWarnings("unchecked")
+	private int expand(int node) {
+		List<A> untried = (List<A>) untriedActions[node];
+		if (untried.isEmpty())
+			return node;
+		int idx = random.nextInt(untried.size());
+		A action = untried.get(idx);
+		untried.set(idx, untried.get(untried.size() - 1));
+		untried.remove(untried.size() - 1);
+		S state = getState(node);
+		int child = addNode(game.getResult(state, action), action, node, players.indexOf(game.getPlayer(state)));
+		nextSiblings[child] = firstChildren[node];
+		firstChildren[node] = child;
+		return child;
+	}
+
+	/** Plays randomly until the game ends and returns the utilities for all players. */
+	private double[] simulate(int node) {
+		S state = getState(node);
+		while (!game.isTerminal(state)) {
+			List<A> actions = game.getActions(state);
+			state = game.getResult(state, actions.get(random.nextInt(actions.size())));
 		}
-		return game.getUtility(node.getState(), game.getPlayer(tree.getRoot().getState())) > 0;
-	}
-	
-	private void backpropagate(boolean result, Node<S, A> node) {
-		tree.updateStats(result, node);
-		if (tree.getParent(node) != null) backpropagate(result, tree.getParent(node));
-	}
-	
-	private A bestAction(Node<S, A> root) {
-		Node<S, A> bestChild = tree.getChildWithMaxPlayouts(root);
-		for (A a : game.getActions(root.getState())) {
-			S result = game.getResult(root.getState(), a);
-			if (result.equals(bestChild.getState())) return a;
+		double[] result = new double[players.size()];
+		for (int i = 0; i < result.length; i++)
+			result[i] = game.getUtility(state, players.get(i));
+		return result;
+	}
+
+	private void backpropagate(double[] result, int node) {
+		for (; node != NONE; node = parents[node]) {
+			visits[node]++;
+			if (movers[node] != NONE)
+				rewards[node] += result[movers[node]];
 		}
-		return null;
-	}
-	
-	private boolean isNodeFullyExpanded(Node<S, A> node) {
-		List<S> visitedChildren = tree.getVisitedChildren(node);
-		for (A a : game.getActions(node.getState())) {
-			S result = game.getResult(node.getState(), a);
-			if (!visitedChildren.contains(result)) {
-				return false;
+	}
+
+	private int getChildWithMaxUCT(int node) {
+		double logN = Math.log(visits[node]);
+		int best = NONE;
+		double bestUct = Double.NEGATIVE_INFINITY;
+		int ties = 0;
+		for (int child = firstChildren[node]; child != NONE; child = nextSiblings[child]) {
+			double uct = rewards[child] / visits[child] + explorationConstant * Math.sqrt(logN / visits[child]);
+			if (uct > bestUct) {
+				best = child;
+				bestUct = uct;
+				ties = 1;
+			} else if (uct == bestUct && random.nextInt(++ties) == 0) {
+				best = child; // reservoir sampling among equally good children
 			}
 		}
-		return true;
-	}
-	
-	
-	private Node<S, A> randomlySelectUnvisitedChild(Node<S, A> node) {
-		List<S> unvisitedChildren = new ArrayList<>();
-		List<S> visitedChildren = tree.getVisitedChildren(node);
-		for (A a : game.getActions(node.getState())) {
-			S result = game.getResult(node.getState(), a);
-			if (!visitedChildren.contains(result)) unvisitedChildren.add(result);
+		return best;
+	}
+
+	@SuppressWarnings("unchecked")
+	private A bestAction() {
+		int best = NONE;
+		for (int child = firstChildren[root]; child != NONE; child = nextSiblings[child]) {
+			if (best == NONE || visits[child] > visits[best]
+					|| visits[child] == visits[best] && rewards[child] > rewards[best])
+				best = child;
 		}
-		Random rand = new Random();
-		return tree.addChild(node, unvisitedChildren.get(rand.nextInt(unvisitedChildren.size())));
+		return best != NONE ? (A) actions[best] : null;
 	}
-	
-	@Override
-	public Metrics getMetrics() {
-		return null;
+
+	/**
+	 * Makes the node with the given state the root. If the state is a child
+	 * or grandchild of the current root, its subtree is kept and compacted.
+	 * Otherwise, a new tree is started. Returns the number of reused nodes.
+	 */
+	private int reuseSubtree(S state) {
+		int newRoot = NONE;
+		if (root != NONE) {
+			if (Objects.equals(states[root], state))
+				newRoot = root;
+			for (int child = firstChildren[root]; child != NONE && newRoot == NONE; child = nextSiblings[child]) {
+				if (Objects.equals(states[child], state))
+					newRoot = child;
+				for (int gc = firstChildren[child]; gc != NONE && newRoot == NONE; gc = nextSiblings[gc])
+					if (Objects.equals(states[gc], state))
+						newRoot = gc;
+			}
+		}
+		if (newRoot == NONE) {
+			clear(64);
+			root = addNode(state, null, NONE, NONE);
+			return 0;
+		}
+		compact(newRoot);
+		return size;
+	}
+
+	/** Copies the subtree of the node into new arrays, in breadth-first order. */
+	private void compact(int newRoot) {
+		int[] order = new int[size];
+		int[] newIndex = new int[size];
+		int count = 0;
+		order[count++] = newRoot;
+		for (int i = 0; i < count; i++)
+			for (int child = firstChildren[order[i]]; child != NONE; child = nextSiblings[child])
+				order[count++] = child;
+		for (int i = 0; i < count; i++)
+			newIndex[order[i]] = i;
+
+		Object[] oldStates = states, oldActions = actions, oldUntried = untriedActions;
+		int[] oldParents = parents, oldFirstChildren = firstChildren, oldNextSiblings = nextSiblings,
+				oldMovers = movers, oldVisits = visits;
+		double[] oldRewards = rewards;
+		clear(Math.max(64, 2 * count));
+		for (int i = 0; i < count; i++) {
+			int old = order[i];
+			states[i] = oldStates[old];
+			actions[i] = oldActions[old];
+			untriedActions[i] = oldUntried[old];
+			parents[i] = i == 0 ? NONE : newIndex[oldParents[old]];
+			firstChildren[i] = oldFirstChildren[old] != NONE ? newIndex[oldFirstChildren[old]] : NONE;
+			nextSiblings[i] = i > 0 && oldNextSiblings[old] != NONE ? newIndex[oldNextSiblings[old]] : NONE;
+			movers[i] = oldMovers[old];
+			visits[i] = oldVisits[old];
+			rewards[i] = oldRewards[old];
+		}
+		size = count;
+		root = 0;
+	}
+
+	private int addNode(S state, A action, int parent, int mover) {
+		if (size == states.length)
+			grow();
+		int node = size++;
+		states[node] = state;
+		actions[node] = action;
+		untriedActions[node] = null;
+		parents[node] = parent;
+		firstChildren[node] = NONE;
+		nextSiblings[node] = NONE;
+		movers[node] = mover;
+		visits[node] = 0;
+		rewards[node] = 0;
+		return node;
+	}
+
+	/** Computes the untried actions of a node when it is reached for the first time. */
+	private boolean isFullyExpanded(int node) {
+		if (untriedActions[node] == null) {
+			S state = getState(node);
+			untriedActions[node] = game.isTerminal(state) ? Collections.emptyList()
+					: new ArrayList<>(game.getActions(state));
+		}
+		return ((List<?>) untriedActions[node]).isEmpty();
+	}
+
+	@SuppressWarnings("unchecked")
+	private S getState(int node) {
+		return (S) states[node];
+	}
+
+	private void clear(int capacity) {
+		states = new Object[capacity];
+		actions = new Object[capacity];
+		untriedActions = new Object[capacity];
+		parents = new int[capacity];
+		firstChildren = new int[capacity];
+		nextSiblings = new int[capacity];
+		movers = new int[capacity];
+		visits = new int[capacity];
+		rewards = new double[capacity];
+		size = 0;
+		root = NONE;
+	}
+
+	private void grow() {
+		int capacity = states.length * 2;
+		states = Arrays.copyOf(states, capacity);
+		actions = Arrays.copyOf(actions, capacity);
+		untriedActions = Arrays.copyOf(untriedActions, capacity);
+		parents = Arrays.copyOf(parents, capacity);
+		firstChildren = Arrays.copyOf(firstChildren, capacity);
+		nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+		movers = Arrays.copyOf(movers, capacity);
+		visits = Arrays.copyOf(visits, capacity);
+		rewards = Arrays.copyOf(rewards, capacity);
 	}
 }
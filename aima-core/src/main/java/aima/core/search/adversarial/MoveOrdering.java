@@ -0,0 +1,185 @@
+package aima.core.search.adversarial;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Dynamic action ordering for {@link IterativeDeepeningAlphaBetaSearch}. It
+ * refines the order provided by
+ * {@link IterativeDeepeningAlphaBetaSearch#orderActions(Object, List, Object, int)}
+ * with three heuristics, which learn from the cutoffs of the search:
+ * <ul>
+ * <li>The principal variation (PV) of the previous iteration is tried first.
+ * For each depth, the PV action is used if the state is the PV state of that
+ * depth.</li>
+ * <li>Killer moves: the last two actions which caused a cutoff at the same
+ * depth are tried next, if they are applicable.</li>
+ * <li>History heuristic: the remaining actions are sorted by a score, which
+ * sums up the squared remaining depths of all cutoffs caused by the action.
+ * Max and min nodes use separate scores.</li>
+ * </ul>
+ * Killer moves and the PV are forgotten at the beginning of a decision,
+ * history scores are halved. An object must not be shared by concurrent
+ * searches.
+ *
+ * @param <S> Type which is used for states in the game.
+ * @param <A> Type which is used for actions in the game.
+ */
+public class MoveOrdering<S, A> {
+
+    private static final int NUM_KILLERS = 2;
+
+    private Object[][] killers = new Object[0][];
+    private final List<Map<A, Long>> history = Arrays.asList(new HashMap<>(), new HashMap<>());
+    // triangular PV table, row d contains the best line from depth d
+    private Object[][] pvTable = new Object[0][];
+    private int[] pvLength = new int[0];
+    private final List<A> pv = new ArrayList<>(); // PV of the previous iteration
+    private final List<S> pvStates = new ArrayList<>();
+
+    /**
+     * Forgets killer moves and the PV and halves the history scores. Called at
+     * the beginning of a decision.
+     */
+    public void startDecision() {
+        for (Object[] k : killers)
+            Arrays.fill(k, null);
+        Arrays.fill(pvLength, 0);
+        pv.clear();
+        pvStates.clear();
+        for (Map<A, Long> scores : history) {
+            scores.replaceAll((action, score) -> score / 2);
+            scores.values().removeIf(score -> score == 0);
+        }
+    }
+
+    /**
+     * Takes the PV of the previous iteration and computes the states along
+     * it. Called at the beginning of each iteration.
+     */
+    public void startIteration(S state, Game<S, A, ?> game, int depthLimit) {
+        pv.clear();
+        pvStates.clear();
+        for (int i = 0; pvLength.length > 0 && i < pvLength[0]; i++) {
+            @SuppressWarnings("unchecked")
+            A action = (A) pvTable[0][i];
+            pv.add(action);
+            pvStates.add(state);
+            state = game.getResult(state, action);
+        }
+        if (pvTable.length < depthLimit + 2) {
+            int size = depthLimit + 2;
+            pvTable = new Object[size][size];
+            pvLength = new int[size];
+            Object[][] newKillers = Arrays.copyOf(killers, size);
+            for (int d = killers.length; d < size; d++)
+                newKillers[d] = new Object[NUM_KILLERS];
+            killers = newKillers;
+        }
+        pvLength[0] = 0;
+    }
+
+    /** Starts a new PV at the given depth. Called for each expanded node. */
+    public void startNode(int depth) {
+        if (depth < pvLength.length)
+            pvLength[depth] = depth;
+    }
+
+    /**
+     * Returns the actions in the order PV action, killer moves, and remaining
+     * actions by decreasing history score. The order of the given list is kept
+     * for actions with equal scores.
+     */
+    public List<A> order(S state, List<A> actions, int depth, boolean isMaxNode) {
+        List<A> result = new ArrayList<>(actions);
+        Map<A, Long> scores = history.get(isMaxNode ? 0 : 1);
+        if (!scores.isEmpty() && result.size() > 1)
+            sortByScores(result, scores);
+        int front = 0;
+        if (depth < pv.size() && state.equals(pvStates.get(depth)))
+            front = moveTo(result, pv.get(depth), front);
+        if (depth < killers.length) {
+            for (Object killer : killers[depth])
+                if (killer != null)
+                    front = moveTo(result, killer, front);
+        }
+        return result;
+    }
+
+    /** Records an action which caused a cutoff. */
+    public void recordCutoff(A action, int depth, int remainingDepth, boolean isMaxNode) {
+        if (depth < killers.length) {
+            Object[] k = killers[depth];
+            if (!action.equals(k[0])) {
+                System.arraycopy(k, 0, k, 1, NUM_KILLERS - 1);
+                k[0] = action;
+            }
+        }
+        history.get(isMaxNode ? 0 : 1).merge(action, (long) remainingDepth * remainingDepth, Long::sum);
+    }
+
+    /**
+     * Records an action which improved the value of a node within the
+     * search window. The PV of the node becomes the action followed by the
+     * PV of the resulting state.
+     */
+    public void updatePv(A action, int depth) {
+        if (depth + 1 >= pvLength.length)
+            return; // outside of an iteration
+        Object[] line = pvTable[depth];
+        line[depth] = action;
+        int length = Math.max(pvLength[depth + 1], depth + 1);
+        for (int i = depth + 1; i < length; i++)
+            line[i] = pvTable[depth + 1][i];
+        pvLength[depth] = length;
+    }
+
+    /** Returns the PV found by the last (possibly incomplete) iteration. */
+    @SuppressWarnings("unchecked")
+    public List<A> getPrincipalVariation() {
+        if (pvLength.length == 0)
+            return Collections.emptyList();
+        List<A> result = new ArrayList<>();
+        for (int i = 0; i < pvLength[0]; i++)
+            result.add((A) pvTable[0][i]);
+        return result;
+    }
+
+    //
+    // PRIVATE METHODS
+    //
+
+    /** Stable insertion sort by decreasing score, fast for short lists. */
+    private void sortByScores(List<A> actions, Map<A, Long> scores) {
+        long[] values = new long[actions.size()];
+        for (int i = 0; i < values.length; i++)
+            values[i] = scores.getOrDefault(actions.get(i), 0L);
+        for (int i = 1; i < values.length; i++) {
+            A action = actions.get(i);
+            long value = values[i];
+            int j = i;
+            for (; j > 0 && values[j - 1] < value; j--) {
+                values[j] = values[j - 1];
+                actions.set(j, actions.get(j - 1));
+            }
+            values[j] = value;
+            actions.set(j, action);
+        }
+    }
+
+    /**
+     * Moves the action to the given position if it is contained in the list
+     * behind that position, and returns the next free position.
+     */
+    private int moveTo(List<A> actions, Object action, int pos) {
+        int idx = actions.indexOf(action);
+        if (idx < pos)
+            return pos;
+        actions.add(pos, actions.remove(idx));
+        return pos + 1;
+    }
+}
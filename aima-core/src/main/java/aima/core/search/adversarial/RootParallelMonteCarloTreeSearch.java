@@ -0,0 +1,162 @@
+package aima.core.search.adversarial;
+
+import aima.core.search.framework.Metrics;
+import aima.core.util.TaskScope;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Monte Carlo tree search with root parallelization. Each thread builds its
+ * own tree for the same state with an own random number generator, so there
+ * is no synchronization during the search. Afterwards, the statistics of the
+ * root's children are summed up over all trees, and the action with the most
+ * playouts in total is chosen. Each tree is reused separately by the next
+ * decision (see {@link MonteCarloTreeSearch}).
+ * <br>
+ * An iteration budget is divided among the trees, a time limit applies to
+ * each of them. If the budget is smaller than the number of threads, only as
+ * many trees as iterations are searched, one iteration each, and the
+ * remaining trees sit out the decision. The game must be thread-safe. Metrics
+ * contain the metrics of each searched tree with prefix "thread" + index +
+ * ".", the total number of playouts, playouts per second, and the total tree
+ * size.
+ *
+ * @param <S> Type which is used for states in the game.
+ * @param <A> Type which is used for actions in the game.
+ * @param <P> Type which is used for players in the game.
+ * @see TreeParallelMonteCarloTreeSearch
+ */
+public class RootParallelMonteCarloTreeSearch<S, A, P> implements AdversarialSearch<S, A> {
+
+	private final List<MonteCarloTreeSearch<S, A, P>> searches = new ArrayList<>();
+	/** Number of trees which take part in a decision. */
+	private int numActive;
+	private Metrics metrics = new Metrics();
+
+	/**
+	 * Creates a search which performs the given number of iterations per
+	 * decision in total.
+	 */
+	public RootParallelMonteCarloTreeSearch(Game<S, A, P> game, int iterations, int numThreads) {
+		if (numThreads < 1)
+			throw new IllegalArgumentException("At least one thread is needed.");
+		for (int i = 0; i < numThreads; i++)
+			searches.add(new MonteCarloTreeSearch<>(game, 0));
+		setIterations(iterations);
+	}
+
+	/** Creates a search which stops after the given time per decision. */
+	public static <S, A, P> RootParallelMonteCarloTreeSearch<S, A, P> createWithTimeLimit(Game<S, A, P> game,
+			long millis, int numThreads) {
+		RootParallelMonteCarloTreeSearch<S, A, P> result = new RootParallelMonteCarloTreeSearch<>(game, 0,
+				numThreads);
+		result.setTimeLimit(millis);
+		return result;
+	}
+
+	/** Returns the number of trees which are built concurrently. */
+	public int getNumThreads() {
+		return searches.size();
+	}
+
+	/**
+	 * Sets the total number of iterations per decision, 0 means no limit. A
+	 * budget smaller than the number of threads is spent on fewer trees, as
+	 * each tree needs at least one iteration (0 means no limit).
+	 */
+	public void setIterations(int iterations) {
+		numActive = iterations > 0 ? Math.min(searches.size(), iterations) : searches.size();
+		for (int i = 0; i < numActive; i++) {
+			int share = iterations / numActive + (i < iterations % numActive ? 1 : 0);
+			searches.get(i).setIterations(share);
+		}
+	}
+
+	/** Sets the time limit per decision in milliseconds, 0 means no limit. */
+	public void setTimeLimit(long timeLimit) {
+		for (MonteCarloTreeSearch<S, A, P> search : searches)
+			search.setTimeLimit(timeLimit);
+	}
+
+	/** Sets the constant which weights exploration against exploitation (default sqrt(2)). */
+	public void setExplorationConstant(double c) {
+		for (MonteCarloTreeSearch<S, A, P> search : searches)
+			search.setExplorationConstant(c);
+	}
+
+	/**
+	 * Derives the random number generators of the trees from the given one,
+	 * e.g. a seeded one for reproducible results.
+	 */
+	public void setRandom(Random random) {
+		for (MonteCarloTreeSearch<S, A, P> search : searches)
+			search.setRandom(new Random(random.nextLong()));
+	}
+
+	@Override
+	public A makeDecision(S state) {
+		long startTime = System.currentTimeMillis();
+		try (TaskScope scope = TaskScope.open()) {
+			for (int i = 1; i < numActive; i++) {
+				MonteCarloTreeSearch<S, A, P> search = searches.get(i);
+				scope.fork(() -> search.makeDecision(state));
+			}
+			searches.get(0).makeDecision(state);
+			scope.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for parallel searches.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException("Parallel search failed.", e.getCause());
+		}
+		Map<A, double[]> statistics = new LinkedHashMap<>();
+		for (int i = 0; i < numActive; i++)
+			searches.get(i).addRootStatistics(statistics);
+		updateMetrics(Math.max(1, System.currentTimeMillis() - startTime));
+		A result = null;
+		double[] best = null;
+		for (Map.Entry<A, double[]> entry : statistics.entrySet()) {
+			double[] values = entry.getValue();
+			if (best == null || values[0] > best[0] || values[0] == best[0] && values[1] > best[1]) {
+				result = entry.getKey();
+				best = values;
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the metrics of all trees, the total number of playouts,
+	 * playouts per second, and the total tree size.
+	 */
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private void updateMetrics(long time) {
+		metrics = new Metrics();
+		long playouts = 0;
+		long treeSize = 0;
+		for (int i = 0; i < numActive; i++) {
+			Metrics m = searches.get(i).getMetrics();
+			metrics.merge("thread" + i + ".", m);
+			playouts += m.getLong(MonteCarloTreeSearch.METRICS_PLAYOUTS);
+			treeSize += m.getLong(MonteCarloTreeSearch.METRICS_TREE_SIZE);
+		}
+		metrics.set(MonteCarloTreeSearch.METRICS_PLAYOUTS, playouts);
+		metrics.set(MonteCarloTreeSearch.METRICS_PLAYOUTS_PER_SECOND, playouts * 1000.0 / time);
+		metrics.set(MonteCarloTreeSearch.METRICS_TREE_SIZE, treeSize);
+	}
+}
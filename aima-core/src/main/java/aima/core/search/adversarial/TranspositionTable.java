@@ -0,0 +1,170 @@
+package aima.core.search.adversarial;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size hash table which stores search results for game states,
+ * addressed by 64-bit state hashes (see {@link HashedGame}). Each entry
+ * contains the remaining search depth, a value with its bound type, and the
+ * best action found. Slots are selected by the lower bits of the hash, and
+ * the full hash is stored to detect collisions. For games without reliable
+ * 64-bit hashes, the state itself can be stored and compared in addition. If
+ * two states compete for a slot, the entry with the larger depth is kept,
+ * unless it is left over from an earlier search (replace-by-depth with aging).
+ * <br>
+ * The table is lock-free and can be shared by concurrent searches. Entries
+ * are immutable and are published by a single reference write, so readers
+ * never see partially written entries. Concurrent stores to the same slot
+ * may overwrite each other, which only costs information.
+ *
+ * @param <A> Type which is used for actions in the game.
+ */
+public class TranspositionTable<A> {
+
+    /** The stored value is the exact value of the state. */
+    public static final byte EXACT = 0;
+    /** The value of the state is at least the stored value (fail high). */
+    public static final byte LOWER_BOUND = 1;
+    /** The value of the state is at most the stored value (fail low). */
+    public static final byte UPPER_BOUND = 2;
+
+    private final AtomicReferenceArray<Entry<A>> slots;
+    private final int mask;
+    private volatile int generation;
+
+    /**
+     * Creates a table with the specified number of slots (rounded up to a
+     * power of two).
+     */
+    public TranspositionTable(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /** Returns the number of slots. */
+    public int capacity() {
+        return slots.length();
+    }
+
+    /** Returns the entry for the hash or null if the state is not known. */
+    public Entry<A> probe(long hash) {
+        Entry<A> entry = slots.get(index(hash));
+        return entry != null && entry.hash == hash ? entry : null;
+    }
+
+    /**
+     * Returns the entry for the hash and the state or null if the state is not
+     * known. Only entries which were stored with an equal state are returned.
+     */
+    public Entry<A> probe(long hash, Object state) {
+        Entry<A> entry = probe(hash);
+        return entry != null && state.equals(entry.state) ? entry : null;
+    }
+
+    /**
+     * Stores a search result unless the slot holds a deeper result of the
+     * current search for another state.
+     *
+     * @param hash     hash of the state
+     * @param depth    remaining search depth below the state
+     * @param value    the value found by the search
+     * @param bound    one of {@link #EXACT}, {@link #LOWER_BOUND}, and
+     *                 {@link #UPPER_BOUND}
+     * @param bestMove the best action found or null
+     * @param proven   true if the value does not depend on heuristic
+     *                 evaluation of non-terminal states
+     */
+    public void store(long hash, int depth, double value, byte bound, A bestMove, boolean proven) {
+        store(hash, null, depth, value, bound, bestMove, proven);
+    }
+
+    /**
+     * Stores a search result together with the state, which is checked by
+     * {@link #probe(long, Object)}. The state must not be modified afterwards.
+     */
+    public void store(long hash, Object state, int depth, double value, byte bound, A bestMove, boolean proven) {
+        int idx = index(hash);
+        Entry<A> old = slots.get(idx);
+        int gen = generation;
+        if (old == null || old.hash == hash || old.generation != gen || depth >= old.depth) {
+            if (bestMove == null && old != null && old.hash == hash && Objects.equals(state, old.state))
+                bestMove = old.bestMove; // keep the move of a fail-low re-search
+            slots.set(idx, new Entry<>(hash, state, depth, value, bound, bestMove, proven, gen));
+        }
+    }
+
+    /**
+     * Marks all entries as old. They can still be found, but are replaced
+     * preferentially. Should be called at the beginning of each decision.
+     */
+    public void newSearch() {
+        generation++;
+    }
+
+    /** Removes all entries. */
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++)
+            slots.set(i, null);
+    }
+
+    //
+    // PRIVATE METHODS
+    //
+
+    private int index(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    /** An immutable table entry. */
+    public static final class Entry<A> {
+        private final long hash;
+        private final Object state;
+        private final int depth;
+        private final double value;
+        private final byte bound;
+        private final A bestMove;
+        private final boolean proven;
+        private final int generation;
+
+        private Entry(long hash, Object state, int depth, double value, byte bound, A bestMove, boolean proven,
+                      int generation) {
+            this.hash = hash;
+            this.state = state;
+            this.depth = depth;
+            this.value = value;
+            this.bound = bound;
+            this.bestMove = bestMove;
+            this.proven = proven;
+            this.generation = generation;
+        }
+
+        /** Returns the remaining search depth with which the value was computed. */
+        public int getDepth() {
+            return depth;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        /** Returns the bound type of the value. */
+        public byte getBound() {
+            return bound;
+        }
+
+        /** Returns the best action found or null. */
+        public A getBestMove() {
+            return bestMove;
+        }
+
+        /**
+         * Returns true if the value does not depend on heuristic evaluation.
+         * Such values are valid for any depth.
+         */
+        public boolean isProven() {
+            return proven;
+        }
+    }
+}
@@ -0,0 +1,362 @@
+package aima.core.search.adversarial;
+
+import aima.core.search.framework.Metrics;
+import aima.core.util.TaskScope;
+import aima.core.util.Tasks;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Monte Carlo tree search with tree parallelization. Several threads perform
+ * the SELECT / EXPAND / SIMULATE / BACKPROPAGATE cycle concurrently on one
+ * shared tree (see {@link MonteCarloTreeSearch} for the sequential version).
+ * The tree is lock-free: visit counts and rewards are updated atomically, and
+ * the untried actions of a node are claimed by an atomic counter, so each
+ * child is created by exactly one thread.
+ * <br>
+ * To make threads explore different parts of the tree, each node on the
+ * selection path receives a virtual loss: its visit count is increased
+ * before the playout without adding a reward, so that it looks worse to the
+ * other threads until the result is backed up. The iteration budget and the
+ * time limit apply to all threads together. After a decision, the subtree
+ * below the state which results from the opponent's reply is reused by the
+ * next decision. The game must be thread-safe.
+ *
+ * @param <S> Type which is used for states in the game.
+ * @param <A> Type which is used for actions in the game.
+ * @param <P> Type which is used for players in the game.
+ * @see RootParallelMonteCarloTreeSearch
+ */
+public class TreeParallelMonteCarloTreeSearch<S, A, P> implements AdversarialSearch<S, A> {
+
+	private static final int NONE = -1;
+
+	private final Game<S, A, P> game;
+	private final List<P> players;
+	private final int numThreads;
+	private int iterations; // 0 means no limit
+	private long timeLimit; // in milliseconds, 0 means no limit
+	private double explorationConstant = Math.sqrt(2);
+	private int virtualLoss = 1;
+	private Random random = new Random();
+	private Metrics metrics = new Metrics();
+	private Node<S, A> root;
+	private final AtomicInteger createdNodes = new AtomicInteger();
+
+	/**
+	 * Creates a search which performs the given number of iterations per
+	 * decision in total.
+	 */
+	public TreeParallelMonteCarloTreeSearch(Game<S, A, P> game, int iterations, int numThreads) {
+		if (numThreads < 1)
+			throw new IllegalArgumentException("At least one thread is needed.");
+		this.game = game;
+		this.players = Arrays.asList(game.getPlayers());
+		this.iterations = iterations;
+		this.numThreads = numThreads;
+	}
+
+	/** Creates a search which stops after the given time per decision. */
+	public static <S, A, P> TreeParallelMonteCarloTreeSearch<S, A, P> createWithTimeLimit(Game<S, A, P> game,
+			long millis, int numThreads) {
+		TreeParallelMonteCarloTreeSearch<S, A, P> result = new TreeParallelMonteCarloTreeSearch<>(game, 0,
+				numThreads);
+		result.setTimeLimit(millis);
+		return result;
+	}
+
+	/** Returns the number of threads which work on the tree. */
+	public int getNumThreads() {
+		return numThreads;
+	}
+
+	/** Sets the total number of iterations per decision, 0 means no limit. */
+	public void setIterations(int iterations) {
+		this.iterations = iterations;
+	}
+
+	/** Sets the time limit per decision in milliseconds, 0 means no limit. */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
+	/** Sets the constant which weights exploration against exploitation (default sqrt(2)). */
+	public void setExplorationConstant(double c) {
+		explorationConstant = c;
+	}
+
+	/**
+	 * Sets the number of visits which are added to the nodes on the selection
+	 * path until the result of the playout is known (default 1). 0 disables
+	 * virtual loss.
+	 */
+	public void setVirtualLoss(int virtualLoss) {
+		this.virtualLoss = virtualLoss;
+	}
+
+	/**
+	 * Derives the random number generators of the threads from the given one.
+	 * Results are only reproducible with one thread.
+	 */
+	public void setRandom(Random random) {
+		this.random = random;
+	}
+
+	@Override
+	public A makeDecision(S state) {
+		if (iterations <= 0 && timeLimit <= 0)
+			throw new IllegalStateException("Neither iterations nor time limit specified.");
+		long startTime = System.currentTimeMillis();
+		createdNodes.set(0);
+		int reused = reuseSubtree(state);
+		AtomicInteger started = new AtomicInteger();
+		AtomicInteger completed = new AtomicInteger();
+		try (TaskScope scope = TaskScope.open()) {
+			for (int i = 1; i < numThreads; i++) {
+				Random rnd = new Random(random.nextLong());
+				scope.fork(() -> work(rnd, startTime, started, completed));
+			}
+			work(new Random(random.nextLong()), startTime, started, completed);
+			scope.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for parallel searches.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException("Parallel search failed.", e.getCause());
+		}
+		long time = Math.max(1, System.currentTimeMillis() - startTime);
+		metrics = new Metrics();
+		metrics.set(MonteCarloTreeSearch.METRICS_PLAYOUTS, completed.get());
+		metrics.set(MonteCarloTreeSearch.METRICS_PLAYOUTS_PER_SECOND, completed.get() * 1000.0 / time);
+		metrics.set(MonteCarloTreeSearch.METRICS_TREE_SIZE, reused + createdNodes.get());
+		metrics.set(MonteCarloTreeSearch.METRICS_REUSED_NODES, reused);
+		return bestAction();
+	}
+
+	/**
+	 * Returns the number of playouts of all threads, playouts per second, the
+	 * size of the tree, and the number of nodes reused from the previous
+	 * decision.
+	 */
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	/** Performs iterations until the budget is exhausted or the search is cancelled. */
+	private void work(Random rnd, long startTime, AtomicInteger started, AtomicInteger completed) {
+		List<Node<S, A>> path = new ArrayList<>();
+		while (iterations <= 0 || started.getAndIncrement() < iterations) {
+			path.clear();
+			Node<S, A> leaf = selectAndExpand(path, rnd);
+			double[] result = simulate(leaf.state, rnd);
+			backpropagate(path, result);
+			completed.incrementAndGet();
+			if (timeLimit > 0 && System.currentTimeMillis() - startTime >= timeLimit || Tasks.currIsCancelled())
+				break;
+		}
+	}
+
+	/**
+	 * Descends from the root by UCT and adds a child for an untried action,
+	 * if possible. All nodes on the path receive a virtual loss.
+	 */
+	private Node<S, A> selectAndExpand(List<Node<S, A>> path, Random rnd) {
+		Node<S, A> node = root;
+		node.addVisits(virtualLoss);
+		path.add(node);
+		while (!node.actions.isEmpty()) {
+			if (node.nextUntried.get() < node.actions.size()) {
+				int idx = node.nextUntried.getAndIncrement();
+				if (idx < node.actions.size()) {
+					A action = node.actions.get(idx);
+					Node<S, A> child = createNode(game.getResult(node.state, action), action, node.player, rnd);
+					child.addVisits(virtualLoss);
+					node.children.set(idx, child);
+					path.add(child);
+					return child;
+				}
+			}
+			Node<S, A> child = getChildWithMaxUCT(node, rnd);
+			if (child == null)
+				break; // all children are still being created by other threads
+			child.addVisits(virtualLoss);
+			path.add(child);
+			node = child;
+		}
+		return node;
+	}
+
+	/** Plays randomly until the game ends and returns the utilities for all players. */
+	private double[] simulate(S state, Random rnd) {
+		while (!game.isTerminal(state)) {
+			List<A> actions = game.getActions(state);
+			state = game.getResult(state, actions.get(rnd.nextInt(actions.size())));
+		}
+		double[] result = new double[players.size()];
+		for (int i = 0; i < result.length; i++)
+			result[i] = game.getUtility(state, players.get(i));
+		return result;
+	}
+
+	/** Replaces the virtual losses by the result of the playout. */
+	private void backpropagate(List<Node<S, A>> path, double[] result) {
+		for (Node<S, A> node : path) {
+			node.addVisits(1 - virtualLoss);
+			if (node.mover != NONE)
+				node.addReward(result[node.mover]);
+		}
+	}
+
+	private Node<S, A> getChildWithMaxUCT(Node<S, A> node, Random rnd) {
+		double logN = Math.log(node.visits);
+		int n = Math.min(node.nextUntried.get(), node.actions.size());
+		Node<S, A> best = null;
+		double bestUct = Double.NEGATIVE_INFINITY;
+		int ties = 0;
+		for (int i = 0; i < n; i++) {
+			Node<S, A> child = node.children.get(i);
+			if (child == null)
+				continue;
+			int visits = child.visits;
+			double uct = visits > 0 ? child.rewards / visits + explorationConstant * Math.sqrt(logN / visits)
+					: Double.POSITIVE_INFINITY;
+			if (uct > bestUct) {
+				best = child;
+				bestUct = uct;
+				ties = 1;
+			} else if (uct == bestUct && rnd.nextInt(++ties) == 0) {
+				best = child; // reservoir sampling among equally good children
+			}
+		}
+		return best;
+	}
+
+	private A bestAction() {
+		Node<S, A> best = null;
+		for (int i = 0; i < root.children.length(); i++) {
+			Node<S, A> child = root.children.get(i);
+			if (child != null && (best == null || child.visits > best.visits
+					|| child.visits == best.visits && child.rewards > best.rewards))
+				best = child;
+		}
+		return best != null ? best.action : null;
+	}
+
+	/**
+	 * Makes the node with the given state the root. If the state is a child
+	 * or grandchild of the current root, its subtree is kept. Otherwise, a new
+	 * tree is started. Returns the number of reused nodes.
+	 */
+	private int reuseSubtree(S state) {
+		Node<S, A> newRoot = null;
+		if (root != null) {
+			if (Objects.equals(root.state, state))
+				newRoot = root;
+			for (int i = 0; i < root.children.length() && newRoot == null; i++) {
+				Node<S, A> child = root.children.get(i);
+				if (child == null)
+					continue;
+				if (Objects.equals(child.state, state))
+					newRoot = child;
+				for (int j = 0; j < child.children.length() && newRoot == null; j++) {
+					Node<S, A> gc = child.children.get(j);
+					if (gc != null && Objects.equals(gc.state, state))
+						newRoot = gc;
+				}
+			}
+		}
+		if (newRoot == null) {
+			root = createNode(state, null, NONE, random);
+			return 0;
+		}
+		root = newRoot;
+		int count = 0;
+		Deque<Node<S, A>> stack = new ArrayDeque<>();
+		stack.push(newRoot);
+		while (!stack.isEmpty()) {
+			Node<S, A> node = stack.pop();
+			count++;
+			for (int i = 0; i < node.children.length(); i++)
+				if (node.children.get(i) != null)
+					stack.push(node.children.get(i));
+		}
+		return count;
+	}
+
+	/** Creates a node whose actions are shuffled, so that they can be tried in order. */
+	private Node<S, A> createNode(S state, A action, int mover, Random rnd) {
+		List<A> actions;
+		int player = NONE;
+		if (game.isTerminal(state)) {
+			actions = Collections.emptyList();
+		} else {
+			actions = new ArrayList<>(game.getActions(state));
+			Collections.shuffle(actions, rnd);
+			player = players.indexOf(game.getPlayer(state));
+		}
+		createdNodes.incrementAndGet();
+		return new Node<>(state, action, mover, player, actions);
+	}
+
+	/** A node of the shared tree. */
+	private static final class Node<S, A> {
+		private static final VarHandle VISITS;
+		private static final VarHandle REWARDS;
+
+		static {
+			try {
+				MethodHandles.Lookup lookup = MethodHandles.lookup();
+				VISITS = lookup.findVarHandle(Node.class, "visits", int.class);
+				REWARDS = lookup.findVarHandle(Node.class, "rewards", double.class);
+			} catch (ReflectiveOperationException e) {
+				throw new ExceptionInInitializerError(e);
+			}
+		}
+
+		private final S state;
+		private final A action; // action which leads to the node
+		private final int mover; // index of the player who made the move
+		private final int player; // index of the player to move
+		private final List<A> actions;
+		private final AtomicReferenceArray<Node<S, A>> children;
+		private final AtomicInteger nextUntried = new AtomicInteger();
+		private volatile int visits;
+		private volatile double rewards;
+
+		private Node(S state, A action, int mover, int player, List<A> actions) {
+			this.state = state;
+			this.action = action;
+			this.mover = mover;
+			this.player = player;
+			this.actions = actions;
+			children = new AtomicReferenceArray<>(actions.size());
+		}
+
+		private void addVisits(int delta) {
+			VISITS.getAndAdd(this, delta);
+		}
+
+		private void addReward(double reward) {
+			REWARDS.getAndAdd(this, reward);
+		}
+	}
+}
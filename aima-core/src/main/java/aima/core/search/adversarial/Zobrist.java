@@ -0,0 +1,34 @@
+package aima.core.search.adversarial;
+
+/**
+ * Provides keys for Zobrist hashing. The hash value of a state is the XOR of
+ * the keys of its features, e.g. one key for each combination of square and
+ * piece on a board. When a move changes a feature, the hash value is updated
+ * by XORing the old and the new feature key. Keys are pseudo-random and
+ * computed from the feature number (SplitMix64 finalizer), so no key table
+ * has to be sized in advance, and hash values are the same in every run.
+ */
+public final class Zobrist {
+
+    private Zobrist() {
+    }
+
+    /** Returns the key of a feature. Negative feature numbers are allowed. */
+    public static long key(int feature) {
+        long z = feature * 0x9E3779B97F4A7C15L + 0x2545F4914F6CDD1DL;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the key for a piece on a square.
+     *
+     * @param square    index of the square
+     * @param piece     number of the piece type in [0, numPieces)
+     * @param numPieces number of piece types
+     */
+    public static long key(int square, int piece, int numPieces) {
+        return key(square * numPieces + piece);
+    }
+}
@@ -0,0 +1,19 @@
+package aima.core.search.framework;
+
+/**
+ * State set which may regard states as contained which were never added (see
+ * {@link StateSetFactory#createBitstateSet(StateCodec, long, int)}). Graph
+ * searches which use such a set as explored set may miss states, and with
+ * them solutions. In exchange, only a few bits per state are needed.
+ *
+ * @param <S> The type used to represent states
+ */
+public interface ApproximateStateSet<S> extends StateSet<S> {
+
+	/**
+	 * Returns the estimated probability that a state which was not added is
+	 * regarded as contained, given the current contents of the set. A graph
+	 * search omits a new state with this probability.
+	 */
+	double getOmissionProbability();
+}
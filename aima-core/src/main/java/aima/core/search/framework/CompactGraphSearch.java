@@ -0,0 +1,376 @@
+package aima.core.search.framework;
+
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.problem.SuccessorProblem;
+import aima.core.util.Tasks;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Graph search which represents the search tree by a {@link CompactNodeStore}
+ * instead of node objects. Three strategies are supported: breadth-first
+ * search, uniform-cost search, and A* search. Breadth-first search applies the
+ * goal test when nodes are generated. As nodes are stored in generation order,
+ * its frontier is just a range of node indices. The other strategies use a
+ * binary heap of node indices, ordered by f = g + h, and apply the goal test
+ * when nodes are selected for expansion. If a cheaper path to a reached state
+ * is found, a new node is added and the old one is skipped when it is
+ * removed from the heap. Reached states are indexed by an open-addressing
+ * table of node indices, which compares states by means of the node store.
+ * So besides the node store, only two to four ints per reached state are
+ * needed.
+ * <br>
+ * Goal tests are applied to states (see {@link Problem#testGoal(Object)}),
+ * as the search creates no node objects. Heuristic functions receive a node
+ * object without parent, which provides state and path cost. Node listeners
+ * receive node objects including parents and should only be used for
+ * progress tracking of small searches.
+ *
+ * @param <S> The type used to represent states
+ * @param <A> The type of the actions to be used to navigate through the state space
+ */
+public class CompactGraphSearch<S, A> implements SearchForActions<S, A>, SearchForStates<S, A> {
+
+	public static final String METRIC_NODES_EXPANDED = "nodesExpanded";
+	public static final String METRIC_NODES_STORED = "nodesStored";
+	public static final String METRIC_QUEUE_SIZE = "queueSize";
+	public static final String METRIC_MAX_QUEUE_SIZE = "maxQueueSize";
+	public static final String METRIC_PATH_COST = "pathCost";
+
+	private static final int NO_NODE = -1;
+
+	private final boolean fifo;
+	private ToDoubleFunction<Node<S, A>> h;
+	private final CompactNodeStore<S, A> store = new CompactNodeStore<>();
+	private final ReachedTable reached = new ReachedTable();
+	private final IndexHeap frontier = new IndexHeap();
+	private final List<Consumer<Node<S, A>>> listeners = new ArrayList<>();
+
+	private final Metrics metrics = new Metrics();
+	private final Metrics.Counter nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
+	private final Metrics.Counter nodesStored = metrics.counter(METRIC_NODES_STORED);
+	private final Metrics.Counter queueSize = metrics.counter(METRIC_QUEUE_SIZE);
+	private final Metrics.Counter maxQueueSize = metrics.counter(METRIC_MAX_QUEUE_SIZE);
+
+	private int goalNode;
+
+	/** Creates a breadth-first graph search. */
+	public static <S, A> CompactGraphSearch<S, A> createBreadthFirstSearch() {
+		return new CompactGraphSearch<>(true, null);
+	}
+
+	/** Creates a uniform-cost graph search. */
+	public static <S, A> CompactGraphSearch<S, A> createUniformCostSearch() {
+		return new CompactGraphSearch<>(false, null);
+	}
+
+	/**
+	 * Creates an A* graph search.
+	 *
+	 * @param h A heuristic function <em>h(n)</em>, which estimates the cost of
+	 *          the cheapest path from the state of node <em>n</em> to a goal
+	 *          state.
+	 */
+	public static <S, A> CompactGraphSearch<S, A> createAStarSearch(ToDoubleFunction<Node<S, A>> h) {
+		return new CompactGraphSearch<>(false, Objects.requireNonNull(h));
+	}
+
+	private CompactGraphSearch(boolean fifo, ToDoubleFunction<Node<S, A>> h) {
+		this.fifo = fifo;
+		this.h = h;
+	}
+
+	@Override
+	public Optional<List<A>> findActions(Problem<S, A> p) {
+		int node = findNode(p);
+		return node != NO_NODE ? Optional.of(store.getSequenceOfActions(node)) : Optional.empty();
+	}
+
+	@Override
+	public Optional<S> findState(Problem<S, A> p) {
+		int node = findNode(p);
+		return node != NO_NODE ? Optional.of(store.getState(node)) : Optional.empty();
+	}
+
+	/**
+	 * Returns the index of a node in the node store whose state is a goal
+	 * state, or -1 if no such node was found. The node store is valid until
+	 * the next search.
+	 */
+	public int findNode(Problem<S, A> p) {
+		clearMetrics();
+		store.clear();
+		reached.clear();
+		frontier.clear();
+		goalNode = NO_NODE;
+		S initialState = p.getInitialState();
+		int root = store.addRoot(initialState);
+		reached.set(reached.find(initialState), root);
+		int result = fifo ? findNodeBreadthFirst(p, root) : findNodeBestFirst(p, root);
+		nodesStored.set(store.size());
+		if (result != NO_NODE)
+			metrics.set(METRIC_PATH_COST, store.getPathCost(result));
+		return result;
+	}
+
+	/** Returns the node store of the last search. */
+	public CompactNodeStore<S, A> getNodeStore() {
+		return store;
+	}
+
+	/**
+	 * Returns all the search metrics.
+	 */
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public void addNodeListener(Consumer<Node<S, A>> listener) {
+		listeners.add(listener);
+	}
+
+	@Override
+	public boolean removeNodeListener(Consumer<Node<S, A>> listener) {
+		return listeners.remove(listener);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private int findNodeBreadthFirst(Problem<S, A> p, int root) {
+		if (p.testGoal(store.getState(root)))
+			return root;
+		// all nodes with index >= head form the frontier
+		int head = root;
+		while (head < store.size() && !Tasks.currIsCancelled()) {
+			updateQueueSize(store.size() - head - 1);
+			expand(p, head++);
+			if (goalNode != NO_NODE)
+				return goalNode;
+		}
+		return NO_NODE;
+	}
+
+	private int findNodeBestFirst(Problem<S, A> p, int root) {
+		frontier.add(root, evaluate(root));
+		while (!frontier.isEmpty() && !Tasks.currIsCancelled()) {
+			int node = frontier.remove();
+			updateQueueSize(frontier.size());
+			S state = store.getState(node);
+			if (reached.get(reached.find(state)) != node)
+				continue; // a cheaper path to the state was found later
+			if (p.testGoal(state))
+				return node;
+			expand(p, node);
+		}
+		return NO_NODE;
+	}
+
+	private void expand(Problem<S, A> p, int node) {
+		S state = store.getState(node);
+		if (p instanceof SuccessorProblem) {
+			((SuccessorProblem<S, A>) p).forEachSuccessor(state,
+					(action, successor, stepCost) -> addChild(p, node, action, successor, stepCost));
+		} else {
+			for (A action : p.getActions(state)) {
+				S successor = p.getResult(state, action);
+				addChild(p, node, action, successor, p.getStepCosts(state, action, successor));
+			}
+		}
+		nodesExpanded.increment();
+		if (!listeners.isEmpty()) {
+			Node<S, A> n = store.toNode(node);
+			listeners.forEach(listener -> listener.accept(n));
+		}
+	}
+
+	private void addChild(Problem<S, A> p, int parent, A action, S state, double stepCost) {
+		if (goalNode != NO_NODE)
+			return;
+		double pathCost = store.getPathCost(parent) + stepCost;
+		int slot = reached.find(state);
+		int old = reached.get(slot);
+		if (fifo) {
+			if (old == NO_NODE) {
+				int child = store.add(state, parent, action, pathCost);
+				reached.set(slot, child);
+				if (p.testGoal(state))
+					goalNode = child;
+			}
+		} else if (old == NO_NODE || pathCost < store.getPathCost(old)) {
+			int child = store.add(state, parent, action, pathCost);
+			reached.set(slot, child);
+			frontier.add(child, evaluate(child));
+			updateQueueSize(frontier.size());
+		}
+	}
+
+	private double evaluate(int node) {
+		double g = store.getPathCost(node);
+		return h != null ? g + h.applyAsDouble(store.toNode(node, false)) : g;
+	}
+
+	private void updateQueueSize(int size) {
+		queueSize.set(size);
+		maxQueueSize.updateMax(size);
+	}
+
+	/**
+	 * Sets all metrics to zero.
+	 */
+	private void clearMetrics() {
+		nodesExpanded.set(0);
+		nodesStored.set(0);
+		queueSize.set(0);
+		maxQueueSize.set(0);
+		metrics.set(METRIC_PATH_COST, 0);
+	}
+
+	/**
+	 * Hash table with open addressing and linear probing, which maps reached
+	 * states to the index of their latest node. Only node indices are stored,
+	 * states and their hash codes are obtained from the node store.
+	 */
+	private class ReachedTable {
+		private int[] slots = newSlots(1024);
+		private int size;
+
+		/**
+		 * Returns the slot which contains the node of the state, or the empty
+		 * slot where it belongs if the state has not been reached yet.
+		 */
+		int find(S state) {
+			int mask = slots.length - 1;
+			int slot = hash(state) & mask;
+			while (slots[slot] != NO_NODE && !state.equals(store.getState(slots[slot])))
+				slot = (slot + 1) & mask;
+			return slot;
+		}
+
+		/** Returns the node index of the slot, or -1 if the slot is empty. */
+		int get(int slot) {
+			return slots[slot];
+		}
+
+		/** Stores the node index in a slot returned by {@link #find(Object)}. */
+		void set(int slot, int node) {
+			if (slots[slot] == NO_NODE && ++size > slots.length / 2)
+				rehash(slots.length * 2, slot, node);
+			else
+				slots[slot] = node;
+		}
+
+		void clear() {
+			Arrays.fill(slots, NO_NODE);
+			size = 0;
+		}
+
+		private void rehash(int capacity, int newSlot, int newNode) {
+			int[] old = slots;
+			old[newSlot] = newNode;
+			slots = newSlots(capacity);
+			int mask = capacity - 1;
+			for (int node : old) {
+				if (node != NO_NODE) {
+					int slot = hash(store.getState(node)) & mask;
+					while (slots[slot] != NO_NODE)
+						slot = (slot + 1) & mask;
+					slots[slot] = node;
+				}
+			}
+		}
+
+		private int hash(S state) {
+			int h = state.hashCode() * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+
+		private int[] newSlots(int capacity) {
+			int[] result = new int[capacity];
+			Arrays.fill(result, NO_NODE);
+			return result;
+		}
+	}
+
+	/**
+	 * Binary min-heap of node indices with double keys. Nodes with equal keys
+	 * are removed in insertion order.
+	 */
+	private static class IndexHeap {
+		private int[] nodes = new int[64];
+		private double[] keys = new double[64];
+		private long[] seqs = new long[64];
+		private int size;
+		private long counter;
+
+		void add(int node, double key) {
+			if (size == nodes.length) {
+				nodes = Arrays.copyOf(nodes, size * 2);
+				keys = Arrays.copyOf(keys, size * 2);
+				seqs = Arrays.copyOf(seqs, size * 2);
+			}
+			int pos = size++;
+			long seq = counter++;
+			while (pos > 0) {
+				int parent = (pos - 1) >>> 1;
+				if (!less(key, seq, keys[parent], seqs[parent]))
+					break;
+				set(pos, nodes[parent], keys[parent], seqs[parent]);
+				pos = parent;
+			}
+			set(pos, node, key, seq);
+		}
+
+		int remove() {
+			int result = nodes[0];
+			size--;
+			if (size > 0) {
+				int node = nodes[size];
+				double key = keys[size];
+				long seq = seqs[size];
+				int pos = 0;
+				while (true) {
+					int child = 2 * pos + 1;
+					if (child >= size)
+						break;
+					if (child + 1 < size && less(keys[child + 1], seqs[child + 1], keys[child], seqs[child]))
+						child++;
+					if (!less(keys[child], seqs[child], key, seq))
+						break;
+					set(pos, nodes[child], keys[child], seqs[child]);
+					pos = child;
+				}
+				set(pos, node, key, seq);
+			}
+			return result;
+		}
+
+		boolean isEmpty() {
+			return size == 0;
+		}
+
+		int size() {
+			return size;
+		}
+
+		void clear() {
+			size = 0;
+			counter = 0;
+		}
+
+		private void set(int pos, int node, double key, long seq) {
+			nodes[pos] = node;
+			keys[pos] = key;
+			seqs[pos] = seq;
+		}
+
+		private static boolean less(double key1, long seq1, double key2, long seq2) {
+			return key1 < key2 || key1 == key2 && seq1 < seq2;
+		}
+	}
+}
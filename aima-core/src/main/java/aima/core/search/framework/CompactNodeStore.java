@@ -0,0 +1,180 @@
+package aima.core.search.framework;
+
+import java.util.*;
+
+/**
+ * Stores search tree nodes in primitive arrays instead of {@link Node}
+ * objects. Each node is identified by an int index. Parent index, depth, path
+ * cost, and action are kept in parallel arrays. Actions are interned, so each
+ * node needs just the index of its action in a table of distinct actions
+ * (which must implement <code>equals</code> and <code>hashCode</code>). Per
+ * node, about 20 bytes plus one state reference are needed, compared to a
+ * node object with five fields and an object header.
+ * <br>
+ * Paths are reconstructed on demand by following the parent indices. Nodes
+ * can be converted to node objects (see {@link #toNode(int)}) to interact
+ * with heuristic functions or node listeners.
+ *
+ * @param <S> The type used to represent states
+ * @param <A> The type of the actions to be used to navigate through the state space
+ */
+public class CompactNodeStore<S, A> {
+
+	/** Parent index of root nodes. */
+	public static final int NO_PARENT = -1;
+
+	private Object[] states;
+	private int[] parents;
+	private int[] depths;
+	private int[] actions;
+	private double[] pathCosts;
+	private int size;
+
+	private final Map<A, Integer> actionIndices = new HashMap<>();
+	private final List<A> actionTable = new ArrayList<>();
+
+	public CompactNodeStore() {
+		this(1024);
+	}
+
+	public CompactNodeStore(int initialCapacity) {
+		int capacity = Math.max(initialCapacity, 16);
+		states = new Object[capacity];
+		parents = new int[capacity];
+		depths = new int[capacity];
+		actions = new int[capacity];
+		pathCosts = new double[capacity];
+	}
+
+	/** Adds a root node for the state and returns its index. */
+	public int addRoot(S state) {
+		return add(state, NO_PARENT, null, 0);
+	}
+
+	/**
+	 * Adds a node and returns its index.
+	 *
+	 * @param state    the state of the node
+	 * @param parent   the index of the parent node or {@link #NO_PARENT}
+	 * @param action   the action which leads from the parent state to the state
+	 * @param pathCost the cost of the path from the root to the node
+	 */
+	public int add(S state, int parent, A action, double pathCost) {
+		if (size == states.length)
+			grow();
+		states[size] = state;
+		parents[size] = parent;
+		depths[size] = parent != NO_PARENT ? depths[parent] + 1 : 0;
+		actions[size] = action != null ? intern(action) : -1;
+		pathCosts[size] = pathCost;
+		return size++;
+	}
+
+	@SuppressWarnings("unchecked")
+	public S getState(int node) {
+		return (S) states[node];
+	}
+
+	public int getParent(int node) {
+		return parents[node];
+	}
+
+	public A getAction(int node) {
+		int idx = actions[node];
+		return idx >= 0 ? actionTable.get(idx) : null;
+	}
+
+	public double getPathCost(int node) {
+		return pathCosts[node];
+	}
+
+	public int getDepth(int node) {
+		return depths[node];
+	}
+
+	/** Returns the number of stored nodes. */
+	public int size() {
+		return size;
+	}
+
+	/** Returns the number of distinct actions. */
+	public int getNumberOfActions() {
+		return actionTable.size();
+	}
+
+	/**
+	 * Returns the sequence of actions which leads from the root to the
+	 * specified node.
+	 */
+	public List<A> getSequenceOfActions(int node) {
+		A[] result = newActionArray(depths[node]);
+		for (int i = depths[node] - 1; i >= 0; i--) {
+			result[i] = getAction(node);
+			node = parents[node];
+		}
+		return Arrays.asList(result);
+	}
+
+	/**
+	 * Creates a node object which represents the specified node. Its parent
+	 * chain is created as well if <code>withParents</code> is true.
+	 */
+	public Node<S, A> toNode(int node, boolean withParents) {
+		if (parents[node] == NO_PARENT)
+			return new Node<>(getState(node));
+		if (!withParents)
+			return new Node<>(getState(node), null, getAction(node), pathCosts[node]);
+		int[] path = new int[depths[node] + 1];
+		for (int i = path.length - 1; i >= 0; i--) {
+			path[i] = node;
+			node = parents[node];
+		}
+		Node<S, A> result = new Node<>(getState(path[0]));
+		for (int i = 1; i < path.length; i++)
+			result = new Node<>(getState(path[i]), result, getAction(path[i]), pathCosts[path[i]]);
+		return result;
+	}
+
+	/** Creates a node object (including parents) for the specified node. */
+	public Node<S, A> toNode(int node) {
+		return toNode(node, true);
+	}
+
+	/** Removes all nodes. Interned actions are kept. */
+	public void clear() {
+		Arrays.fill(states, 0, size, null);
+		size = 0;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private int intern(A action) {
+		Integer idx = actionIndices.get(action);
+		if (idx == null) {
+			idx = actionTable.size();
+			actionIndices.put(action, idx);
+			actionTable.add(action);
+		}
+		return idx;
+	}
+
+	private void grow() {
+		int capacity = states.length + (states.length >> 1);
+		if (capacity < 0 || capacity > Integer.MAX_VALUE - 8)
+			capacity = Integer.MAX_VALUE - 8;
+		if (capacity == size)
+			throw new IllegalStateException("Node store is full.");
+		states = Arrays.copyOf(states, capacity);
+		parents = Arrays.copyOf(parents, capacity);
+		depths = Arrays.copyOf(depths, capacity);
+		actions = Arrays.copyOf(actions, capacity);
+		pathCosts = Arrays.copyOf(pathCosts, capacity);
+	}
+
+	@SuppressWarnings("unchecked")
+	private A[] newActionArray(int length) {
+		return (A[]) new Object[length];
+	}
+}
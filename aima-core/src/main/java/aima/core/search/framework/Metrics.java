@@ -1,64 +1,249 @@
 package aima.core.search.framework;
 
-import java.util.Hashtable;
+import java.util.Collections;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Stores key-value pairs for efficiency analysis.
- * 
+ * <p>
+ * Values are kept in primitive form. A value is integral or floating point
+ * depending on the setter which was called last, and it is formatted as string
+ * only on demand. Algorithms which update metrics per node should register a
+ * {@link Counter} or a {@link Gauge} once and update the value through this
+ * handle. Handle updates neither box values nor convert them to strings, and
+ * they bypass the key lookup. Handle updates are not synchronized. Readers in
+ * other threads (e.g. progress trackers) may observe slightly outdated values.
+ * Use {@link #snapshot()} to obtain an immutable copy of the current state.
+ * </p>
+ *
  * @author Ravi Mohan
  * @author Ruediger Lunde
  */
 public class Metrics {
-	private Hashtable<String, String> hash;
+	private final Map<String, Slot> slots = new ConcurrentHashMap<>();
 
 	public Metrics() {
-		this.hash = new Hashtable<String, String>();
+	}
+
+	/**
+	 * Returns a handle for an integral value. The value is created with 0 if it
+	 * does not exist yet.
+	 */
+	public Counter counter(String name) {
+		return new Counter(slot(name));
+	}
+
+	/**
+	 * Returns a handle for a floating point value. The value is created with 0
+	 * if it does not exist yet.
+	 */
+	public Gauge gauge(String name) {
+		return new Gauge(slot(name));
 	}
 
 	public void set(String name, int i) {
-		hash.put(name, Integer.toString(i));
+		slot(name).setLong(i);
 	}
 
 	public void set(String name, double d) {
-		hash.put(name, Double.toString(d));
+		slot(name).setDouble(d);
 	}
 
 	public void incrementInt(String name) {
-		set(name, getInt(name) + 1);
+		Slot slot = slot(name);
+		slot.setLong(slot.asLong() + 1);
 	}
 
 	public void set(String name, long l) {
-		hash.put(name, Long.toString(l));
+		slot(name).setLong(l);
 	}
 
 	public int getInt(String name) {
-		String value = hash.get(name);
-		return value != null ? Integer.parseInt(value) : 0;
+		Slot slot = slots.get(name);
+		return slot != null ? (int) slot.asLong() : 0;
 	}
 
 	public double getDouble(String name) {
-		String value = hash.get(name);
-		return value != null ? Double.parseDouble(value) : Double.NaN;
+		Slot slot = slots.get(name);
+		return slot != null ? slot.asDouble() : Double.NaN;
 	}
 
 	public long getLong(String name) {
-		String value = hash.get(name);
-		return value != null ? Long.parseLong(value) : 0l;
+		Slot slot = slots.get(name);
+		return slot != null ? slot.asLong() : 0l;
 	}
 
 	public String get(String name) {
-		return hash.get(name);
+		Slot slot = slots.get(name);
+		return slot != null ? slot.toString() : null;
 	}
 
 	public Set<String> keySet() {
-		return hash.keySet();
+		return Collections.unmodifiableSet(slots.keySet());
+	}
+
+	/**
+	 * Copies all key-value pairs of the other metrics into this metrics object.
+	 * Key names are extended by the given prefix, value types are preserved.
+	 */
+	public void merge(String prefix, Metrics other) {
+		other.slots.forEach((name, slot) -> slots.put(prefix + name, slot.copy()));
+	}
+
+	/** Returns an immutable copy of all key-value pairs. */
+	public Snapshot snapshot() {
+		Snapshot result = new Snapshot();
+		slots.forEach((name, slot) -> result.values.put(name, slot.copy()));
+		return result;
 	}
 
 	/** Sorts the key-value pairs by key names and formats them as equations. */
 	public String toString() {
-		TreeMap<String, String> map = new TreeMap<String, String>(hash);
-		return map.toString();
+		return snapshot().toString();
+	}
+
+	private Slot slot(String name) {
+		return slots.computeIfAbsent(name, key -> new Slot());
+	}
+
+	/** Handle for fast updates of an integral value. */
+	public static final class Counter {
+		private final Slot slot;
+
+		private Counter(Slot slot) {
+			this.slot = slot;
+		}
+
+		public void increment() {
+			slot.setLong(slot.asLong() + 1);
+		}
+
+		public void add(long delta) {
+			slot.setLong(slot.asLong() + delta);
+		}
+
+		public void set(long value) {
+			slot.setLong(value);
+		}
+
+		/** Sets the value to <code>value</code> if it is greater than the current value. */
+		public void updateMax(long value) {
+			if (value > slot.asLong())
+				slot.setLong(value);
+		}
+
+		public long get() {
+			return slot.asLong();
+		}
+	}
+
+	/** Handle for fast updates of a floating point value. */
+	public static final class Gauge {
+		private final Slot slot;
+
+		private Gauge(Slot slot) {
+			this.slot = slot;
+		}
+
+		public void set(double value) {
+			slot.setDouble(value);
+		}
+
+		/** Sets the value to <code>value</code> if it is greater than the current value. */
+		public void updateMax(double value) {
+			if (value > slot.asDouble())
+				slot.setDouble(value);
+		}
+
+		public double get() {
+			return slot.asDouble();
+		}
+	}
+
+	/**
+	 * Immutable copy of metrics. Provides the same read methods as the metrics
+	 * object it was created from, and a sorted map view.
+	 */
+	public static final class Snapshot {
+		private final TreeMap<String, Slot> values = new TreeMap<>();
+
+		private Snapshot() {
+		}
+
+		public int getInt(String name) {
+			Slot slot = values.get(name);
+			return slot != null ? (int) slot.asLong() : 0;
+		}
+
+		public double getDouble(String name) {
+			Slot slot = values.get(name);
+			return slot != null ? slot.asDouble() : Double.NaN;
+		}
+
+		public long getLong(String name) {
+			Slot slot = values.get(name);
+			return slot != null ? slot.asLong() : 0l;
+		}
+
+		public String get(String name) {
+			Slot slot = values.get(name);
+			return slot != null ? slot.toString() : null;
+		}
+
+		public Set<String> keySet() {
+			return Collections.unmodifiableSet(values.keySet());
+		}
+
+		/** Returns the formatted values, sorted by key names. */
+		public Map<String, String> asMap() {
+			TreeMap<String, String> result = new TreeMap<>();
+			values.forEach((name, slot) -> result.put(name, slot.toString()));
+			return Collections.unmodifiableMap(result);
+		}
+
+		/** Formats the key-value pairs as equations, sorted by key names. */
+		public String toString() {
+			return asMap().toString();
+		}
+	}
+
+	/** Storage for one value. The last setter call decides about the type. */
+	private static final class Slot {
+		private long longValue;
+		private double doubleValue;
+		private boolean isDouble;
+
+		void setLong(long value) {
+			longValue = value;
+			isDouble = false;
+		}
+
+		void setDouble(double value) {
+			doubleValue = value;
+			isDouble = true;
+		}
+
+		long asLong() {
+			return isDouble ? (long) doubleValue : longValue;
+		}
+
+		double asDouble() {
+			return isDouble ? doubleValue : longValue;
+		}
+
+		Slot copy() {
+			Slot result = new Slot();
+			result.longValue = longValue;
+			result.doubleValue = doubleValue;
+			result.isDouble = isDouble;
+			return result;
+		}
+
+		public String toString() {
+			return isDouble ? Double.toString(doubleValue) : Long.toString(longValue);
+		}
 	}
 }
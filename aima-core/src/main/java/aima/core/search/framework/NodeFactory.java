@@ -1,6 +1,7 @@
 package aima.core.search.framework;
 
 import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.problem.SuccessorProblem;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -9,7 +10,8 @@ import java.util.function.Consumer;
 /**
  * Instances of this class are responsible for node creation and successor generation. They
  * compute path costs, support progress tracking, and count the number of
- * {@link #getSuccessors(Node, Problem)} calls.
+ * {@link #getSuccessors(Node, Problem)} and {@link #expand(Node, Problem, Consumer)}
+ * calls.
  *
  * @param <S> The type used to represent states
  * @param <A> The type of the actions to be used to navigate through the state space
@@ -65,15 +67,56 @@ public class NodeFactory<S, A> {
 	 */
 	public List<Node<S, A>> getSuccessors(Node<S, A> node, Problem<S, A> problem) {
 		List<Node<S, A>> successors = new ArrayList<>();
+		expand(node, problem, successors::add);
+		return successors;
+	}
 
-		for (A action : problem.getActions(node.getState())) {
-			S successorState = problem.getResult(node.getState(), action);
+	/**
+	 * Passes the children obtained from expanding the specified node in the
+	 * specified problem to the sink, one at a time and in the same order as
+	 * {@link #getSuccessors(Node, Problem)}. No intermediate list is created.
+	 * If the problem is a {@link SuccessorProblem}, the action lists are
+	 * avoided as well.
+	 *
+	 * @param node
+	 *            the node to expand
+	 * @param problem
+	 *            the problem the specified node is within.
+	 * @param sink
+	 *            the consumer which receives the children.
+	 */
+	public void expand(Node<S, A> node, Problem<S, A> problem, Consumer<Node<S, A>> sink) {
+		generateSuccessors(node, problem, sink);
+		notifyListeners(node);
+	}
 
-			double stepCost = problem.getStepCosts(node.getState(), action, successorState);
-			successors.add(createNode(successorState, node, action, stepCost));
+	/**
+	 * Like {@link #expand(Node, Problem, Consumer)}, but without informing the
+	 * node listeners. Parallel searches can generate successors concurrently
+	 * and call {@link #notifyExpansion(Node)} later from one thread.
+	 */
+	public void generateSuccessors(Node<S, A> node, Problem<S, A> problem, Consumer<Node<S, A>> sink) {
+		S state = node.getState();
+		if (problem instanceof SuccessorProblem) {
+			((SuccessorProblem<S, A>) problem).forEachSuccessor(state,
+					(action, successorState, stepCost) -> sink.accept(createNode(successorState, node, action, stepCost)));
+		} else {
+			for (A action : problem.getActions(state)) {
+				S successorState = problem.getResult(state, action);
+				double stepCost = problem.getStepCosts(state, action, successorState);
+				sink.accept(createNode(successorState, node, action, stepCost));
+			}
 		}
+	}
+
+	/**
+	 * Informs all node listeners about the expansion of the specified node.
+	 * Only needed if successors are generated by
+	 * {@link #generateSuccessors(Node, Problem, Consumer)} or one at a time by
+	 * {@link #createNode(Object, Node, Object, double)}.
+	 */
+	public void notifyExpansion(Node<S, A> node) {
 		notifyListeners(node);
-		return successors;
 	}
 
 	///////////////////////////////////////////////////////////////////////
@@ -0,0 +1,230 @@
+package aima.core.search.framework;
+
+import aima.core.search.framework.problem.Problem;
+import aima.core.util.Tasks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs a portfolio of search strategies concurrently on the same problem.
+ * Each strategy is executed in its own background task (see
+ * {@link Tasks#executeInBackground(Runnable)}). By default, the first
+ * solution which is found is returned and all other strategies are cancelled
+ * via {@link Tasks#cancel(Thread)}. Alternatively, the search waits for all
+ * strategies (or until the time limit is exceeded) and returns the solution
+ * with minimal path cost.
+ * <br>
+ * Before the search returns, it waits until the cancelled strategies have
+ * stopped. Strategies should therefore check for cancellation regularly (see
+ * {@link Tasks#currIsCancelled()}). The metrics of all strategies are then
+ * merged into one report. Their keys are prefixed by the strategy names (e.g.
+ * "A*.nodesExpanded"). As all strategies share the problem (and the node
+ * listeners), the problem functions must be thread-safe. The strategies must
+ * be distinct objects. If no solution is found and all strategies have
+ * terminated, the first exception or error thrown by a strategy is rethrown.
+ *
+ * @param <S> The type used to represent states
+ * @param <A> The type of the actions to be used to navigate through the state space
+ */
+public class PortfolioSearch<S, A> implements SearchForActions<S, A> {
+
+	public static final String METRIC_WINNER = "winner";
+	public static final String METRIC_STRATEGIES_FINISHED = "strategiesFinished";
+	public static final String METRIC_PATH_COST = "pathCost";
+
+	private final List<String> names = new ArrayList<>();
+	private final List<SearchForActions<S, A>> strategies = new ArrayList<>();
+	private long timeLimit; // in milliseconds, 0 means no limit
+	private boolean waitForBest;
+	private Metrics metrics = new Metrics();
+
+	/**
+	 * Adds a strategy to the portfolio and returns this search.
+	 *
+	 * @param name     Name of the strategy, used as metrics key prefix.
+	 * @param strategy A search strategy which is not yet part of the portfolio.
+	 */
+	public PortfolioSearch<S, A> addStrategy(String name, SearchForActions<S, A> strategy) {
+		if (names.contains(name) || strategies.contains(strategy))
+			throw new IllegalArgumentException("Strategy " + name + " is already part of the portfolio.");
+		names.add(name);
+		strategies.add(strategy);
+		return this;
+	}
+
+	/**
+	 * Limits the time of each search call. If the limit is exceeded, all
+	 * strategies are cancelled and the best solution found so far is
+	 * returned.
+	 *
+	 * @param timeLimit Time limit in milliseconds, 0 disables the limit.
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * Controls whether the first solution is returned (default) or whether all
+	 * strategies get the chance to find a cheaper solution within the time
+	 * limit.
+	 */
+	public void setWaitForBest(boolean b) {
+		waitForBest = b;
+	}
+
+	@Override
+	public Optional<List<A>> findActions(Problem<S, A> p) {
+		if (strategies.isEmpty())
+			throw new IllegalStateException("Portfolio contains no strategies.");
+		long deadline = timeLimit > 0 ? System.currentTimeMillis() + timeLimit : Long.MAX_VALUE;
+		BlockingQueue<Result<A>> results = new LinkedBlockingQueue<>();
+		List<Thread> threads = new ArrayList<>(strategies.size());
+		for (int i = 0; i < strategies.size(); i++) {
+			int idx = i;
+			threads.add(Tasks.executeInBackground(() -> {
+				try {
+					results.add(new Result<>(idx, strategies.get(idx).findActions(p), null));
+				} catch (Throwable e) {
+					// also errors, otherwise the result would never be posted
+					results.add(new Result<>(idx, Optional.empty(), e));
+				}
+			}));
+		}
+
+		List<Result<A>> collected = new ArrayList<>();
+		try {
+			while (collected.size() < strategies.size() && !Tasks.currIsCancelled()) {
+				long remaining = deadline - System.currentTimeMillis();
+				if (remaining <= 0)
+					break;
+				Result<A> result = results.poll(Math.min(remaining, 10), TimeUnit.MILLISECONDS);
+				if (result != null) {
+					collected.add(result);
+					if (!waitForBest && result.actions.isPresent())
+						break;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		int finished = collected.size();
+		threads.forEach(Tasks::cancel);
+		joinAll(threads);
+		if (waitForBest)
+			results.drainTo(collected); // anytime strategies return their best solution when cancelled
+
+		Result<A> best = null;
+		double bestCost = Double.POSITIVE_INFINITY;
+		Throwable failure = null;
+		for (Result<A> result : collected) {
+			if (result.failure != null && failure == null)
+				failure = result.failure;
+			if (result.actions.isPresent()) {
+				double cost = getPathCost(p, result.actions.get());
+				if (best == null || cost < bestCost) {
+					best = result;
+					bestCost = cost;
+				}
+			}
+		}
+
+		metrics = new Metrics();
+		for (int i = 0; i < strategies.size(); i++)
+			metrics.merge(names.get(i) + ".", strategies.get(i).getMetrics());
+		metrics.set(METRIC_STRATEGIES_FINISHED, finished);
+		metrics.set(METRIC_WINNER, best != null ? best.strategyIdx : -1);
+		if (best != null) {
+			metrics.set(METRIC_PATH_COST, bestCost);
+			return best.actions;
+		}
+		metrics.set(METRIC_PATH_COST, 0);
+		if (failure != null && collected.size() == strategies.size()) {
+			if (failure instanceof RuntimeException)
+				throw (RuntimeException) failure;
+			if (failure instanceof Error)
+				throw (Error) failure;
+			throw new IllegalStateException("Strategy failed.", failure);
+		}
+		return Optional.empty();
+	}
+
+	/** Returns the name of the strategy with the given index. */
+	public String getStrategyName(int idx) {
+		return names.get(idx);
+	}
+
+	/**
+	 * Returns the merged metrics of all strategies and the index of the
+	 * strategy whose solution was returned.
+	 */
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public void addNodeListener(Consumer<Node<S, A>> listener) {
+		strategies.forEach(s -> s.addNodeListener(listener));
+	}
+
+	@Override
+	public boolean removeNodeListener(Consumer<Node<S, A>> listener) {
+		boolean result = false;
+		for (SearchForActions<S, A> strategy : strategies)
+			result |= strategy.removeNodeListener(listener);
+		return result;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	/**
+	 * Waits for the termination of the cancelled strategies, so that they can
+	 * be reused in the next call.
+	 */
+	private void joinAll(List<Thread> threads) {
+		boolean interrupted = false;
+		for (Thread thread : threads) {
+			while (thread.isAlive()) {
+				try {
+					thread.join();
+				} catch (InterruptedException e) {
+					interrupted = true;
+				}
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	private double getPathCost(Problem<S, A> problem, List<A> actions) {
+		double result = 0;
+		S state = problem.getInitialState();
+		for (A action : actions) {
+			S next = problem.getResult(state, action);
+			result += problem.getStepCosts(state, action, next);
+			state = next;
+		}
+		return result;
+	}
+
+	/** Outcome of one strategy. */
+	private static class Result<A> {
+		final int strategyIdx;
+		final Optional<List<A>> actions;
+		final Throwable failure;
+
+		Result(int strategyIdx, Optional<List<A>> actions, Throwable failure) {
+			this.strategyIdx = strategyIdx;
+			this.actions = actions;
+			this.failure = failure;
+		}
+	}
+}
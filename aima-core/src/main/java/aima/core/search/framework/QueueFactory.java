@@ -1,6 +1,12 @@
 package aima.core.search.framework;
 
+import aima.core.util.datastructure.AddressablePriorityQueue;
+import aima.core.util.datastructure.BucketQueue;
+import aima.core.util.datastructure.RadixHeap;
+
 import java.util.*;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
 
 /**
  * Factory class for queues. Changes made here will affect all queue based
@@ -18,6 +24,53 @@ public class QueueFactory {
 		return new PriorityQueue<E>(11, comparator);
 	}
 
+	/**
+	 * Returns an {@link AddressablePriorityQueue}. It orders elements exactly
+	 * like {@link PriorityQueue} but removes and replaces arbitrary elements in
+	 * logarithmic instead of linear time. Note that the smallest element comes
+	 * first!
+	 */
+	public static <E> Queue<E> createAddressablePriorityQueue(Comparator<? super E> comparator) {
+		return new AddressablePriorityQueue<E>(comparator);
+	}
+
+	/**
+	 * Returns a {@link BucketQueue}, which orders elements by integer keys.
+	 * Suited for small key ranges, e.g. path costs or f-values of problems
+	 * with small integer step costs. Note that the smallest element comes
+	 * first!
+	 */
+	public static <E> Queue<E> createBucketQueue(ToIntFunction<? super E> keyFn) {
+		return new BucketQueue<E>(keyFn);
+	}
+
+	/**
+	 * Returns a {@link RadixHeap}, which orders elements by integer keys. Keys
+	 * of added elements must not be smaller than the key of the element which
+	 * was removed last. Note that the smallest element comes first!
+	 */
+	public static <E> Queue<E> createRadixHeap(ToIntFunction<? super E> keyFn) {
+		return new RadixHeap<E>(keyFn);
+	}
+
+	/**
+	 * Converts a function which returns integral values into a key function
+	 * for integer key queues.
+	 *
+	 * @throws IllegalArgumentException
+	 *             when the key function is applied to an element with a
+	 *             value which is not an int.
+	 */
+	public static <E> ToIntFunction<E> toIntKeyFunction(ToDoubleFunction<? super E> fn) {
+		return e -> {
+			double value = fn.applyAsDouble(e);
+			int result = (int) value;
+			if (result != value)
+				throw new IllegalArgumentException("Integer key expected but was " + value + ".");
+			return result;
+		};
+	}
+
 	/**
 	 * Returns a Last-in-first-out (Lifo) view on a {@link LinkedList}.
 	 */
@@ -0,0 +1,83 @@
+package aima.core.search.framework;
+
+/**
+ * Converts states into binary codes of fixed length and back. Codes must be
+ * unique: Two states are equal if and only if their codes are equal. Search
+ * implementations can use codecs to store visited states in compact
+ * primitive collections instead of keeping the state objects on the heap
+ * (see {@link StateSetFactory}).
+ * <br>
+ * Codecs whose codes fit into 8 bytes should override
+ * {@link #encodeAsLong(Object)} and {@link #decodeFromLong(long)}. All other
+ * codecs must override {@link #encode(Object, byte[], int)} and
+ * {@link #decode(byte[], int)}. The default implementations of each pair are
+ * based on the other pair, byte arrays containing the long code in big-endian
+ * order.
+ *
+ * @param <S> The type used to represent states
+ */
+public interface StateCodec<S> {
+
+	/** Returns the number of bytes needed to encode a state. */
+	int encodedLength();
+
+	/** Checks whether codes can be represented by long values. */
+	default boolean fitsInLong() {
+		return encodedLength() <= Long.BYTES;
+	}
+
+	/**
+	 * Returns the code of the state as long value.
+	 *
+	 * @throws UnsupportedOperationException if codes need more than 8 bytes.
+	 */
+	default long encodeAsLong(S state) {
+		if (!fitsInLong())
+			throw new UnsupportedOperationException("Codes need " + encodedLength() + " bytes.");
+		byte[] bytes = new byte[encodedLength()];
+		encode(state, bytes, 0);
+		long result = 0;
+		for (byte b : bytes)
+			result = (result << 8) | (b & 0xFF);
+		return result;
+	}
+
+	/**
+	 * Returns the state which is represented by the long code.
+	 *
+	 * @throws UnsupportedOperationException if codes need more than 8 bytes.
+	 */
+	default S decodeFromLong(long code) {
+		if (!fitsInLong())
+			throw new UnsupportedOperationException("Codes need " + encodedLength() + " bytes.");
+		byte[] bytes = new byte[encodedLength()];
+		for (int i = bytes.length - 1; i >= 0; i--) {
+			bytes[i] = (byte) code;
+			code >>>= 8;
+		}
+		return decode(bytes, 0);
+	}
+
+	/**
+	 * Writes the code of the state into <code>target</code>, starting at
+	 * position <code>offset</code>.
+	 */
+	default void encode(S state, byte[] target, int offset) {
+		long code = encodeAsLong(state);
+		for (int i = encodedLength() - 1; i >= 0; i--) {
+			target[offset + i] = (byte) code;
+			code >>>= 8;
+		}
+	}
+
+	/**
+	 * Returns the state which is represented by the code in
+	 * <code>source</code>, starting at position <code>offset</code>.
+	 */
+	default S decode(byte[] source, int offset) {
+		long code = 0;
+		for (int i = 0; i < encodedLength(); i++)
+			code = (code << 8) | (source[offset + i] & 0xFF);
+		return decodeFromLong(code);
+	}
+}
@@ -0,0 +1,31 @@
+package aima.core.search.framework;
+
+/**
+ * Set of states as needed by graph search implementations to remember
+ * explored states and frontier states. Implementations can store the states
+ * themselves or just compact codes of them (see {@link StateSetFactory}).
+ *
+ * @param <S> The type used to represent states
+ */
+public interface StateSet<S> {
+
+	/** Adds the state and returns true if it was not already contained. */
+	boolean add(S state);
+
+	boolean contains(S state);
+
+	/** Removes the state and returns true if it was contained. */
+	boolean remove(S state);
+
+	/**
+	 * Returns false if {@link #remove(Object)} is not supported, as for
+	 * bitstate sets.
+	 */
+	default boolean supportsRemove() {
+		return true;
+	}
+
+	int size();
+
+	void clear();
+}
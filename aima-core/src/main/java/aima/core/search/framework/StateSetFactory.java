@@ -0,0 +1,414 @@
+package aima.core.search.framework;
+
+import aima.core.util.datastructure.BloomFilter;
+import aima.core.util.datastructure.CountingBloomFilter;
+import aima.core.util.datastructure.LongHashSet;
+import aima.core.util.datastructure.OffHeapByteArraySet;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Factory class for state sets. The compact variants store state codes
+ * instead of states. They reduce the memory needed per state from the size of
+ * the state object plus about 40 bytes of hash set overhead to about twice the
+ * code length. The approximate variants (bitstate hashing and counting Bloom
+ * filters) need just a few bits per state, but may regard new states as
+ * contained.
+ */
+public class StateSetFactory {
+
+	/** Returns a state set which is backed by a {@link HashSet}. */
+	public static <S> StateSet<S> createHashSet() {
+		return new HashStateSet<>();
+	}
+
+	/**
+	 * Returns a thread-safe state set which is backed by a
+	 * {@link ConcurrentHashMap}.
+	 */
+	public static <S> StateSet<S> createConcurrentHashSet() {
+		return new HashStateSet<>(ConcurrentHashMap.newKeySet());
+	}
+
+	/**
+	 * Returns a thread-safe state set which distributes states by hash code
+	 * over several stripes, each guarded by its own lock. Threads only
+	 * contend if they access states of the same stripe. This makes compact
+	 * state sets usable in parallel searches, e.g.
+	 * <code>createStripedSet(() -> createLongSet(codec), 64)</code>.
+	 *
+	 * @param stripeFactory Creates the (not necessarily thread-safe) set of each stripe.
+	 * @param numStripes    Number of stripes (rounded up to a power of two).
+	 */
+	public static <S> StateSet<S> createStripedSet(Supplier<StateSet<S>> stripeFactory, int numStripes) {
+		return new StripedStateSet<>(stripeFactory, numStripes);
+	}
+
+	/**
+	 * Returns the most compact state set which is supported by the codec: A
+	 * primitive long set if codes fit into 8 bytes, and an off-heap byte array
+	 * set otherwise.
+	 */
+	public static <S> StateSet<S> createCompactSet(StateCodec<S> codec) {
+		return codec.fitsInLong() ? createLongSet(codec) : createOffHeapSet(codec);
+	}
+
+	/**
+	 * Returns a state set which stores long codes in a {@link LongHashSet}. The
+	 * codec must support {@link StateCodec#encodeAsLong(Object)}.
+	 */
+	public static <S> StateSet<S> createLongSet(StateCodec<S> codec) {
+		if (!codec.fitsInLong())
+			throw new IllegalArgumentException("Codec needs more than 8 bytes per state.");
+		return new LongStateSet<>(codec);
+	}
+
+	/**
+	 * Returns a state set which stores byte array codes outside of the Java
+	 * heap in an {@link OffHeapByteArraySet}.
+	 */
+	public static <S> StateSet<S> createOffHeapSet(StateCodec<S> codec) {
+		return new OffHeapStateSet<>(codec);
+	}
+
+	/**
+	 * Returns an approximate state set which is based on bitstate hashing.
+	 * The hash values are computed from the state codes. States cannot be
+	 * removed.
+	 *
+	 * @param codec            Codec used to compute the hash values of states.
+	 * @param numBits          Size of the bit array (rounded up to a power of two).
+	 * @param numHashFunctions Number of bits per state. Value 1 corresponds to
+	 *                         classic bitstate hashing, values between 2 and 4
+	 *                         reduce the omission probability considerably.
+	 */
+	public static <S> ApproximateStateSet<S> createBitstateSet(StateCodec<S> codec, long numBits,
+			int numHashFunctions) {
+		return new BitstateSet<>(createHashFunction(codec), numBits, numHashFunctions);
+	}
+
+	/**
+	 * Returns an approximate state set which is based on bitstate hashing. The
+	 * hash values are computed from the hash codes of the states. As they
+	 * provide only 32 bits, this variant is not suited for more than some
+	 * hundred million states.
+	 */
+	public static <S> ApproximateStateSet<S> createBitstateSet(long numBits, int numHashFunctions) {
+		return new BitstateSet<>(state -> mix(state.hashCode()), numBits, numHashFunctions);
+	}
+
+	/**
+	 * Returns an approximate state set which is based on a counting Bloom
+	 * filter with 4 bits per counter. In contrast to bitstate sets, states can
+	 * be removed, which is needed for frontier state sets.
+	 */
+	public static <S> ApproximateStateSet<S> createCountingBloomSet(StateCodec<S> codec, long numCounters,
+			int numHashFunctions) {
+		return new CountingBloomSet<>(createHashFunction(codec), numCounters, numHashFunctions);
+	}
+
+	/** Returns a function which computes well-distributed 64 bit hash values of state codes. */
+	private static <S> ToLongFunction<S> createHashFunction(StateCodec<S> codec) {
+		if (codec.fitsInLong())
+			return state -> mix(codec.encodeAsLong(state));
+		byte[] buffer = new byte[codec.encodedLength()];
+		return state -> {
+			codec.encode(state, buffer, 0);
+			long h = 0;
+			for (byte b : buffer)
+				h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+			return mix(h);
+		};
+	}
+
+	/** Finalizer of the SplitMix64 generator. */
+	private static long mix(long h) {
+		h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+		h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+		return h ^ (h >>> 31);
+	}
+
+	private static class HashStateSet<S> implements StateSet<S> {
+		private final Set<S> states;
+
+		HashStateSet() {
+			this(new HashSet<>());
+		}
+
+		HashStateSet(Set<S> states) {
+			this.states = states;
+		}
+
+		@Override
+		public boolean add(S state) {
+			return states.add(state);
+		}
+
+		@Override
+		public boolean contains(S state) {
+			return states.contains(state);
+		}
+
+		@Override
+		public boolean remove(S state) {
+			return states.remove(state);
+		}
+
+		@Override
+		public int size() {
+			return states.size();
+		}
+
+		@Override
+		public void clear() {
+			states.clear();
+		}
+	}
+
+	private static class StripedStateSet<S> implements StateSet<S> {
+		private final StateSet<S>[] stripes;
+		private final int mask;
+
+		StripedStateSet(Supplier<StateSet<S>> stripeFactory, int numStripes) {
+			int size = Integer.highestOneBit(Math.max(1, numStripes - 1)) << 1;
+			@SuppressWarnings({ "unchecked", "rawtypes" })
+			StateSet<S>[] array = new StateSet[size];
+			for (int i = 0; i < size; i++)
+				array[i] = stripeFactory.get();
+			stripes = array;
+			mask = size - 1;
+		}
+
+		@Override
+		public boolean add(S state) {
+			StateSet<S> stripe = stripeOf(state);
+			synchronized (stripe) {
+				return stripe.add(state);
+			}
+		}
+
+		@Override
+		public boolean contains(S state) {
+			StateSet<S> stripe = stripeOf(state);
+			synchronized (stripe) {
+				return stripe.contains(state);
+			}
+		}
+
+		@Override
+		public boolean remove(S state) {
+			StateSet<S> stripe = stripeOf(state);
+			synchronized (stripe) {
+				return stripe.remove(state);
+			}
+		}
+
+		@Override
+		public int size() {
+			int result = 0;
+			for (StateSet<S> stripe : stripes) {
+				synchronized (stripe) {
+					result += stripe.size();
+				}
+			}
+			return result;
+		}
+
+		@Override
+		public void clear() {
+			for (StateSet<S> stripe : stripes) {
+				synchronized (stripe) {
+					stripe.clear();
+				}
+			}
+		}
+
+		private StateSet<S> stripeOf(S state) {
+			return stripes[(int) mix(state.hashCode()) & mask];
+		}
+	}
+
+	private static class LongStateSet<S> implements StateSet<S> {
+		private final StateCodec<S> codec;
+		private final LongHashSet codes = new LongHashSet();
+
+		LongStateSet(StateCodec<S> codec) {
+			this.codec = codec;
+		}
+
+		@Override
+		public boolean add(S state) {
+			return codes.add(codec.encodeAsLong(state));
+		}
+
+		@Override
+		public boolean contains(S state) {
+			return codes.contains(codec.encodeAsLong(state));
+		}
+
+		@Override
+		public boolean remove(S state) {
+			return codes.remove(codec.encodeAsLong(state));
+		}
+
+		@Override
+		public int size() {
+			return codes.size();
+		}
+
+		@Override
+		public void clear() {
+			codes.clear();
+		}
+	}
+
+	private static class OffHeapStateSet<S> implements StateSet<S> {
+		private final StateCodec<S> codec;
+		private final OffHeapByteArraySet codes;
+		private final byte[] buffer; // reused for encoding
+
+		OffHeapStateSet(StateCodec<S> codec) {
+			this.codec = codec;
+			codes = new OffHeapByteArraySet(codec.encodedLength());
+			buffer = new byte[codec.encodedLength()];
+		}
+
+		@Override
+		public boolean add(S state) {
+			codec.encode(state, buffer, 0);
+			return codes.add(buffer, 0);
+		}
+
+		@Override
+		public boolean contains(S state) {
+			codec.encode(state, buffer, 0);
+			return codes.contains(buffer, 0);
+		}
+
+		@Override
+		public boolean remove(S state) {
+			codec.encode(state, buffer, 0);
+			return codes.remove(buffer, 0);
+		}
+
+		@Override
+		public int size() {
+			return codes.size();
+		}
+
+		@Override
+		public void clear() {
+			codes.clear();
+		}
+	}
+
+	private static class BitstateSet<S> implements ApproximateStateSet<S> {
+		private final ToLongFunction<S> hashFn;
+		private final BloomFilter filter;
+		private int size;
+
+		BitstateSet(ToLongFunction<S> hashFn, long numBits, int numHashFunctions) {
+			this.hashFn = hashFn;
+			filter = new BloomFilter(numBits, numHashFunctions);
+		}
+
+		@Override
+		public boolean add(S state) {
+			boolean result = filter.add(hashFn.applyAsLong(state));
+			if (result)
+				size++;
+			return result;
+		}
+
+		@Override
+		public boolean contains(S state) {
+			return filter.mightContain(hashFn.applyAsLong(state));
+		}
+
+		/** Not supported by bitstate hashing. */
+		@Override
+		public boolean remove(S state) {
+			throw new UnsupportedOperationException("States cannot be removed from bitstate sets.");
+		}
+
+		@Override
+		public boolean supportsRemove() {
+			return false;
+		}
+
+		/** Returns the number of states which were added successfully. */
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public void clear() {
+			filter.clear();
+			size = 0;
+		}
+
+		@Override
+		public double getOmissionProbability() {
+			return filter.getFalsePositiveProbability();
+		}
+	}
+
+	private static class CountingBloomSet<S> implements ApproximateStateSet<S> {
+		private final ToLongFunction<S> hashFn;
+		private final CountingBloomFilter filter;
+		private int size;
+
+		CountingBloomSet(ToLongFunction<S> hashFn, long numCounters, int numHashFunctions) {
+			this.hashFn = hashFn;
+			filter = new CountingBloomFilter(numCounters, numHashFunctions);
+		}
+
+		/**
+		 * Leaves the counters unchanged if the state might be contained
+		 * already, so that each successful add is matched by one remove.
+		 */
+		@Override
+		public boolean add(S state) {
+			long hash = hashFn.applyAsLong(state);
+			if (filter.mightContain(hash))
+				return false;
+			filter.add(hash);
+			size++;
+			return true;
+		}
+
+		@Override
+		public boolean contains(S state) {
+			return filter.mightContain(hashFn.applyAsLong(state));
+		}
+
+		@Override
+		public boolean remove(S state) {
+			boolean result = filter.remove(hashFn.applyAsLong(state));
+			if (result)
+				size--;
+			return result;
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public void clear() {
+			filter.clear();
+			size = 0;
+		}
+
+		@Override
+		public double getOmissionProbability() {
+			return filter.getFalsePositiveProbability();
+		}
+	}
+}
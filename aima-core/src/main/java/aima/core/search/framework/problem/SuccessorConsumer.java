@@ -0,0 +1,13 @@
+package aima.core.search.framework.problem;
+
+/**
+ * Receives the successors of a state, which are generated by
+ * {@link SuccessorProblem#forEachSuccessor(Object, SuccessorConsumer)}.
+ *
+ * @param <S> The type used to represent states
+ * @param <A> The type of the actions to be used to navigate through the state space
+ */
+@FunctionalInterface
+public interface SuccessorConsumer<S, A> {
+	void accept(A action, S successorState, double stepCost);
+}
@@ -0,0 +1,22 @@
+package aima.core.search.framework.problem;
+
+/**
+ * Optional extension of problems which can push the successors of a state
+ * into a consumer instead of returning a list of applicable actions. Search
+ * implementations which expand nodes by
+ * {@link aima.core.search.framework.NodeFactory#expand(aima.core.search.framework.Node, Problem, java.util.function.Consumer)}
+ * use this path automatically and avoid one list per expansion. The successors
+ * must be reported in the same order as the actions returned by
+ * {@link #getActions(Object)}, with the same results and step costs.
+ *
+ * @param <S> The type used to represent states
+ * @param <A> The type of the actions to be used to navigate through the state space
+ */
+public interface SuccessorProblem<S, A> extends Problem<S, A> {
+
+	/**
+	 * Passes action, resulting state, and step cost of each action which is
+	 * applicable in the given state to the consumer.
+	 */
+	void forEachSuccessor(S state, SuccessorConsumer<S, A> consumer);
+}
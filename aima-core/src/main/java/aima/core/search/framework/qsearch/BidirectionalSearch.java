@@ -2,9 +2,11 @@ package aima.core.search.framework.qsearch;
 
 import aima.core.search.framework.Node;
 import aima.core.search.framework.NodeFactory;
+import aima.core.search.framework.StateCodec;
 import aima.core.search.framework.problem.BidirectionalProblem;
 import aima.core.search.framework.problem.Problem;
 import aima.core.util.Tasks;
+import aima.core.util.datastructure.LongHashMap;
 
 import java.util.*;
 
@@ -22,7 +24,9 @@ import java.util.*;
  * explored in the other problem. Only one frontier is used which allows to use
  * the same queue search interface as known from other search implementations.
  * This implementation can be combined with many abstractions of search, e.g.
- * BreadthFirstSearch, UniformCostSearch, or even AStarSearch.
+ * BreadthFirstSearch, UniformCostSearch, or even AStarSearch. If a state codec
+ * is provided, explored nodes are looked up by long state codes instead of
+ * states.
  *
  * @param <S> The type used to represent states
  * @param <A> The type of the actions to be used to navigate through the state space
@@ -45,7 +49,13 @@ public class BidirectionalSearch<S, A> extends QueueSearch<S, A> {
 
 	// index 0: original problem, index 1: reverse problem
 	private final List<Map<S, ExtendedNode<S, A>>> explored;
+	// replaces explored if a codec is available
+	private final List<LongHashMap<ExtendedNode<S, A>>> exploredCodes;
+	private final StateCodec<S> codec;
 	private ExtendedNode<S, A> goalStateNode;
+	// nodes of the same state found by the early goal test during expansion
+	private ExtendedNode<S, A> meetingNode;
+	private ExtendedNode<S, A> meetingNodeFromOtherProblem;
 
 	public BidirectionalSearch() {
 		this(new NodeFactory<>());
@@ -53,11 +63,28 @@ public class BidirectionalSearch<S, A> extends QueueSearch<S, A> {
 
 	public BidirectionalSearch(NodeFactory<S, A> nodeFactory) {
 		super(nodeFactory);
+		codec = null;
+		exploredCodes = null;
 		explored = new ArrayList<>(2);
 		explored.add(new HashMap<>());
 		explored.add(new HashMap<>());
 	}
 
+	/**
+	 * Creates a bidirectional search which maps long state codes to explored
+	 * nodes. The codec must support {@link StateCodec#encodeAsLong(Object)}.
+	 */
+	public BidirectionalSearch(NodeFactory<S, A> nodeFactory, StateCodec<S> codec) {
+		super(nodeFactory);
+		if (!codec.fitsInLong())
+			throw new IllegalArgumentException("Codec needs more than 8 bytes per state.");
+		this.codec = codec;
+		explored = null;
+		exploredCodes = new ArrayList<>(2);
+		exploredCodes.add(new LongHashMap<>());
+		exploredCodes.add(new LongHashMap<>());
+	}
+
 	/**
 	 * Implements an approximation algorithm for bidirectional problems with
 	 * exactly one initial and one goal state. The algorithm guarantees the
@@ -84,8 +111,15 @@ public class BidirectionalSearch<S, A> extends QueueSearch<S, A> {
 		nodeFactory.useParentLinks(true); // bidirectional search needs parents!
 		this.frontier = frontier;
 		clearMetrics();
-		explored.get(ORG_P_IDX).clear();
-		explored.get(REV_P_IDX).clear();
+		meetingNode = null;
+		meetingNodeFromOtherProblem = null;
+		if (codec == null) {
+			explored.get(ORG_P_IDX).clear();
+			explored.get(REV_P_IDX).clear();
+		} else {
+			exploredCodes.get(ORG_P_IDX).clear();
+			exploredCodes.get(REV_P_IDX).clear();
+		}
 
 		Problem<S, A> orgP = ((BidirectionalProblem<S, A>) problem).getOriginalProblem();
 		Problem<S, A> revP = ((BidirectionalProblem<S, A>) problem).getReverseProblem();
@@ -110,18 +144,24 @@ public class BidirectionalSearch<S, A> extends QueueSearch<S, A> {
 				return getSolution(orgP, node, nodeFromOtherProblem);
 
 			// expand the chosen node and add successor nodes to the frontier
-			for (Node<S, A> s : nodeFactory.getSuccessors(node, problem)) {
+			nodeFactory.expand(node, problem, s -> {
+				if (meetingNode != null)
+					return;
 				ExtendedNode<S, A> successor = new ExtendedNode<>(s, node.getProblemIndex());
 				if (!isReverseActionTestEnabled || node.getProblemIndex() == ORG_P_IDX
 						|| getReverseAction(orgP, successor) != null) {
 
-					if (earlyGoalTest
-							&& (nodeFromOtherProblem = getCorrespondingNodeFromOtherProblem(successor)) != null)
-						return getSolution(orgP, successor, nodeFromOtherProblem);
-
-					addToFrontier(successor);
+					ExtendedNode<S, A> otherNode;
+					if (earlyGoalTest && (otherNode = getCorrespondingNodeFromOtherProblem(successor)) != null) {
+						meetingNode = successor;
+						meetingNodeFromOtherProblem = otherNode;
+					} else {
+						addToFrontier(successor);
+					}
 				}
-			}
+			});
+			if (meetingNode != null)
+				return getSolution(orgP, meetingNode, meetingNodeFromOtherProblem);
 		}
 		// if the frontier is empty then return failure
 		return Optional.empty();
@@ -228,17 +268,26 @@ public class BidirectionalSearch<S, A> extends QueueSearch<S, A> {
 	}
 
 	private boolean isExplored(Node<S, A> node) {
-		ExtendedNode<S, A> eNode = (ExtendedNode<S, A>) node;
-		return explored.get(eNode.getProblemIndex()).containsKey(eNode.getState());
+		return getExploredNode(node.getState(), ((ExtendedNode<S, A>) node).getProblemIndex()) != null;
 	}
 
 	private void setExplored(Node<S, A> node) {
 		ExtendedNode<S, A> eNode = (ExtendedNode<S, A>) node;
-		explored.get(eNode.getProblemIndex()).put(eNode.getState(), eNode);
+		if (codec == null)
+			explored.get(eNode.getProblemIndex()).put(eNode.getState(), eNode);
+		else
+			exploredCodes.get(eNode.getProblemIndex()).put(codec.encodeAsLong(eNode.getState()), eNode);
+	}
+
+	private ExtendedNode<S, A> getExploredNode(S state, int problemIndex) {
+		if (codec == null)
+			return explored.get(problemIndex).get(state);
+		else
+			return exploredCodes.get(problemIndex).get(codec.encodeAsLong(state));
 	}
 
 	private ExtendedNode<S, A> getCorrespondingNodeFromOtherProblem(ExtendedNode<S, A> node) {
-		ExtendedNode<S, A> result = explored.get(1 - node.getProblemIndex()).get(node.getState());
+		ExtendedNode<S, A> result = getExploredNode(node.getState(), 1 - node.getProblemIndex());
 
 		// Caution: The goal test of the original problem should always include
 		// the root node of the reverse problem as that node might not yet have
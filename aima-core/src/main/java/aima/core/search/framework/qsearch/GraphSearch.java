@@ -1,12 +1,9 @@
 package aima.core.search.framework.qsearch;
 
-import java.util.HashSet;
 import java.util.Optional;
 import java.util.Queue;
-import java.util.Set;
 
-import aima.core.search.framework.Node;
-import aima.core.search.framework.NodeFactory;
+import aima.core.search.framework.*;
 import aima.core.search.framework.problem.Problem;
 
 /**
@@ -38,7 +35,11 @@ import aima.core.search.framework.problem.Problem;
  * to use the implementation also in combination with priority queue frontiers.
  * This implementation avoids linear costs for frontier node removal (compared
  * to {@link GraphSearchReducedFrontier}) and gets by without node comparator
- * knowledge.
+ * knowledge. The explored set can be replaced by a compact state set which
+ * stores state codes instead of states, or by an approximate state set based on
+ * bitstate hashing (see {@link StateSetFactory#createBitstateSet(StateCodec, long, int)}).
+ * The latter needs only a few bits per state but may omit states. The
+ * estimated omission probability is reported as metric.
  *
  * @param <S> The type used to represent states
  * @param <A> The type of the actions to be used to navigate through the state space
@@ -47,14 +48,24 @@ import aima.core.search.framework.problem.Problem;
  */
 public class GraphSearch<S, A> extends TreeSearch<S, A> {
 
-	private Set<S> explored = new HashSet<>();
+	private final StateSet<S> explored;
 
 	public GraphSearch() {
 		this(new NodeFactory<>());
 	}
 
 	public GraphSearch(NodeFactory<S, A> nodeFactory) {
+		this(nodeFactory, StateSetFactory.createHashSet());
+	}
+
+	/** Uses the most compact state set supported by the codec as explored set. */
+	public GraphSearch(NodeFactory<S, A> nodeFactory, StateCodec<S> codec) {
+		this(nodeFactory, StateSetFactory.createCompactSet(codec));
+	}
+
+	public GraphSearch(NodeFactory<S, A> nodeFactory, StateSet<S> explored) {
 		super(nodeFactory);
+		this.explored = explored;
 	}
 
 	/**
@@ -65,7 +76,11 @@ public class GraphSearch<S, A> extends TreeSearch<S, A> {
 	public Optional<Node<S, A>> findNode(Problem<S, A> problem, Queue<Node<S, A>> frontier) {
 		// initialize the explored set to be empty
 		explored.clear();
-		return super.findNode(problem, frontier);
+		Optional<Node<S, A>> result = super.findNode(problem, frontier);
+		if (explored instanceof ApproximateStateSet)
+			metrics.set(METRIC_OMISSION_PROBABILITY,
+					((ApproximateStateSet<S>) explored).getOmissionProbability());
+		return result;
 	}
 
 	/**
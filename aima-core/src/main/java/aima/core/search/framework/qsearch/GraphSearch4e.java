@@ -45,6 +45,7 @@ public class GraphSearch4e<S, A> extends QueueSearch<S, A> {
 
 	private Queue<Node<S, A>> frontier;
 	private Comparator<? super Node<S, A>> nodeComparator = null;
+	private Node<S, A> solution;
 
 	public GraphSearch4e() {
 		this(new NodeFactory<>());
@@ -69,8 +70,7 @@ public class GraphSearch4e<S, A> extends QueueSearch<S, A> {
 	public Optional<Node<S, A>> findNode(Problem<S, A> problem, Queue<Node<S, A>> frontier) {
 		clearMetrics();
 		this.frontier = frontier;
-		nodeComparator = (frontier instanceof PriorityQueue<?>) ?
-				((PriorityQueue<Node<S, A>>) frontier).comparator() : null;
+		nodeComparator = comparatorOf(frontier);
 		Node<S, A> root = nodeFactory.createNode(problem.getInitialState());
 
 		/// frontier <- a queue initially containing one path, for the problem's initial state
@@ -78,7 +78,7 @@ public class GraphSearch4e<S, A> extends QueueSearch<S, A> {
 		/// solution <- failure
 		addToFrontier(root);
 		Hashtable<S, Node<S, A>> reached = new Hashtable<>();
-		Node<S, A> solution = null;
+		solution = null;
 
 		// missing in pseudocode...
 		reached.put(root.getState(), root); // initial state has been reached!
@@ -95,7 +95,7 @@ public class GraphSearch4e<S, A> extends QueueSearch<S, A> {
 				continue;
 
 			/// for child in EXPAND(parent) do
-			for (Node<S, A> child : nodeFactory.getSuccessors(parent, problem)) {
+			nodeFactory.expand(parent, problem, child -> {
 				/// s <- child.state
 				S s = child.getState();
 				/// if s is not in reached or child is a cheaper path than reached[s] then
@@ -109,7 +109,7 @@ public class GraphSearch4e<S, A> extends QueueSearch<S, A> {
 						/// solution = child
 						solution = child;
 				}
-			}
+			});
 		}
 		/// return solution
 		return asOptional(solution);
@@ -1,13 +1,18 @@
 package aima.core.search.framework.qsearch;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.Queue;
-import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
 
-import aima.core.search.framework.Node;
-import aima.core.search.framework.NodeFactory;
+import aima.core.search.framework.*;
 import aima.core.search.framework.problem.Problem;
+import aima.core.util.Tasks;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Edition): Figure 3.7, page 77.
@@ -32,7 +37,25 @@ import aima.core.search.framework.problem.Problem;
  * {@link TreeSearch#findNode(Problem, Queue)} of the superclass and
  * provides implementations for the needed primitive operations. It is the most
  * efficient variant of graph search for breadth first. But don't expect
- * shortest paths in combination with priority queue frontiers.
+ * shortest paths in combination with priority queue frontiers. The explored
+ * set and the frontier state set can be replaced by compact state sets which
+ * store state codes instead of states, or by approximate state sets. As states
+ * are removed from the frontier state set, bitstate sets can only be used as
+ * explored set; counting Bloom sets can be used for both (see
+ * {@link StateSetFactory}). Approximate sets may omit states. The estimated
+ * omission probability is reported as metric. For the frontier state set,
+ * its maximum during the search is used, as the set shrinks again when
+ * nodes are removed from the frontier.
+ * <br>
+ * In parallel mode (see {@link #setParallel(ForkJoinPool)}), the search is
+ * level-synchronous: All nodes of a layer are expanded concurrently by the
+ * threads of a fork-join pool, each filling its own buffer. Successors of
+ * already reached states are dropped by means of a thread-safe state set. If
+ * several nodes of a layer generate the same new state, the successor which
+ * comes first in sequential expansion order wins. So the returned solution
+ * is the same as in sequential mode, independent of thread scheduling. Node
+ * listeners are informed by the searching thread after each layer, in
+ * sequential expansion order, so they need not be thread-safe.
  *
  * @param <S> The type used to represent states
  * @param <A> The type of the actions to be used to navigate through the state space
@@ -43,28 +66,91 @@ import aima.core.search.framework.problem.Problem;
  */
 public class GraphSearchBFS<S, A> extends TreeSearch<S, A> {
 
-	private final Set<S> explored = new HashSet<>();
-	private final Set<S> frontierStates = new HashSet<>();
+	private final StateSet<S> explored;
+	private final StateSet<S> frontierStates;
+	private double maxFrontierOmissionProbability;
+	private ForkJoinPool pool;
+	private StateSet<S> reached;
 
 	public GraphSearchBFS() {
 		this(new NodeFactory<>());
 	}
 
 	public GraphSearchBFS(NodeFactory<S, A> nodeFactory) {
+		this(nodeFactory, StateSetFactory.createHashSet(), StateSetFactory.createHashSet());
+	}
+
+	/** Uses the most compact state sets supported by the codec. */
+	public GraphSearchBFS(NodeFactory<S, A> nodeFactory, StateCodec<S> codec) {
+		this(nodeFactory, StateSetFactory.createCompactSet(codec), StateSetFactory.createCompactSet(codec));
+	}
+
+	/**
+	 * Creates a search with the given state sets.
+	 *
+	 * @throws IllegalArgumentException if states cannot be removed from
+	 *                                  <code>frontierStates</code>.
+	 */
+	public GraphSearchBFS(NodeFactory<S, A> nodeFactory, StateSet<S> explored, StateSet<S> frontierStates) {
 		super(nodeFactory);
+		if (!frontierStates.supportsRemove())
+			throw new IllegalArgumentException("Frontier state set must support removal of states.");
+		this.explored = explored;
+		this.frontierStates = frontierStates;
 	}
 	
 	
+	/**
+	 * Enables parallel mode (or disables it if <code>pool</code> is null).
+	 * Reached states are stored in a concurrent hash set.
+	 */
+	public void setParallel(ForkJoinPool pool) {
+		setParallel(pool, StateSetFactory.createConcurrentHashSet());
+	}
+
+	/**
+	 * Enables parallel mode (or disables it if <code>pool</code> is null).
+	 * Parallel mode expands each layer of the search space with the threads of
+	 * the pool. Problem functions must be thread-safe, node listeners need
+	 * not. The frontier queue is not used, so parallel mode is only suited for
+	 * breadth-first search.
+	 *
+	 * @param pool    the pool which expands the nodes. It is not shut down by
+	 *                the search.
+	 * @param reached a thread-safe set which stores all reached states, e.g.
+	 *                a striped set of compact state sets (see
+	 *                {@link StateSetFactory#createStripedSet(java.util.function.Supplier, int)}).
+	 */
+	public void setParallel(ForkJoinPool pool, StateSet<S> reached) {
+		this.pool = pool;
+		this.reached = reached;
+	}
+
 	/**
 	 * Clears the set of explored states and calls the search implementation of
 	 * <code>QueSearch</code>
 	 */
 	@Override
 	public Optional<Node<S, A>> findNode(Problem<S, A> problem, Queue<Node<S, A>> frontier) {
+		if (pool != null) {
+			Optional<Node<S, A>> result = findNodeParallel(problem);
+			if (reached instanceof ApproximateStateSet)
+				metrics.set(METRIC_OMISSION_PROBABILITY, ((ApproximateStateSet<S>) reached).getOmissionProbability());
+			return result;
+		}
 		// initialize the explored set to be empty
 		explored.clear();
 		frontierStates.clear();
-		return super.findNode(problem, frontier);
+		maxFrontierOmissionProbability = 0;
+		Optional<Node<S, A>> result = super.findNode(problem, frontier);
+		double p = 0;
+		if (explored instanceof ApproximateStateSet)
+			p = ((ApproximateStateSet<S>) explored).getOmissionProbability();
+		if (frontierStates instanceof ApproximateStateSet)
+			p = 1 - (1 - p) * (1 - maxFrontierOmissionProbability);
+		if (explored instanceof ApproximateStateSet || frontierStates instanceof ApproximateStateSet)
+			metrics.set(METRIC_OMISSION_PROBABILITY, p);
+		return result;
 	}
 
 	/**
@@ -76,6 +162,9 @@ public class GraphSearchBFS<S, A> extends TreeSearch<S, A> {
 		if (!explored.contains(node.getState()) && !frontierStates.contains(node.getState())) {
 			frontier.add(node);
 			frontierStates.add(node.getState());
+			if (frontierStates instanceof ApproximateStateSet)
+				maxFrontierOmissionProbability = Math.max(maxFrontierOmissionProbability,
+						((ApproximateStateSet<S>) frontierStates).getOmissionProbability());
 			updateMetrics(frontier.size());
 		}
 	}
@@ -102,4 +191,110 @@ public class GraphSearchBFS<S, A> extends TreeSearch<S, A> {
 	protected boolean isFrontierEmpty() {
 		return frontier.isEmpty();
 	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	/**
+	 * Expands the search space layer by layer. Each layer is split into
+	 * chunks, which are processed in two parallel phases. First, the nodes of
+	 * each chunk are expanded and successors of unreached states are collected
+	 * in a buffer. For each new state, the position of its first occurrence
+	 * (chunk and buffer index) is determined. Then, each chunk keeps exactly
+	 * the successors at these positions. Concatenating the chunks in order
+	 * yields the next layer in sequential order.
+	 */
+	private Optional<Node<S, A>> findNodeParallel(Problem<S, A> problem) {
+		clearMetrics();
+		reached.clear();
+		Node<S, A> root = nodeFactory.createNode(problem.getInitialState());
+		reached.add(root.getState());
+		if (earlyGoalTest && problem.testSolution(root))
+			return asOptional(root);
+		List<Node<S, A>> layer = Collections.singletonList(root);
+		while (!layer.isEmpty() && !Tasks.currIsCancelled()) {
+			updateMetrics(layer.size());
+			List<Node<S, A>> currLayer = layer;
+			int numChunks = Math.min(currLayer.size(), 4 * pool.getParallelism());
+			List<List<Node<S, A>>> buffers = new ArrayList<>(Collections.nCopies(numChunks, null));
+			List<Node<S, A>> goals = new ArrayList<>(Collections.nCopies(numChunks, null));
+			int[] expandedCounts = new int[numChunks];
+			ConcurrentHashMap<S, Long> firstOccurrences = new ConcurrentHashMap<>();
+
+			runChunks(numChunks, chunk -> {
+				List<Node<S, A>> buffer = new ArrayList<>();
+				int to = chunkStart(chunk + 1, numChunks, currLayer.size());
+				for (int i = chunkStart(chunk, numChunks, currLayer.size()); i < to; i++) {
+					Node<S, A> node = currLayer.get(i);
+					if (!earlyGoalTest && problem.testSolution(node)) {
+						goals.set(chunk, node);
+						break;
+					}
+					nodeFactory.generateSuccessors(node, problem, successor -> {
+						if (!reached.contains(successor.getState())) {
+							firstOccurrences.merge(successor.getState(), position(chunk, buffer.size()), Math::min);
+							buffer.add(successor);
+						}
+					});
+					expandedCounts[chunk]++;
+				}
+				buffers.set(chunk, buffer);
+			});
+			// node listeners (including the expansion counter) are not thread-safe
+			for (int chunk = 0; chunk < numChunks; chunk++) {
+				int from = chunkStart(chunk, numChunks, currLayer.size());
+				for (int i = from; i < from + expandedCounts[chunk]; i++)
+					nodeFactory.notifyExpansion(currLayer.get(i));
+			}
+			Node<S, A> goal = firstNonNull(goals);
+			if (goal != null)
+				return asOptional(goal);
+
+			runChunks(numChunks, chunk -> {
+				List<Node<S, A>> buffer = buffers.get(chunk);
+				List<Node<S, A>> successors = new ArrayList<>();
+				for (int i = 0; i < buffer.size(); i++) {
+					Node<S, A> successor = buffer.get(i);
+					if (firstOccurrences.get(successor.getState()) == position(chunk, i)) {
+						reached.add(successor.getState());
+						successors.add(successor);
+						if (earlyGoalTest && problem.testSolution(successor)) {
+							goals.set(chunk, successor);
+							break;
+						}
+					}
+				}
+				buffers.set(chunk, successors);
+			});
+			goal = firstNonNull(goals);
+			if (goal != null)
+				return asOptional(goal);
+			layer = new ArrayList<>();
+			for (List<Node<S, A>> successors : buffers)
+				layer.addAll(successors);
+		}
+		return Optional.empty();
+	}
+
+	/** Runs the task for all chunk indices in the pool and waits for completion. */
+	private void runChunks(int numChunks, IntConsumer chunkTask) {
+		// parallel streams use the pool of the task which starts them
+		pool.submit(() -> IntStream.range(0, numChunks).parallel().forEach(chunkTask)).join();
+	}
+
+	private static int chunkStart(int chunk, int numChunks, int layerSize) {
+		return (int) ((long) chunk * layerSize / numChunks);
+	}
+
+	private static long position(int chunk, int index) {
+		return (long) chunk << 32 | index;
+	}
+
+	private static <T> T firstNonNull(List<T> list) {
+		for (T elem : list)
+			if (elem != null)
+				return elem;
+		return null;
+	}
 }
@@ -5,6 +5,7 @@ import java.util.*;
 import aima.core.search.framework.Node;
 import aima.core.search.framework.NodeFactory;
 import aima.core.search.framework.problem.Problem;
+import aima.core.util.datastructure.AddressablePriorityQueue;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Edition): Figure 3.7, page 77.
@@ -35,6 +36,12 @@ import aima.core.search.framework.problem.Problem;
  * implementation checks whether another node for the same state already exists
  * and decides whether to replace it or ignore the new node depending on the
  * node's costs (comparator of priority queue is used, if available).
+ * In combination with an {@link AddressablePriorityQueue} frontier (default
+ * for uniform cost and A* search), node replacement is a decrease-key
+ * operation with logarithmic costs. Integer key queues like
+ * {@link aima.core.util.datastructure.BucketQueue} remove the replaced node
+ * from the bucket of its key. Other priority queues need linear time to
+ * remove the replaced node.
  *
  * @param <S> The type used to represent states
  * @param <A> The type of the actions to be used to navigate through the state space
@@ -64,8 +71,7 @@ public class GraphSearchReducedFrontier<S, A> extends TreeSearch<S, A> {
 	@Override
 	public Optional<Node<S, A>> findNode(Problem<S, A> problem, Queue<Node<S, A>> frontier) {
 		// initialize the explored set to be empty
-		if (frontier instanceof PriorityQueue<?>)
-			nodeComparator = ((PriorityQueue<Node<S, A>>) frontier).comparator();
+		nodeComparator = comparatorOf(frontier);
 		explored.clear();
 		frontierNodeLookup.clear();
 		return super.findNode(problem, frontier);
@@ -94,9 +100,12 @@ public class GraphSearchReducedFrontier<S, A> extends TreeSearch<S, A> {
 			} else if (nodeComparator != null && nodeComparator.compare(node, frontierNode) < 0) {
 				// child.STATE is in frontier with higher cost
 				// replace that frontier node with child
-				if (frontier.remove(frontierNode))
-					frontierNodeLookup.remove(frontierNode.getState());
-				frontier.add(node);
+				if (frontier instanceof AddressablePriorityQueue<?>) {
+					((AddressablePriorityQueue<Node<S, A>>) frontier).replace(frontierNode, node);
+				} else {
+					frontier.remove(frontierNode);
+					frontier.add(node);
+				}
 				frontierNodeLookup.put(node.getState(), node);
 			}
 		}
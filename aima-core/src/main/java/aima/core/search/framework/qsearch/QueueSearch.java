@@ -1,11 +1,16 @@
 package aima.core.search.framework.qsearch;
 
+import aima.core.search.framework.ApproximateStateSet;
 import aima.core.search.framework.Metrics;
 import aima.core.search.framework.Node;
 import aima.core.search.framework.NodeFactory;
 import aima.core.search.framework.problem.Problem;
+import aima.core.util.datastructure.AddressablePriorityQueue;
+import aima.core.util.datastructure.IntegerKeyQueue;
 
+import java.util.Comparator;
 import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Queue;
 
 /**
@@ -27,15 +32,25 @@ public abstract class QueueSearch<S, A> {
 	public static final String METRIC_QUEUE_SIZE = "queueSize";
 	public static final String METRIC_MAX_QUEUE_SIZE = "maxQueueSize";
 	public static final String METRIC_PATH_COST = "pathCost";
+	/**
+	 * Estimated probability that a new state was omitted because an approximate
+	 * state set regarded it as explored (see {@link ApproximateStateSet}). Only
+	 * reported by graph searches which use such sets.
+	 */
+	public static final String METRIC_OMISSION_PROBABILITY = "omissionProbability";
 
 	final protected NodeFactory<S, A> nodeFactory;
 	protected boolean earlyGoalTest = false;
 	protected Metrics metrics = new Metrics();
+	private final Metrics.Counter nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
+	private final Metrics.Counter queueSize = metrics.counter(METRIC_QUEUE_SIZE);
+	private final Metrics.Counter maxQueueSize = metrics.counter(METRIC_MAX_QUEUE_SIZE);
+	private final Metrics.Gauge pathCost = metrics.gauge(METRIC_PATH_COST);
 
 	/** Stores the provided node expander and adds a node listener to it. */
 	protected QueueSearch(NodeFactory<S, A> nodeFactory) {
 		this.nodeFactory = nodeFactory;
-		nodeFactory.addNodeListener((node) -> metrics.incrementInt(METRIC_NODES_EXPANDED));
+		nodeFactory.addNodeListener((node) -> nodesExpanded.increment());
 	}
 
 	/**
@@ -77,23 +92,34 @@ public abstract class QueueSearch<S, A> {
 	 * Sets all metrics to zero.
 	 */
 	protected void clearMetrics() {
-		metrics.set(METRIC_NODES_EXPANDED, 0);
-		metrics.set(METRIC_QUEUE_SIZE, 0);
-		metrics.set(METRIC_MAX_QUEUE_SIZE, 0);
+		nodesExpanded.set(0);
+		queueSize.set(0);
+		maxQueueSize.set(0);
 		metrics.set(METRIC_PATH_COST, 0);
 	}
 
 	protected void updateMetrics(int queueSize) {
-		metrics.set(METRIC_QUEUE_SIZE, queueSize);
-		int maxQSize = metrics.getInt(METRIC_MAX_QUEUE_SIZE);
-		if (queueSize > maxQSize) {
-			metrics.set(METRIC_MAX_QUEUE_SIZE, queueSize);
-		}
+		this.queueSize.set(queueSize);
+		maxQueueSize.updateMax(queueSize);
 	}
 
 	protected Optional<Node<S, A>> asOptional(Node<S, A> node) {
 		if (node != null)
-			metrics.set(METRIC_PATH_COST, node.getPathCost());
+			pathCost.set(node.getPathCost());
 		return Optional.ofNullable(node);
 	}
+
+	/**
+	 * Returns the comparator which orders the elements of a priority queue, or
+	 * null if the queue is not ordered by a known comparator.
+	 */
+	protected static <E> Comparator<? super E> comparatorOf(Queue<E> queue) {
+		if (queue instanceof PriorityQueue<?>)
+			return ((PriorityQueue<E>) queue).comparator();
+		else if (queue instanceof AddressablePriorityQueue<?>)
+			return ((AddressablePriorityQueue<E>) queue).comparator();
+		else if (queue instanceof IntegerKeyQueue<?>)
+			return ((IntegerKeyQueue<E>) queue).comparator();
+		return null;
+	}
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package aima.core.search.framework.qsearch;
 
 import java.util.Optional;
 import java.util.Queue;
+import java.util.function.Consumer;
 
 import aima.core.search.framework.Node;
 import aima.core.search.framework.NodeFactory;
@@ -37,6 +38,8 @@ import aima.core.util.Tasks;
 public class TreeSearch<S, A> extends QueueSearch<S, A> {
 
 	protected Queue<Node<S, A>> frontier;
+	// successor which passed the early goal test
+	private Node<S, A> goalSuccessor;
 
 	public TreeSearch() {
 		this(new NodeFactory<>());
@@ -65,6 +68,15 @@ public class TreeSearch<S, A> extends QueueSearch<S, A> {
 	public Optional<Node<S, A>> findNode(Problem<S, A> problem, Queue<Node<S, A>> frontier) {
 		this.frontier = frontier;
 		clearMetrics();
+		goalSuccessor = null;
+		// one sink per search, successors are streamed without intermediate lists
+		Consumer<Node<S, A>> successorSink = successor -> {
+			if (goalSuccessor == null) {
+				addToFrontier(successor);
+				if (earlyGoalTest && problem.testSolution(successor))
+					goalSuccessor = successor;
+			}
+		};
 		// initialize the frontier using the initial state of the problem
 		Node<S, A> root = nodeFactory.createNode(problem.getInitialState());
 		addToFrontier(root);
@@ -79,11 +91,9 @@ public class TreeSearch<S, A> extends QueueSearch<S, A> {
 				return asOptional(node);
 
 			// expand the chosen node and add the successor nodes to the frontier
-			for (Node<S, A> successor : nodeFactory.getSuccessors(node, problem)) {
-				addToFrontier(successor);
-				if (earlyGoalTest && problem.testSolution(successor))
-					return asOptional(successor);
-			}
+			nodeFactory.expand(node, problem, successorSink);
+			if (goalSuccessor != null)
+				return asOptional(goalSuccessor);
 		}
 		// if the frontier is empty then return failure
 		return Optional.empty();
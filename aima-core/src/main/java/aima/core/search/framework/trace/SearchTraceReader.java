@@ -0,0 +1,209 @@
+package aima.core.search.framework.trace;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Consumer;
+
+/**
+ * Reads trace files which were written by a {@link SearchTraceRecorder}.
+ * Records can be replayed one by one, or aggregated. Replay reuses a single
+ * record object, which must not be stored by the consumer.
+ */
+public class SearchTraceReader implements AutoCloseable {
+
+	private final FileChannel channel;
+	private final long numRecords;
+
+	public SearchTraceReader(Path file) throws IOException {
+		channel = FileChannel.open(file, StandardOpenOption.READ);
+		ByteBuffer header = ByteBuffer.allocate(SearchTraceRecorder.HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		if (channel.size() < SearchTraceRecorder.HEADER_SIZE || channel.read(header, 0) < header.capacity()
+				|| header.getInt(0) != SearchTraceRecorder.MAGIC) {
+			channel.close();
+			throw new IOException("Not a search trace: " + file);
+		}
+		header.position(4);
+		int version = header.getInt();
+		if (version != SearchTraceRecorder.VERSION) {
+			channel.close();
+			throw new IOException("Unsupported trace version " + version + ".");
+		}
+		numRecords = header.getLong();
+	}
+
+	/** Returns the number of records. */
+	public long size() {
+		return numRecords;
+	}
+
+	/** Passes all records to the consumer in recorded order. */
+	public void forEach(Consumer<Record> consumer) {
+		Record record = new Record();
+		long windowRecords = SearchTraceRecorder.WINDOW_SIZE / SearchTraceRecorder.RECORD_SIZE;
+		try {
+			for (long first = 0; first < numRecords; first += windowRecords) {
+				long count = Math.min(windowRecords, numRecords - first);
+				MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY,
+						SearchTraceRecorder.HEADER_SIZE + first * SearchTraceRecorder.RECORD_SIZE,
+						count * SearchTraceRecorder.RECORD_SIZE);
+				window.order(ByteOrder.LITTLE_ENDIAN);
+				for (long i = 0; i < count; i++) {
+					record.nodeId = window.getLong();
+					record.parentId = window.getLong();
+					record.depth = window.getInt();
+					record.event = (byte) window.getInt();
+					record.g = window.getDouble();
+					record.h = window.getDouble();
+					consumer.accept(record);
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Returns the average number of generated children per expanded node for
+	 * each depth at which nodes were expanded.
+	 */
+	public Map<Integer, Double> getBranchingFactors() {
+		BranchingCounter counter = new BranchingCounter();
+		forEach(counter);
+		Map<Integer, Double> result = new TreeMap<>();
+		for (int d = 0; d < counter.expanded.length; d++)
+			if (counter.expanded[d] > 0)
+				result.put(d, (double) counter.generated[d] / counter.expanded[d]);
+		return result;
+	}
+
+	/**
+	 * Returns the heuristic errors along the path of the last recorded
+	 * solution, from the root to the goal node. The error of a node is the
+	 * cost of the rest of the path minus its heuristic value. If the solution
+	 * is optimal, negative errors indicate overestimation. An empty array is
+	 * returned if no solution was recorded.
+	 */
+	public double[] getHeuristicErrors() {
+		PathCollector collector = new PathCollector();
+		forEach(collector);
+		if (collector.goal == SearchTraceRecorder.NO_PARENT)
+			return new double[0];
+		int length = 0;
+		for (long id = collector.goal; id != SearchTraceRecorder.NO_PARENT; id = collector.parents[(int) id])
+			length++;
+		double[] result = new double[length];
+		long id = collector.goal;
+		for (int i = length - 1; i >= 0; i--) {
+			result[i] = collector.cost - collector.gValues[(int) id] - collector.hValues[(int) id];
+			id = collector.parents[(int) id];
+		}
+		return result;
+	}
+
+	@Override
+	public void close() throws IOException {
+		channel.close();
+	}
+
+	/** A trace record. The fields are overwritten when the next record is read. */
+	public static class Record {
+		private long nodeId;
+		private long parentId;
+		private int depth;
+		private byte event;
+		private double g;
+		private double h;
+
+		public long getNodeId() {
+			return nodeId;
+		}
+
+		/** Returns the id of the parent node or {@link SearchTraceRecorder#NO_PARENT}. */
+		public long getParentId() {
+			return parentId;
+		}
+
+		public int getDepth() {
+			return depth;
+		}
+
+		/** Returns one of the <code>EVENT_*</code> constants of {@link SearchTraceRecorder}. */
+		public byte getEvent() {
+			return event;
+		}
+
+		public double getPathCost() {
+			return g;
+		}
+
+		/** Returns the heuristic value or <code>Double.NaN</code> if it was not recorded. */
+		public double getHeuristicValue() {
+			return h;
+		}
+	}
+
+	/** Counts expanded nodes per depth and the children generated from them. */
+	private static class BranchingCounter implements Consumer<Record> {
+		long[] expanded = new long[16];
+		long[] generated = new long[16];
+
+		@Override
+		public void accept(Record record) {
+			if (record.event == SearchTraceRecorder.EVENT_EXPANDED) {
+				ensureCapacity(record.depth);
+				expanded[record.depth]++;
+			} else if (record.event == SearchTraceRecorder.EVENT_GENERATED && record.depth > 0) {
+				ensureCapacity(record.depth - 1);
+				generated[record.depth - 1]++;
+			}
+		}
+
+		private void ensureCapacity(int depth) {
+			if (depth >= expanded.length) {
+				expanded = Arrays.copyOf(expanded, 2 * depth);
+				generated = Arrays.copyOf(generated, 2 * depth);
+			}
+		}
+	}
+
+	/**
+	 * Collects parent, path cost, and heuristic value of all generated nodes
+	 * and the last solution. Node ids are assigned consecutively, so arrays
+	 * serve as maps.
+	 */
+	private static class PathCollector implements Consumer<Record> {
+		long[] parents = new long[1024];
+		double[] gValues = new double[1024];
+		double[] hValues = new double[1024];
+		long goal = SearchTraceRecorder.NO_PARENT;
+		double cost;
+
+		@Override
+		public void accept(Record record) {
+			if (record.event == SearchTraceRecorder.EVENT_GENERATED) {
+				if (record.nodeId >= parents.length) {
+					int length = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(2L * parents.length, record.nodeId + 1));
+					parents = Arrays.copyOf(parents, length);
+					gValues = Arrays.copyOf(gValues, length);
+					hValues = Arrays.copyOf(hValues, length);
+				}
+				int id = (int) record.nodeId;
+				parents[id] = record.parentId;
+				gValues[id] = record.g;
+				hValues[id] = record.h;
+			} else if (record.event == SearchTraceRecorder.EVENT_SOLUTION) {
+				goal = record.nodeId;
+				cost = record.g;
+			}
+		}
+	}
+}
@@ -0,0 +1,210 @@
+package aima.core.search.framework.trace;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records search events as fixed-size binary records in a file. Each record
+ * consists of node id, parent id, depth, event type, path cost g, and
+ * heuristic value h (40 bytes, little endian). Search threads append records
+ * to a lock-free ring buffer. A background thread moves them to a
+ * memory-mapped file. If the ring buffer is full, search threads wait until
+ * the background thread has made room. Records of different threads may be
+ * interleaved, but the records of one thread keep their order.
+ * <br>
+ * The file starts with a header of {@link #HEADER_SIZE} bytes (magic number,
+ * version, and number of records), which is written when the recorder is
+ * closed. Use {@link SearchTraceReader} to analyze traces.
+ */
+public class SearchTraceRecorder implements AutoCloseable {
+
+	public static final byte EVENT_GENERATED = 0;
+	public static final byte EVENT_EXPANDED = 1;
+	public static final byte EVENT_SOLUTION = 2;
+
+	/** Parent id of root nodes. */
+	public static final long NO_PARENT = -1;
+
+	static final int MAGIC = 0x41494D54; // "AIMT"
+	static final int VERSION = 1;
+	public static final int HEADER_SIZE = 16;
+	public static final int RECORD_SIZE = 40;
+	// window size of the output file, a multiple of the record size
+	static final int WINDOW_SIZE = RECORD_SIZE << 18;
+
+	private static final int SLOT_LONGS = 5;
+
+	private final long[] slots;
+	private final AtomicLongArray published;
+	private final int mask;
+	private final AtomicLong tail = new AtomicLong();
+	private volatile long head;
+	private final AtomicLong nodeIds = new AtomicLong();
+
+	private final FileChannel channel;
+	private final Thread flusher;
+	private MappedByteBuffer window;
+	private long windowStart = HEADER_SIZE;
+	private volatile boolean isClosed;
+	private volatile IOException failure;
+
+	/** Creates a recorder with a ring buffer for 2^16 records. */
+	public SearchTraceRecorder(Path file) throws IOException {
+		this(file, 1 << 16);
+	}
+
+	/**
+	 * Creates a recorder which writes to the specified file. An existing file
+	 * is overwritten.
+	 *
+	 * @param file     the trace file
+	 * @param capacity capacity of the ring buffer in records (rounded up to a
+	 *                 power of two)
+	 */
+	public SearchTraceRecorder(Path file, int capacity) throws IOException {
+		int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+		slots = new long[size * SLOT_LONGS];
+		published = new AtomicLongArray(size);
+		mask = size - 1;
+		channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		flusher = new Thread(this::flushContinuously, "search-trace-flusher");
+		flusher.setDaemon(true);
+		flusher.start();
+	}
+
+	/** Returns a new node id. Ids are assigned consecutively starting with 0. */
+	public long nextNodeId() {
+		return nodeIds.getAndIncrement();
+	}
+
+	/**
+	 * Appends a record. This method is thread-safe.
+	 *
+	 * @param event    one of the <code>EVENT_*</code> constants
+	 * @param nodeId   id of the node
+	 * @param parentId id of the parent node or {@link #NO_PARENT}
+	 * @param depth    depth of the node
+	 * @param g        path cost of the node
+	 * @param h        heuristic value of the node or <code>Double.NaN</code>
+	 */
+	public void record(byte event, long nodeId, long parentId, int depth, double g, double h) {
+		long seq = tail.getAndIncrement();
+		while (seq - head > mask) {
+			if (failure != null)
+				throw new UncheckedIOException(failure);
+			if (isClosed)
+				throw new IllegalStateException("Recorder is closed.");
+			Thread.onSpinWait();
+		}
+		int slot = (int) seq & mask;
+		int base = slot * SLOT_LONGS;
+		slots[base] = nodeId;
+		slots[base + 1] = parentId;
+		slots[base + 2] = (long) depth << 8 | event & 0xFF;
+		slots[base + 3] = Double.doubleToRawLongBits(g);
+		slots[base + 4] = Double.doubleToRawLongBits(h);
+		published.lazySet(slot, seq + 1);
+	}
+
+	/** Returns the number of records which have been appended so far. */
+	public long getNumberOfRecords() {
+		return tail.get();
+	}
+
+	/**
+	 * Waits until all records have been written, writes the header, and closes
+	 * the file. No records must be appended concurrently.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (isClosed)
+			return;
+		isClosed = true;
+		LockSupport.unpark(flusher);
+		boolean interrupted = false;
+		while (flusher.isAlive()) {
+			try {
+				flusher.join();
+			} catch (InterruptedException e) {
+				interrupted = true;
+			}
+		}
+		if (interrupted)
+			Thread.currentThread().interrupt();
+		try {
+			if (failure != null)
+				throw failure;
+			if (window != null)
+				window.force();
+			window = null;
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(VERSION).putLong(head).flip();
+			channel.write(header, 0);
+			try {
+				channel.truncate(HEADER_SIZE + head * RECORD_SIZE);
+			} catch (IOException e) {
+				// some platforms refuse to truncate mapped files, the header tells the size
+			}
+		} finally {
+			channel.close();
+		}
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private void flushContinuously() {
+		try {
+			while (true) {
+				boolean closed = isClosed; // read before draining, so no record is missed
+				if (!flush()) {
+					if (closed)
+						break;
+					LockSupport.parkNanos(100_000);
+				}
+			}
+		} catch (IOException e) {
+			failure = e;
+		}
+	}
+
+	/** Writes all published records and returns true if there were some. */
+	private boolean flush() throws IOException {
+		long start = head;
+		long seq = start;
+		while (true) {
+			int slot = (int) seq & mask;
+			if (published.get(slot) != seq + 1)
+				break;
+			if (window == null || !window.hasRemaining()) {
+				if (window != null)
+					windowStart += WINDOW_SIZE;
+				window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, WINDOW_SIZE);
+				window.order(ByteOrder.LITTLE_ENDIAN);
+			}
+			int base = slot * SLOT_LONGS;
+			window.putLong(slots[base]);
+			window.putLong(slots[base + 1]);
+			window.putInt((int) (slots[base + 2] >> 8));
+			window.putInt((int) slots[base + 2] & 0xFF);
+			window.putLong(slots[base + 3]);
+			window.putLong(slots[base + 4]);
+			seq++;
+			if ((seq & 1023) == 0)
+				head = seq; // make room early for waiting producers
+		}
+		head = seq;
+		return seq != start;
+	}
+}
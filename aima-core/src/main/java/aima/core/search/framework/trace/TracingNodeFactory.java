@@ -0,0 +1,112 @@
+package aima.core.search.framework.trace;
+
+import aima.core.search.framework.Node;
+import aima.core.search.framework.NodeFactory;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Node factory which records the generation and expansion of nodes with a
+ * {@link SearchTraceRecorder}. Nodes created by this factory carry a node id.
+ * Searches which use the factory are traced without further changes. Node
+ * listeners are informed as usual.
+ *
+ * @param <S> The type used to represent states
+ * @param <A> The type of the actions to be used to navigate through the state space
+ */
+public class TracingNodeFactory<S, A> extends NodeFactory<S, A> {
+
+	private final SearchTraceRecorder recorder;
+	private final ToDoubleFunction<Node<S, A>> h;
+
+	/** Creates a factory which records nodes without heuristic values. */
+	public TracingNodeFactory(SearchTraceRecorder recorder) {
+		this(recorder, null);
+	}
+
+	/**
+	 * Creates a factory which records nodes including heuristic values.
+	 * Note that the heuristic function is evaluated once more per generated
+	 * node.
+	 */
+	public TracingNodeFactory(SearchTraceRecorder recorder, ToDoubleFunction<Node<S, A>> h) {
+		this.recorder = recorder;
+		this.h = h;
+	}
+
+	@Override
+	public Node<S, A> createNode(S state) {
+		return trace(new TracedNode<>(state, null, null, 0, recorder.nextNodeId(), SearchTraceRecorder.NO_PARENT, 0));
+	}
+
+	@Override
+	public Node<S, A> createNode(S state, Node<S, A> parent, A action, double stepCost) {
+		Node<S, A> p = useParentLinks ? parent : null;
+		return trace(new TracedNode<>(state, p, action, parent.getPathCost() + stepCost, recorder.nextNodeId(),
+				getId(parent), getDepth(parent) + 1));
+	}
+
+	/**
+	 * Records that the node is a solution. Searches do not call this method,
+	 * it has to be called with the result of the search.
+	 */
+	public void recordSolution(Node<S, A> node) {
+		record(SearchTraceRecorder.EVENT_SOLUTION, node);
+	}
+
+	/**
+	 * Returns the id of a node which was created by a tracing node factory or
+	 * -1.
+	 */
+	public static long getId(Node<?, ?> node) {
+		return node instanceof TracedNode ? ((TracedNode<?, ?>) node).id : -1;
+	}
+
+	@Override
+	protected void notifyListeners(Node<S, A> node) {
+		record(SearchTraceRecorder.EVENT_EXPANDED, node);
+		super.notifyListeners(node);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private TracedNode<S, A> trace(TracedNode<S, A> node) {
+		node.h = h != null ? h.applyAsDouble(node) : Double.NaN;
+		record(SearchTraceRecorder.EVENT_GENERATED, node);
+		return node;
+	}
+
+	private static int getDepth(Node<?, ?> node) {
+		return node instanceof TracedNode ? ((TracedNode<?, ?>) node).depth : node.getDepth();
+	}
+
+	private void record(byte event, Node<S, A> node) {
+		if (node instanceof TracedNode) {
+			TracedNode<S, A> tn = (TracedNode<S, A>) node;
+			recorder.record(event, tn.id, tn.parentId, tn.depth, node.getPathCost(), tn.h);
+		} else {
+			recorder.record(event, -1, SearchTraceRecorder.NO_PARENT, node.getDepth(), node.getPathCost(),
+					h != null ? h.applyAsDouble(node) : Double.NaN);
+		}
+	}
+
+	/**
+	 * Node with id, parent id, depth, and heuristic value. Ids and depth are
+	 * also correct if parent links are disabled.
+	 */
+	private static class TracedNode<S, A> extends Node<S, A> {
+		private final long id;
+		private final long parentId;
+		private final int depth;
+		private double h;
+
+		TracedNode(S state, Node<S, A> parent, A action, double pathCost, long id, long parentId, int depth) {
+			super(state, parent, action, pathCost);
+			this.id = id;
+			this.parentId = parentId;
+			this.depth = depth;
+		}
+	}
+}
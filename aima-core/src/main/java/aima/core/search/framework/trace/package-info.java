@@ -0,0 +1,7 @@
+/**
+ * This package contains a low-overhead recorder for search traces, a node
+ * factory which feeds it, and a reader which replays and aggregates traces
+ * offline.
+ */
+
+package aima.core.search.framework.trace;
@@ -1,9 +1,13 @@
 package aima.core.search.informed;
 
 import aima.core.search.framework.Node;
+import aima.core.search.framework.QueueFactory;
 import aima.core.search.framework.qsearch.QueueSearch;
 
+import java.util.Queue;
+import java.util.function.Function;
 import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Edition): page 93.<br>
@@ -36,6 +40,33 @@ public class AStarSearch<S, A> extends BestFirstSearch<S, A> {
         super(impl, createEvalFn(h));
     }
 
+    /**
+     * Creates an A* search which uses a bucket queue as frontier. Faster than
+     * the default priority queue for problems with small integer step costs
+     * and heuristic values. Other values cause an
+     * <code>IllegalArgumentException</code> during search.
+     */
+    public static <S, A> AStarSearch<S, A> createWithBucketQueue(QueueSearch<S, A> impl,
+                                                                ToDoubleFunction<Node<S, A>> h) {
+        return new AStarSearch<>(impl, createEvalFn(h), QueueFactory::createBucketQueue);
+    }
+
+    /**
+     * Creates an A* search which uses a radix heap as frontier. Like
+     * {@link #createWithBucketQueue(QueueSearch, ToDoubleFunction)}, but the
+     * heuristic must be consistent, and large f-value ranges need no
+     * additional memory.
+     */
+    public static <S, A> AStarSearch<S, A> createWithRadixHeap(QueueSearch<S, A> impl,
+                                                              ToDoubleFunction<Node<S, A>> h) {
+        return new AStarSearch<>(impl, createEvalFn(h), QueueFactory::createRadixHeap);
+    }
+
+    private AStarSearch(QueueSearch<S, A> impl, EvaluationFunction<S, A> evalFn,
+                        Function<ToIntFunction<Node<S, A>>, Queue<Node<S, A>>> queueFactory) {
+        super(impl, evalFn, queueFactory.apply(QueueFactory.toIntKeyFunction(evalFn)));
+    }
+
     // f(n) = g(n) + h(n)
     public static <S, A> EvaluationFunction<S, A> createEvalFn(ToDoubleFunction<Node<S, A>> h) {
         return new EvaluationFunction<>(h) {
@@ -0,0 +1,294 @@
+package aima.core.search.informed;
+
+import aima.core.search.framework.*;
+import aima.core.search.framework.problem.Problem;
+import aima.core.util.Tasks;
+import aima.core.util.datastructure.AddressablePriorityQueue;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Anytime repairing A* (ARA*, Likhachev, Gordon and Thrun, NIPS 2003). A
+ * series of weighted A* searches with f(n) = g(n) + w * h(n) is performed,
+ * starting with a large weight w, which is decreased after each search until
+ * it reaches 1. The first solution is typically found very fast, later
+ * searches improve it. Search effort is reused: Each search continues with the
+ * frontier of the previous one, and states are expanded at most once per
+ * search. States whose path costs decrease after their expansion are kept in
+ * a list of inconsistent states and are added to the frontier of the next
+ * search.
+ * <br>
+ * After each search, the suboptimality bound min(w, c / min(g(n) + h(n))) is
+ * published in the metrics (c denotes the cost of the best solution and the
+ * minimum is taken over all frontier and inconsistent nodes). With an
+ * admissible heuristic, the cost of the best solution is at most the bound
+ * times the optimal cost. The search stops when the bound reaches 1, when the
+ * time limit is exceeded, or when the task is cancelled (see
+ * {@link Tasks#currIsCancelled()}). In all cases, the best solution found so
+ * far is returned.
+ *
+ * @param <S> The type used to represent states
+ * @param <A> The type of the actions to be used to navigate through the state space
+ */
+public class AnytimeRepairingAStarSearch<S, A> implements SearchForActions<S, A>, SearchForStates<S, A>,
+		Informed<S, A> {
+
+	public static final String METRIC_NODES_EXPANDED = "nodesExpanded";
+	public static final String METRIC_QUEUE_SIZE = "queueSize";
+	public static final String METRIC_SOLUTIONS = "solutions";
+	public static final String METRIC_WEIGHT = "weight";
+	public static final String METRIC_SUBOPTIMALITY_BOUND = "suboptimalityBound";
+	public static final String METRIC_PATH_COST = "pathCost";
+
+	private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+	private final NodeFactory<S, A> nodeFactory;
+	private ToDoubleFunction<Node<S, A>> h;
+	private final double initialWeight;
+	private final double weightDecrement;
+	private long timeLimit; // in milliseconds, 0 means no limit
+	private Consumer<Node<S, A>> solutionListener = node -> {};
+
+	private final Metrics metrics = new Metrics();
+	private final Metrics.Counter nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
+	private final Metrics.Counter queueSize = metrics.counter(METRIC_QUEUE_SIZE);
+	private final Metrics.Counter solutions = metrics.counter(METRIC_SOLUTIONS);
+	private final Metrics.Gauge weightGauge = metrics.gauge(METRIC_WEIGHT);
+	private final Metrics.Gauge bound = metrics.gauge(METRIC_SUBOPTIMALITY_BOUND);
+
+	private final Map<S, Entry<S, A>> entries = new HashMap<>();
+	private final Queue<Entry<S, A>> open = new AddressablePriorityQueue<>(
+			Comparator.<Entry<S, A>>comparingDouble(e -> e.key).thenComparingDouble(e -> -e.g));
+	private final List<Entry<S, A>> inconsistent = new ArrayList<>();
+	private double weight;
+	private Node<S, A> solution;
+	private long deadline;
+
+	public AnytimeRepairingAStarSearch(ToDoubleFunction<Node<S, A>> h) {
+		this(new NodeFactory<>(), h, 5, 1);
+	}
+
+	/**
+	 * Constructs an ARA* search.
+	 *
+	 * @param nodeFactory     Factory for node creation and successor generation.
+	 * @param h               A heuristic function <em>h(n)</em>, which estimates
+	 *                        the cost of the cheapest path from the state of
+	 *                        node <em>n</em> to a goal state.
+	 * @param initialWeight   Heuristic weight of the first search (at least 1).
+	 * @param weightDecrement Value by which the weight is decreased after each
+	 *                        search.
+	 */
+	public AnytimeRepairingAStarSearch(NodeFactory<S, A> nodeFactory, ToDoubleFunction<Node<S, A>> h,
+			double initialWeight, double weightDecrement) {
+		if (initialWeight < 1 || weightDecrement <= 0)
+			throw new IllegalArgumentException("Weight must be at least 1 and decrement positive.");
+		this.nodeFactory = nodeFactory;
+		this.h = h;
+		this.initialWeight = initialWeight;
+		this.weightDecrement = weightDecrement;
+	}
+
+	/**
+	 * Limits the time of each search call. If the limit is exceeded, the best
+	 * solution found so far is returned.
+	 *
+	 * @param timeLimit Time limit in milliseconds, 0 disables the limit.
+	 */
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
+
+	/**
+	 * Sets a listener which is informed whenever a better solution is found.
+	 * It receives the node of the solution.
+	 */
+	public void setSolutionListener(Consumer<Node<S, A>> listener) {
+		solutionListener = listener;
+	}
+
+	@Override
+	public Optional<List<A>> findActions(Problem<S, A> p) {
+		nodeFactory.useParentLinks(true);
+		return SearchUtils.toActions(findNode(p));
+	}
+
+	@Override
+	public Optional<S> findState(Problem<S, A> p) {
+		nodeFactory.useParentLinks(false);
+		return SearchUtils.toState(findNode(p));
+	}
+
+	/**
+	 * Returns the node of the best solution found within the time limit.
+	 */
+	public Optional<Node<S, A>> findNode(Problem<S, A> problem) {
+		clearMetrics();
+		deadline = timeLimit > 0 ? System.currentTimeMillis() + timeLimit : Long.MAX_VALUE;
+		solution = null;
+		weight = initialWeight;
+		Node<S, A> root = nodeFactory.createNode(problem.getInitialState());
+		if (problem.testSolution(root))
+			setSolution(root);
+		insertOrUpdate(root);
+		while (!isTimeOut()) {
+			weightGauge.set(weight);
+			improvePath(problem);
+			if (isTimeOut())
+				break;
+			updateBound();
+			if (weight <= 1 || bound.get() <= 1)
+				break;
+			weight = Math.max(1, weight - weightDecrement);
+			reorderOpen();
+		}
+		entries.clear();
+		open.clear();
+		inconsistent.clear();
+		return Optional.ofNullable(solution);
+	}
+
+	@Override
+	public void setHeuristicFunction(ToDoubleFunction<Node<S, A>> h) {
+		this.h = h;
+	}
+
+	/**
+	 * Returns all the search metrics.
+	 */
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public void addNodeListener(Consumer<Node<S, A>> listener) {
+		nodeFactory.addNodeListener(listener);
+	}
+
+	@Override
+	public boolean removeNodeListener(Consumer<Node<S, A>> listener) {
+		return nodeFactory.removeNodeListener(listener);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	/**
+	 * Weighted A* search which reuses the frontier of the previous search and
+	 * expands each state at most once. It stops as soon as no frontier node
+	 * promises a better solution with respect to the current weight.
+	 */
+	private void improvePath(Problem<S, A> problem) {
+		while (!open.isEmpty() && getSolutionCost() > open.peek().key && !isTimeOut()) {
+			Entry<S, A> entry = open.remove();
+			queueSize.set(open.size());
+			entry.closed = true;
+			nodesExpanded.increment();
+			for (Node<S, A> child : nodeFactory.getSuccessors(entry.node, problem)) {
+				if (child.getPathCost() < getSolutionCost() && problem.testSolution(child))
+					setSolution(child);
+				insertOrUpdate(child);
+			}
+		}
+	}
+
+	/**
+	 * Records a new or cheaper path to the state of the node. Closed states are
+	 * remembered as inconsistent, all other states are added to the frontier.
+	 */
+	private void insertOrUpdate(Node<S, A> node) {
+		Entry<S, A> entry = entries.get(node.getState());
+		if (entry == null) {
+			entry = new Entry<>();
+			entry.h = h.applyAsDouble(node);
+			entries.put(node.getState(), entry);
+		} else if (entry.g <= node.getPathCost()) {
+			return;
+		} else if (!entry.closed) {
+			open.remove(entry);
+		}
+		entry.node = node;
+		entry.g = node.getPathCost();
+		entry.key = entry.g + weight * entry.h;
+		if (!entry.closed) {
+			open.add(entry);
+			queueSize.set(open.size());
+		} else if (!entry.inconsistent) {
+			entry.inconsistent = true;
+			inconsistent.add(entry);
+		}
+	}
+
+	/**
+	 * Moves the inconsistent states into the frontier, updates all keys with
+	 * respect to the new weight, and reopens all states.
+	 */
+	private void reorderOpen() {
+		List<Entry<S, A>> frontier = new ArrayList<>(open);
+		frontier.addAll(inconsistent);
+		open.clear();
+		inconsistent.clear();
+		for (Entry<S, A> entry : entries.values())
+			entry.closed = false;
+		for (Entry<S, A> entry : frontier) {
+			entry.inconsistent = false;
+			entry.key = entry.g + weight * entry.h;
+			open.add(entry);
+		}
+		queueSize.set(open.size());
+	}
+
+	private void updateBound() {
+		double minF = INFINITY;
+		for (Entry<S, A> entry : open)
+			minF = Math.min(minF, entry.g + entry.h);
+		for (Entry<S, A> entry : inconsistent)
+			minF = Math.min(minF, entry.g + entry.h);
+		double cost = getSolutionCost();
+		if (minF >= cost)
+			bound.set(1); // no node promises a better solution
+		else
+			bound.set(Math.min(weight, cost / minF));
+	}
+
+	private void setSolution(Node<S, A> node) {
+		solution = node;
+		solutions.increment();
+		metrics.set(METRIC_PATH_COST, node.getPathCost());
+		solutionListener.accept(node);
+	}
+
+	private double getSolutionCost() {
+		return solution != null ? solution.getPathCost() : INFINITY;
+	}
+
+	private boolean isTimeOut() {
+		return Tasks.currIsCancelled() || System.currentTimeMillis() > deadline;
+	}
+
+	/**
+	 * Sets all metrics to zero.
+	 */
+	private void clearMetrics() {
+		nodesExpanded.set(0);
+		queueSize.set(0);
+		solutions.set(0);
+		weightGauge.set(initialWeight);
+		bound.set(INFINITY);
+		metrics.set(METRIC_PATH_COST, 0);
+	}
+
+	/** Search data of a reached state. */
+	private static class Entry<S, A> {
+		Node<S, A> node;
+		double g;
+		double h;
+		double key;
+		boolean closed;
+		boolean inconsistent;
+	}
+}
@@ -6,6 +6,7 @@ import aima.core.search.framework.QueueFactory;
 import aima.core.search.framework.qsearch.QueueSearch;
 
 import java.util.Comparator;
+import java.util.Queue;
 import java.util.function.ToDoubleFunction;
 
 /**
@@ -38,7 +39,15 @@ public class BestFirstSearch<S, A> extends QueueBasedSearch<S, A> implements Inf
 	 *            node.
 	 */
 	public BestFirstSearch(QueueSearch<S, A> impl, final EvaluationFunction<S, A> evalFn) {
-		super(impl, QueueFactory.createPriorityQueue(Comparator.comparing(evalFn::applyAsDouble)));
+		this(impl, evalFn, QueueFactory.createAddressablePriorityQueue(Comparator.comparingDouble(evalFn)));
+	}
+
+	/**
+	 * Constructs a best first search with a frontier which is provided by a
+	 * subclass. The frontier must order nodes by the evaluation function.
+	 */
+	protected BestFirstSearch(QueueSearch<S, A> impl, EvaluationFunction<S, A> evalFn, Queue<Node<S, A>> frontier) {
+		super(impl, frontier);
 		this.evalFn = evalFn;
 	}
 
@@ -0,0 +1,355 @@
+package aima.core.search.informed;
+
+import aima.core.search.framework.*;
+import aima.core.search.framework.problem.Problem;
+import aima.core.util.Tasks;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Hash distributed A* search (HDA*, Kishimoto, Fukunaga, and Botea 2009). The
+ * state space is partitioned among a fixed number of worker threads by state
+ * hash code. Each worker owns a local open list (ordered by f = g + h) and a
+ * local closed list which maps states to the best known path costs. Successor
+ * nodes are sent asynchronously to the worker which owns their state. Nodes
+ * for the same destination are collected in small batches to reduce
+ * synchronization costs. Idle workers park until a batch arrives or the
+ * search terminates.
+ * <br>
+ * Goal tests are performed when a node is selected for expansion. The first
+ * solution found is not necessarily optimal. It becomes the incumbent and all
+ * nodes with f-values greater than or equal to its path cost are pruned. The
+ * search terminates when all workers are idle and no node batches are in
+ * transit. With an admissible heuristic, the incumbent is then an optimal
+ * solution. Nodes are reopened when a cheaper path to their state is found, so
+ * consistency of the heuristic is not required.
+ * <br>
+ * The search accepts the same problems, node factories, and heuristic
+ * functions as {@link AStarSearch}. As they are used by several threads
+ * concurrently, the problem functions, the heuristic function, and the node
+ * listeners must be thread-safe. The workers are started as background tasks
+ * (see {@link Tasks#executeInBackground(Runnable)}). Cancellation via
+ * {@link Tasks} is checked by the calling thread, which stops the workers.
+ *
+ * @param <S> The type used to represent states
+ * @param <A> The type of the actions to be used to navigate through the state space
+ */
+public class HashDistributedAStarSearch<S, A> implements SearchForActions<S, A>, SearchForStates<S, A>,
+		Informed<S, A> {
+
+	public static final String METRIC_NODES_EXPANDED = "nodesExpanded";
+	public static final String METRIC_NODES_TRANSFERRED = "nodesTransferred";
+	public static final String METRIC_THREADS = "threads";
+	public static final String METRIC_PATH_COST = "pathCost";
+
+	private static final int BATCH_SIZE = 32;
+	/** Maximum time an idle worker parks before checking for termination. */
+	private static final long IDLE_PARK_NANOS = 1_000_000;
+
+	private final NodeFactory<S, A> nodeFactory;
+	private final int numThreads;
+	private ToDoubleFunction<Node<S, A>> h;
+	private final Metrics metrics = new Metrics();
+
+	public HashDistributedAStarSearch(ToDoubleFunction<Node<S, A>> h) {
+		this(h, Runtime.getRuntime().availableProcessors());
+	}
+
+	public HashDistributedAStarSearch(ToDoubleFunction<Node<S, A>> h, int numThreads) {
+		this(new NodeFactory<>(), h, numThreads);
+	}
+
+	/**
+	 * Constructs a hash distributed A* search.
+	 *
+	 * @param nodeFactory Factory for node creation and successor generation.
+	 * @param h           A heuristic function <em>h(n)</em>, which estimates the
+	 *                    cost of the cheapest path from the state of node
+	 *                    <em>n</em> to a goal state.
+	 * @param numThreads  Number of worker threads (and state space partitions).
+	 */
+	public HashDistributedAStarSearch(NodeFactory<S, A> nodeFactory, ToDoubleFunction<Node<S, A>> h,
+									  int numThreads) {
+		if (numThreads < 1)
+			throw new IllegalArgumentException("At least one worker thread is needed.");
+		this.nodeFactory = nodeFactory;
+		this.h = h;
+		this.numThreads = numThreads;
+	}
+
+	@Override
+	public Optional<List<A>> findActions(Problem<S, A> p) {
+		nodeFactory.useParentLinks(true);
+		return SearchUtils.toActions(findNode(p));
+	}
+
+	@Override
+	public Optional<S> findState(Problem<S, A> p) {
+		nodeFactory.useParentLinks(false);
+		return SearchUtils.toState(findNode(p));
+	}
+
+	/**
+	 * Starts the workers, waits for their termination and returns the best
+	 * solution node found.
+	 */
+	public Optional<Node<S, A>> findNode(Problem<S, A> problem) {
+		Execution execution = new Execution(problem);
+		Node<S, A> root = nodeFactory.createNode(problem.getInitialState());
+		execution.workers.get(execution.ownerOf(root.getState())).insert(root);
+
+		List<Thread> threads = new ArrayList<>(numThreads);
+		for (Worker worker : execution.workers)
+			threads.add(Tasks.executeInBackground(worker));
+		try {
+			for (Thread thread : threads) {
+				while (thread.isAlive()) {
+					thread.join(10);
+					if (Tasks.currIsCancelled())
+						execution.stopped = true;
+				}
+			}
+		} catch (InterruptedException e) {
+			execution.stopped = true;
+			Thread.currentThread().interrupt();
+		}
+		Throwable failure = execution.failure.get();
+		if (failure instanceof RuntimeException)
+			throw (RuntimeException) failure;
+		if (failure instanceof Error)
+			throw (Error) failure;
+		if (failure != null)
+			throw new IllegalStateException("Worker failed.", failure);
+
+		long expanded = 0;
+		long transferred = 0;
+		for (Worker worker : execution.workers) {
+			expanded += worker.nodesExpanded;
+			transferred += worker.nodesTransferred;
+		}
+		metrics.set(METRIC_NODES_EXPANDED, expanded);
+		metrics.set(METRIC_NODES_TRANSFERRED, transferred);
+		metrics.set(METRIC_THREADS, numThreads);
+		Node<S, A> solution = execution.solution;
+		if (solution != null && !execution.stopped) {
+			metrics.set(METRIC_PATH_COST, solution.getPathCost());
+			return Optional.of(solution);
+		}
+		metrics.set(METRIC_PATH_COST, 0);
+		return Optional.empty();
+	}
+
+	@Override
+	public void setHeuristicFunction(ToDoubleFunction<Node<S, A>> h) {
+		this.h = h;
+	}
+
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public void addNodeListener(Consumer<Node<S, A>> listener) {
+		nodeFactory.addNodeListener(listener);
+	}
+
+	@Override
+	public boolean removeNodeListener(Consumer<Node<S, A>> listener) {
+		return nodeFactory.removeNodeListener(listener);
+	}
+
+	/** State shared by the workers of one search run. */
+	private class Execution {
+		final Problem<S, A> problem;
+		final List<Worker> workers = new ArrayList<>(numThreads);
+		/**
+		 * Number of busy workers plus number of node batches in transit. The
+		 * search space is exhausted when it becomes zero.
+		 */
+		final AtomicLong pending = new AtomicLong(numThreads);
+		final AtomicReference<Throwable> failure = new AtomicReference<>();
+		volatile Node<S, A> solution;
+		volatile double solutionCost = Double.POSITIVE_INFINITY;
+		volatile boolean stopped;
+
+		Execution(Problem<S, A> problem) {
+			this.problem = problem;
+			for (int i = 0; i < numThreads; i++)
+				workers.add(new Worker(this, i));
+		}
+
+		int ownerOf(S state) {
+			int hash = state.hashCode();
+			return Math.floorMod(hash ^ (hash >>> 16), numThreads);
+		}
+
+		/** Decrements the pending count and wakes up all workers when it becomes zero. */
+		void release() {
+			if (pending.decrementAndGet() == 0)
+				for (Worker worker : workers)
+					worker.wakeUp();
+		}
+
+		synchronized void offerSolution(Node<S, A> node) {
+			if (node.getPathCost() < solutionCost) {
+				solution = node;
+				solutionCost = node.getPathCost();
+			}
+		}
+	}
+
+	/** Open list entry which caches the f-value of a node. */
+	private static class Entry<S, A> implements Comparable<Entry<S, A>> {
+		final Node<S, A> node;
+		final double f;
+
+		Entry(Node<S, A> node, double f) {
+			this.node = node;
+			this.f = f;
+		}
+
+		// ties are broken in favor of deeper nodes
+		@Override
+		public int compareTo(Entry<S, A> other) {
+			int result = Double.compare(f, other.f);
+			return result != 0 ? result : Double.compare(other.node.getPathCost(), node.getPathCost());
+		}
+	}
+
+	private class Worker implements Runnable {
+		final Execution execution;
+		final int id;
+		final PriorityQueue<Entry<S, A>> open = new PriorityQueue<>();
+		final Map<S, Double> closed = new HashMap<>();
+		final Queue<List<Node<S, A>>> inbox = new ConcurrentLinkedQueue<>();
+		final List<List<Node<S, A>>> outboxes = new ArrayList<>(numThreads);
+		long nodesExpanded;
+		long nodesTransferred;
+		volatile Thread thread;
+		volatile boolean parked;
+
+		Worker(Execution execution, int id) {
+			this.execution = execution;
+			this.id = id;
+			for (int i = 0; i < numThreads; i++)
+				outboxes.add(new ArrayList<>(BATCH_SIZE));
+		}
+
+		@Override
+		public void run() {
+			thread = Thread.currentThread();
+			try {
+				search();
+			} catch (Throwable e) {
+				// also errors, otherwise the other workers would wait forever
+				execution.failure.compareAndSet(null, e);
+				execution.stopped = true;
+			}
+		}
+
+		private void search() {
+			boolean busy = true;
+			while (!execution.stopped) {
+				if (busy) {
+					receive();
+					Entry<S, A> entry = open.poll();
+					if (entry != null) {
+						expand(entry);
+						if (nodesExpanded % BATCH_SIZE == 0)
+							flush();
+					} else {
+						flush();
+						if (inbox.isEmpty()) {
+							busy = false;
+							execution.release();
+						}
+					}
+				} else if (!inbox.isEmpty()) {
+					busy = true;
+					execution.pending.incrementAndGet();
+				} else if (execution.pending.get() == 0) {
+					return;
+				} else {
+					// senders and the last releasing worker unpark parked workers
+					parked = true;
+					if (inbox.isEmpty() && execution.pending.get() != 0)
+						LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+					parked = false;
+				}
+			}
+		}
+
+		private void expand(Entry<S, A> entry) {
+			Node<S, A> node = entry.node;
+			if (entry.f >= execution.solutionCost || node.getPathCost() > closed.get(node.getState()))
+				return; // pruned or a cheaper path to the state is known
+			if (execution.problem.testSolution(node)) {
+				execution.offerSolution(node);
+				return;
+			}
+			nodesExpanded++;
+			for (Node<S, A> successor : nodeFactory.getSuccessors(node, execution.problem)) {
+				int owner = execution.ownerOf(successor.getState());
+				if (owner == id) {
+					insert(successor);
+				} else {
+					List<Node<S, A>> outbox = outboxes.get(owner);
+					outbox.add(successor);
+					if (outbox.size() >= BATCH_SIZE)
+						send(owner);
+				}
+			}
+		}
+
+		/** Adds the node to the open list if it is the best known path to its state. */
+		void insert(Node<S, A> node) {
+			Double g = closed.get(node.getState());
+			if (g == null || node.getPathCost() < g) {
+				double f = node.getPathCost() + h.applyAsDouble(node);
+				if (f < execution.solutionCost) {
+					closed.put(node.getState(), node.getPathCost());
+					open.add(new Entry<>(node, f));
+				}
+			}
+		}
+
+		private void receive() {
+			List<Node<S, A>> batch;
+			while ((batch = inbox.poll()) != null) {
+				for (Node<S, A> node : batch)
+					insert(node);
+				execution.release();
+			}
+		}
+
+		private void send(int owner) {
+			List<Node<S, A>> outbox = outboxes.get(owner);
+			nodesTransferred += outbox.size();
+			execution.pending.incrementAndGet();
+			Worker receiver = execution.workers.get(owner);
+			receiver.inbox.add(outbox);
+			if (receiver.parked)
+				receiver.wakeUp();
+			outboxes.set(owner, new ArrayList<>(BATCH_SIZE));
+		}
+
+		void wakeUp() {
+			Thread t = thread;
+			if (t != null)
+				LockSupport.unpark(t);
+		}
+
+		private void flush() {
+			for (int i = 0; i < numThreads; i++)
+				if (!outboxes.get(i).isEmpty())
+					send(i);
+		}
+	}
+}
@@ -0,0 +1,242 @@
+package aima.core.search.informed;
+
+import aima.core.search.framework.*;
+import aima.core.search.framework.problem.Problem;
+import aima.core.util.Tasks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Artificial Intelligence A Modern Approach (3rd Edition): page 99.<br>
+ * <br>
+ * Iterative-deepening A* (IDA*) is iterative deepening where the cutoff used
+ * is the f-cost (g+h) rather than the depth; at each iteration, the cutoff
+ * value is the smallest f-cost of any node that exceeded the cutoff on the
+ * previous iteration.
+ * <br>
+ * Memory is linear in the solution depth: Successors are generated one at a
+ * time from the list of applicable actions, so only the action lists of the
+ * nodes on the current path are kept. Moves leading back to the parent state
+ * are pruned before a node is created for them. Optionally, a transposition
+ * table with a fixed number of slots can be used. It maps states (via their
+ * hash codes) to the path cost with which they were searched in the current
+ * iteration and the smallest f-cost which exceeded the cutoff below them.
+ * States which are reached again with at least the same path cost are not
+ * searched again. Colliding entries are replaced. The stored values are not
+ * used to improve the heuristic in later iterations, as they do not account
+ * for the pruned parent moves.
+ *
+ * @param <S> The type used to represent states
+ * @param <A> The type of the actions to be used to navigate through the state space
+ */
+public class IterativeDeepeningAStarSearch<S, A> implements SearchForActions<S, A>, SearchForStates<S, A>,
+		Informed<S, A> {
+
+	public static final String METRIC_NODES_EXPANDED = "nodesExpanded";
+	public static final String METRIC_ITERATIONS = "iterations";
+	public static final String METRIC_TRANSPOSITIONS = "transpositions";
+	public static final String METRIC_PATH_COST = "pathCost";
+
+	private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+	private final NodeFactory<S, A> nodeFactory;
+	private ToDoubleFunction<Node<S, A>> h;
+	private final TranspositionTable<S> table;
+
+	private final Metrics metrics = new Metrics();
+	private final Metrics.Counter nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
+	private final Metrics.Counter iterations = metrics.counter(METRIC_ITERATIONS);
+	private final Metrics.Counter transpositions = metrics.counter(METRIC_TRANSPOSITIONS);
+
+	private Node<S, A> solution;
+
+	public IterativeDeepeningAStarSearch(ToDoubleFunction<Node<S, A>> h) {
+		this(new NodeFactory<>(), h, 0);
+	}
+
+	public IterativeDeepeningAStarSearch(ToDoubleFunction<Node<S, A>> h, int tableSize) {
+		this(new NodeFactory<>(), h, tableSize);
+	}
+
+	/**
+	 * Constructs an IDA* search.
+	 *
+	 * @param nodeFactory Factory for node creation and successor generation.
+	 * @param h           A heuristic function <em>h(n)</em>, which estimates the
+	 *                    cost of the cheapest path from the state of node
+	 *                    <em>n</em> to a goal state.
+	 * @param tableSize   Number of transposition table entries (rounded up to a
+	 *                    power of two), 0 disables the table.
+	 */
+	public IterativeDeepeningAStarSearch(NodeFactory<S, A> nodeFactory, ToDoubleFunction<Node<S, A>> h,
+			int tableSize) {
+		if (tableSize < 0)
+			throw new IllegalArgumentException("Table size must not be negative.");
+		this.nodeFactory = nodeFactory;
+		this.h = h;
+		table = tableSize > 0 ? new TranspositionTable<>(tableSize) : null;
+	}
+
+	@Override
+	public Optional<List<A>> findActions(Problem<S, A> p) {
+		nodeFactory.useParentLinks(true);
+		return SearchUtils.toActions(findNode(p));
+	}
+
+	@Override
+	public Optional<S> findState(Problem<S, A> p) {
+		nodeFactory.useParentLinks(false);
+		return SearchUtils.toState(findNode(p));
+	}
+
+	/**
+	 * Returns a node referencing a goal state with minimal path cost (if the
+	 * heuristic is admissible), or empty if no such node exists or the search
+	 * was cancelled.
+	 */
+	public Optional<Node<S, A>> findNode(Problem<S, A> problem) {
+		clearMetrics();
+		solution = null;
+		if (table != null)
+			table.clear();
+		Node<S, A> root = nodeFactory.createNode(problem.getInitialState());
+		double bound = h.applyAsDouble(root);
+		while (solution == null && bound < INFINITY && !Tasks.currIsCancelled()) {
+			iterations.increment();
+			bound = search(root, null, bound, problem);
+		}
+		if (solution != null) {
+			metrics.set(METRIC_PATH_COST, solution.getPathCost());
+			return Optional.of(solution);
+		}
+		return Optional.empty();
+	}
+
+	@Override
+	public void setHeuristicFunction(ToDoubleFunction<Node<S, A>> h) {
+		this.h = h;
+	}
+
+	/**
+	 * Returns all the search metrics.
+	 */
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public void addNodeListener(Consumer<Node<S, A>> listener) {
+		nodeFactory.addNodeListener(listener);
+	}
+
+	@Override
+	public boolean removeNodeListener(Consumer<Node<S, A>> listener) {
+		return nodeFactory.removeNodeListener(listener);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	/**
+	 * Searches below the node for a solution within the cost bound. Returns
+	 * the smallest f-cost which exceeded the bound (infinity if there is none
+	 * or a solution was found).
+	 */
+	private double search(Node<S, A> node, S parentState, double bound, Problem<S, A> problem) {
+		S state = node.getState();
+		double g = node.getPathCost();
+		double f = g + h.applyAsDouble(node);
+		if (table != null) {
+			int slot = table.find(state);
+			if (slot >= 0 && table.iteration[slot] == iterations.get() && table.g[slot] <= g) {
+				transpositions.increment();
+				return table.value[slot] + g - table.g[slot];
+			}
+		}
+		if (f > bound)
+			return f;
+		if (problem.testSolution(node)) {
+			solution = node;
+			return INFINITY;
+		}
+		if (Tasks.currIsCancelled())
+			return INFINITY;
+
+		nodesExpanded.increment();
+		nodeFactory.notifyExpansion(node);
+		double min = INFINITY;
+		for (A action : problem.getActions(state)) {
+			S childState = problem.getResult(state, action);
+			if (childState.equals(parentState))
+				continue; // parent-move pruning
+			Node<S, A> child = nodeFactory.createNode(childState, node, action,
+					problem.getStepCosts(state, action, childState));
+			min = Math.min(min, search(child, state, bound, problem));
+			if (solution != null)
+				return INFINITY;
+		}
+		if (table != null)
+			table.store(state, g, min, iterations.get());
+		return min;
+	}
+
+	/**
+	 * Sets all metrics to zero.
+	 */
+	private void clearMetrics() {
+		nodesExpanded.set(0);
+		iterations.set(0);
+		transpositions.set(0);
+		metrics.set(METRIC_PATH_COST, 0);
+	}
+
+	/**
+	 * Hash table with a fixed number of slots. Each state is stored in the
+	 * slot which is selected by its hash code, replacing the previous entry.
+	 */
+	private static class TranspositionTable<S> {
+		final Object[] states;
+		final double[] g;
+		final double[] value;
+		final long[] iteration;
+		final int mask;
+
+		TranspositionTable(int size) {
+			int capacity = Integer.highestOneBit(Math.max(size - 1, 1)) << 1;
+			states = new Object[capacity];
+			g = new double[capacity];
+			value = new double[capacity];
+			iteration = new long[capacity];
+			mask = capacity - 1;
+		}
+
+		/** Returns the slot of the state or -1 if the state is not contained. */
+		int find(S state) {
+			int slot = slot(state);
+			return state.equals(states[slot]) ? slot : -1;
+		}
+
+		void store(S state, double pathCost, double result, long iter) {
+			int slot = slot(state);
+			states[slot] = state;
+			g[slot] = pathCost;
+			value[slot] = result;
+			iteration[slot] = iter;
+		}
+
+		void clear() {
+			Arrays.fill(states, null);
+		}
+
+		private int slot(S state) {
+			int hash = state.hashCode() * 0x9E3779B9;
+			return (hash ^ (hash >>> 16)) & mask;
+		}
+	}
+}
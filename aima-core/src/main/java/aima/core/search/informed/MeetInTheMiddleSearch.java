@@ -0,0 +1,290 @@
+package aima.core.search.informed;
+
+import aima.core.search.framework.*;
+import aima.core.search.framework.problem.BidirectionalProblem;
+import aima.core.search.framework.problem.Problem;
+import aima.core.util.Tasks;
+import aima.core.util.datastructure.AddressablePriorityQueue;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Bidirectional heuristic search MM ("meet in the middle", Holte et al., AAAI
+ * 2016). Two A*-like searches are run, one for the original problem and one
+ * for the reverse problem of a {@link BidirectionalProblem}. Nodes are
+ * prioritized by <em>pr(n) = max(f(n), 2 g(n))</em>, and the search direction
+ * with the smaller minimal priority is expanded next. This guarantees that
+ * neither search expands nodes beyond the middle of an optimal path.
+ * <br>
+ * Whenever a generated state was already reached by the other search, the
+ * cost of the connecting path is compared with the best solution found so far.
+ * The search terminates as soon as the cost of that solution is not greater
+ * than the maximum of the smallest priority, the smallest f-values of both
+ * frontiers, and the sum of the smallest g-values of both frontiers plus the
+ * minimal step cost. If both heuristics are admissible, the returned solution
+ * is optimal.
+ * <br>
+ * The solution is composed of the path to the meeting state and the reversed
+ * path of the reverse search. As in {@link
+ * aima.core.search.framework.qsearch.BidirectionalSearch}, reverse actions are
+ * looked up in the original problem.
+ *
+ * @param <S> The type used to represent states
+ * @param <A> The type of the actions to be used to navigate through the state space
+ */
+public class MeetInTheMiddleSearch<S, A> implements SearchForActions<S, A>, SearchForStates<S, A> {
+
+	public static final String METRIC_NODES_EXPANDED = "nodesExpanded";
+	public static final String METRIC_NODES_EXPANDED_REVERSE = "nodesExpandedReverse";
+	public static final String METRIC_QUEUE_SIZE = "queueSize";
+	public static final String METRIC_PATH_COST = "pathCost";
+
+	private static final int ORG_P_IDX = 0;
+	private static final int REV_P_IDX = 1;
+	private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+	private final NodeFactory<S, A> nodeFactory;
+	private final List<ToDoubleFunction<Node<S, A>>> heuristics;
+	private final double minStepCost;
+	private final List<Direction<S, A>> directions = new ArrayList<>(2);
+
+	private final Metrics metrics = new Metrics();
+	private final Metrics.Counter nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
+	private final Metrics.Counter nodesExpandedReverse = metrics.counter(METRIC_NODES_EXPANDED_REVERSE);
+	private final Metrics.Counter queueSize = metrics.counter(METRIC_QUEUE_SIZE);
+
+	private double bestCost;
+	private Node<S, A> bestOrgNode;
+	private Node<S, A> bestRevNode;
+
+	/**
+	 * Creates an MM search.
+	 *
+	 * @param h    Heuristic for the original problem, estimating the costs
+	 *             from a state to the goal state.
+	 * @param revH Heuristic for the reverse problem, estimating the costs from
+	 *             the initial state to a state.
+	 */
+	public MeetInTheMiddleSearch(ToDoubleFunction<Node<S, A>> h, ToDoubleFunction<Node<S, A>> revH) {
+		this(new NodeFactory<>(), h, revH, 0);
+	}
+
+	/**
+	 * Creates an MM search.
+	 *
+	 * @param nodeFactory Factory for node creation and successor generation.
+	 * @param h           Heuristic for the original problem.
+	 * @param revH        Heuristic for the reverse problem.
+	 * @param minStepCost Lower bound for the costs of all steps. Greater values
+	 *                    allow earlier termination.
+	 */
+	public MeetInTheMiddleSearch(NodeFactory<S, A> nodeFactory, ToDoubleFunction<Node<S, A>> h,
+			ToDoubleFunction<Node<S, A>> revH, double minStepCost) {
+		this.nodeFactory = nodeFactory;
+		heuristics = Arrays.asList(h, revH);
+		this.minStepCost = minStepCost;
+		directions.add(new Direction<>());
+		directions.add(new Direction<>());
+	}
+
+	@Override
+	public Optional<List<A>> findActions(Problem<S, A> p) {
+		return SearchUtils.toActions(findNode(p));
+	}
+
+	@Override
+	public Optional<S> findState(Problem<S, A> p) {
+		return SearchUtils.toState(findNode(p));
+	}
+
+	/**
+	 * Returns a node with minimal path cost whose state is the goal state of
+	 * the bidirectional problem (if both heuristics are admissible).
+	 */
+	public Optional<Node<S, A>> findNode(Problem<S, A> problem) {
+		if (!(problem instanceof BidirectionalProblem))
+			throw new IllegalArgumentException("MM search needs a bidirectional problem.");
+		nodeFactory.useParentLinks(true); // paths are needed to compose the solution
+		clearMetrics();
+		Problem<S, A> orgP = ((BidirectionalProblem<S, A>) problem).getOriginalProblem();
+		Problem<S, A> revP = ((BidirectionalProblem<S, A>) problem).getReverseProblem();
+		List<Problem<S, A>> problems = Arrays.asList(orgP, revP);
+		bestCost = INFINITY;
+		bestOrgNode = null;
+		bestRevNode = null;
+		for (int i = 0; i < 2; i++) {
+			directions.get(i).clear();
+			Node<S, A> root = nodeFactory.createNode(problems.get(i).getInitialState());
+			add(i, root);
+		}
+
+		Direction<S, A> org = directions.get(ORG_P_IDX);
+		Direction<S, A> rev = directions.get(REV_P_IDX);
+		while (!org.isEmpty() && !rev.isEmpty() && !Tasks.currIsCancelled()) {
+			double prMin = Math.min(org.byPriority.peek().priority, rev.byPriority.peek().priority);
+			double lowerBound = Math.max(prMin, Math.max(org.byF.peek().f, rev.byF.peek().f));
+			lowerBound = Math.max(lowerBound, org.byG.peek().g + rev.byG.peek().g + minStepCost);
+			if (bestCost <= lowerBound)
+				break;
+			int dir = org.byPriority.peek().priority <= rev.byPriority.peek().priority ? ORG_P_IDX : REV_P_IDX;
+			expand(dir, problems.get(dir));
+		}
+		Optional<Node<S, A>> result = Optional.empty();
+		if (bestOrgNode != null && !Tasks.currIsCancelled())
+			result = getSolution(orgP, bestOrgNode, bestRevNode);
+		org.clear();
+		rev.clear();
+		return result;
+	}
+
+	/**
+	 * Returns all the search metrics.
+	 */
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public void addNodeListener(Consumer<Node<S, A>> listener) {
+		nodeFactory.addNodeListener(listener);
+	}
+
+	@Override
+	public boolean removeNodeListener(Consumer<Node<S, A>> listener) {
+		return nodeFactory.removeNodeListener(listener);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private void expand(int dir, Problem<S, A> problem) {
+		Direction<S, A> d = directions.get(dir);
+		Entry<S, A> entry = d.byPriority.poll();
+		d.byF.remove(entry);
+		d.byG.remove(entry);
+		entry.closed = true;
+		queueSize.add(-1);
+		(dir == ORG_P_IDX ? nodesExpanded : nodesExpandedReverse).increment();
+		for (Node<S, A> child : nodeFactory.getSuccessors(entry.node, problem))
+			add(dir, child);
+	}
+
+	/**
+	 * Adds the node to the frontier of the specified search direction unless
+	 * its state was already reached with lower costs, and updates the best
+	 * solution if the other direction already reached the state.
+	 */
+	private void add(int dir, Node<S, A> node) {
+		Direction<S, A> d = directions.get(dir);
+		double g = node.getPathCost();
+		Entry<S, A> entry = d.entries.get(node.getState());
+		if (entry == null) {
+			entry = new Entry<>();
+			d.entries.put(node.getState(), entry);
+		} else if (entry.g <= g) {
+			return;
+		} else if (!entry.closed) {
+			d.remove(entry);
+			queueSize.add(-1);
+		}
+		entry.node = node;
+		entry.g = g;
+		entry.f = g + heuristics.get(dir).applyAsDouble(node);
+		entry.priority = Math.max(entry.f, 2 * g);
+		entry.closed = false;
+		d.add(entry);
+		queueSize.increment();
+
+		Entry<S, A> other = directions.get(1 - dir).entries.get(node.getState());
+		if (other != null && g + other.g < bestCost) {
+			bestCost = g + other.g;
+			bestOrgNode = dir == ORG_P_IDX ? node : other.node;
+			bestRevNode = dir == ORG_P_IDX ? other.node : node;
+		}
+	}
+
+	/**
+	 * Extends the path of the original search by the reversed path of the
+	 * reverse search. Both nodes must be linked to the same state.
+	 */
+	private Optional<Node<S, A>> getSolution(Problem<S, A> orgP, Node<S, A> orgNode, Node<S, A> revNode) {
+		while (revNode.getParent() != null) {
+			S currState = revNode.getState();
+			S nextState = revNode.getParent().getState();
+			A action = null;
+			for (A a : orgP.getActions(currState)) {
+				if (nextState.equals(orgP.getResult(currState, a))) {
+					action = a;
+					break;
+				}
+			}
+			if (action == null)
+				return Optional.empty();
+			double stepCosts = orgP.getStepCosts(currState, action, nextState);
+			orgNode = nodeFactory.createNode(nextState, orgNode, action, stepCosts);
+			revNode = revNode.getParent();
+		}
+		metrics.set(METRIC_PATH_COST, orgNode.getPathCost());
+		return Optional.of(orgNode);
+	}
+
+	/**
+	 * Sets all metrics to zero.
+	 */
+	private void clearMetrics() {
+		nodesExpanded.set(0);
+		nodesExpandedReverse.set(0);
+		queueSize.set(0);
+		metrics.set(METRIC_PATH_COST, 0);
+	}
+
+	/** Search data of a state in one direction. */
+	private static class Entry<S, A> {
+		Node<S, A> node;
+		double g;
+		double f;
+		double priority;
+		boolean closed;
+	}
+
+	/**
+	 * Reached states and frontier of one search direction. The frontier is
+	 * ordered by priority, by f-value, and by g-value.
+	 */
+	private static class Direction<S, A> {
+		final Map<S, Entry<S, A>> entries = new HashMap<>();
+		final Queue<Entry<S, A>> byPriority = new AddressablePriorityQueue<>(
+				Comparator.<Entry<S, A>>comparingDouble(e -> e.priority).thenComparingDouble(e -> e.g));
+		final Queue<Entry<S, A>> byF = new AddressablePriorityQueue<>(
+				Comparator.comparingDouble(e -> e.f));
+		final Queue<Entry<S, A>> byG = new AddressablePriorityQueue<>(
+				Comparator.comparingDouble(e -> e.g));
+
+		void add(Entry<S, A> entry) {
+			byPriority.add(entry);
+			byF.add(entry);
+			byG.add(entry);
+		}
+
+		void remove(Entry<S, A> entry) {
+			byPriority.remove(entry);
+			byF.remove(entry);
+			byG.remove(entry);
+		}
+
+		boolean isEmpty() {
+			return byPriority.isEmpty();
+		}
+
+		void clear() {
+			entries.clear();
+			byPriority.clear();
+			byF.clear();
+			byG.clear();
+		}
+	}
+}
@@ -2,6 +2,7 @@ package aima.core.search.informed;
 
 import aima.core.search.framework.*;
 import aima.core.search.framework.problem.Problem;
+import aima.core.util.Tasks;
 
 import java.util.HashSet;
 import java.util.List;
@@ -60,7 +61,9 @@ public class RecursiveBestFirstSearch<S, A> implements SearchForActions<S, A>, I
 
     // stores the states on the current path if avoidLoops is true.
     private final Set<S> explored = new HashSet<>();
-    private Metrics metrics;
+    private final Metrics metrics;
+    private final Metrics.Counter nodesExpanded;
+    private final Metrics.Counter maxRecursiveDepth;
 
     public RecursiveBestFirstSearch(EvaluationFunction<S, A> evalFn) {
         this(evalFn, false);
@@ -78,8 +81,10 @@ public class RecursiveBestFirstSearch<S, A> implements SearchForActions<S, A>, I
         this.evalFn = evalFn;
         this.avoidLoops = avoidLoops;
         this.nodeFactory = nodeFactory;
-        nodeFactory.addNodeListener((node) -> metrics.incrementInt(METRIC_NODES_EXPANDED));
         metrics = new Metrics();
+        nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
+        maxRecursiveDepth = metrics.counter(METRIC_MAX_RECURSIVE_DEPTH);
+        nodeFactory.addNodeListener((node) -> nodesExpanded.increment());
     }
 
     /**
@@ -120,8 +125,8 @@ public class RecursiveBestFirstSearch<S, A> implements SearchForActions<S, A>, I
      * Sets all metrics to zero.
      */
     private void clearMetrics() {
-        metrics.set(METRIC_NODES_EXPANDED, 0);
-        metrics.set(METRIC_MAX_RECURSIVE_DEPTH, 0);
+        nodesExpanded.set(0);
+        maxRecursiveDepth.set(0);
         metrics.set(METRIC_PATH_COST, 0.0);
     }
 
@@ -167,6 +172,9 @@ public class RecursiveBestFirstSearch<S, A> implements SearchForActions<S, A>, I
 
         // repeat
         while (true) {
+            // not in pseudocode: give up if the task was cancelled
+            if (Tasks.currIsCancelled())
+                return getResult(node, null, INFINITY);
             // best <- the lowest f-value node in successors
             int bestIndex = getBestFValueIndex(f);
             // if best.f > f_limit then return failure, best.f
@@ -240,10 +248,7 @@ public class RecursiveBestFirstSearch<S, A> implements SearchForActions<S, A>, I
      * @param recursiveDepth the depth of the current path
      */
     private void updateMetrics(int recursiveDepth) {
-        int maxRdepth = metrics.getInt(METRIC_MAX_RECURSIVE_DEPTH);
-        if (recursiveDepth > maxRdepth) {
-            metrics.set(METRIC_MAX_RECURSIVE_DEPTH, recursiveDepth);
-        }
+        maxRecursiveDepth.updateMax(recursiveDepth);
     }
 
     private static class SearchResult<S, A> {
@@ -0,0 +1,303 @@
+package aima.core.search.informed;
+
+import aima.core.search.framework.*;
+import aima.core.search.framework.problem.Problem;
+import aima.core.util.Tasks;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Artificial Intelligence A Modern Approach (3rd Edition): page 101.<br>
+ * <br>
+ * SMA* (simplified memory-bounded A*) proceeds just like A*, expanding the
+ * best leaf until memory is full. At this point, it cannot add a new node to
+ * the search tree without dropping an old one. SMA* always drops the worst leaf
+ * node - the one with the highest f-value. Like RBFS, SMA* then backs up the
+ * value of the forgotten node to its parent. In this way, the ancestor of a
+ * forgotten subtree knows the quality of the best path in that subtree. With
+ * this information, SMA* regenerates the subtree only when all other paths
+ * have been shown to look worse than the path it has forgotten.
+ * <br>
+ * This implementation measures memory in search tree nodes. All successors of
+ * a node are generated at once, and each forgotten successor is remembered by
+ * its backed-up f-value in the parent. Ties between equally bad leaves are
+ * broken in favor of dropping shallow nodes. A non-goal node which is as deep
+ * as the memory allows gets an infinite f-value. SMA* is complete if the
+ * depth of the shallowest goal node is less than the node budget, and it
+ * returns an optimal solution if the nodes on an optimal path fit into the
+ * budget (and the heuristic is admissible).
+ *
+ * @param <S> The type used to represent states
+ * @param <A> The type of the actions to be used to navigate through the state space
+ */
+public class SMAStarSearch<S, A> implements SearchForActions<S, A>, SearchForStates<S, A>, Informed<S, A> {
+
+	public static final String METRIC_NODES_EXPANDED = "nodesExpanded";
+	public static final String METRIC_NODES_FORGOTTEN = "nodesForgotten";
+	public static final String METRIC_NODES_REGENERATED = "nodesRegenerated";
+	public static final String METRIC_MAX_NODES_IN_MEMORY = "maxNodesInMemory";
+	public static final String METRIC_PATH_COST = "pathCost";
+
+	private static final double INFINITY = Double.POSITIVE_INFINITY;
+
+	private final NodeFactory<S, A> nodeFactory;
+	private final int maxNodes;
+	private ToDoubleFunction<Node<S, A>> h;
+
+	private final Metrics metrics = new Metrics();
+	private final Metrics.Counter nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
+	private final Metrics.Counter nodesForgotten = metrics.counter(METRIC_NODES_FORGOTTEN);
+	private final Metrics.Counter nodesRegenerated = metrics.counter(METRIC_NODES_REGENERATED);
+	private final Metrics.Counter maxNodesInMemory = metrics.counter(METRIC_MAX_NODES_IN_MEMORY);
+
+	// ordered by backed-up f-value of the not yet generated or forgotten successors, deep nodes first
+	private final TreeSet<TreeNode<S, A>> open = new TreeSet<>(
+			Comparator.<TreeNode<S, A>>comparingDouble(n -> n.openF)
+					.thenComparing(Comparator.<TreeNode<S, A>>comparingInt(n -> n.depth).reversed())
+					.thenComparingLong(n -> n.id));
+	// ordered from worst to best, shallow nodes first
+	private final TreeSet<TreeNode<S, A>> leaves = new TreeSet<>(
+			Comparator.<TreeNode<S, A>>comparingDouble(n -> -n.f)
+					.thenComparingInt(n -> n.depth)
+					.thenComparingLong(n -> n.id));
+	private TreeNode<S, A> expanding;
+	private int nodesInMemory;
+	private long nextId;
+
+	public SMAStarSearch(ToDoubleFunction<Node<S, A>> h, int maxNodes) {
+		this(new NodeFactory<>(), h, maxNodes);
+	}
+
+	/**
+	 * Constructs an SMA* search.
+	 *
+	 * @param nodeFactory Factory for node creation and successor generation.
+	 * @param h           A heuristic function <em>h(n)</em>, which estimates the
+	 *                    cost of the cheapest path from the state of node
+	 *                    <em>n</em> to a goal state.
+	 * @param maxNodes    Maximal number of search tree nodes kept in memory,
+	 *                    at least 2 (the root and one successor).
+	 */
+	public SMAStarSearch(NodeFactory<S, A> nodeFactory, ToDoubleFunction<Node<S, A>> h, int maxNodes) {
+		if (maxNodes < 2)
+			throw new IllegalArgumentException("Node budget must be at least 2.");
+		this.nodeFactory = nodeFactory;
+		this.h = h;
+		this.maxNodes = maxNodes;
+	}
+
+	@Override
+	public Optional<List<A>> findActions(Problem<S, A> p) {
+		nodeFactory.useParentLinks(true);
+		return SearchUtils.toActions(findNode(p));
+	}
+
+	@Override
+	public Optional<S> findState(Problem<S, A> p) {
+		nodeFactory.useParentLinks(false);
+		return SearchUtils.toState(findNode(p));
+	}
+
+	/**
+	 * Returns a node referencing a goal state, if such a state was found within
+	 * the node budget, otherwise empty.
+	 */
+	public Optional<Node<S, A>> findNode(Problem<S, A> problem) {
+		clearMetrics();
+		TreeNode<S, A> root = new TreeNode<>(nodeFactory.createNode(problem.getInitialState()), null, -1, nextId++);
+		root.f = h.applyAsDouble(root.node);
+		root.openF = root.f;
+		open.add(root);
+		nodesInMemory = 1;
+		maxNodesInMemory.set(1);
+		Optional<Node<S, A>> result = Optional.empty();
+		while (!open.isEmpty() && !Tasks.currIsCancelled()) {
+			TreeNode<S, A> best = open.first();
+			if (best.openF == INFINITY)
+				break; // no solution within the node budget
+			if (best.children == null && problem.testSolution(best.node)) {
+				metrics.set(METRIC_PATH_COST, best.node.getPathCost());
+				result = Optional.of(best.node);
+				break;
+			}
+			expand(best, problem);
+		}
+		open.clear();
+		leaves.clear();
+		return result;
+	}
+
+	@Override
+	public void setHeuristicFunction(ToDoubleFunction<Node<S, A>> h) {
+		this.h = h;
+	}
+
+	/**
+	 * Returns all the search metrics.
+	 */
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public void addNodeListener(Consumer<Node<S, A>> listener) {
+		nodeFactory.addNodeListener(listener);
+	}
+
+	@Override
+	public boolean removeNodeListener(Consumer<Node<S, A>> listener) {
+		return nodeFactory.removeNodeListener(listener);
+	}
+
+	/**
+	 * Generates all successors of the node which are not in memory (all of
+	 * them on first expansion, only the forgotten ones afterwards), drops the
+	 * worst leaves while memory is exceeded, and backs up f-values.
+	 */
+	private void expand(TreeNode<S, A> parent, Problem<S, A> problem) {
+		open.remove(parent);
+		leaves.remove(parent);
+		expanding = parent;
+		List<Node<S, A>> successors = nodeFactory.getSuccessors(parent.node, problem);
+		boolean regenerate = parent.children != null;
+		if (!regenerate) {
+			parent.children = newTreeNodes(successors.size());
+			parent.forgottenF = new double[successors.size()];
+			Arrays.fill(parent.forgottenF, Double.NaN);
+			nodesExpanded.increment();
+		} else if (successors.size() != parent.children.length) {
+			throw new IllegalStateException("Successor generation is not deterministic for state "
+					+ parent.node.getState());
+		}
+		for (int i = 0; i < successors.size(); i++) {
+			if (parent.children[i] != null || regenerate && Double.isNaN(parent.forgottenF[i]))
+				continue;
+			TreeNode<S, A> child = new TreeNode<>(successors.get(i), parent, i, nextId++);
+			if (child.depth >= maxNodes - 1 && !problem.testGoal(child.node.getState()))
+				child.f = INFINITY;
+			else
+				child.f = Math.max(parent.f, child.node.getPathCost() + h.applyAsDouble(child.node));
+			if (regenerate) {
+				child.f = Math.max(child.f, parent.forgottenF[i]);
+				parent.forgottenF[i] = Double.NaN;
+				nodesRegenerated.increment();
+			}
+			child.openF = child.f;
+			parent.children[i] = child;
+			parent.childrenInMemory++;
+			open.add(child);
+			leaves.add(child);
+			if (++nodesInMemory > maxNodes)
+				forgetWorstLeaf();
+			maxNodesInMemory.updateMax(nodesInMemory);
+		}
+		expanding = null;
+		parent.openF = minForgottenF(parent);
+		parent.f = Math.min(parent.openF, minChildF(parent));
+		if (parent.openF < INFINITY)
+			open.add(parent);
+		if (parent.childrenInMemory == 0 && parent.parent != null)
+			leaves.add(parent);
+		backUp(parent.parent);
+	}
+
+	/**
+	 * Removes the worst leaf from memory and stores its f-value in its parent.
+	 * The node which is currently expanded is registered again after
+	 * expansion.
+	 */
+	private void forgetWorstLeaf() {
+		TreeNode<S, A> leaf = leaves.pollFirst();
+		open.remove(leaf);
+		TreeNode<S, A> parent = leaf.parent;
+		if (parent != expanding) {
+			open.remove(parent);
+			leaves.remove(parent);
+		}
+		parent.children[leaf.indexInParent] = null;
+		parent.forgottenF[leaf.indexInParent] = leaf.f;
+		parent.childrenInMemory--;
+		parent.openF = Math.min(parent.openF, leaf.f);
+		nodesInMemory--;
+		nodesForgotten.increment();
+		if (parent != expanding) {
+			open.add(parent);
+			if (parent.childrenInMemory == 0 && parent.parent != null)
+				leaves.add(parent);
+		}
+	}
+
+	/** Updates the f-values of the ancestors after the f-value of a child has changed. */
+	private void backUp(TreeNode<S, A> node) {
+		while (node != null) {
+			double f = Math.min(minForgottenF(node), minChildF(node));
+			if (f == node.f)
+				break;
+			boolean inOpen = open.remove(node);
+			boolean inLeaves = leaves.remove(node);
+			node.f = f;
+			if (inOpen)
+				open.add(node);
+			if (inLeaves)
+				leaves.add(node);
+			node = node.parent;
+		}
+	}
+
+	private double minForgottenF(TreeNode<S, A> node) {
+		double result = INFINITY;
+		for (double f : node.forgottenF)
+			if (f < result)
+				result = f;
+		return result;
+	}
+
+	private double minChildF(TreeNode<S, A> node) {
+		double result = INFINITY;
+		for (TreeNode<S, A> child : node.children)
+			if (child != null && child.f < result)
+				result = child.f;
+		return result;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <S, A> TreeNode<S, A>[] newTreeNodes(int size) {
+		return new TreeNode[size];
+	}
+
+	private void clearMetrics() {
+		nodesExpanded.set(0);
+		nodesForgotten.set(0);
+		nodesRegenerated.set(0);
+		maxNodesInMemory.set(0);
+		metrics.set(METRIC_PATH_COST, 0);
+	}
+
+	/** Search tree node with mutable f-value and references to the successors in memory. */
+	private static class TreeNode<S, A> {
+		final Node<S, A> node;
+		final TreeNode<S, A> parent;
+		final int indexInParent;
+		final int depth;
+		final long id;
+		double f;
+		/** Minimal f-value of all successors which are not in memory. */
+		double openF;
+		/** Successors in memory, null before first expansion. */
+		TreeNode<S, A>[] children;
+		/** Backed-up f-values of forgotten successors, NaN for successors in memory. */
+		double[] forgottenF;
+		int childrenInMemory;
+
+		TreeNode(Node<S, A> node, TreeNode<S, A> parent, int indexInParent, long id) {
+			this.node = node;
+			this.parent = parent;
+			this.indexInParent = indexInParent;
+			this.depth = parent != null ? parent.depth + 1 : 0;
+			this.id = id;
+		}
+	}
+}
@@ -50,6 +50,7 @@ public class DepthLimitedSearch<S, A> implements SearchForActions<S, A>, SearchF
 	public final Node<S, A> cutoffNode = new Node<>(null);
 	private final NodeFactory<S, A> nodeFactory;
 	private final Metrics metrics = new Metrics();
+	private final Metrics.Counter nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
 
 	public DepthLimitedSearch(int limit) {
 		this(limit, new NodeFactory<>());
@@ -114,7 +115,7 @@ public class DepthLimitedSearch<S, A> implements SearchForActions<S, A>, SearchF
 			boolean cutoffOccurred = false;
 			Node<S, A> result = null;
 			// for each action in problem.ACTIONS(node.STATE) do
-			metrics.incrementInt(METRIC_NODES_EXPANDED);
+			nodesExpanded.increment();
 			for (Node<S, A> child : getSuccessors(node, problem)) {
 				// child <- CHILD-NODE(problem, node, action)
 				// result <- RECURSIVE-DLS(child, problem, limit - 1)
@@ -171,7 +172,7 @@ public class DepthLimitedSearch<S, A> implements SearchForActions<S, A>, SearchF
 	 * Sets the nodes expanded and path cost metrics to zero.
 	 */
 	private void clearMetrics() {
-		metrics.set(METRIC_NODES_EXPANDED, 0);
+		nodesExpanded.set(0);
 		metrics.set(METRIC_PATH_COST, 0);
 	}
 }
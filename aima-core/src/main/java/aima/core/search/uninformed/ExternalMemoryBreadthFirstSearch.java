@@ -0,0 +1,434 @@
+package aima.core.search.uninformed;
+
+import aima.core.search.framework.*;
+import aima.core.search.framework.problem.Problem;
+import aima.core.util.Tasks;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * Breadth-first search with delayed duplicate detection on disk (Korf 2008).
+ * Frontier and explored states are not kept in memory. Instead, each layer of
+ * the search is stored in a file which contains the codes of its states (see
+ * {@link StateCodec}) in sorted order. To generate the next layer, the states
+ * of the current layer are decoded and expanded. The codes of their successors
+ * are collected in a buffer of fixed size. Whenever the buffer is full, it is
+ * sorted and written to a run file. Finally, all run files are merged. Codes
+ * which occur more than once or which are contained in one of the previous
+ * layer files are dropped during the merge. All files are read via memory
+ * mapping.
+ * <br>
+ * By default, duplicates are searched in all previous layers. For problems
+ * whose actions are reversible (undirected state spaces), it suffices to check
+ * the last two layers (see {@link #setDuplicateDetectionDepth(int)}).
+ * <br>
+ * The goal test is applied when a state is expanded. As paths are not
+ * available, only the first goal state is returned. The search can also be
+ * used to analyze the complete reachable state space. The number of states in
+ * each layer is available after search (see {@link #getLayerSizes()}).
+ *
+ * @param <S> The type used to represent states
+ * @param <A> The type of the actions to be used to navigate through the state space
+ */
+public class ExternalMemoryBreadthFirstSearch<S, A> implements SearchForStates<S, A> {
+
+	public static final String METRIC_NODES_EXPANDED = "nodesExpanded";
+	public static final String METRIC_LAYERS = "layers";
+	public static final String METRIC_STATES_REACHED = "statesReached";
+	public static final String METRIC_MAX_LAYER_SIZE = "maxLayerSize";
+	public static final String METRIC_RUN_FILES = "runFiles";
+
+	private final NodeFactory<S, A> nodeFactory;
+	private final StateCodec<S> codec;
+	private final int recordLength;
+	private final int bufferSize;
+	private final Path workDir;
+	private int duplicateDetectionDepth;
+	private final List<Long> layerSizes = new ArrayList<>();
+
+	private final Metrics metrics = new Metrics();
+	private final Metrics.Counter nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
+	private final Metrics.Counter layers = metrics.counter(METRIC_LAYERS);
+	private final Metrics.Counter statesReached = metrics.counter(METRIC_STATES_REACHED);
+	private final Metrics.Counter maxLayerSize = metrics.counter(METRIC_MAX_LAYER_SIZE);
+	private final Metrics.Counter runFiles = metrics.counter(METRIC_RUN_FILES);
+
+	private int fileCounter;
+
+	/**
+	 * Creates a search which buffers one million successor codes in memory and
+	 * writes its files into the default temporary-file directory.
+	 */
+	public ExternalMemoryBreadthFirstSearch(StateCodec<S> codec) {
+		this(new NodeFactory<>(), codec, 1 << 20, null);
+	}
+
+	/**
+	 * Creates an external-memory breadth-first search.
+	 *
+	 * @param nodeFactory Factory for node creation and successor generation.
+	 * @param codec       Serializer for states.
+	 * @param bufferSize  Number of successor codes which are sorted in memory
+	 *                    before they are written to a run file.
+	 * @param workDir     Directory for layer and run files. If null, a
+	 *                    temporary directory is created for each search.
+	 */
+	public ExternalMemoryBreadthFirstSearch(NodeFactory<S, A> nodeFactory, StateCodec<S> codec, int bufferSize,
+			Path workDir) {
+		if (bufferSize < 1 || (long) bufferSize * codec.encodedLength() > Integer.MAX_VALUE - 8)
+			throw new IllegalArgumentException("Illegal buffer size: " + bufferSize);
+		this.nodeFactory = nodeFactory;
+		this.codec = codec;
+		this.recordLength = codec.encodedLength();
+		this.bufferSize = bufferSize;
+		this.workDir = workDir;
+	}
+
+	/**
+	 * Sets the number of previous layers which are checked for duplicates.
+	 * Value 2 is sufficient if all actions are reversible.
+	 *
+	 * @param depth Number of layers, 0 means all layers (default).
+	 */
+	public void setDuplicateDetectionDepth(int depth) {
+		if (depth < 0)
+			throw new IllegalArgumentException("Depth must not be negative.");
+		duplicateDetectionDepth = depth;
+	}
+
+	/**
+	 * Returns the first goal state which is found (with minimal number of
+	 * steps), or empty if all reachable states have been expanded without
+	 * success or the search was cancelled.
+	 */
+	@Override
+	public Optional<S> findState(Problem<S, A> p) {
+		nodeFactory.useParentLinks(false);
+		clearMetrics();
+		layerSizes.clear();
+		Path dir = null;
+		List<Path> layerFiles = new ArrayList<>();
+		try {
+			dir = workDir != null ? workDir : Files.createTempDirectory("aima-bfs");
+			byte[] rootCode = new byte[recordLength];
+			codec.encode(p.getInitialState(), rootCode, 0);
+			Path rootFile = newFile(dir, "layer");
+			try (RecordWriter writer = new RecordWriter(rootFile, recordLength)) {
+				writer.write(rootCode, 0);
+			}
+			layerFiles.add(rootFile);
+			addLayer(1);
+
+			while (!Tasks.currIsCancelled()) {
+				Path currLayer = layerFiles.get(layerFiles.size() - 1);
+				List<Path> runs = new ArrayList<>();
+				try {
+					S goal = expandLayer(p, currLayer, dir, runs);
+					if (goal != null || Tasks.currIsCancelled())
+						return Optional.ofNullable(goal);
+					int from = duplicateDetectionDepth == 0 ? 0
+							: Math.max(0, layerFiles.size() - duplicateDetectionDepth);
+					Path nextLayer = newFile(dir, "layer");
+					long size = mergeRuns(runs, layerFiles.subList(from, layerFiles.size()), nextLayer);
+					layerFiles.add(nextLayer);
+					if (size == 0)
+						return Optional.empty();
+					addLayer(size);
+				} finally {
+					deleteAll(runs);
+				}
+			}
+			return Optional.empty();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			deleteAll(layerFiles);
+			if (workDir == null && dir != null)
+				deleteAll(Collections.singletonList(dir));
+		}
+	}
+
+	/**
+	 * Returns the number of states of each layer found in the last search.
+	 * Index 0 corresponds to the layer of the initial state.
+	 */
+	public List<Long> getLayerSizes() {
+		return Collections.unmodifiableList(layerSizes);
+	}
+
+	/**
+	 * Returns all the search metrics.
+	 */
+	@Override
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	@Override
+	public void addNodeListener(Consumer<Node<S, A>> listener) {
+		nodeFactory.addNodeListener(listener);
+	}
+
+	@Override
+	public boolean removeNodeListener(Consumer<Node<S, A>> listener) {
+		return nodeFactory.removeNodeListener(listener);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	/**
+	 * Expands all states of the layer and writes the codes of their
+	 * successors into sorted run files. Returns a goal state if one is found
+	 * in the layer.
+	 */
+	private S expandLayer(Problem<S, A> p, Path layer, Path dir, List<Path> runs) throws IOException {
+		byte[] buffer = new byte[bufferSize * recordLength];
+		byte[] tmp = new byte[buffer.length];
+		int[] count = new int[1];
+		try (RecordReader reader = new RecordReader(layer, recordLength)) {
+			while (reader.next() && !Tasks.currIsCancelled()) {
+				Node<S, A> node = nodeFactory.createNode(codec.decode(reader.current, 0));
+				if (p.testSolution(node))
+					return node.getState();
+				nodesExpanded.increment();
+				nodeFactory.expand(node, p, child -> {
+					if (count[0] == bufferSize) {
+						runs.add(writeRun(buffer, tmp, count[0], dir));
+						count[0] = 0;
+					}
+					codec.encode(child.getState(), buffer, count[0]++ * recordLength);
+				});
+			}
+		}
+		if (count[0] > 0)
+			runs.add(writeRun(buffer, tmp, count[0], dir));
+		return null;
+	}
+
+	/** Sorts the codes in the buffer and writes them without duplicates. */
+	private Path writeRun(byte[] buffer, byte[] tmp, int count, Path dir) {
+		try {
+			sort(buffer, tmp, count, recordLength);
+			Path file = newFile(dir, "run");
+			try (RecordWriter writer = new RecordWriter(file, recordLength)) {
+				for (int i = 0; i < count; i++) {
+					int offset = i * recordLength;
+					if (i == 0 || Arrays.compareUnsigned(buffer, offset - recordLength, offset,
+							buffer, offset, offset + recordLength) != 0)
+						writer.write(buffer, offset);
+				}
+			}
+			runFiles.increment();
+			return file;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Merges the sorted run files and writes every code which is not contained
+	 * in one of the previous layers exactly once into the target file. Returns
+	 * the number of written codes.
+	 */
+	private long mergeRuns(List<Path> runs, List<Path> previousLayers, Path target) throws IOException {
+		List<RecordReader> readers = new ArrayList<>();
+		try (RecordWriter writer = new RecordWriter(target, recordLength)) {
+			PriorityQueue<RecordReader> queue = new PriorityQueue<>(Math.max(1, runs.size()),
+					(r1, r2) -> Arrays.compareUnsigned(r1.current, r2.current));
+			for (Path run : runs) {
+				RecordReader reader = new RecordReader(run, recordLength);
+				readers.add(reader);
+				if (reader.next())
+					queue.add(reader);
+			}
+			List<RecordReader> previous = new ArrayList<>();
+			for (Path layer : previousLayers) {
+				RecordReader reader = new RecordReader(layer, recordLength);
+				readers.add(reader);
+				if (reader.next())
+					previous.add(reader);
+			}
+			byte[] last = null;
+			while (!queue.isEmpty()) {
+				RecordReader reader = queue.poll();
+				if (last == null || !Arrays.equals(last, reader.current)) {
+					if (last == null)
+						last = new byte[recordLength];
+					System.arraycopy(reader.current, 0, last, 0, recordLength);
+					if (!isContained(last, previous))
+						writer.write(last, 0);
+				}
+				if (reader.next())
+					queue.add(reader);
+			}
+			return writer.getCount();
+		} finally {
+			for (RecordReader reader : readers)
+				reader.close();
+		}
+	}
+
+	/**
+	 * Checks whether the code is contained in one of the sorted sequences. The
+	 * readers are advanced to the first code which is not smaller than the
+	 * given code. Exhausted readers are removed.
+	 */
+	private static boolean isContained(byte[] code, List<RecordReader> readers) {
+		boolean result = false;
+		Iterator<RecordReader> iter = readers.iterator();
+		while (iter.hasNext()) {
+			RecordReader reader = iter.next();
+			int cmp;
+			while ((cmp = Arrays.compareUnsigned(reader.current, code)) < 0) {
+				if (!reader.next())
+					break;
+			}
+			if (cmp < 0)
+				iter.remove();
+			else if (cmp == 0)
+				result = true;
+		}
+		return result;
+	}
+
+	/**
+	 * Sorts fixed-length records by unsigned lexicographic order (LSD radix
+	 * sort, one pass per byte).
+	 */
+	private static void sort(byte[] records, byte[] tmp, int count, int recordLength) {
+		int[] offsets = new int[257];
+		byte[] src = records;
+		byte[] dst = tmp;
+		for (int b = recordLength - 1; b >= 0; b--) {
+			Arrays.fill(offsets, 0);
+			for (int i = 0; i < count; i++)
+				offsets[(src[i * recordLength + b] & 0xFF) + 1]++;
+			for (int v = 0; v < 256; v++)
+				offsets[v + 1] += offsets[v];
+			for (int i = 0; i < count; i++) {
+				int pos = offsets[src[i * recordLength + b] & 0xFF]++;
+				System.arraycopy(src, i * recordLength, dst, pos * recordLength, recordLength);
+			}
+			byte[] swap = src;
+			src = dst;
+			dst = swap;
+		}
+		if (src != records)
+			System.arraycopy(src, 0, records, 0, count * recordLength);
+	}
+
+	private void addLayer(long size) {
+		layerSizes.add(size);
+		layers.increment();
+		statesReached.add(size);
+		maxLayerSize.updateMax(size);
+	}
+
+	private Path newFile(Path dir, String prefix) {
+		return dir.resolve(prefix + "-" + fileCounter++ + ".bin");
+	}
+
+	private static void deleteAll(List<Path> files) {
+		for (Path file : files) {
+			try {
+				Files.deleteIfExists(file);
+			} catch (IOException e) {
+				// file might still be mapped on some platforms, leave it to the OS
+			}
+		}
+	}
+
+	/**
+	 * Sets all metrics to zero.
+	 */
+	private void clearMetrics() {
+		nodesExpanded.set(0);
+		layers.set(0);
+		statesReached.set(0);
+		maxLayerSize.set(0);
+		runFiles.set(0);
+	}
+
+	/** Writes fixed-length records sequentially. */
+	private static class RecordWriter implements AutoCloseable {
+		private final OutputStream out;
+		private final int recordLength;
+		private long count;
+
+		RecordWriter(Path file, int recordLength) throws IOException {
+			out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 16);
+			this.recordLength = recordLength;
+		}
+
+		void write(byte[] source, int offset) throws IOException {
+			out.write(source, offset, recordLength);
+			count++;
+		}
+
+		long getCount() {
+			return count;
+		}
+
+		@Override
+		public void close() throws IOException {
+			out.close();
+		}
+	}
+
+	/**
+	 * Reads fixed-length records from a file, which is mapped into memory
+	 * window by window. After a successful call of {@link #next()}, the
+	 * current record is available in {@link #current}.
+	 */
+	private static class RecordReader implements AutoCloseable {
+		private static final int WINDOW_SIZE = 1 << 24;
+
+		final byte[] current;
+		private final FileChannel channel;
+		private final long fileSize;
+		private final int windowSize;
+		private MappedByteBuffer window;
+		private long windowStart;
+
+		RecordReader(Path file, int recordLength) throws IOException {
+			current = new byte[recordLength];
+			channel = FileChannel.open(file, StandardOpenOption.READ);
+			fileSize = channel.size();
+			windowSize = Math.max(1, WINDOW_SIZE / recordLength) * recordLength;
+		}
+
+		boolean next() {
+			try {
+				if (window == null || !window.hasRemaining()) {
+					long start = window == null ? 0 : windowStart + window.capacity();
+					if (start >= fileSize)
+						return false;
+					windowStart = start;
+					window = channel.map(FileChannel.MapMode.READ_ONLY, start,
+							Math.min(windowSize, fileSize - start));
+				}
+				window.get(current);
+				return true;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			channel.close();
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package aima.core.search.uninformed;
 
 import java.util.Comparator;
+import java.util.Queue;
 
 import aima.core.search.framework.Node;
 import aima.core.search.framework.QueueBasedSearch;
@@ -56,6 +57,31 @@ public class UniformCostSearch<S, A> extends QueueBasedSearch<S, A> {
 	 * search execution strategy.
 	 */
 	public UniformCostSearch(QueueSearch<S, A> impl) {
-		super(impl, QueueFactory.createPriorityQueue(Comparator.comparing(Node::getPathCost)));
+		this(impl, QueueFactory.createAddressablePriorityQueue(Comparator.comparingDouble(Node::getPathCost)));
+	}
+
+	/**
+	 * Creates a uniform-cost search which uses a bucket queue as frontier.
+	 * Faster than the default priority queue for problems with small integer
+	 * step costs. Other step costs cause an
+	 * <code>IllegalArgumentException</code> during search.
+	 */
+	public static <S, A> UniformCostSearch<S, A> createWithBucketQueue(QueueSearch<S, A> impl) {
+		return new UniformCostSearch<>(impl, QueueFactory.createBucketQueue(
+				QueueFactory.<Node<S, A>>toIntKeyFunction(Node::getPathCost)));
+	}
+
+	/**
+	 * Creates a uniform-cost search which uses a radix heap as frontier. Like
+	 * {@link #createWithBucketQueue(QueueSearch)}, but large path cost ranges
+	 * need no additional memory.
+	 */
+	public static <S, A> UniformCostSearch<S, A> createWithRadixHeap(QueueSearch<S, A> impl) {
+		return new UniformCostSearch<>(impl, QueueFactory.createRadixHeap(
+				QueueFactory.<Node<S, A>>toIntKeyFunction(Node::getPathCost)));
+	}
+
+	private UniformCostSearch(QueueSearch<S, A> impl, Queue<Node<S, A>> frontier) {
+		super(impl, frontier);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,212 @@
+package aima.core.util;
+
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Scope for structured cancellation of tasks. A scope is opened by a thread,
+ * forks child tasks, waits for them, and is closed by the same thread, usually
+ * in a try-with-resources statement:
+ *
+ * <pre>
+ * try (TaskScope scope = TaskScope.open(1000)) {
+ *     Future&lt;Integer&gt; a = scope.fork(() -&gt; solve(p1));
+ *     Future&lt;Integer&gt; b = scope.fork(() -&gt; solve(p2));
+ *     scope.join();
+ *     ...
+ * }
+ * </pre>
+ *
+ * Child tasks are executed by the executor of {@link Tasks} and run with the
+ * scope as current scope. Scopes which are opened within child tasks become
+ * child scopes. A scope is cancelled if {@link #cancel()} was called, its
+ * deadline has passed, a child task failed, or its parent scope is cancelled.
+ * So cancellation and deadlines propagate to all tasks of the subtree, which
+ * observe them by polling {@link Tasks#currIsCancelled()}. Closing a scope
+ * cancels it and waits until all child tasks have terminated. Child tasks
+ * which did not start before their scope was cancelled are skipped.
+ */
+public class TaskScope implements AutoCloseable {
+
+	private static final long NO_DEADLINE = Long.MAX_VALUE;
+	private static final ThreadLocal<TaskScope> current = new ThreadLocal<>();
+
+	private final TaskScope parent;
+	private final long deadline;
+	private final TaskScope outer;
+	private final Thread owner;
+	private final Queue<FutureTask<?>> children = new ConcurrentLinkedQueue<>();
+	private volatile boolean isCancelled;
+
+	/**
+	 * Opens a scope without own deadline. It becomes the current scope of the
+	 * calling thread until it is closed.
+	 */
+	public static TaskScope open() {
+		return open(NO_DEADLINE);
+	}
+
+	/**
+	 * Opens a scope which is cancelled when the time limit has elapsed. It
+	 * becomes the current scope of the calling thread until it is closed.
+	 *
+	 * @param timeLimit time limit in milliseconds. Deadlines of parent scopes
+	 *                  remain effective.
+	 */
+	public static TaskScope open(long timeLimit) {
+		long deadline = timeLimit < NO_DEADLINE / 1_000_000 ? System.nanoTime() + timeLimit * 1_000_000 : NO_DEADLINE;
+		TaskScope result = new TaskScope(current.get(), deadline);
+		current.set(result);
+		return result;
+	}
+
+	/** Returns the current scope of the calling thread or null. */
+	public static TaskScope current() {
+		return current.get();
+	}
+
+	/**
+	 * Checks whether the current scope of the calling thread is cancelled.
+	 * Returns false if there is no current scope.
+	 */
+	public static boolean currIsCancelled() {
+		TaskScope scope = current.get();
+		return scope != null && scope.isCancelled();
+	}
+
+	TaskScope(TaskScope parent, long deadline) {
+		this.parent = parent;
+		this.deadline = parent != null ? Math.min(deadline, parent.deadline) : deadline;
+		outer = current.get();
+		owner = Thread.currentThread();
+	}
+
+	/**
+	 * Starts a child task. If the task fails, the scope is cancelled, and with
+	 * it all other child tasks.
+	 */
+	public <T> Future<T> fork(Callable<T> task) {
+		FutureTask<T> result = new FutureTask<T>(() -> {
+			TaskScope prev = current.get();
+			current.set(this);
+			try {
+				return task.call();
+			} catch (Throwable e) {
+				cancel();
+				throw e;
+			} finally {
+				current.set(prev);
+			}
+		}) {
+			@Override
+			public void run() {
+				if (TaskScope.this.isCancelled())
+					cancel(false);
+				else
+					super.run();
+			}
+		};
+		children.add(result);
+		Tasks.getExecutor().execute(result);
+		return result;
+	}
+
+	/** Starts a child task without result. */
+	public Future<?> fork(Runnable task) {
+		return fork(() -> {
+			task.run();
+			return null;
+		});
+	}
+
+	/**
+	 * Waits until all child tasks have terminated or were skipped.
+	 *
+	 * @throws ExecutionException if a child task failed. The exception of the
+	 *                            first failed task is reported.
+	 */
+	public void join() throws InterruptedException, ExecutionException {
+		ExecutionException failure = null;
+		for (FutureTask<?> child : children) {
+			try {
+				child.get();
+			} catch (CancellationException e) {
+				// skipped
+			} catch (ExecutionException e) {
+				if (failure == null)
+					failure = e;
+			}
+		}
+		if (failure != null)
+			throw failure;
+	}
+
+	/** Cancels this scope and all its child tasks and child scopes. */
+	public void cancel() {
+		isCancelled = true;
+	}
+
+	/**
+	 * Returns true if this scope or one of its ancestors was cancelled or if
+	 * the deadline has passed.
+	 */
+	public boolean isCancelled() {
+		if (isCancelled)
+			return true;
+		if (deadline != NO_DEADLINE && System.nanoTime() - deadline >= 0) {
+			isCancelled = true;
+			return true;
+		}
+		return parent != null && parent.isCancelled();
+	}
+
+	/**
+	 * Returns the remaining time until the deadline in milliseconds, or
+	 * <code>Long.MAX_VALUE</code> if there is no deadline.
+	 */
+	public long getRemainingTime() {
+		return deadline != NO_DEADLINE ? Math.max(0, (deadline - System.nanoTime()) / 1_000_000) : Long.MAX_VALUE;
+	}
+
+	/**
+	 * Cancels the scope, waits until all child tasks have terminated, and
+	 * restores the scope which was current before the scope was opened.
+	 */
+	@Override
+	public void close() {
+		cancel();
+		boolean interrupted = false;
+		for (FutureTask<?> child : children) {
+			while (true) {
+				try {
+					child.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException | CancellationException e) {
+					break;
+				}
+			}
+		}
+		if (Thread.currentThread() == owner && current.get() == this)
+			current.set(outer);
+		if (interrupted)
+			Thread.currentThread().interrupt();
+	}
+
+	/** Runs the task in the calling thread with this scope as current scope. */
+	void runWithin(Runnable task) {
+		TaskScope prev = current.get();
+		current.set(this);
+		try {
+			task.run();
+		} finally {
+			current.set(prev);
+		}
+	}
+}
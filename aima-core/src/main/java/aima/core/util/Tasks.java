@@ -1,11 +1,26 @@
 package aima.core.util;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
 /**
  * Simple facade for cancellable task management.
+ * <p>
+ * Background tasks run on virtual threads if the JDK supports them, and on
+ * daemon {@link CancellableThread}s otherwise. Each background task runs
+ * within its own {@link TaskScope}, which is a child of the scope of the
+ * starting thread. So cancelling the task cancels all tasks it forked, and
+ * deadlines of enclosing scopes apply to it as well. Tasks which are forked
+ * by scopes are executed by a pluggable executor (see
+ * {@link #setExecutor(Executor)}).
+ * </p>
  *
  * @author Ruediger Lunde
  */
@@ -31,21 +46,80 @@ public class Tasks {
         return isCancelledFn.get();
     }
 
+    /** Returns the executor which runs the tasks forked by task scopes. */
+    public static Executor getExecutor() {
+        return executor;
+    }
 
-    // the default implementation uses CancellableThread
+    /** Returns true if background tasks run on virtual threads by default. */
+    public static boolean usesVirtualThreads() {
+        return VIRTUAL_THREAD_FACTORY != null;
+    }
 
-    private static Function<Runnable, Thread> startThreadFn =
+
+    // the default implementation uses virtual threads if available and CancellableThread otherwise
+
+    private static final ThreadFactory VIRTUAL_THREAD_FACTORY = createVirtualThreadFactory();
+
+    private static final ThreadFactory THREAD_FACTORY = VIRTUAL_THREAD_FACTORY != null ? VIRTUAL_THREAD_FACTORY :
             task -> {
                 Thread result = new CancellableThread(task);
                 result.setDaemon(true);
+                return result;
+            };
+
+    // scopes of the running background tasks
+    private static final Map<Thread, TaskScope> scopes = new ConcurrentHashMap<>();
+
+    private static Function<Runnable, Thread> startThreadFn =
+            task -> {
+                TaskScope scope = new TaskScope(TaskScope.current(), Long.MAX_VALUE);
+                Thread result = THREAD_FACTORY.newThread(() -> {
+                    try {
+                        scope.runWithin(task);
+                    } finally {
+                        scopes.remove(Thread.currentThread());
+                    }
+                });
+                scopes.put(result, scope);
                 result.start();
                 return result;
             };
 
     private static Consumer<Thread> cancelFn =
-            thread -> {if (thread instanceof CancellableThread) ((CancellableThread) thread).cancel();};
+            thread -> {
+                if (thread instanceof CancellableThread)
+                    ((CancellableThread) thread).cancel();
+                TaskScope scope = scopes.get(thread);
+                if (scope != null)
+                    scope.cancel();
+            };
 
-    private static Supplier<Boolean> isCancelledFn = CancellableThread::currIsCancelled;
+    private static Supplier<Boolean> isCancelledFn =
+            () -> CancellableThread.currIsCancelled() || TaskScope.currIsCancelled();
+
+    // thread per task for virtual threads, pooled daemon threads otherwise
+    private static Executor executor = VIRTUAL_THREAD_FACTORY != null ?
+            task -> VIRTUAL_THREAD_FACTORY.newThread(task).start() :
+            Executors.newCachedThreadPool(task -> {
+                Thread result = new Thread(task);
+                result.setDaemon(true);
+                return result;
+            });
+
+    /**
+     * Returns a factory for virtual threads, or null if the JDK does not
+     * support them. Reflection is used to stay compatible with older JDKs.
+     */
+    private static ThreadFactory createVirtualThreadFactory() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Method factory = Class.forName("java.lang.Thread$Builder").getMethod("factory");
+            return (ThreadFactory) factory.invoke(ofVirtual.invoke(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null; // not supported or preview feature not enabled
+        }
+    }
 
 
     // functionality can be changed at runtime
@@ -61,4 +135,12 @@ public class Tasks {
     public static void setIsCancelledFn(Supplier<Boolean> isCancelledFn) {
         Tasks.isCancelledFn = isCancelledFn;
     }
+
+    /**
+     * Replaces the executor which runs the tasks forked by task scopes, e.g.
+     * by a bounded thread pool. The previous executor is not shut down.
+     */
+    public static void setExecutor(Executor executor) {
+        Tasks.executor = executor;
+    }
 }
@@ -0,0 +1,302 @@
+package aima.core.util.datastructure;
+
+import java.util.*;
+
+/**
+ * Binary heap based priority queue which supports element removal and
+ * decrease-key operations in logarithmic time. Element order and tie breaking
+ * are the same as in {@link PriorityQueue}, so both implementations can be
+ * exchanged without changing search results. Elements are addressed by
+ * equality, so one queue must not contain two equal elements at the same
+ * time. Search nodes fulfill this requirement as they do not override
+ * <code>equals</code>.
+ * <br>
+ * The element-to-position index needed for addressing is built on demand
+ * when {@link #remove(Object)}, {@link #contains(Object)}, or
+ * {@link #replace(Object, Object)} is called for the first time. Until then,
+ * the queue has the same costs as a standard java priority queue. The index
+ * is a hash table with open addressing, which stores heap positions in an
+ * <code>int</code> array. For each heap position, the table slot of the
+ * element is stored as well. So moving an element within the heap costs two
+ * array writes, and neither hash computations nor boxing are needed.
+ *
+ * @param <E> The type of the elements held in this queue
+ */
+public class AddressablePriorityQueue<E> extends AbstractQueue<E> {
+
+	private static final int DEFAULT_INITIAL_CAPACITY = 11;
+	private static final int EMPTY = -1;
+
+	private final Comparator<? super E> comparator;
+	private Object[] heap;
+	private int size;
+	private int modCount;
+	// element index, all null as long as no element was addressed
+	private int[] table; // heap positions, linear probing
+	private int[] tableHashes; // hash codes of the elements in table
+	private int[] slots; // table slot of the element at each heap position
+
+	public AddressablePriorityQueue(Comparator<? super E> comparator) {
+		this(DEFAULT_INITIAL_CAPACITY, comparator);
+	}
+
+	public AddressablePriorityQueue(int initialCapacity, Comparator<? super E> comparator) {
+		this.comparator = comparator;
+		heap = new Object[Math.max(1, initialCapacity)];
+	}
+
+	/** Returns the comparator used to order the elements in this queue. */
+	public Comparator<? super E> comparator() {
+		return comparator;
+	}
+
+	@Override
+	public boolean offer(E e) {
+		Objects.requireNonNull(e);
+		modCount++;
+		int i = size;
+		if (i >= heap.length) {
+			heap = Arrays.copyOf(heap, i < 64 ? i * 2 + 2 : i + (i >> 1));
+			if (table != null)
+				slots = Arrays.copyOf(slots, heap.length);
+		}
+		size = i + 1;
+		int slot = EMPTY;
+		if (table != null) {
+			if (size > table.length >>> 1)
+				growTable();
+			slot = insert(e, i);
+		}
+		siftUp(i, e, slot);
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		if (size == 0)
+			return null;
+		modCount++;
+		E result = elementAt(0);
+		int n = --size;
+		E x = elementAt(n);
+		heap[n] = null;
+		if (table != null)
+			delete(slots[0]);
+		if (n > 0)
+			siftDown(0, x, slotAt(n));
+		return result;
+	}
+
+	@Override
+	public E peek() {
+		return size > 0 ? elementAt(0) : null;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		modCount++;
+		Arrays.fill(heap, 0, size, null);
+		size = 0;
+		if (table != null)
+			Arrays.fill(table, EMPTY);
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return indexOf(o) != -1;
+	}
+
+	/** Removes the specified element in logarithmic time. */
+	@Override
+	public boolean remove(Object o) {
+		int i = indexOf(o);
+		if (i == -1)
+			return false;
+		removeAt(i);
+		return true;
+	}
+
+	/**
+	 * Replaces an element of the queue by a new element and restores heap order
+	 * in logarithmic time. If the new element is smaller than the old one, this
+	 * is the classical decrease-key operation.
+	 *
+	 * @return true if <code>oldElement</code> was found and replaced.
+	 */
+	public boolean replace(E oldElement, E newElement) {
+		Objects.requireNonNull(newElement);
+		int i = indexOf(oldElement);
+		if (i == -1)
+			return false;
+		modCount++;
+		delete(slots[i]);
+		int slot = insert(newElement, i);
+		if (comparator.compare(newElement, oldElement) < 0)
+			siftUp(i, newElement, slot);
+		else
+			siftDown(i, newElement, slot);
+		return true;
+	}
+
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int cursor;
+			private final int expectedModCount = modCount;
+
+			@Override
+			public boolean hasNext() {
+				return cursor < size;
+			}
+
+			@Override
+			public E next() {
+				if (expectedModCount != modCount)
+					throw new ConcurrentModificationException();
+				if (cursor >= size)
+					throw new NoSuchElementException();
+				return elementAt(cursor++);
+			}
+		};
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	@SuppressWarnings("unchecked")
+	private E elementAt(int i) {
+		return (E) heap[i];
+	}
+
+	/** Returns the heap position of the element and builds the index if necessary. */
+	private int indexOf(Object o) {
+		if (o == null)
+			return -1;
+		if (table == null) {
+			table = new int[Integer.highestOneBit(Math.max(16, size * 2) - 1) << 1];
+			Arrays.fill(table, EMPTY);
+			tableHashes = new int[table.length];
+			slots = new int[heap.length];
+			for (int i = 0; i < size; i++)
+				insert(elementAt(i), i);
+		}
+		int h = hash(o);
+		int mask = table.length - 1;
+		for (int s = h & mask; table[s] != EMPTY; s = (s + 1) & mask)
+			if (tableHashes[s] == h && o.equals(heap[table[s]]))
+				return table[s];
+		return -1;
+	}
+
+	private void removeAt(int i) {
+		modCount++;
+		int s = --size;
+		delete(slots[i]);
+		if (s == i) {
+			heap[i] = null;
+		} else {
+			E moved = elementAt(s);
+			int movedSlot = slots[s];
+			heap[s] = null;
+			siftDown(i, moved, movedSlot);
+			if (heap[i] == moved)
+				siftUp(i, moved, movedSlot);
+		}
+	}
+
+	/** Moves x up from position k. Its table slot is ignored if there is no index. */
+	private void siftUp(int k, E x, int xSlot) {
+		while (k > 0) {
+			int parent = (k - 1) >>> 1;
+			E e = elementAt(parent);
+			if (comparator.compare(x, e) >= 0)
+				break;
+			setAt(k, e, slotAt(parent));
+			k = parent;
+		}
+		setAt(k, x, xSlot);
+	}
+
+	/** Moves x down from position k. Its table slot is ignored if there is no index. */
+	private void siftDown(int k, E x, int xSlot) {
+		int half = size >>> 1;
+		while (k < half) {
+			int child = (k << 1) + 1;
+			E c = elementAt(child);
+			int right = child + 1;
+			if (right < size && comparator.compare(c, elementAt(right)) > 0)
+				c = elementAt(child = right);
+			if (comparator.compare(x, c) <= 0)
+				break;
+			setAt(k, c, slotAt(child));
+			k = child;
+		}
+		setAt(k, x, xSlot);
+	}
+
+	private void setAt(int i, E e, int slot) {
+		heap[i] = e;
+		if (table != null) {
+			slots[i] = slot;
+			table[slot] = i;
+		}
+	}
+
+	private int slotAt(int i) {
+		return table != null ? slots[i] : EMPTY;
+	}
+
+	/** Adds the element at the given heap position to the index and returns its slot. */
+	private int insert(E e, int pos) {
+		return insert(hash(e), pos);
+	}
+
+	private int insert(int h, int pos) {
+		int mask = table.length - 1;
+		int s = h & mask;
+		while (table[s] != EMPTY)
+			s = (s + 1) & mask;
+		table[s] = pos;
+		tableHashes[s] = h;
+		slots[pos] = s;
+		return s;
+	}
+
+	/** Removes the entry of the slot from the index by shifting back its successors. */
+	private void delete(int slot) {
+		int mask = table.length - 1;
+		int hole = slot;
+		for (int s = (slot + 1) & mask; table[s] != EMPTY; s = (s + 1) & mask) {
+			// an entry can fill the hole if its home slot is not between hole and entry
+			if (((s - tableHashes[s]) & mask) >= ((s - hole) & mask)) {
+				table[hole] = table[s];
+				tableHashes[hole] = tableHashes[s];
+				slots[table[hole]] = hole;
+				hole = s;
+			}
+		}
+		table[hole] = EMPTY;
+	}
+
+	private void growTable() {
+		int[] oldTable = table;
+		int[] oldHashes = tableHashes;
+		table = new int[oldTable.length * 2];
+		Arrays.fill(table, EMPTY);
+		tableHashes = new int[table.length];
+		for (int s = 0; s < oldTable.length; s++)
+			if (oldTable[s] != EMPTY)
+				insert(oldHashes[s], oldTable[s]);
+	}
+
+	private static int hash(Object o) {
+		int h = o.hashCode() * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -0,0 +1,126 @@
+package aima.core.util.datastructure;
+
+import java.util.Arrays;
+
+/**
+ * Bloom filter for 64 bit hash values, based on a bit array of type
+ * <code>long[]</code>. With one hash function, it implements bitstate hashing
+ * (Holzmann 1987). Each value sets <em>k</em> bits, whose positions are
+ * derived from the value by double hashing. A value is regarded as contained
+ * if all its bits are set. So containment checks can report false positives,
+ * but never false negatives. The probability of false positives is
+ * approximately <em>(b / m)<sup>k</sup></em> where <em>b</em> is the number of
+ * bits which are set and <em>m</em> is the size of the bit array. Values
+ * cannot be removed (see {@link CountingBloomFilter}).
+ * <br>
+ * The number of bits is rounded up to a power of two. Values should be well
+ * distributed hash codes. Less than one byte per element is typically
+ * sufficient for false positive probabilities below 5%.
+ */
+public class BloomFilter {
+
+	/** Maximal number of bits, the bit array then contains 2<sup>30</sup> long values. */
+	public static final long MAX_BITS = 1L << 36;
+
+	private final long[] bits;
+	private final long mask;
+	private final int numHashFunctions;
+	private long bitsSet;
+
+	/**
+	 * Creates a Bloom filter.
+	 *
+	 * @param numBits          Size of the bit array (rounded up to a power of
+	 *                         two, at least 64, at most {@link #MAX_BITS}).
+	 * @param numHashFunctions Number of bits per value.
+	 */
+	public BloomFilter(long numBits, int numHashFunctions) {
+		if (numHashFunctions < 1)
+			throw new IllegalArgumentException("At least one hash function is needed.");
+		long size = powerOfTwoFor(numBits, 64, MAX_BITS);
+		bits = new long[(int) (size >>> 6)];
+		mask = size - 1;
+		this.numHashFunctions = numHashFunctions;
+	}
+
+	/**
+	 * Sets the bits of the value and returns true if at least one of them was
+	 * not set before (that is, the value was definitely not contained).
+	 */
+	public boolean add(long value) {
+		long h2 = secondHash(value);
+		boolean result = false;
+		for (int i = 0; i < numHashFunctions; i++) {
+			long pos = (value + i * h2) & mask;
+			int idx = (int) (pos >>> 6);
+			long bit = 1L << pos;
+			if ((bits[idx] & bit) == 0) {
+				bits[idx] |= bit;
+				bitsSet++;
+				result = true;
+			}
+		}
+		return result;
+	}
+
+	/** Returns false if the value was definitely not added, true otherwise. */
+	public boolean mightContain(long value) {
+		long h2 = secondHash(value);
+		for (int i = 0; i < numHashFunctions; i++) {
+			long pos = (value + i * h2) & mask;
+			if ((bits[(int) (pos >>> 6)] & (1L << pos)) == 0)
+				return false;
+		}
+		return true;
+	}
+
+	public void clear() {
+		Arrays.fill(bits, 0);
+		bitsSet = 0;
+	}
+
+	public long getNumberOfBits() {
+		return mask + 1;
+	}
+
+	public int getNumberOfHashFunctions() {
+		return numHashFunctions;
+	}
+
+	/** Returns the fraction of bits which are set. */
+	public double getFillRatio() {
+		return (double) bitsSet / getNumberOfBits();
+	}
+
+	/**
+	 * Returns the probability that a value which was not added is reported as
+	 * contained.
+	 */
+	public double getFalsePositiveProbability() {
+		return Math.pow(getFillRatio(), numHashFunctions);
+	}
+
+	/**
+	 * Returns the number of hash functions which minimizes the false positive
+	 * probability for the given number of bits and expected elements.
+	 */
+	public static int optimalNumberOfHashFunctions(long numBits, long expectedElements) {
+		return (int) Math.max(1, Math.round((double) numBits / Math.max(1, expectedElements) * Math.log(2)));
+	}
+
+	/** Rounds up to a power of two within the given bounds. */
+	static long powerOfTwoFor(long n, long min, long max) {
+		if (n > max)
+			throw new IllegalArgumentException("Size must not exceed " + max + ".");
+		long result = min;
+		while (result < n)
+			result <<= 1;
+		return result;
+	}
+
+	/** Derives an odd step width for double hashing from the value. */
+	static long secondHash(long value) {
+		long h = (value ^ (value >>> 31)) * 0xBF58476D1CE4E5B9L;
+		return (h ^ (h >>> 29)) | 1;
+	}
+}
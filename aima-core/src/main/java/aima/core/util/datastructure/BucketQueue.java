@@ -0,0 +1,143 @@
+package aima.core.util.datastructure;
+
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * Priority queue for integer keys which stores elements in an array of
+ * buckets, one per key (Dial 1969). Adding an element costs constant time,
+ * removing the head costs amortized constant time plus the number of empty
+ * buckets skipped. Arbitrary keys are supported, but the bucket array spans
+ * the range between the smallest and the largest key since the queue was
+ * last empty. So the queue is suited for small key ranges like f-values of
+ * problems with small integer step costs. Elements with equal keys are
+ * removed in insertion order.
+ *
+ * @param <E> The type of the elements held in this queue
+ */
+public class BucketQueue<E> extends IntegerKeyQueue<E> {
+
+	private ArrayDeque<E>[] buckets;
+	private int offset; // key of buckets[0]
+	private int minIdx; // all buckets below are empty
+	private int size;
+
+	public BucketQueue(ToIntFunction<? super E> keyFn) {
+		super(keyFn);
+		buckets = newBuckets(16);
+	}
+
+	@Override
+	public boolean offer(E e) {
+		Objects.requireNonNull(e);
+		int key = keyFn.applyAsInt(e);
+		if (size == 0) {
+			offset = key;
+			minIdx = 0;
+		} else if (key < offset) {
+			shift(offset - (long) key);
+		}
+		long idx = (long) key - offset;
+		if (idx >= buckets.length)
+			grow(idx + 1);
+		ArrayDeque<E> bucket = buckets[(int) idx];
+		if (bucket == null)
+			bucket = buckets[(int) idx] = new ArrayDeque<>();
+		bucket.add(e);
+		if (idx < minIdx)
+			minIdx = (int) idx;
+		size++;
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		if (size == 0)
+			return null;
+		size--;
+		return headBucket().poll();
+	}
+
+	@Override
+	public E peek() {
+		return size > 0 ? headBucket().peek() : null;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		ArrayDeque<E> bucket = bucketOf(o);
+		if (bucket != null && bucket.removeFirstOccurrence(o)) {
+			size--;
+			return true;
+		}
+		return false;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		ArrayDeque<E> bucket = bucketOf(o);
+		return bucket != null && bucket.contains(o);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public void clear() {
+		for (ArrayDeque<E> bucket : buckets)
+			if (bucket != null)
+				bucket.clear();
+		size = 0;
+	}
+
+	/** Returns an iterator which visits the elements in queue order. */
+	@Override
+	public Iterator<E> iterator() {
+		return Arrays.stream(buckets).filter(Objects::nonNull).flatMap(Collection::stream).iterator();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private ArrayDeque<E> headBucket() {
+		while (buckets[minIdx] == null || buckets[minIdx].isEmpty())
+			minIdx++;
+		return buckets[minIdx];
+	}
+
+	private ArrayDeque<E> bucketOf(Object o) {
+		Integer key = keyOf(o);
+		if (key == null || size == 0)
+			return null;
+		long idx = (long) key - offset;
+		return idx >= 0 && idx < buckets.length ? buckets[(int) idx] : null;
+	}
+
+	private void grow(long minLength) {
+		buckets = Arrays.copyOf(buckets, newLength(minLength));
+	}
+
+	/** Moves all buckets up by the given distance to make room for smaller keys. */
+	private void shift(long distance) {
+		int length = newLength(buckets.length + distance);
+		ArrayDeque<E>[] result = newBuckets(length);
+		System.arraycopy(buckets, 0, result, (int) distance, (int) Math.min(buckets.length, length - distance));
+		buckets = result;
+		offset -= (int) distance;
+		minIdx += (int) distance;
+	}
+
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private static <E> ArrayDeque<E>[] newBuckets(int length) {
+		return new ArrayDeque[length];
+	}
+
+	private int newLength(long minLength) {
+		if (minLength > Integer.MAX_VALUE - 8)
+			throw new IllegalStateException("Key range is too large for a bucket queue.");
+		return (int) Math.min(Integer.MAX_VALUE - 8, Math.max(minLength, 2L * buckets.length));
+	}
+}
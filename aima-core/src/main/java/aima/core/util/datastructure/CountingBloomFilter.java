@@ -0,0 +1,135 @@
+package aima.core.util.datastructure;
+
+import java.util.Arrays;
+
+/**
+ * Counting Bloom filter for 64 bit hash values (Fan et al. 2000). Instead of
+ * single bits, it maintains 4 bit counters, sixteen of which are packed into
+ * one long value. Therefore, values can be removed. Counters which reach the
+ * maximum value 15 are never decremented again, so removal cannot cause false
+ * negatives. Otherwise, the filter behaves like a {@link BloomFilter} with the
+ * same number of counters, needing four times the memory.
+ */
+public class CountingBloomFilter {
+
+	/** Maximal number of counters, the counter array then contains 2<sup>30</sup> long values. */
+	public static final long MAX_COUNTERS = 1L << 34;
+
+	private static final int MAX_COUNT = 15;
+
+	private final long[] counters;
+	private final long mask;
+	private final int numHashFunctions;
+	private long countersSet;
+
+	/**
+	 * Creates a counting Bloom filter.
+	 *
+	 * @param numCounters      Number of counters (rounded up to a power of two,
+	 *                         at least 16, at most {@link #MAX_COUNTERS}).
+	 * @param numHashFunctions Number of counters per value.
+	 */
+	public CountingBloomFilter(long numCounters, int numHashFunctions) {
+		if (numHashFunctions < 1)
+			throw new IllegalArgumentException("At least one hash function is needed.");
+		long size = BloomFilter.powerOfTwoFor(numCounters, 16, MAX_COUNTERS);
+		counters = new long[(int) (size >>> 4)];
+		mask = size - 1;
+		this.numHashFunctions = numHashFunctions;
+	}
+
+	/**
+	 * Increments the counters of the value and returns true if at least one of
+	 * them was zero before (that is, the value was definitely not contained).
+	 * The counters are incremented in both cases, so values are counted like
+	 * in a multiset: each call must be matched by one call of
+	 * {@link #remove(long)}. Use {@link #mightContain(long)} before to get set
+	 * semantics.
+	 */
+	public boolean add(long value) {
+		long h2 = BloomFilter.secondHash(value);
+		boolean result = false;
+		for (int i = 0; i < numHashFunctions; i++) {
+			long pos = (value + i * h2) & mask;
+			int count = get(pos);
+			if (count == 0) {
+				countersSet++;
+				result = true;
+			}
+			if (count < MAX_COUNT)
+				set(pos, count + 1);
+		}
+		return result;
+	}
+
+	/**
+	 * Decrements the counters of the value if it might be contained and returns
+	 * true in this case. The value must have been added before, otherwise the
+	 * counters of other values are corrupted.
+	 */
+	public boolean remove(long value) {
+		if (!mightContain(value))
+			return false;
+		long h2 = BloomFilter.secondHash(value);
+		for (int i = 0; i < numHashFunctions; i++) {
+			long pos = (value + i * h2) & mask;
+			int count = get(pos);
+			if (count < MAX_COUNT) {
+				set(pos, count - 1);
+				if (count == 1)
+					countersSet--;
+			}
+		}
+		return true;
+	}
+
+	/** Returns false if the value is definitely not contained, true otherwise. */
+	public boolean mightContain(long value) {
+		long h2 = BloomFilter.secondHash(value);
+		for (int i = 0; i < numHashFunctions; i++) {
+			if (get((value + i * h2) & mask) == 0)
+				return false;
+		}
+		return true;
+	}
+
+	public void clear() {
+		Arrays.fill(counters, 0);
+		countersSet = 0;
+	}
+
+	public long getNumberOfCounters() {
+		return mask + 1;
+	}
+
+	public int getNumberOfHashFunctions() {
+		return numHashFunctions;
+	}
+
+	/** Returns the fraction of counters which are not zero. */
+	public double getFillRatio() {
+		return (double) countersSet / getNumberOfCounters();
+	}
+
+	/**
+	 * Returns the probability that a value which is not contained is reported
+	 * as contained.
+	 */
+	public double getFalsePositiveProbability() {
+		return Math.pow(getFillRatio(), numHashFunctions);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private int get(long pos) {
+		return (int) (counters[(int) (pos >>> 4)] >>> ((pos & 15) << 2)) & 0xF;
+	}
+
+	private void set(long pos, int count) {
+		int idx = (int) (pos >>> 4);
+		int shift = (int) (pos & 15) << 2;
+		counters[idx] = (counters[idx] & ~(0xFL << shift)) | ((long) count << shift);
+	}
+}
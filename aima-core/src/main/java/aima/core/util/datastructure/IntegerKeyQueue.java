@@ -0,0 +1,38 @@
+package aima.core.util.datastructure;
+
+import java.util.AbstractQueue;
+import java.util.Comparator;
+import java.util.function.ToIntFunction;
+
+/**
+ * Base class for priority queues whose elements are ordered by integer keys.
+ * Keys are computed once when an element is added, and again when it is
+ * addressed by {@link #remove(Object)} or {@link #contains(Object)}. So the key
+ * of an element must not change while it is in the queue. As keys are
+ * primitive ints, no comparator calls and no boxing are needed.
+ *
+ * @param <E> The type of the elements held in this queue
+ */
+public abstract class IntegerKeyQueue<E> extends AbstractQueue<E> {
+
+	protected final ToIntFunction<? super E> keyFn;
+
+	protected IntegerKeyQueue(ToIntFunction<? super E> keyFn) {
+		this.keyFn = keyFn;
+	}
+
+	/** Returns a comparator which orders elements like this queue (up to ties). */
+	public Comparator<E> comparator() {
+		return Comparator.comparingInt(keyFn);
+	}
+
+	/** Returns the key of an object or null if it cannot be an element. */
+	@SuppressWarnings("unchecked")
+	protected Integer keyOf(Object o) {
+		try {
+			return o != null ? keyFn.applyAsInt((E) o) : null;
+		} catch (ClassCastException e) {
+			return null;
+		}
+	}
+}
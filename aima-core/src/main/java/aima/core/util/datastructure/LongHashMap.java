@@ -0,0 +1,118 @@
+package aima.core.util.datastructure;
+
+import java.util.Arrays;
+
+/**
+ * Map from primitive long keys to objects. Like {@link LongHashSet}, it is
+ * based on open addressing with linear probing and avoids entry objects and
+ * boxed keys. Null values are not supported.
+ *
+ * @param <V> The type of the mapped values
+ */
+public class LongHashMap<V> {
+
+	private static final long FREE = 0;
+	private static final float LOAD_FACTOR = 0.75f;
+
+	private long[] keys;
+	private Object[] values;
+	private int mask;
+	private int maxFill;
+	private int size; // number of keys in the table
+	private V freeValue; // value of key 0
+
+	public LongHashMap() {
+		this(16);
+	}
+
+	public LongHashMap(int expectedSize) {
+		allocate(LongHashSet.tableSizeFor(expectedSize));
+	}
+
+	/** Returns the value to which the key is mapped, or null. */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		if (key == FREE)
+			return freeValue;
+		int pos = LongHashSet.slot(key, mask);
+		long curr;
+		while ((curr = keys[pos]) != FREE) {
+			if (curr == key)
+				return (V) values[pos];
+			pos = (pos + 1) & mask;
+		}
+		return null;
+	}
+
+	public boolean containsKey(long key) {
+		return get(key) != null;
+	}
+
+	/** Maps the key to the value and returns the previous value, or null. */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (value == null)
+			throw new NullPointerException("Null values are not supported.");
+		if (key == FREE) {
+			V result = freeValue;
+			freeValue = value;
+			return result;
+		}
+		int pos = LongHashSet.slot(key, mask);
+		long curr;
+		while ((curr = keys[pos]) != FREE) {
+			if (curr == key) {
+				V result = (V) values[pos];
+				values[pos] = value;
+				return result;
+			}
+			pos = (pos + 1) & mask;
+		}
+		keys[pos] = key;
+		values[pos] = value;
+		if (++size >= maxFill)
+			rehash(keys.length * 2);
+		return null;
+	}
+
+	public int size() {
+		return freeValue != null ? size + 1 : size;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, FREE);
+		Arrays.fill(values, null);
+		size = 0;
+		freeValue = null;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		maxFill = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldKeys[i] != FREE) {
+				int pos = LongHashSet.slot(oldKeys[i], mask);
+				while (keys[pos] != FREE)
+					pos = (pos + 1) & mask;
+				keys[pos] = oldKeys[i];
+				values[pos] = oldValues[i];
+			}
+		}
+	}
+}
@@ -0,0 +1,152 @@
+package aima.core.util.datastructure;
+
+import java.util.Arrays;
+
+/**
+ * Set of primitive long values. It is based on open addressing with linear
+ * probing and needs about 10 to 20 bytes per element, no matter how many
+ * elements are added. The key 0 is used to mark free slots and therefore
+ * handled separately.
+ */
+public class LongHashSet {
+
+	private static final long FREE = 0;
+	private static final float LOAD_FACTOR = 0.75f;
+
+	private long[] keys;
+	private int mask;
+	private int maxFill;
+	private int size; // number of keys in the table
+	private boolean containsFree;
+
+	public LongHashSet() {
+		this(16);
+	}
+
+	public LongHashSet(int expectedSize) {
+		allocate(tableSizeFor(expectedSize));
+	}
+
+	/** Adds the key and returns true if it was not already contained. */
+	public boolean add(long key) {
+		if (key == FREE) {
+			boolean result = !containsFree;
+			containsFree = true;
+			return result;
+		}
+		int pos = slot(key, mask);
+		long curr;
+		while ((curr = keys[pos]) != FREE) {
+			if (curr == key)
+				return false;
+			pos = (pos + 1) & mask;
+		}
+		keys[pos] = key;
+		if (++size >= maxFill)
+			rehash(keys.length * 2);
+		return true;
+	}
+
+	public boolean contains(long key) {
+		if (key == FREE)
+			return containsFree;
+		int pos = slot(key, mask);
+		long curr;
+		while ((curr = keys[pos]) != FREE) {
+			if (curr == key)
+				return true;
+			pos = (pos + 1) & mask;
+		}
+		return false;
+	}
+
+	/** Removes the key and returns true if it was contained. */
+	public boolean remove(long key) {
+		if (key == FREE) {
+			boolean result = containsFree;
+			containsFree = false;
+			return result;
+		}
+		int pos = slot(key, mask);
+		long curr;
+		while ((curr = keys[pos]) != FREE) {
+			if (curr == key) {
+				shiftKeys(pos);
+				size--;
+				return true;
+			}
+			pos = (pos + 1) & mask;
+		}
+		return false;
+	}
+
+	public int size() {
+		return containsFree ? size + 1 : size;
+	}
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, FREE);
+		size = 0;
+		containsFree = false;
+	}
+
+	/** Spreads the bits of the key and maps the result to a table position. */
+	static int slot(long key, int mask) {
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32)) & mask;
+	}
+
+	static int tableSizeFor(int expectedSize) {
+		int result = 16;
+		while (result * LOAD_FACTOR <= expectedSize)
+			result <<= 1;
+		return result;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		mask = capacity - 1;
+		maxFill = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private void rehash(int capacity) {
+		long[] oldKeys = keys;
+		allocate(capacity);
+		for (long key : oldKeys) {
+			if (key != FREE) {
+				int pos = slot(key, mask);
+				while (keys[pos] != FREE)
+					pos = (pos + 1) & mask;
+				keys[pos] = key;
+			}
+		}
+	}
+
+	/** Closes the gap at <code>pos</code> by moving subsequent keys backwards. */
+	private void shiftKeys(int pos) {
+		while (true) {
+			int last = pos;
+			pos = (pos + 1) & mask;
+			long curr;
+			while (true) {
+				if ((curr = keys[pos]) == FREE) {
+					keys[last] = FREE;
+					return;
+				}
+				int home = slot(curr, mask);
+				if (last <= pos ? last >= home || home > pos : last >= home && home > pos)
+					break;
+				pos = (pos + 1) & mask;
+			}
+			keys[last] = curr;
+		}
+	}
+}
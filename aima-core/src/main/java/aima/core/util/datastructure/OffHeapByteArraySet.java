@@ -0,0 +1,180 @@
+package aima.core.util.datastructure;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Set of byte arrays of fixed length which are stored outside of the Java
+ * heap in a direct byte buffer. It is based on open addressing with linear
+ * probing. Each slot consists of one status byte followed by the key bytes.
+ * Keys are copied, so callers can reuse their arrays. The capacity is limited
+ * by the maximal size of a byte buffer (2 GB).
+ */
+public class OffHeapByteArraySet {
+
+	private static final byte FREE = 0;
+	private static final byte USED = 1;
+	private static final float LOAD_FACTOR = 0.75f;
+
+	private final int keyLength;
+	private final int slotLength;
+	private final byte[] tmpKey;
+	private ByteBuffer table;
+	private int capacity;
+	private int mask;
+	private int maxFill;
+	private int size;
+
+	public OffHeapByteArraySet(int keyLength) {
+		this(keyLength, 16);
+	}
+
+	public OffHeapByteArraySet(int keyLength, int expectedSize) {
+		if (keyLength < 1)
+			throw new IllegalArgumentException("Key length must be positive.");
+		this.keyLength = keyLength;
+		slotLength = keyLength + 1;
+		tmpKey = new byte[keyLength];
+		allocate(LongHashSet.tableSizeFor(expectedSize));
+	}
+
+	public int getKeyLength() {
+		return keyLength;
+	}
+
+	/**
+	 * Adds the first {@link #getKeyLength()} bytes of the array starting at
+	 * <code>offset</code> and returns true if they were not already contained.
+	 */
+	public boolean add(byte[] key, int offset) {
+		int pos = find(key, offset);
+		if (pos >= 0)
+			return false;
+		pos = -pos - 1;
+		writeKey(pos, key, offset);
+		if (++size >= maxFill)
+			rehash(capacity * 2);
+		return true;
+	}
+
+	public boolean contains(byte[] key, int offset) {
+		return find(key, offset) >= 0;
+	}
+
+	/** Removes the key and returns true if it was contained. */
+	public boolean remove(byte[] key, int offset) {
+		int pos = find(key, offset);
+		if (pos < 0)
+			return false;
+		shiftKeys(pos);
+		size--;
+		return true;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		for (int pos = 0; pos < capacity; pos++)
+			table.put(pos * slotLength, FREE);
+		size = 0;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	/**
+	 * Returns the position of the key if it is contained, otherwise
+	 * <code>-(insertion position) - 1</code>.
+	 */
+	private int find(byte[] key, int offset) {
+		int pos = hash(key, offset) & mask;
+		while (table.get(pos * slotLength) != FREE) {
+			if (keyEquals(pos, key, offset))
+				return pos;
+			pos = (pos + 1) & mask;
+		}
+		return -pos - 1;
+	}
+
+	private boolean keyEquals(int pos, byte[] key, int offset) {
+		int base = pos * slotLength + 1;
+		for (int i = 0; i < keyLength; i++)
+			if (table.get(base + i) != key[offset + i])
+				return false;
+		return true;
+	}
+
+	private void writeKey(int pos, byte[] key, int offset) {
+		int base = pos * slotLength;
+		table.put(base, USED);
+		for (int i = 0; i < keyLength; i++)
+			table.put(base + 1 + i, key[offset + i]);
+	}
+
+	private void readKey(int pos, byte[] target) {
+		int base = pos * slotLength + 1;
+		for (int i = 0; i < keyLength; i++)
+			target[i] = table.get(base + i);
+	}
+
+	private int hash(byte[] key, int offset) {
+		long h = 0xCBF29CE484222325L; // FNV-1a
+		for (int i = 0; i < keyLength; i++) {
+			h ^= key[offset + i] & 0xFF;
+			h *= 0x100000001B3L;
+		}
+		return (int) (h ^ (h >>> 32));
+	}
+
+	private void allocate(int newCapacity) {
+		if ((long) newCapacity * slotLength > Integer.MAX_VALUE)
+			throw new IllegalStateException("Off-heap set cannot hold " + newCapacity + " slots, the limit is "
+					+ Integer.MAX_VALUE / slotLength + ".");
+		table = ByteBuffer.allocateDirect(newCapacity * slotLength);
+		capacity = newCapacity;
+		mask = newCapacity - 1;
+		maxFill = (int) (newCapacity * LOAD_FACTOR);
+	}
+
+	private void rehash(int newCapacity) {
+		ByteBuffer oldTable = table;
+		int oldCapacity = capacity;
+		allocate(newCapacity);
+		for (int oldPos = 0; oldPos < oldCapacity; oldPos++) {
+			if (oldTable.get(oldPos * slotLength) != FREE) {
+				for (int i = 0; i < keyLength; i++)
+					tmpKey[i] = oldTable.get(oldPos * slotLength + 1 + i);
+				int pos = hash(tmpKey, 0) & mask;
+				while (table.get(pos * slotLength) != FREE)
+					pos = (pos + 1) & mask;
+				writeKey(pos, tmpKey, 0);
+			}
+		}
+	}
+
+	/** Closes the gap at <code>pos</code> by moving subsequent keys backwards. */
+	private void shiftKeys(int pos) {
+		while (true) {
+			int last = pos;
+			pos = (pos + 1) & mask;
+			while (true) {
+				if (table.get(pos * slotLength) == FREE) {
+					table.put(last * slotLength, FREE);
+					return;
+				}
+				readKey(pos, tmpKey);
+				int home = hash(tmpKey, 0) & mask;
+				if (last <= pos ? last >= home || home > pos : last >= home && home > pos)
+					break;
+				pos = (pos + 1) & mask;
+			}
+			writeKey(last, tmpKey, 0);
+		}
+	}
+}
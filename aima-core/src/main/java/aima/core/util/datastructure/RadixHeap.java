@@ -0,0 +1,181 @@
+package aima.core.util.datastructure;
+
+import java.util.*;
+import java.util.function.ToIntFunction;
+
+/**
+ * Radix heap for monotone integer keys (Ahuja et al. 1990). The keys of added
+ * elements must not be smaller than the key of the element which was removed
+ * last, as is the case for path costs in uniform-cost search and f-values in
+ * A* search with consistent heuristics. Elements are kept in 33 buckets.
+ * Bucket <em>i</em> &gt; 0 holds the elements whose key differs from the last
+ * removed key in bit <em>i - 1</em> and no higher bit. When bucket 0 is
+ * empty, the first non-empty bucket is redistributed relative to its smallest
+ * key. Each element moves at most 32 times, so operations cost amortized
+ * <em>O(log C)</em>, where <em>C</em> is the key range. In contrast to
+ * {@link BucketQueue}, large key ranges need no additional memory. The order
+ * of elements with equal keys is unspecified.
+ *
+ * @param <E> The type of the elements held in this queue
+ */
+public class RadixHeap<E> extends IntegerKeyQueue<E> {
+
+	private static final int NUM_BUCKETS = 33;
+
+	private final int[][] keys = new int[NUM_BUCKETS][];
+	private final Object[][] elements = new Object[NUM_BUCKETS][];
+	private final int[] sizes = new int[NUM_BUCKETS];
+	private int last = Integer.MIN_VALUE;
+	private int size;
+
+	public RadixHeap(ToIntFunction<? super E> keyFn) {
+		super(keyFn);
+		for (int i = 0; i < NUM_BUCKETS; i++) {
+			keys[i] = new int[4];
+			elements[i] = new Object[4];
+		}
+	}
+
+	/**
+	 * Adds the element.
+	 *
+	 * @throws IllegalArgumentException if the key of the element is smaller
+	 *                                  than the key of the last removed element.
+	 */
+	@Override
+	public boolean offer(E e) {
+		Objects.requireNonNull(e);
+		int key = keyFn.applyAsInt(e);
+		if (key < last)
+			throw new IllegalArgumentException("Key " + key + " is smaller than the last removed key " + last + ".");
+		push(bucketOf(key), key, e);
+		size++;
+		return true;
+	}
+
+	@Override
+	public E poll() {
+		if (size == 0)
+			return null;
+		fillBucketZero();
+		int idx = --sizes[0];
+		E result = elementAt(0, idx);
+		elements[0][idx] = null;
+		size--;
+		return result;
+	}
+
+	@Override
+	public E peek() {
+		if (size == 0)
+			return null;
+		fillBucketZero();
+		return elementAt(0, sizes[0] - 1);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		Integer key = keyOf(o);
+		if (key == null || key < last)
+			return false;
+		int b = bucketOf(key);
+		for (int i = 0; i < sizes[b]; i++) {
+			if (o.equals(elements[b][i])) {
+				int lastIdx = --sizes[b];
+				elements[b][i] = elements[b][lastIdx];
+				keys[b][i] = keys[b][lastIdx];
+				elements[b][lastIdx] = null;
+				size--;
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		Integer key = keyOf(o);
+		if (key == null || key < last)
+			return false;
+		int b = bucketOf(key);
+		for (int i = 0; i < sizes[b]; i++)
+			if (o.equals(elements[b][i]))
+				return true;
+		return false;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/** Removes all elements. Afterwards, arbitrary keys can be added again. */
+	@Override
+	public void clear() {
+		for (int b = 0; b < NUM_BUCKETS; b++) {
+			Arrays.fill(elements[b], 0, sizes[b], null);
+			sizes[b] = 0;
+		}
+		size = 0;
+		last = Integer.MIN_VALUE;
+	}
+
+	/** Returns an iterator which visits the elements in no particular order. */
+	@Override
+	public Iterator<E> iterator() {
+		List<E> result = new ArrayList<>(size);
+		for (int b = 0; b < NUM_BUCKETS; b++)
+			for (int i = 0; i < sizes[b]; i++)
+				result.add(elementAt(b, i));
+		return Collections.unmodifiableList(result).iterator();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	private int bucketOf(int key) {
+		return 32 - Integer.numberOfLeadingZeros(key ^ last);
+	}
+
+	private void push(int b, int key, Object e) {
+		int idx = sizes[b];
+		if (idx == keys[b].length) {
+			keys[b] = Arrays.copyOf(keys[b], idx * 2);
+			elements[b] = Arrays.copyOf(elements[b], idx * 2);
+		}
+		keys[b][idx] = key;
+		elements[b][idx] = e;
+		sizes[b] = idx + 1;
+	}
+
+	/**
+	 * Redistributes the first non-empty bucket if bucket 0 is empty. All its
+	 * elements move to lower buckets, the ones with the smallest key to
+	 * bucket 0.
+	 */
+	private void fillBucketZero() {
+		if (sizes[0] > 0)
+			return;
+		int b = 1;
+		while (sizes[b] == 0)
+			b++;
+		int[] bKeys = keys[b];
+		Object[] bElements = elements[b];
+		int bSize = sizes[b];
+		int min = bKeys[0];
+		for (int i = 1; i < bSize; i++)
+			min = Math.min(min, bKeys[i]);
+		last = min;
+		sizes[b] = 0;
+		for (int i = 0; i < bSize; i++) {
+			push(bucketOf(bKeys[i]), bKeys[i], bElements[i]);
+			bElements[i] = null;
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private E elementAt(int b, int i) {
+		return (E) elements[b][i];
+	}
+}
@@ -4,10 +4,12 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 import aima.test.core.unit.environment.cellworld.CellWorldTest;
+import aima.test.core.unit.environment.connectfour.ConnectFourStateTest;
 import aima.test.core.unit.environment.eightpuzzle.EightPuzzleBoardMoveTest;
 import aima.test.core.unit.environment.eightpuzzle.EightPuzzleBoardTest;
 import aima.test.core.unit.environment.eightpuzzle.EightPuzzleFunctionsTest;
 import aima.test.core.unit.environment.eightpuzzle.MisplacedTileHeuristicFunctionTest;
+import aima.test.core.unit.environment.eightpuzzle.PatternDatabaseTest;
 import aima.test.core.unit.environment.map.MapAgentTest;
 import aima.test.core.unit.environment.map.MapEnvironmentTest;
 import aima.test.core.unit.environment.map.MapFunctionsTest;
@@ -27,9 +29,9 @@ import aima.test.core.unit.environment.wumpusworld.WumpusKnowledgeBaseTest;
 import aima.test.core.unit.environment.xyenv.XYEnvironmentTest;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ CellWorldTest.class, EightPuzzleBoardMoveTest.class,
+@Suite.SuiteClasses({ CellWorldTest.class, ConnectFourStateTest.class, EightPuzzleBoardMoveTest.class,
 		EightPuzzleBoardTest.class, EightPuzzleFunctionsTest.class,
-		MisplacedTileHeuristicFunctionTest.class, TicTacToeTest.class,
+		MisplacedTileHeuristicFunctionTest.class, PatternDatabaseTest.class, TicTacToeTest.class,
 		MapAgentTest.class, MapEnvironmentTest.class,
 		MapFunctionsTest.class, MapTest.class,
 		NQueensBoardTest.class, NQueensGenAlgoUtilTest.class,
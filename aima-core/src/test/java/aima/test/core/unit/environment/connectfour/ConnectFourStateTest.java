@@ -0,0 +1,160 @@
+package aima.test.core.unit.environment.connectfour;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import aima.core.environment.connectfour.ConnectFourGame;
+import aima.core.environment.connectfour.ConnectFourState;
+
+public class ConnectFourStateTest {
+
+	private ConnectFourGame game;
+
+	@Before
+	public void setUp() {
+		game = new ConnectFourGame();
+	}
+
+	@Test
+	public void testWinInAllDirections() {
+		// horizontal
+		Assert.assertEquals(1.0, play(0, 0, 1, 1, 2, 2, 3).getUtility(), 0);
+		// vertical
+		Assert.assertEquals(0.0, play(0, 1, 0, 1, 0, 1, 2, 1).getUtility(), 0);
+		// diagonal to the upper right
+		Assert.assertEquals(1.0, play(0, 1, 1, 2, 2, 3, 2, 3, 3, 6, 3).getUtility(), 0);
+		// diagonal to the upper left
+		Assert.assertEquals(1.0, play(6, 5, 5, 4, 4, 3, 4, 3, 3, 0, 3).getUtility(), 0);
+		// two disks on top of column 0 and two at the bottom of column 1
+		Assert.assertEquals(-1, play(1, 0, 6, 0, 0, 0, 0, 6, 0, 6, 1).getUtility(), 0);
+	}
+
+	@Test
+	public void testWinPositions() {
+		ConnectFourState state = play(3, 3, 2, 2);
+		Assert.assertEquals(0, state.winPositions1);
+		state.dropDisk(4);
+		// red can win with column 1 or 5
+		Assert.assertEquals(2, state.winPositions1);
+		Assert.assertTrue(state.isWinMoveFor(1, 1));
+		Assert.assertTrue(state.isWinMoveFor(5, 1));
+		Assert.assertTrue(state.isWinPositionFor(5, 5, 1));
+		Assert.assertFalse(state.isWinMoveFor(1, 2));
+		state.dropDisk(1);
+		Assert.assertEquals(1, state.winPositions1);
+		Assert.assertFalse(state.isWinPositionFor(5, 1, 1));
+		state.dropDisk(5);
+		Assert.assertEquals(1.0, state.getUtility(), 0);
+	}
+
+	@Test
+	public void testFullColumn() {
+		ConnectFourState state = play(0, 0, 0, 0, 0, 0);
+		Assert.assertFalse(game.getActions(state).contains(0));
+		ConnectFourState copy = state.clone();
+		state.dropDisk(0);
+		Assert.assertEquals(copy, state);
+		Assert.assertEquals(6, state.getMoves());
+		Assert.assertEquals(2, state.getPlayerNum(0, 0));
+		Assert.assertEquals(1, state.getPlayerNum(5, 0));
+	}
+
+	/**
+	 * Compares the bitboard results with a straightforward analysis of the
+	 * board in random games.
+	 */
+	@Test
+	public void testRandomGames() {
+		playRandomGames(6, 7, 200, new Random(3));
+	}
+
+	/**
+	 * Boards with less than four columns need shift distances of 64 and more
+	 * for horizontal and diagonal lines, which must not wrap around.
+	 */
+	@Test
+	public void testRandomGamesOnOtherBoards() {
+		Random random = new Random(5);
+		int[][] sizes = { { 20, 3 }, { 63, 1 }, { 3, 16 }, { 15, 4 }, { 4, 12 } };
+		for (int[] size : sizes)
+			playRandomGames(size[0], size[1], 200, random);
+	}
+
+	private void playRandomGames(int rows, int cols, int numGames, Random random) {
+		for (int i = 0; i < numGames; i++) {
+			ConnectFourState state = new ConnectFourState(rows, cols);
+			ConnectFourState clone = null;
+			while (!game.isTerminal(state)) {
+				List<Integer> actions = game.getActions(state);
+				int playerNum = state.getPlayerToMove();
+				clone = state;
+				state = game.getResult(state, actions.get(random.nextInt(actions.size())));
+				Assert.assertNotEquals(clone, state);
+				Assert.assertNotEquals(clone.getZobristHash(), state.getZobristHash());
+				if (hasFourInARow(state, playerNum)) {
+					Assert.assertEquals(playerNum == 1 ? 1.0 : 0.0, state.getUtility(), 0);
+				} else {
+					Assert.assertEquals(state.getMoves() == rows * cols ? 0.5 : -1, state.getUtility(), 0);
+					for (int p = 1; p <= 2; p++)
+						Assert.assertEquals(countWinPositions(state, p),
+								p == 1 ? state.winPositions1 : state.winPositions2);
+				}
+			}
+		}
+	}
+
+	private ConnectFourState play(int... cols) {
+		ConnectFourState state = game.getInitialState();
+		for (int col : cols)
+			state = game.getResult(state, col);
+		return state;
+	}
+
+	private int countWinPositions(ConnectFourState state, int playerNum) {
+		int result = 0;
+		for (int row = 0; row < state.getRows(); row++) {
+			for (int col = 0; col < state.getCols(); col++) {
+				if (state.getPlayerNum(row, col) == 0 && completesFour(state, row, col, playerNum)) {
+					Assert.assertTrue(state.isWinPositionFor(row, col, playerNum));
+					result++;
+				} else {
+					Assert.assertFalse(state.isWinPositionFor(row, col, playerNum));
+				}
+			}
+		}
+		return result;
+	}
+
+	private boolean hasFourInARow(ConnectFourState state, int playerNum) {
+		for (int row = 0; row < state.getRows(); row++)
+			for (int col = 0; col < state.getCols(); col++)
+				if (state.getPlayerNum(row, col) == playerNum && completesFour(state, row, col, playerNum))
+					return true;
+		return false;
+	}
+
+	/** Checks whether a disk at the given position is part of four in a row. */
+	private boolean completesFour(ConnectFourState state, int row, int col, int playerNum) {
+		int[][] directions = { { 0, 1 }, { 1, 0 }, { 1, 1 }, { 1, -1 } };
+		for (int[] dir : directions) {
+			int count = 1;
+			for (int sign = -1; sign <= 1; sign += 2) {
+				int r = row + sign * dir[0];
+				int c = col + sign * dir[1];
+				while (r >= 0 && r < state.getRows() && c >= 0 && c < state.getCols()
+						&& state.getPlayerNum(r, c) == playerNum) {
+					count++;
+					r += sign * dir[0];
+					c += sign * dir[1];
+				}
+			}
+			if (count >= 4)
+				return true;
+		}
+		return false;
+	}
+}
@@ -87,4 +87,21 @@ public class EightPuzzleBoardTest {
 		Assert.assertEquals(new XYLocation(1, 1), board.getLocationOf(0));
 		Assert.assertEquals(new XYLocation(0, 2), board.getLocationOf(1));
 	}
+
+	@Test
+	public void testFifteenPuzzleBoard() {
+		EightPuzzleBoard board = new EightPuzzleBoard(
+				new int[] { 1, 2, 3, 0, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15 });
+		Assert.assertEquals(4, board.getSize());
+		Assert.assertFalse(board.canMoveGap(EightPuzzleBoard.RIGHT));
+		Assert.assertTrue(board.canMoveGap(EightPuzzleBoard.DOWN));
+		board.moveGapDown();
+		Assert.assertEquals(new XYLocation(3, 1), board.getLocationOf(0));
+		Assert.assertEquals("1 2 3 7\n4 5 6 0\n8 9 10 11\n12 13 14 15", board.toString());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonSquareBoard() {
+		new EightPuzzleBoard(new int[] { 0, 1, 2, 3, 4, 5 });
+	}
 }
@@ -0,0 +1,123 @@
+package aima.test.core.unit.environment.eightpuzzle;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.BidirectionalEightPuzzleProblem;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.environment.eightpuzzle.PatternDatabase;
+import aima.core.environment.eightpuzzle.PatternDatabaseBuilder;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.SearchForActions;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.framework.qsearch.QueueSearch;
+import aima.core.search.informed.AStarSearch;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+public class PatternDatabaseTest {
+
+	private final EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 });
+
+	@Test
+	public void testCompletePatternIsExact() {
+		PatternDatabase pdb = new PatternDatabaseBuilder(3).build(1, 2, 3, 4, 5, 6, 7, 8);
+		Assert.assertEquals(23, pdb.getCost(board));
+		Assert.assertEquals(0, pdb.getCost(EightPuzzleFunctions.GOAL_STATE));
+		Assert.assertEquals(8, pdb.getBitsPerEntry()); // maximum is 31
+	}
+
+	@Test
+	public void testDisjointPatternsAreAdmissible() {
+		PatternDatabase[] pdbs = new PatternDatabaseBuilder(3).buildDisjoint(new int[] { 1, 2, 3, 4 },
+				new int[] { 5, 6, 7, 8 });
+		Assert.assertEquals(4, pdbs[0].getBitsPerEntry());
+		Assert.assertEquals(9 * 8 * 7 * 6, pdbs[0].getNumberOfEntries());
+		ToDoubleFunction<Node<EightPuzzleBoard, Action>> h = EightPuzzleFunctions.createPatternDatabaseHeuristic(pdbs);
+		PatternDatabase exact = new PatternDatabaseBuilder(3).build(1, 2, 3, 4, 5, 6, 7, 8);
+		Random random = new Random(3);
+		EightPuzzleBoard state = EightPuzzleFunctions.GOAL_STATE;
+		for (int i = 0; i < 1000; i++) {
+			List<Action> actions = EightPuzzleFunctions.getActions(state);
+			state = EightPuzzleFunctions.getResult(state, actions.get(random.nextInt(actions.size())));
+			Node<EightPuzzleBoard, Action> node = new Node<>(state);
+			Assert.assertTrue(h.applyAsDouble(node) <= exact.getCost(state));
+			Assert.assertTrue(h.applyAsDouble(node) >= EightPuzzleFunctions.getManhattanDistance(node));
+		}
+	}
+
+	@Test
+	public void testWriteAndLoad() throws Exception {
+		PatternDatabaseBuilder builder = new PatternDatabaseBuilder(3);
+		Path dir = Files.createTempDirectory("pdb");
+		try {
+			for (int[] tiles : new int[][] { { 1, 2, 3, 4 }, { 1, 2, 3, 4, 5, 6, 7, 8 } }) {
+				PatternDatabase pdb = builder.build(tiles);
+				Path file = dir.resolve("pdb" + tiles.length + ".bin");
+				pdb.writeTo(file);
+				PatternDatabase loaded = PatternDatabase.load(file);
+				Assert.assertArrayEquals(tiles, loaded.getTiles());
+				Assert.assertEquals(pdb.getBitsPerEntry(), loaded.getBitsPerEntry());
+				Random random = new Random(5);
+				EightPuzzleBoard state = EightPuzzleFunctions.GOAL_STATE;
+				for (int i = 0; i < 500; i++) {
+					List<Action> actions = EightPuzzleFunctions.getActions(state);
+					state = EightPuzzleFunctions.getResult(state, actions.get(random.nextInt(actions.size())));
+					Assert.assertEquals(pdb.getCost(state), loaded.getCost(state));
+				}
+			}
+		} finally {
+			try (Stream<Path> files = Files.list(dir)) {
+				for (Path file : (Iterable<Path>) files::iterator)
+					file.toFile().delete();
+			}
+			Files.delete(dir);
+		}
+	}
+
+	@Test
+	public void testAStarSearch() {
+		PatternDatabase[] pdbs = new PatternDatabaseBuilder(3).buildDisjoint(new int[] { 1, 2, 3, 4 },
+				new int[] { 5, 6, 7, 8 });
+		Problem<EightPuzzleBoard, Action> problem = new BidirectionalEightPuzzleProblem(board);
+		SearchForActions<EightPuzzleBoard, Action> search = new AStarSearch<>(new GraphSearch<>(),
+				EightPuzzleFunctions.createPatternDatabaseHeuristic(pdbs));
+		Optional<List<Action>> actions = search.findActions(problem);
+		Assert.assertTrue(actions.isPresent());
+		Assert.assertEquals(23, actions.get().size());
+		// Manhattan distance needs 1133 expansions (see AStarSearchTest)
+		Assert.assertTrue(search.getMetrics().getInt(QueueSearch.METRIC_NODES_EXPANDED) < 1133);
+	}
+
+	@Test
+	public void testFifteenPuzzle() {
+		EightPuzzleBoard state = EightPuzzleFunctions.createGoalState(4);
+		Random random = new Random(17);
+		for (int i = 0; i < 200; i++) {
+			List<Action> actions = EightPuzzleFunctions.getActions(state);
+			state = EightPuzzleFunctions.getResult(state, actions.get(random.nextInt(actions.size())));
+		}
+		PatternDatabase[] pdbs = new PatternDatabaseBuilder(4).buildDisjoint(new int[] { 1, 2, 3 },
+				new int[] { 4, 5, 6 }, new int[] { 7, 8, 9 }, new int[] { 10, 11, 12 }, new int[] { 13, 14, 15 });
+		Problem<EightPuzzleBoard, Action> problem = new BidirectionalEightPuzzleProblem(state);
+		SearchForActions<EightPuzzleBoard, Action> pdbSearch = new AStarSearch<>(new GraphSearch<>(),
+				EightPuzzleFunctions.createPatternDatabaseHeuristic(pdbs));
+		SearchForActions<EightPuzzleBoard, Action> mdSearch = new AStarSearch<>(new GraphSearch<>(),
+				EightPuzzleFunctions::getManhattanDistance);
+		Optional<List<Action>> pdbActions = pdbSearch.findActions(problem);
+		Optional<List<Action>> mdActions = mdSearch.findActions(problem);
+		Assert.assertTrue(pdbActions.isPresent() && mdActions.isPresent());
+		Assert.assertEquals(mdActions.get().size(), pdbActions.get().size());
+		Assert.assertEquals(32, pdbActions.get().size());
+		Assert.assertTrue(pdbSearch.getMetrics().getInt(QueueSearch.METRIC_NODES_EXPANDED)
+				< mdSearch.getMetrics().getInt(QueueSearch.METRIC_NODES_EXPANDED));
+	}
+}
@@ -1,18 +1,32 @@
 package aima.test.core.unit.search;
 
 import aima.test.core.unit.search.adversarial.AlphaBetaSearchTest;
+import aima.test.core.unit.search.adversarial.LazySmpAlphaBetaSearchTest;
 import aima.test.core.unit.search.adversarial.MinimaxSearchTest;
 import aima.test.core.unit.search.adversarial.MonteCarloTreeSearchTest;
+import aima.test.core.unit.search.adversarial.MoveOrderingTest;
+import aima.test.core.unit.search.adversarial.ParallelMonteCarloTreeSearchTest;
+import aima.test.core.unit.search.adversarial.TranspositionTableTest;
 import aima.test.core.unit.search.csp.AssignmentTest;
 import aima.test.core.unit.search.csp.CSPTest;
 import aima.test.core.unit.search.csp.MapCSPTest;
 import aima.test.core.unit.search.csp.TreeCspSolverTest;
+import aima.test.core.unit.search.framework.CompactGraphSearchTest;
 import aima.test.core.unit.search.framework.MetricsTest;
+import aima.test.core.unit.search.framework.NodeFactoryTest;
 import aima.test.core.unit.search.framework.NodeTest;
+import aima.test.core.unit.search.framework.PortfolioSearchTest;
+import aima.test.core.unit.search.framework.SearchTraceTest;
 import aima.test.core.unit.search.framework.SolutionTesterTest;
+import aima.test.core.unit.search.framework.StateCodecTest;
 import aima.test.core.unit.search.informed.AStarSearchTest;
+import aima.test.core.unit.search.informed.AnytimeRepairingAStarSearchTest;
 import aima.test.core.unit.search.informed.GreedyBestFirstSearchTest;
+import aima.test.core.unit.search.informed.HashDistributedAStarSearchTest;
+import aima.test.core.unit.search.informed.IterativeDeepeningAStarSearchTest;
+import aima.test.core.unit.search.informed.MeetInTheMiddleSearchTest;
 import aima.test.core.unit.search.informed.RecursiveBestFirstSearchTest;
+import aima.test.core.unit.search.informed.SMAStarSearchTest;
 import aima.test.core.unit.search.nondeterministic.AndOrSearchTest;
 import aima.test.core.unit.search.online.LRTAStarAgentTest;
 import aima.test.core.unit.search.online.OnlineDFSAgentTest;
@@ -21,11 +35,15 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({AlphaBetaSearchTest.class, MinimaxSearchTest.class, MonteCarloTreeSearchTest.class, AssignmentTest.class, CSPTest.class, MapCSPTest.class,
-		MetricsTest.class, TreeCspSolverTest.class, AStarSearchTest.class, GreedyBestFirstSearchTest.class, RecursiveBestFirstSearchTest.class,
+@Suite.SuiteClasses({AlphaBetaSearchTest.class, LazySmpAlphaBetaSearchTest.class, MinimaxSearchTest.class, MonteCarloTreeSearchTest.class, MoveOrderingTest.class, ParallelMonteCarloTreeSearchTest.class, TranspositionTableTest.class, AssignmentTest.class, CSPTest.class, MapCSPTest.class,
+		MetricsTest.class, TreeCspSolverTest.class, AStarSearchTest.class, AnytimeRepairingAStarSearchTest.class, GreedyBestFirstSearchTest.class, HashDistributedAStarSearchTest.class,
+		IterativeDeepeningAStarSearchTest.class, MeetInTheMiddleSearchTest.class,
+		RecursiveBestFirstSearchTest.class, SMAStarSearchTest.class,
 		AndOrSearchTest.class, LRTAStarAgentTest.class, OnlineDFSAgentTest.class,
 		BidirectionalSearchTest.class, BreadthFirstSearchTest.class, DepthFirstSearchTest.class,
-		DepthLimitedSearchTest.class, IterativeDeepeningSearchTest.class, UniformCostSearchTest.class, NodeTest.class,
-		SolutionTesterTest.class })
+		ExternalMemoryBreadthFirstSearchTest.class,
+		DepthLimitedSearchTest.class, IterativeDeepeningSearchTest.class, UniformCostSearchTest.class,
+		CompactGraphSearchTest.class, NodeFactoryTest.class, NodeTest.class, PortfolioSearchTest.class, SearchTraceTest.class,
+		SolutionTesterTest.class, StateCodecTest.class })
 public class SearchTestSuite {
 }
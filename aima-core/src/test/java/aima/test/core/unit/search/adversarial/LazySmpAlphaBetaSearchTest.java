@@ -0,0 +1,65 @@
+package aima.test.core.unit.search.adversarial;
+
+import aima.core.environment.connectfour.ConnectFourAIPlayer;
+import aima.core.environment.connectfour.ConnectFourGame;
+import aima.core.environment.connectfour.ConnectFourState;
+import aima.core.environment.map.MoveToAction;
+import aima.core.environment.tictactoe.TicTacToeGame;
+import aima.core.environment.tictactoe.TicTacToeState;
+import aima.core.environment.twoply.TwoPlyGame;
+import aima.core.environment.twoply.TwoPlyGameState;
+import aima.core.search.adversarial.IterativeDeepeningAlphaBetaSearch;
+import aima.core.search.adversarial.LazySmpAlphaBetaSearch;
+import aima.core.search.adversarial.TranspositionTable;
+import aima.core.search.framework.Metrics;
+import aima.core.util.datastructure.XYLocation;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LazySmpAlphaBetaSearchTest {
+
+	@Test
+	public void testTicTacToe() {
+		TicTacToeGame game = new TicTacToeGame();
+		LazySmpAlphaBetaSearch<TicTacToeState, XYLocation, String> search =
+				LazySmpAlphaBetaSearch.createFor(game, 0.0, 1.0, 100, 4);
+		TicTacToeState state = game.getInitialState();
+		search.makeDecision(state);
+		Metrics metrics = search.getMetrics();
+		long total = 0;
+		for (int i = 0; i < 4; i++)
+			total += metrics.getLong("thread" + i + "." + IterativeDeepeningAlphaBetaSearch.METRICS_NODES_EXPANDED);
+		Assert.assertEquals(total, metrics.getLong(LazySmpAlphaBetaSearch.METRICS_NODES_EXPANDED));
+		// proven results of the helpers can make the full depth unnecessary
+		Assert.assertTrue(metrics.getInt(LazySmpAlphaBetaSearch.METRICS_MAX_DEPTH) > 0);
+		Assert.assertTrue(metrics.getDouble(LazySmpAlphaBetaSearch.METRICS_NODE_SPEEDUP) >= 1);
+
+		// perfect play of both players ends in a draw
+		while (!game.isTerminal(state))
+			state = game.getResult(state, search.makeDecision(state));
+		Assert.assertEquals(0.5, state.getUtility(), 0);
+	}
+
+	@Test
+	public void testGameWithoutHashes() {
+		TwoPlyGame game = new TwoPlyGame();
+		LazySmpAlphaBetaSearch<TwoPlyGameState, MoveToAction, String> search =
+				LazySmpAlphaBetaSearch.createFor(game, 0, 20, 1, 3);
+		Assert.assertEquals("B", search.makeDecision(game.getInitialState()).getToLocation());
+	}
+
+	@Test
+	public void testConnectFourWinningMove() {
+		ConnectFourGame game = new ConnectFourGame();
+		LazySmpAlphaBetaSearch<ConnectFourState, Integer, String> search = new LazySmpAlphaBetaSearch<>(
+				() -> new ConnectFourAIPlayer(game, 2), 2, new TranspositionTable<>(1 << 16));
+		ConnectFourState state = game.getInitialState();
+		for (int col : new int[] { 0, 6, 1, 6, 2 })
+			state = game.getResult(state, col);
+		// yellow has to block column 3
+		Assert.assertEquals(3, (int) search.makeDecision(state));
+		state = game.getResult(state, 6);
+		// red wins with column 3
+		Assert.assertEquals(3, (int) search.makeDecision(state));
+	}
+}
@@ -4,10 +4,14 @@ import aima.core.environment.tictactoe.TicTacToeGame;
 import aima.core.environment.tictactoe.TicTacToeState;
 import aima.core.search.adversarial.Game;
 import aima.core.search.adversarial.MonteCarloTreeSearch;
+import aima.core.search.framework.Metrics;
+import aima.core.util.datastructure.XYLocation;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Random;
+
 public class MonteCarloTreeSearchTest {
 	Game game;
 	MonteCarloTreeSearch monteCarloTreeSearch;
@@ -38,10 +42,67 @@ public class MonteCarloTreeSearchTest {
 	
 	@Test
 	public void testMonteCarloTreeDecision() {
-		String[] board = new String[]{TicTacToeState.O, TicTacToeState.X, TicTacToeState.O, TicTacToeState.EMPTY, TicTacToeState.X, TicTacToeState.X, TicTacToeState.EMPTY, TicTacToeState.EMPTY, TicTacToeState.EMPTY};
+		// X threatens to complete the top row, every move but blocking it loses
+		String[] board = new String[]{TicTacToeState.X, TicTacToeState.X, TicTacToeState.EMPTY, TicTacToeState.O, TicTacToeState.O, TicTacToeState.X, TicTacToeState.EMPTY, TicTacToeState.EMPTY, TicTacToeState.EMPTY};
 		TicTacToeState state = new TicTacToeState(board, TicTacToeState.O);
-		String[] expectedBoard = new String[]{TicTacToeState.O, TicTacToeState.X, TicTacToeState.O, TicTacToeState.O, TicTacToeState.X, TicTacToeState.X, TicTacToeState.EMPTY, TicTacToeState.EMPTY, TicTacToeState.EMPTY};
+		String[] expectedBoard = new String[]{TicTacToeState.X, TicTacToeState.X, TicTacToeState.O, TicTacToeState.O, TicTacToeState.O, TicTacToeState.X, TicTacToeState.EMPTY, TicTacToeState.EMPTY, TicTacToeState.EMPTY};
 		TicTacToeState expectedState = new TicTacToeState(expectedBoard, TicTacToeState.X);
 		Assert.assertEquals(expectedState, game.getResult(state, monteCarloTreeSearch.makeDecision(state)));
 	}
+	
+	@Test
+	public void testMetrics() {
+		TicTacToeGame game = new TicTacToeGame();
+		MonteCarloTreeSearch<TicTacToeState, XYLocation, String> search = new MonteCarloTreeSearch<>(game, 500);
+		search.makeDecision(game.getInitialState());
+		Metrics metrics = search.getMetrics();
+		Assert.assertEquals(500, metrics.getInt(MonteCarloTreeSearch.METRICS_PLAYOUTS));
+		Assert.assertTrue(metrics.getInt(MonteCarloTreeSearch.METRICS_TREE_SIZE) > 9);
+		Assert.assertTrue(metrics.getInt(MonteCarloTreeSearch.METRICS_TREE_SIZE) <= 501);
+		Assert.assertEquals(0, metrics.getInt(MonteCarloTreeSearch.METRICS_REUSED_NODES));
+		Assert.assertTrue(metrics.getDouble(MonteCarloTreeSearch.METRICS_PLAYOUTS_PER_SECOND) > 0);
+	}
+	
+	@Test
+	public void testTreeReuse() {
+		TicTacToeGame game = new TicTacToeGame();
+		MonteCarloTreeSearch<TicTacToeState, XYLocation, String> search = new MonteCarloTreeSearch<>(game, 1000);
+		TicTacToeState state = game.getInitialState();
+		state = game.getResult(state, search.makeDecision(state));
+		// the opponent replies, so the subtree of a grandchild is reused
+		state = game.getResult(state, game.getActions(state).get(0));
+		search.makeDecision(state);
+		Assert.assertTrue(search.getMetrics().getInt(MonteCarloTreeSearch.METRICS_REUSED_NODES) > 0);
+		// the budget is per decision
+		Assert.assertEquals(1000, search.getMetrics().getInt(MonteCarloTreeSearch.METRICS_PLAYOUTS));
+	}
+	
+	@Test
+	public void testTimeLimit() {
+		TicTacToeGame game = new TicTacToeGame();
+		MonteCarloTreeSearch<TicTacToeState, XYLocation, String> search =
+				MonteCarloTreeSearch.createWithTimeLimit(game, 50);
+		TicTacToeState state = game.getInitialState();
+		long start = System.currentTimeMillis();
+		search.makeDecision(state);
+		Assert.assertTrue(System.currentTimeMillis() - start >= 50);
+		Assert.assertTrue(search.getMetrics().getInt(MonteCarloTreeSearch.METRICS_PLAYOUTS) > 0);
+	}
+	
+	@Test
+	public void testReproducibleWithSeed() {
+		TicTacToeGame game = new TicTacToeGame();
+		TicTacToeState state = game.getInitialState();
+		MonteCarloTreeSearch<TicTacToeState, XYLocation, String> search1 = new MonteCarloTreeSearch<>(game, 300);
+		MonteCarloTreeSearch<TicTacToeState, XYLocation, String> search2 = new MonteCarloTreeSearch<>(game, 300);
+		for (int i = 0; i < 3; i++) {
+			search1.setRandom(new Random(i));
+			search2.setRandom(new Random(i));
+			XYLocation action = search1.makeDecision(state);
+			Assert.assertEquals(action, search2.makeDecision(state));
+			Assert.assertEquals(search1.getMetrics().getInt(MonteCarloTreeSearch.METRICS_TREE_SIZE),
+					search2.getMetrics().getInt(MonteCarloTreeSearch.METRICS_TREE_SIZE));
+			state = game.getResult(state, action);
+		}
+	}
 }
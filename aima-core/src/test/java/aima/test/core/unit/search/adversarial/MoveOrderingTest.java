@@ -0,0 +1,84 @@
+package aima.test.core.unit.search.adversarial;
+
+import aima.core.environment.connectfour.ConnectFourAIPlayer;
+import aima.core.environment.connectfour.ConnectFourGame;
+import aima.core.environment.tictactoe.TicTacToeGame;
+import aima.core.environment.tictactoe.TicTacToeState;
+import aima.core.search.adversarial.IterativeDeepeningAlphaBetaSearch;
+import aima.core.search.adversarial.MoveOrdering;
+import aima.core.search.framework.Metrics;
+import aima.core.util.datastructure.XYLocation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class MoveOrderingTest {
+
+	private static final List<String> ACTIONS = Arrays.asList("a", "b", "c", "d");
+
+	@Test
+	public void testKillerMovesAndHistory() {
+		MoveOrdering<String, String> ordering = new MoveOrdering<>();
+		ordering.startDecision();
+		ordering.startIteration("root", null, 4);
+		ordering.recordCutoff("c", 1, 3, true);
+		ordering.recordCutoff("d", 1, 3, true);
+		ordering.recordCutoff("b", 2, 2, true);
+		// killers first, most recent first, then history scores
+		Assert.assertEquals(Arrays.asList("d", "c", "b", "a"), ordering.order("s", ACTIONS, 1, true));
+		// history scores: c and d 9, b 4
+		Assert.assertEquals(Arrays.asList("c", "d", "b", "a"), ordering.order("s", ACTIONS, 3, true));
+		// min nodes use their own scores
+		Assert.assertEquals(ACTIONS, ordering.order("s", ACTIONS, 3, false));
+		// killers which are not applicable are ignored
+		Assert.assertEquals(Arrays.asList("c", "b", "a"), ordering.order("s", Arrays.asList("a", "b", "c"), 1, true));
+
+		ordering.startDecision();
+		Assert.assertEquals(Arrays.asList("c", "d", "b", "a"), ordering.order("s", ACTIONS, 1, true));
+	}
+
+	@Test
+	public void testPrincipalVariation() {
+		TicTacToeGame game = new TicTacToeGame();
+		IterativeDeepeningAlphaBetaSearch<TicTacToeState, XYLocation, String> search =
+				IterativeDeepeningAlphaBetaSearch.createFor(game, 0.0, 1.0, 100);
+		search.setMoveOrdering(new MoveOrdering<>());
+		TicTacToeState state = game.getInitialState();
+		XYLocation action = search.makeDecision(state);
+		List<XYLocation> pv = search.getMoveOrdering().getPrincipalVariation();
+		Assert.assertEquals(action, pv.get(0));
+		// the principal variation is a line of perfect play
+		for (XYLocation a : pv)
+			state = game.getResult(state, a);
+		Assert.assertTrue(game.isTerminal(state));
+		Assert.assertEquals(0.5, state.getUtility(), 0);
+	}
+
+	@Test
+	public void testNodeReduction() {
+		TicTacToeGame game = new TicTacToeGame();
+		IterativeDeepeningAlphaBetaSearch<TicTacToeState, XYLocation, String> search =
+				IterativeDeepeningAlphaBetaSearch.createFor(game, 0.0, 1.0, 100);
+		XYLocation action = search.makeDecision(game.getInitialState());
+		Metrics unordered = search.getMetrics();
+
+		search.setMoveOrdering(new MoveOrdering<>());
+		Assert.assertEquals(action, search.makeDecision(game.getInitialState()));
+		Metrics ordered = search.getMetrics();
+		Assert.assertTrue(ordered.getLong(IterativeDeepeningAlphaBetaSearch.METRICS_NODES_EXPANDED)
+				< unordered.getLong(IterativeDeepeningAlphaBetaSearch.METRICS_NODES_EXPANDED));
+		Assert.assertTrue(ordered.getDouble(IterativeDeepeningAlphaBetaSearch.METRICS_FIRST_MOVE_CUTOFF_RATE)
+				> unordered.getDouble(IterativeDeepeningAlphaBetaSearch.METRICS_FIRST_MOVE_CUTOFF_RATE));
+		Assert.assertEquals(ordered.getDouble(IterativeDeepeningAlphaBetaSearch.METRICS_FIRST_MOVE_CUTOFF_RATE),
+				(double) ordered.getLong(IterativeDeepeningAlphaBetaSearch.METRICS_FIRST_MOVE_CUTOFFS)
+						/ ordered.getLong(IterativeDeepeningAlphaBetaSearch.METRICS_CUTOFFS), 1e-9);
+	}
+
+	@Test
+	public void testConnectFourAIPlayer() {
+		ConnectFourAIPlayer player = new ConnectFourAIPlayer(new ConnectFourGame(), 1);
+		Assert.assertNotNull(player.getMoveOrdering());
+	}
+}
@@ -0,0 +1,104 @@
+package aima.test.core.unit.search.adversarial;
+
+import aima.core.environment.connectfour.ConnectFourGame;
+import aima.core.environment.connectfour.ConnectFourState;
+import aima.core.environment.tictactoe.TicTacToeGame;
+import aima.core.environment.tictactoe.TicTacToeState;
+import aima.core.search.adversarial.AdversarialSearch;
+import aima.core.search.adversarial.MonteCarloTreeSearch;
+import aima.core.search.adversarial.RootParallelMonteCarloTreeSearch;
+import aima.core.search.adversarial.TreeParallelMonteCarloTreeSearch;
+import aima.core.search.framework.Metrics;
+import aima.core.util.datastructure.XYLocation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class ParallelMonteCarloTreeSearchTest {
+
+	private final TicTacToeGame game = new TicTacToeGame();
+
+	@Test
+	public void testRootParallelization() {
+		RootParallelMonteCarloTreeSearch<TicTacToeState, XYLocation, String> search1 =
+				new RootParallelMonteCarloTreeSearch<>(game, 1000, 3);
+		RootParallelMonteCarloTreeSearch<TicTacToeState, XYLocation, String> search2 =
+				new RootParallelMonteCarloTreeSearch<>(game, 1000, 3);
+		search1.setRandom(new Random(7));
+		search2.setRandom(new Random(7));
+		TicTacToeState state = game.getInitialState();
+		// the trees are independent, so results are reproducible
+		XYLocation action = search1.makeDecision(state);
+		Assert.assertEquals(action, search2.makeDecision(state));
+		Metrics metrics = search1.getMetrics();
+		Assert.assertEquals(1000, metrics.getInt(MonteCarloTreeSearch.METRICS_PLAYOUTS));
+		Assert.assertEquals(334, metrics.getInt("thread0." + MonteCarloTreeSearch.METRICS_PLAYOUTS));
+		Assert.assertEquals(333, metrics.getInt("thread2." + MonteCarloTreeSearch.METRICS_PLAYOUTS));
+		Assert.assertEquals(metrics.getInt(MonteCarloTreeSearch.METRICS_TREE_SIZE),
+				search2.getMetrics().getInt(MonteCarloTreeSearch.METRICS_TREE_SIZE));
+	}
+
+	@Test
+	public void testRootParallelizationWithSmallBudget() {
+		RootParallelMonteCarloTreeSearch<TicTacToeState, XYLocation, String> search =
+				new RootParallelMonteCarloTreeSearch<>(game, 2, 4);
+		Assert.assertNotNull(search.makeDecision(game.getInitialState()));
+		Metrics metrics = search.getMetrics();
+		Assert.assertEquals(2, metrics.getInt(MonteCarloTreeSearch.METRICS_PLAYOUTS));
+		Assert.assertEquals(1, metrics.getInt("thread1." + MonteCarloTreeSearch.METRICS_PLAYOUTS));
+		Assert.assertEquals(0, metrics.getInt("thread2." + MonteCarloTreeSearch.METRICS_PLAYOUTS));
+	}
+
+	@Test
+	public void testTreeParallelization() {
+		TreeParallelMonteCarloTreeSearch<TicTacToeState, XYLocation, String> search =
+				new TreeParallelMonteCarloTreeSearch<>(game, 2000, 4);
+		TicTacToeState state = game.getInitialState();
+		state = game.getResult(state, search.makeDecision(state));
+		Metrics metrics = search.getMetrics();
+		Assert.assertEquals(2000, metrics.getInt(MonteCarloTreeSearch.METRICS_PLAYOUTS));
+		Assert.assertTrue(metrics.getInt(MonteCarloTreeSearch.METRICS_TREE_SIZE) > 9);
+		Assert.assertTrue(metrics.getInt(MonteCarloTreeSearch.METRICS_TREE_SIZE) <= 2001);
+		Assert.assertEquals(0, metrics.getInt(MonteCarloTreeSearch.METRICS_REUSED_NODES));
+
+		state = game.getResult(state, game.getActions(state).get(0));
+		search.makeDecision(state);
+		Assert.assertTrue(search.getMetrics().getInt(MonteCarloTreeSearch.METRICS_REUSED_NODES) > 0);
+	}
+
+	@Test
+	public void testTreeParallelizationWithTimeLimit() {
+		TreeParallelMonteCarloTreeSearch<TicTacToeState, XYLocation, String> search =
+				TreeParallelMonteCarloTreeSearch.createWithTimeLimit(game, 50, 2);
+		long start = System.currentTimeMillis();
+		Assert.assertNotNull(search.makeDecision(game.getInitialState()));
+		Assert.assertTrue(System.currentTimeMillis() - start >= 50);
+		Assert.assertTrue(search.getMetrics().getInt(MonteCarloTreeSearch.METRICS_PLAYOUTS) > 0);
+	}
+
+	@Test
+	public void testTicTacToeWinningMove() {
+		String[] board = new String[]{TicTacToeState.X, TicTacToeState.X, TicTacToeState.EMPTY,
+				TicTacToeState.O, TicTacToeState.O, TicTacToeState.EMPTY,
+				TicTacToeState.EMPTY, TicTacToeState.EMPTY, TicTacToeState.EMPTY};
+		TicTacToeState state = new TicTacToeState(board, TicTacToeState.X);
+		Assert.assertEquals(new XYLocation(2, 0),
+				new RootParallelMonteCarloTreeSearch<>(game, 2000, 4).makeDecision(state));
+		Assert.assertEquals(new XYLocation(2, 0),
+				new TreeParallelMonteCarloTreeSearch<>(game, 2000, 4).makeDecision(state));
+	}
+
+	@Test
+	public void testConnectFourBlockingMove() {
+		ConnectFourGame game = new ConnectFourGame();
+		ConnectFourState state = game.getInitialState();
+		for (int col : new int[] { 0, 6, 1, 6, 2 })
+			state = game.getResult(state, col);
+		// yellow has to block column 3
+		AdversarialSearch<ConnectFourState, Integer> search = new RootParallelMonteCarloTreeSearch<>(game, 3000, 2);
+		Assert.assertEquals(3, (int) search.makeDecision(state));
+		search = new TreeParallelMonteCarloTreeSearch<>(game, 3000, 2);
+		Assert.assertEquals(3, (int) search.makeDecision(state));
+	}
+}
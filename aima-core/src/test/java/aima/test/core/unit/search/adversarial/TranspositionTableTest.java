@@ -0,0 +1,118 @@
+package aima.test.core.unit.search.adversarial;
+
+import aima.core.environment.connectfour.ConnectFourGame;
+import aima.core.environment.connectfour.ConnectFourState;
+import aima.core.environment.map.MoveToAction;
+import aima.core.environment.tictactoe.TicTacToeGame;
+import aima.core.environment.tictactoe.TicTacToeState;
+import aima.core.environment.twoply.TwoPlyGame;
+import aima.core.environment.twoply.TwoPlyGameState;
+import aima.core.search.adversarial.IterativeDeepeningAlphaBetaSearch;
+import aima.core.search.adversarial.TranspositionTable;
+import aima.core.util.datastructure.XYLocation;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TranspositionTableTest {
+
+	@Test
+	public void testReplaceByDepth() {
+		TranspositionTable<String> table = new TranspositionTable<>(10);
+		Assert.assertEquals(16, table.capacity());
+		Assert.assertNull(table.probe(5));
+		table.store(5, 3, 0.5, TranspositionTable.EXACT, "a", false);
+		TranspositionTable.Entry<String> entry = table.probe(5);
+		Assert.assertEquals(3, entry.getDepth());
+		Assert.assertEquals(0.5, entry.getValue(), 0);
+		Assert.assertEquals(TranspositionTable.EXACT, entry.getBound());
+		Assert.assertEquals("a", entry.getBestMove());
+		Assert.assertFalse(entry.isProven());
+
+		// same slot, other state: shallower results do not replace deeper ones
+		long other = 5 + 16;
+		table.store(other, 2, 1, TranspositionTable.LOWER_BOUND, "b", false);
+		Assert.assertNull(table.probe(other));
+		Assert.assertNotNull(table.probe(5));
+		table.store(other, 3, 1, TranspositionTable.LOWER_BOUND, "b", false);
+		Assert.assertNotNull(table.probe(other));
+		Assert.assertNull(table.probe(5));
+
+		// same state: always replaced, best move is kept if unknown
+		table.store(other, 1, 0, TranspositionTable.UPPER_BOUND, null, true);
+		Assert.assertEquals("b", table.probe(other).getBestMove());
+		Assert.assertTrue(table.probe(other).isProven());
+
+		// entries of earlier searches are replaced
+		table.store(5, 9, 0, TranspositionTable.EXACT, "c", false);
+		table.newSearch();
+		table.store(other, 0, 0, TranspositionTable.EXACT, "d", false);
+		Assert.assertEquals("d", table.probe(other).getBestMove());
+		table.clear();
+		Assert.assertNull(table.probe(other));
+	}
+
+	@Test
+	public void testIncrementalHashes() {
+		ConnectFourGame c4 = new ConnectFourGame();
+		ConnectFourState s1 = c4.getInitialState();
+		ConnectFourState s2 = c4.getInitialState();
+		for (int col : new int[] { 3, 2, 4, 5 })
+			s1 = c4.getResult(s1, col);
+		for (int col : new int[] { 4, 5, 3, 2 })
+			s2 = c4.getResult(s2, col);
+		Assert.assertEquals(s1, s2);
+		Assert.assertEquals(c4.getHash(s1), c4.getHash(s2));
+		Assert.assertNotEquals(c4.getHash(s1), c4.getHash(c4.getResult(s1, 3)));
+
+		TicTacToeGame ttt = new TicTacToeGame();
+		TicTacToeState t = ttt.getInitialState();
+		for (XYLocation loc : new XYLocation[] { new XYLocation(0, 0), new XYLocation(1, 1), new XYLocation(2, 0) })
+			t = ttt.getResult(t, loc);
+		TicTacToeState u = new TicTacToeState(
+				new String[] { "X", "-", "X", "-", "O", "-", "-", "-", "-" }, TicTacToeState.O);
+		Assert.assertEquals(t, u);
+		Assert.assertEquals(ttt.getHash(t), ttt.getHash(u));
+		TicTacToeState v = new TicTacToeState(
+				new String[] { "X", "-", "X", "-", "O", "-", "-", "-", "-" }, TicTacToeState.X);
+		Assert.assertNotEquals(ttt.getHash(u), ttt.getHash(v));
+	}
+
+	@Test
+	public void testTicTacToeWithTranspositionTable() {
+		TicTacToeGame game = new TicTacToeGame();
+		IterativeDeepeningAlphaBetaSearch<TicTacToeState, XYLocation, String> search =
+				IterativeDeepeningAlphaBetaSearch.createFor(game, 0.0, 1.0, 100);
+		search.setTranspositionTable(new TranspositionTable<>(1 << 12));
+		TicTacToeState state = game.getInitialState();
+		search.makeDecision(state);
+		// 76035 nodes without transposition table
+		Assert.assertTrue(search.getMetrics().getInt(IterativeDeepeningAlphaBetaSearch.METRICS_NODES_EXPANDED) < 20000);
+		Assert.assertTrue(search.getMetrics().getInt(IterativeDeepeningAlphaBetaSearch.METRICS_TRANSPOSITION_HITS) > 0);
+
+		// perfect play of both players (sharing the table) ends in a draw
+		while (!game.isTerminal(state))
+			state = game.getResult(state, search.makeDecision(state));
+		Assert.assertEquals(0.5, state.getUtility(), 0);
+	}
+
+	@Test
+	public void testGameWithoutHashes() {
+		TwoPlyGame game = new TwoPlyGame();
+		IterativeDeepeningAlphaBetaSearch<TwoPlyGameState, MoveToAction, String> search =
+				IterativeDeepeningAlphaBetaSearch.createFor(game, 0, 20, 1);
+		TranspositionTable<MoveToAction> table = new TranspositionTable<>(16);
+		search.setTranspositionTable(table);
+		Assert.assertEquals("B", search.makeDecision(game.getInitialState()).getToLocation());
+		// states are stored in the table, the second decision finds the results
+		Assert.assertEquals("B", search.makeDecision(game.getInitialState()).getToLocation());
+		Assert.assertEquals(3, search.getMetrics().getInt(IterativeDeepeningAlphaBetaSearch.METRICS_TRANSPOSITION_HITS));
+	}
+
+	@Test
+	public void testCollisionsAreDetected() {
+		TranspositionTable<String> table = new TranspositionTable<>(16);
+		table.store(7, "s1", 1, 0.5, TranspositionTable.EXACT, "a", false);
+		Assert.assertNotNull(table.probe(7, "s1"));
+		Assert.assertNull(table.probe(7, "s2"));
+	}
+}
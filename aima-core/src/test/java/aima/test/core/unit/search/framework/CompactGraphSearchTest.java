@@ -0,0 +1,105 @@
+package aima.test.core.unit.search.framework;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.environment.eightpuzzle.EightPuzzleProblem;
+import aima.core.environment.map.*;
+import aima.core.search.framework.CompactGraphSearch;
+import aima.core.search.framework.CompactNodeStore;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.SearchUtils;
+import aima.core.search.framework.problem.GeneralProblem;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.uninformed.BreadthFirstSearch;
+import aima.core.search.uninformed.UniformCostSearch;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+public class CompactGraphSearchTest {
+
+	@Test
+	public void testNodeStore() {
+		CompactNodeStore<String, String> store = new CompactNodeStore<>(4);
+		int root = store.addRoot("A");
+		int b = store.add("B", root, "toB", 1.5);
+		int c = store.add("C", b, "toC", 4);
+		for (int i = 0; i < 100; i++)
+			store.add("D" + i, c, i % 2 == 0 ? "toD" : "toE", 5 + i);
+		Assert.assertEquals(103, store.size());
+		Assert.assertEquals(4, store.getNumberOfActions());
+		Assert.assertEquals(Arrays.asList("toB", "toC", "toE"), store.getSequenceOfActions(store.size() - 1));
+		Assert.assertEquals(3, store.getDepth(store.size() - 1));
+		Assert.assertEquals(b, store.getParent(c));
+		Assert.assertEquals(CompactNodeStore.NO_PARENT, store.getParent(root));
+
+		Node<String, String> node = store.toNode(c);
+		Assert.assertEquals("C", node.getState());
+		Assert.assertEquals(4, node.getPathCost(), 0);
+		Assert.assertEquals(Arrays.asList("toB", "toC"), SearchUtils.getSequenceOfActions(node));
+		Assert.assertNull(store.toNode(c, false).getParent());
+
+		store.clear();
+		Assert.assertEquals(0, store.size());
+		Assert.assertEquals(0, store.addRoot("X"));
+	}
+
+	@Test
+	public void testRomania() {
+		Map map = new SimplifiedRoadMapOfRomania();
+		Problem<String, MoveToAction> problem = new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+				MapFunctions.createActionsFunction(map), MapFunctions.createResultFunction(),
+				Predicate.isEqual(SimplifiedRoadMapOfRomania.BUCHAREST),
+				MapFunctions.createDistanceStepCostFunction(map));
+
+		CompactGraphSearch<String, MoveToAction> aStar = CompactGraphSearch.createAStarSearch(
+				MapFunctions.createSLDHeuristicFunction(SimplifiedRoadMapOfRomania.BUCHAREST, map));
+		Assert.assertEquals(new AStarSearch<>(new GraphSearch<>(),
+				MapFunctions.createSLDHeuristicFunction(SimplifiedRoadMapOfRomania.BUCHAREST, map)).findActions(problem),
+				aStar.findActions(problem));
+		Assert.assertEquals(418, aStar.getMetrics().getDouble(CompactGraphSearch.METRIC_PATH_COST), 0);
+
+		CompactGraphSearch<String, MoveToAction> ucs = CompactGraphSearch.createUniformCostSearch();
+		Assert.assertEquals(new UniformCostSearch<String, MoveToAction>().findActions(problem), ucs.findActions(problem));
+		Assert.assertTrue(ucs.getMetrics().getInt(CompactGraphSearch.METRIC_NODES_EXPANDED)
+				> aStar.getMetrics().getInt(CompactGraphSearch.METRIC_NODES_EXPANDED));
+
+		CompactGraphSearch<String, MoveToAction> bfs = CompactGraphSearch.createBreadthFirstSearch();
+		Assert.assertEquals(new BreadthFirstSearch<String, MoveToAction>().findActions(problem), bfs.findActions(problem));
+		Assert.assertEquals(450, bfs.getMetrics().getDouble(CompactGraphSearch.METRIC_PATH_COST), 0);
+	}
+
+	@Test
+	public void testEightPuzzle() {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 });
+		CompactGraphSearch<EightPuzzleBoard, Action> aStar =
+				CompactGraphSearch.createAStarSearch(EightPuzzleFunctions::getManhattanDistance);
+		Optional<List<Action>> actions = aStar.findActions(new EightPuzzleProblem(board));
+		Assert.assertEquals(23, actions.map(List::size).orElse(0).intValue());
+		Assert.assertEquals(4, aStar.getNodeStore().getNumberOfActions());
+
+		CompactGraphSearch<EightPuzzleBoard, Action> bfs = CompactGraphSearch.createBreadthFirstSearch();
+		int[] expanded = new int[1];
+		bfs.addNodeListener(node -> expanded[0]++);
+		Optional<EightPuzzleBoard> state = bfs.findState(new EightPuzzleProblem(board));
+		Assert.assertEquals(Optional.of(EightPuzzleFunctions.GOAL_STATE), state);
+		Assert.assertEquals(expanded[0], bfs.getMetrics().getInt(CompactGraphSearch.METRIC_NODES_EXPANDED));
+		Assert.assertEquals(23, bfs.getNodeStore().getDepth(bfs.findNode(new EightPuzzleProblem(board))));
+	}
+
+	@Test
+	public void testNoSolution() {
+		Problem<EightPuzzleBoard, Action> problem = new GeneralProblem<>(EightPuzzleFunctions.GOAL_STATE,
+				EightPuzzleFunctions::getActions, EightPuzzleFunctions::getResult, s -> false);
+		CompactGraphSearch<EightPuzzleBoard, Action> bfs = CompactGraphSearch.createBreadthFirstSearch();
+		Assert.assertFalse(bfs.findActions(problem).isPresent());
+		Assert.assertEquals(181440, bfs.getMetrics().getInt(CompactGraphSearch.METRIC_NODES_STORED));
+	}
+}
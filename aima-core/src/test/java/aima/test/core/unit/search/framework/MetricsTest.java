@@ -48,4 +48,45 @@ public class MetricsTest {
         assertNotEquals("1234",metrics.get("abcd"));
     }
 
+    @Test
+    public void testCounter() {
+        Metrics.Counter counter = metrics.counter("nodes");
+        counter.increment();
+        counter.add(41);
+        assertEquals(42, counter.get());
+        assertEquals(42, metrics.getInt("nodes"));
+        assertEquals("42", metrics.get("nodes"));
+        metrics.incrementInt("nodes");
+        assertEquals(43, counter.get());
+        counter.updateMax(10);
+        assertEquals(43, counter.get());
+        counter.updateMax(50);
+        assertEquals("50", metrics.get("nodes"));
+    }
+
+    @Test
+    public void testGauge() {
+        Metrics.Gauge gauge = metrics.gauge("cost");
+        assertEquals("0", metrics.get("cost"));
+        gauge.set(278);
+        assertEquals("278.0", metrics.get("cost"));
+        metrics.set("cost", 0);
+        assertEquals("0", metrics.get("cost"));
+        assertEquals(0.0, gauge.get(), 0);
+    }
+
+    @Test
+    public void testSnapshot() {
+        Metrics.Counter counter = metrics.counter("b");
+        metrics.set("a", 1.5);
+        counter.set(7);
+        Metrics.Snapshot snapshot = metrics.snapshot();
+        counter.set(8);
+        assertEquals(7, snapshot.getLong("b"));
+        assertEquals(1.5, snapshot.getDouble("a"), 0);
+        assertNull(snapshot.get("c"));
+        assertEquals("{a=1.5, b=7}", snapshot.toString());
+        assertEquals("{a=1.5, b=8}", metrics.toString());
+        assertEquals("7", snapshot.asMap().get("b"));
+    }
 }
@@ -0,0 +1,74 @@
+package aima.test.core.unit.search.framework;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.environment.eightpuzzle.EightPuzzleProblem;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.NodeFactory;
+import aima.core.search.framework.SearchForActions;
+import aima.core.search.framework.problem.GeneralProblem;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.framework.qsearch.GraphSearch4e;
+import aima.core.search.framework.qsearch.TreeSearch;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.uninformed.BreadthFirstSearch;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+public class NodeFactoryTest {
+
+	private final EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 1, 4, 2, 7, 5, 8, 3, 0, 6 });
+
+	@Test
+	public void testExpandMatchesGetSuccessors() {
+		NodeFactory<EightPuzzleBoard, Action> factory = new NodeFactory<>();
+		List<Node<EightPuzzleBoard, Action>> expanded = new ArrayList<>();
+		factory.addNodeListener(expanded::add);
+		Node<EightPuzzleBoard, Action> root = factory.createNode(board);
+
+		List<Node<EightPuzzleBoard, Action>> listed = factory.getSuccessors(root, createListBasedProblem());
+		List<Node<EightPuzzleBoard, Action>> streamed = new ArrayList<>();
+		factory.expand(root, new EightPuzzleProblem(board), streamed::add);
+
+		Assert.assertEquals(3, listed.size());
+		Assert.assertEquals(listed.size(), streamed.size());
+		for (int i = 0; i < listed.size(); i++) {
+			Assert.assertEquals(listed.get(i).getState(), streamed.get(i).getState());
+			Assert.assertEquals(listed.get(i).getAction(), streamed.get(i).getAction());
+			Assert.assertEquals(listed.get(i).getPathCost(), streamed.get(i).getPathCost(), 0);
+			Assert.assertSame(root, streamed.get(i).getParent());
+		}
+		Assert.assertEquals(2, expanded.size());
+	}
+
+	@Test
+	public void testStreamingProblemGivesSameSearchResults() {
+		assertSameResults(new BreadthFirstSearch<>(new GraphSearch<>()));
+		assertSameResults(new BreadthFirstSearch<>(new GraphSearch4e<>()));
+		assertSameResults(new AStarSearch<>(new TreeSearch<>(), EightPuzzleFunctions::getManhattanDistance));
+		TreeSearch<EightPuzzleBoard, Action> earlyGoalTestImpl = new TreeSearch<>();
+		earlyGoalTestImpl.setEarlyGoalTest(true);
+		assertSameResults(new BreadthFirstSearch<>(earlyGoalTestImpl));
+	}
+
+	private void assertSameResults(SearchForActions<EightPuzzleBoard, Action> search) {
+		Optional<List<Action>> listed = search.findActions(createListBasedProblem());
+		String listedMetrics = search.getMetrics().toString();
+		Optional<List<Action>> streamed = search.findActions(new EightPuzzleProblem(board));
+		Assert.assertTrue(listed.isPresent());
+		Assert.assertEquals(listed, streamed);
+		Assert.assertEquals(listedMetrics, search.getMetrics().toString());
+	}
+
+	private Problem<EightPuzzleBoard, Action> createListBasedProblem() {
+		return new GeneralProblem<>(board, EightPuzzleFunctions::getActions, EightPuzzleFunctions::getResult,
+				Predicate.isEqual(EightPuzzleFunctions.GOAL_STATE));
+	}
+}
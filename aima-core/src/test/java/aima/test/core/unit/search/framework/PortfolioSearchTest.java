@@ -0,0 +1,164 @@
+package aima.test.core.unit.search.framework;
+
+import aima.core.environment.map.*;
+import aima.core.search.framework.Metrics;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.PortfolioSearch;
+import aima.core.search.framework.SearchForActions;
+import aima.core.search.framework.problem.GeneralProblem;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.informed.GreedyBestFirstSearch;
+import aima.core.search.informed.RecursiveBestFirstSearch;
+import aima.core.search.uninformed.IterativeDeepeningSearch;
+import aima.core.util.Tasks;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+
+public class PortfolioSearchTest {
+
+	private Map romaniaMap;
+	private Problem<String, MoveToAction> problem;
+	private ToDoubleFunction<Node<String, MoveToAction>> h;
+
+	@Before
+	public void setUp() {
+		romaniaMap = new SimplifiedRoadMapOfRomania();
+		problem = new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+				MapFunctions.createActionsFunction(romaniaMap),
+				MapFunctions.createResultFunction(),
+				Predicate.isEqual(SimplifiedRoadMapOfRomania.BUCHAREST),
+				MapFunctions.createDistanceStepCostFunction(romaniaMap));
+		h = MapFunctions.createSLDHeuristicFunction(SimplifiedRoadMapOfRomania.BUCHAREST, romaniaMap);
+	}
+
+	@Test
+	public void testWaitForBest() {
+		PortfolioSearch<String, MoveToAction> search = new PortfolioSearch<String, MoveToAction>()
+				.addStrategy("Greedy", new GreedyBestFirstSearch<>(new GraphSearch<>(), h))
+				.addStrategy("IDS", new IterativeDeepeningSearch<>())
+				.addStrategy("RBFS", new RecursiveBestFirstSearch<>(AStarSearch.createEvalFn(h)))
+				.addStrategy("A*", new AStarSearch<>(new GraphSearch<>(), h));
+		search.setWaitForBest(true);
+		Optional<List<MoveToAction>> actions = search.findActions(problem);
+
+		Assert.assertEquals(4, actions.map(List::size).orElse(0).intValue());
+		Metrics metrics = search.getMetrics();
+		Assert.assertEquals(418, metrics.getDouble(PortfolioSearch.METRIC_PATH_COST), 0);
+		Assert.assertEquals(4, metrics.getInt(PortfolioSearch.METRIC_STRATEGIES_FINISHED));
+		String winner = search.getStrategyName(metrics.getInt(PortfolioSearch.METRIC_WINNER));
+		Assert.assertTrue(winner.equals("RBFS") || winner.equals("A*"));
+		Assert.assertEquals("450.0", metrics.get("Greedy.pathCost"));
+		Assert.assertTrue(metrics.getInt("A*.nodesExpanded") > 0);
+		Assert.assertTrue(metrics.getInt("IDS.nodesExpanded") > 0);
+	}
+
+	@Test
+	public void testFirstResultCancelsOthers() {
+		Spinner spinner = new Spinner();
+		PortfolioSearch<String, MoveToAction> search = new PortfolioSearch<String, MoveToAction>()
+				.addStrategy("Spinner", spinner)
+				.addStrategy("A*", new AStarSearch<>(new GraphSearch<>(), h));
+		Optional<List<MoveToAction>> actions = search.findActions(problem);
+
+		Assert.assertEquals(4, actions.map(List::size).orElse(0).intValue());
+		Assert.assertEquals(1, search.getMetrics().getInt(PortfolioSearch.METRIC_WINNER));
+		Assert.assertEquals(1, search.getMetrics().getInt(PortfolioSearch.METRIC_STRATEGIES_FINISHED));
+		Assert.assertTrue(spinner.wasCancelled);
+		Assert.assertEquals(1, search.getMetrics().getInt("Spinner.calls"));
+	}
+
+	@Test
+	public void testTimeLimit() {
+		Spinner spinner = new Spinner();
+		PortfolioSearch<String, MoveToAction> search = new PortfolioSearch<String, MoveToAction>()
+				.addStrategy("Spinner", spinner);
+		search.setTimeLimit(50);
+		Assert.assertFalse(search.findActions(problem).isPresent());
+		Assert.assertTrue(spinner.wasCancelled);
+		Assert.assertEquals(-1, search.getMetrics().getInt(PortfolioSearch.METRIC_WINNER));
+	}
+
+	@Test
+	public void testFailingStrategy() {
+		SearchForActions<String, MoveToAction> failing = new Spinner() {
+			@Override
+			public Optional<List<MoveToAction>> findActions(Problem<String, MoveToAction> p) {
+				throw new IllegalStateException("failed");
+			}
+		};
+		PortfolioSearch<String, MoveToAction> search = new PortfolioSearch<String, MoveToAction>()
+				.addStrategy("Failing", failing)
+				.addStrategy("A*", new AStarSearch<>(new GraphSearch<>(), h));
+		search.setWaitForBest(true);
+		Assert.assertTrue(search.findActions(problem).isPresent());
+
+		PortfolioSearch<String, MoveToAction> failingOnly = new PortfolioSearch<String, MoveToAction>()
+				.addStrategy("Failing", failing);
+		try {
+			failingOnly.findActions(problem);
+			Assert.fail("Exception expected.");
+		} catch (IllegalStateException e) {
+			Assert.assertEquals("failed", e.getMessage());
+		}
+	}
+
+	@Test(expected = StackOverflowError.class, timeout = 10000)
+	public void testStrategyFailingWithError() {
+		SearchForActions<String, MoveToAction> failing = new Spinner() {
+			@Override
+			public Optional<List<MoveToAction>> findActions(Problem<String, MoveToAction> p) {
+				throw new StackOverflowError();
+			}
+		};
+		new PortfolioSearch<String, MoveToAction>().addStrategy("Failing", failing).findActions(problem);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicateStrategy() {
+		Spinner spinner = new Spinner();
+		new PortfolioSearch<String, MoveToAction>().addStrategy("S1", spinner).addStrategy("S2", spinner);
+	}
+
+	/** Strategy which never finds a solution and runs until it is cancelled. */
+	private static class Spinner implements SearchForActions<String, MoveToAction> {
+		private final Metrics metrics = new Metrics();
+		volatile boolean wasCancelled;
+
+		@Override
+		public Optional<List<MoveToAction>> findActions(Problem<String, MoveToAction> p) {
+			metrics.incrementInt("calls");
+			while (!Tasks.currIsCancelled()) {
+				try {
+					Thread.sleep(1);
+				} catch (InterruptedException e) {
+					break;
+				}
+			}
+			wasCancelled = Tasks.currIsCancelled();
+			return Optional.empty();
+		}
+
+		@Override
+		public Metrics getMetrics() {
+			return metrics;
+		}
+
+		@Override
+		public void addNodeListener(Consumer<Node<String, MoveToAction>> listener) {
+		}
+
+		@Override
+		public boolean removeNodeListener(Consumer<Node<String, MoveToAction>> listener) {
+			return false;
+		}
+	}
+}
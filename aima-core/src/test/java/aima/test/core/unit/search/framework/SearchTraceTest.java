@@ -0,0 +1,100 @@
+package aima.test.core.unit.search.framework;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.environment.eightpuzzle.EightPuzzleProblem;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.QueueFactory;
+import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.framework.qsearch.GraphSearchBFS;
+import aima.core.search.framework.trace.SearchTraceReader;
+import aima.core.search.framework.trace.SearchTraceRecorder;
+import aima.core.search.framework.trace.TracingNodeFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+
+public class SearchTraceTest {
+
+	private final EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 1, 4, 2, 7, 5, 8, 3, 0, 6 });
+
+	@Test
+	public void testAStarTrace() throws Exception {
+		Path file = Files.createTempFile("trace", ".bin");
+		try {
+			Optional<Node<EightPuzzleBoard, Action>> goal;
+			long expanded;
+			// small ring buffer to test wrap-around
+			try (SearchTraceRecorder recorder = new SearchTraceRecorder(file, 16)) {
+				TracingNodeFactory<EightPuzzleBoard, Action> factory =
+						new TracingNodeFactory<>(recorder, EightPuzzleFunctions::getManhattanDistance);
+				GraphSearch<EightPuzzleBoard, Action> search = new GraphSearch<>(factory);
+				goal = search.findNode(new EightPuzzleProblem(board), QueueFactory.createPriorityQueue(
+						Comparator.comparingDouble(n -> n.getPathCost() + EightPuzzleFunctions.getManhattanDistance(n))));
+				Assert.assertTrue(goal.isPresent());
+				factory.recordSolution(goal.get());
+				expanded = search.getMetrics().getLong("nodesExpanded");
+			}
+			try (SearchTraceReader reader = new SearchTraceReader(file)) {
+				long[] counts = new long[3];
+				Set<Long> ids = new HashSet<>();
+				reader.forEach(record -> {
+					counts[record.getEvent()]++;
+					if (record.getEvent() == SearchTraceRecorder.EVENT_GENERATED)
+						Assert.assertTrue(ids.add(record.getNodeId()));
+				});
+				Assert.assertEquals(expanded, counts[SearchTraceRecorder.EVENT_EXPANDED]);
+				Assert.assertEquals(1, counts[SearchTraceRecorder.EVENT_SOLUTION]);
+				Assert.assertEquals(reader.size(), counts[0] + counts[1] + counts[2]);
+
+				double[] errors = reader.getHeuristicErrors();
+				Assert.assertEquals(goal.get().getDepth() + 1, errors.length);
+				for (double error : errors)
+					Assert.assertTrue(error >= 0); // Manhattan distance is admissible
+				Assert.assertEquals(0, errors[errors.length - 1], 0);
+				Assert.assertEquals(3.0, reader.getBranchingFactors().get(0), 0); // blank at bottom center
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void testConcurrentRecording() throws Exception {
+		Path file = Files.createTempFile("trace", ".bin");
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			try (SearchTraceRecorder recorder = new SearchTraceRecorder(file, 256)) {
+				GraphSearchBFS<EightPuzzleBoard, Action> search = new GraphSearchBFS<>(new TracingNodeFactory<>(recorder));
+				search.setParallel(pool);
+				// no goal test, so the whole state space is traced
+				Assert.assertFalse(search.findNode(new EightPuzzleProblem(board, null),
+						QueueFactory.createFifoQueue()).isPresent());
+			}
+			try (SearchTraceReader reader = new SearchTraceReader(file)) {
+				Map<Integer, Double> branchingFactors = reader.getBranchingFactors();
+				Assert.assertEquals(32, branchingFactors.size());
+				for (double b : branchingFactors.values())
+					Assert.assertTrue(b >= 0 && b <= 4);
+				long[] expanded = new long[1];
+				reader.forEach(record -> {
+					if (record.getEvent() == SearchTraceRecorder.EVENT_EXPANDED)
+						expanded[0]++;
+				});
+				Assert.assertEquals(181440, expanded[0]);
+			}
+		} finally {
+			pool.shutdown();
+			Files.deleteIfExists(file);
+		}
+	}
+}
@@ -0,0 +1,199 @@
+package aima.test.core.unit.search.framework;
+
+import aima.core.agent.Action;
+import aima.core.environment.connectfour.ConnectFourState;
+import aima.core.environment.connectfour.ConnectFourStateCodec;
+import aima.core.environment.eightpuzzle.BidirectionalEightPuzzleProblem;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.environment.eightpuzzle.EightPuzzleStateCodec;
+import aima.core.environment.nqueens.NQueensBoard;
+import aima.core.environment.nqueens.NQueensStateCodec;
+import aima.core.search.framework.ApproximateStateSet;
+import aima.core.search.framework.Metrics;
+import aima.core.search.framework.NodeFactory;
+import aima.core.search.framework.SearchForActions;
+import aima.core.search.framework.StateCodec;
+import aima.core.search.framework.StateSet;
+import aima.core.search.framework.StateSetFactory;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.BidirectionalSearch;
+import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.framework.qsearch.GraphSearchBFS;
+import aima.core.search.framework.qsearch.QueueSearch;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.uninformed.BreadthFirstSearch;
+import aima.core.util.datastructure.XYLocation;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+public class StateCodecTest {
+
+	private final EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 });
+
+	@Test
+	public void testEightPuzzleCodec() {
+		StateCodec<EightPuzzleBoard> codec = new EightPuzzleStateCodec();
+		Assert.assertTrue(codec.fitsInLong());
+		Assert.assertEquals(board, codec.decodeFromLong(codec.encodeAsLong(board)));
+		byte[] code = new byte[codec.encodedLength() + 2];
+		codec.encode(board, code, 2);
+		Assert.assertEquals(board, codec.decode(code, 2));
+	}
+
+	@Test
+	public void testNQueensCodec() {
+		NQueensBoard board = new NQueensBoard(8, NQueensBoard.Config.QUEENS_IN_FIRST_ROW);
+		board.moveQueen(new XYLocation(3, 0), new XYLocation(3, 7));
+		StateCodec<NQueensBoard> codec = new NQueensStateCodec(8);
+		Assert.assertTrue(codec.fitsInLong());
+		Assert.assertEquals(board, codec.decodeFromLong(codec.encodeAsLong(board)));
+
+		board = new NQueensBoard(10, NQueensBoard.Config.QUEENS_IN_FIRST_ROW);
+		board.moveQueen(new XYLocation(9, 0), new XYLocation(9, 9));
+		codec = new NQueensStateCodec(10);
+		Assert.assertFalse(codec.fitsInLong());
+		byte[] code = new byte[codec.encodedLength()];
+		codec.encode(board, code, 0);
+		Assert.assertEquals(board, codec.decode(code, 0));
+	}
+
+	@Test
+	public void testConnectFourCodec() {
+		ConnectFourState state = new ConnectFourState(6, 7);
+		StateCodec<ConnectFourState> codec = new ConnectFourStateCodec();
+		Assert.assertTrue(codec.fitsInLong());
+		for (int col : new int[] { 3, 3, 2, 4, 4, 4, 4, 4, 4, 0, 1, 6 }) {
+			state.dropDisk(col);
+			Assert.assertEquals(state, codec.decodeFromLong(codec.encodeAsLong(state)));
+			byte[] code = new byte[codec.encodedLength()];
+			codec.encode(state, code, 0);
+			Assert.assertEquals(state, codec.decode(code, 0));
+		}
+		Assert.assertEquals(state.getUtility(), codec.decodeFromLong(codec.encodeAsLong(state)).getUtility(), 0);
+	}
+
+	@Test
+	public void testCompactStateSets() {
+		StateCodec<EightPuzzleBoard> codec = new EightPuzzleStateCodec();
+		for (StateSet<EightPuzzleBoard> set : List.of(StateSetFactory.<EightPuzzleBoard>createHashSet(),
+				StateSetFactory.createLongSet(codec), StateSetFactory.createOffHeapSet(codec))) {
+			Assert.assertTrue(set.add(board));
+			Assert.assertFalse(set.add(board.clone()));
+			Assert.assertTrue(set.contains(board));
+			Assert.assertFalse(set.contains(new EightPuzzleBoard()));
+			Assert.assertEquals(1, set.size());
+			Assert.assertTrue(set.remove(board));
+			Assert.assertEquals(0, set.size());
+		}
+	}
+
+	@Test
+	public void testApproximateStateSets() {
+		StateCodec<EightPuzzleBoard> codec = new EightPuzzleStateCodec();
+		ApproximateStateSet<EightPuzzleBoard> bitstateSet = StateSetFactory.createBitstateSet(codec, 1 << 16, 3);
+		Assert.assertTrue(bitstateSet.add(board));
+		Assert.assertFalse(bitstateSet.add(board.clone()));
+		Assert.assertTrue(bitstateSet.contains(board));
+		Assert.assertFalse(bitstateSet.contains(new EightPuzzleBoard()));
+		Assert.assertEquals(1, bitstateSet.size());
+		Assert.assertTrue(bitstateSet.getOmissionProbability() > 0);
+		Assert.assertFalse(bitstateSet.supportsRemove());
+		bitstateSet.clear();
+		Assert.assertEquals(0, bitstateSet.getOmissionProbability(), 0);
+
+		ApproximateStateSet<EightPuzzleBoard> countingSet = StateSetFactory.createCountingBloomSet(codec, 1 << 16, 3);
+		Assert.assertTrue(countingSet.add(board));
+		Assert.assertTrue(countingSet.contains(board));
+		Assert.assertTrue(countingSet.supportsRemove());
+		Assert.assertTrue(countingSet.remove(board));
+		Assert.assertFalse(countingSet.contains(board));
+		Assert.assertEquals(0, countingSet.size());
+
+		// adding a contained state changes nothing
+		Assert.assertTrue(countingSet.add(board));
+		Assert.assertFalse(countingSet.add(board));
+		Assert.assertEquals(1, countingSet.size());
+		Assert.assertTrue(countingSet.remove(board));
+		Assert.assertFalse(countingSet.remove(board));
+		Assert.assertEquals(0, countingSet.size());
+	}
+
+	@Test
+	public void testGraphSearchWithBitstateSet() {
+		EightPuzzleStateCodec codec = new EightPuzzleStateCodec();
+		// 2^24 bits (2 MB) for less than 10^5 states: omissions are very unlikely
+		SearchForActions<EightPuzzleBoard, Action> search = new AStarSearch<>(
+				new GraphSearch<>(new NodeFactory<>(), StateSetFactory.createBitstateSet(codec, 1 << 24, 3)),
+				EightPuzzleFunctions::getManhattanDistance);
+		Optional<List<Action>> actions = search.findActions(new BidirectionalEightPuzzleProblem(board));
+		Assert.assertTrue(actions.isPresent());
+		Assert.assertEquals(23, actions.get().size());
+		double p = search.getMetrics().getDouble(QueueSearch.METRIC_OMISSION_PROBABILITY);
+		Assert.assertTrue(p > 0 && p < 1e-6);
+
+		search = new BreadthFirstSearch<>(new GraphSearchBFS<>(new NodeFactory<>(),
+				StateSetFactory.createBitstateSet(codec, 1 << 20, 2),
+				StateSetFactory.createCountingBloomSet(codec, 1 << 16, 2)));
+		EightPuzzleBoard nearBoard = new EightPuzzleBoard(new int[] { 1, 4, 2, 7, 5, 8, 3, 0, 6 });
+		actions = search.findActions(new BidirectionalEightPuzzleProblem(nearBoard));
+		Assert.assertTrue(actions.isPresent());
+		Assert.assertEquals(9, actions.get().size());
+		p = search.getMetrics().getDouble(QueueSearch.METRIC_OMISSION_PROBABILITY);
+		Assert.assertTrue(p > 0 && p < 1e-3);
+	}
+
+	@Test
+	public void testFrontierOmissionProbabilityIsMaximum() {
+		EightPuzzleStateCodec codec = new EightPuzzleStateCodec();
+		// unsolvable, so the frontier state set is empty again at the end
+		EightPuzzleBoard unsolvable = new EightPuzzleBoard(new int[] { 0, 2, 1, 3, 4, 5, 6, 7, 8 });
+		SearchForActions<EightPuzzleBoard, Action> search = new BreadthFirstSearch<>(new GraphSearchBFS<>(
+				new NodeFactory<>(), StateSetFactory.createHashSet(),
+				StateSetFactory.createCountingBloomSet(codec, 1 << 20, 2)));
+		Assert.assertFalse(search.findActions(new BidirectionalEightPuzzleProblem(unsolvable)).isPresent());
+		double p = search.getMetrics().getDouble(QueueSearch.METRIC_OMISSION_PROBABILITY);
+		Assert.assertTrue(p > 0 && p < 1e-2);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBitstateSetAsFrontierRejected() {
+		EightPuzzleStateCodec codec = new EightPuzzleStateCodec();
+		new GraphSearchBFS<>(new NodeFactory<>(), StateSetFactory.createHashSet(),
+				StateSetFactory.createBitstateSet(codec, 1 << 16, 2));
+	}
+
+	@Test
+	public void testGraphSearchWithCodec() {
+		EightPuzzleStateCodec codec = new EightPuzzleStateCodec();
+		assertSameResult(new AStarSearch<>(new GraphSearch<>(), EightPuzzleFunctions::getManhattanDistance),
+				new AStarSearch<>(new GraphSearch<>(new NodeFactory<>(), codec),
+						EightPuzzleFunctions::getManhattanDistance), 23);
+		EightPuzzleBoard nearBoard = new EightPuzzleBoard(new int[] { 1, 4, 2, 7, 5, 8, 3, 0, 6 });
+		assertSameResult(nearBoard, new BreadthFirstSearch<>(new GraphSearchBFS<>()),
+				new BreadthFirstSearch<>(new GraphSearchBFS<>(new NodeFactory<>(), codec)), 9);
+		assertSameResult(nearBoard, new BreadthFirstSearch<>(new BidirectionalSearch<>()),
+				new BreadthFirstSearch<>(new BidirectionalSearch<>(new NodeFactory<>(), codec)), 9);
+	}
+
+	private void assertSameResult(SearchForActions<EightPuzzleBoard, Action> search,
+			SearchForActions<EightPuzzleBoard, Action> compactSearch, int pathLength) {
+		assertSameResult(board, search, compactSearch, pathLength);
+	}
+
+	private void assertSameResult(EightPuzzleBoard initialState, SearchForActions<EightPuzzleBoard, Action> search,
+			SearchForActions<EightPuzzleBoard, Action> compactSearch, int pathLength) {
+		Problem<EightPuzzleBoard, Action> problem = new BidirectionalEightPuzzleProblem(initialState);
+		Optional<List<Action>> actions = search.findActions(problem);
+		Optional<List<Action>> compactActions = compactSearch.findActions(problem);
+		Assert.assertTrue(actions.isPresent());
+		Assert.assertEquals(pathLength, actions.get().size());
+		Assert.assertEquals(actions, compactActions);
+		Metrics metrics = search.getMetrics();
+		Metrics compactMetrics = compactSearch.getMetrics();
+		Assert.assertEquals(metrics.toString(), compactMetrics.toString());
+	}
+}
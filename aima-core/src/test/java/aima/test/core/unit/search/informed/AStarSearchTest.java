@@ -11,6 +11,7 @@ import aima.core.search.framework.SearchForActions;
 import aima.core.search.framework.problem.GeneralProblem;
 import aima.core.search.framework.problem.Problem;
 import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.framework.qsearch.GraphSearchReducedFrontier;
 import aima.core.search.framework.qsearch.QueueSearch;
 import aima.core.search.framework.qsearch.TreeSearch;
 import aima.core.search.informed.AStarSearch;
@@ -18,6 +19,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Predicate;
 import java.util.function.ToDoubleFunction;
 
@@ -52,6 +54,26 @@ public class AStarSearchTest {
 		}
 	}
 
+	@Test
+	public void testIntegerCostFrontiers() {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 });
+		Problem<EightPuzzleBoard, Action> problem = new BidirectionalEightPuzzleProblem(board);
+		List<QueueSearch<EightPuzzleBoard, Action>> impls = List.of(new GraphSearch<>(),
+				new GraphSearchReducedFrontier<>());
+		for (QueueSearch<EightPuzzleBoard, Action> impl : impls) {
+			// Manhattan distance is consistent, so the radix heap can be used
+			List<AStarSearch<EightPuzzleBoard, Action>> searches = List.of(
+					AStarSearch.createWithBucketQueue(impl, EightPuzzleFunctions::getManhattanDistance),
+					AStarSearch.createWithRadixHeap(impl, EightPuzzleFunctions::getManhattanDistance));
+			for (AStarSearch<EightPuzzleBoard, Action> search : searches) {
+				Optional<List<Action>> actions = search.findActions(problem);
+				Assert.assertTrue(actions.isPresent());
+				Assert.assertEquals(23, actions.get().size());
+				Assert.assertEquals("23.0", search.getMetrics().get(QueueSearch.METRIC_PATH_COST));
+			}
+		}
+	}
+
 	@Test
 	public void testAIMA3eFigure3_15() throws Exception {
 		Map romaniaMap = new SimplifiedRoadMapOfRomania();
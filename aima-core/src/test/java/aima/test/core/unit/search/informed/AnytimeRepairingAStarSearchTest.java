@@ -0,0 +1,110 @@
+package aima.test.core.unit.search.informed;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.BidirectionalEightPuzzleProblem;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.environment.map.*;
+import aima.core.search.framework.NodeFactory;
+import aima.core.search.framework.problem.GeneralProblem;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.informed.AnytimeRepairingAStarSearch;
+import aima.core.util.Tasks;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+
+public class AnytimeRepairingAStarSearchTest {
+
+	@Test
+	public void testImprovesUntilOptimal() {
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		Problem<String, MoveToAction> problem = new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+				MapFunctions.createActionsFunction(romaniaMap),
+				MapFunctions.createResultFunction(),
+				Predicate.isEqual(SimplifiedRoadMapOfRomania.BUCHAREST),
+				MapFunctions.createDistanceStepCostFunction(romaniaMap));
+		AnytimeRepairingAStarSearch<String, MoveToAction> search = new AnytimeRepairingAStarSearch<>(
+				new NodeFactory<>(),
+				MapFunctions.createSLDHeuristicFunction(SimplifiedRoadMapOfRomania.BUCHAREST, romaniaMap), 5, 1);
+		List<Double> costs = new ArrayList<>();
+		search.setSolutionListener(node -> costs.add(node.getPathCost()));
+		Optional<List<MoveToAction>> actions = search.findActions(problem);
+
+		Assert.assertEquals(
+				"[Action[name=moveTo, location=Sibiu], Action[name=moveTo, location=RimnicuVilcea], Action[name=moveTo, location=Pitesti], Action[name=moveTo, location=Bucharest]]",
+				actions.map(Object::toString).orElse(""));
+		Assert.assertEquals("418.0", search.getMetrics().get(AnytimeRepairingAStarSearch.METRIC_PATH_COST));
+		Assert.assertEquals(1.0, search.getMetrics().getDouble(AnytimeRepairingAStarSearch.METRIC_SUBOPTIMALITY_BOUND), 0);
+		Assert.assertEquals(Double.valueOf(450), costs.get(0)); // first solution via Fagaras
+		Assert.assertEquals(Double.valueOf(418), costs.get(costs.size() - 1));
+		Assert.assertEquals(costs.size(), search.getMetrics().getInt(AnytimeRepairingAStarSearch.METRIC_SOLUTIONS));
+	}
+
+	@Test
+	public void testEightPuzzle() {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 });
+		Problem<EightPuzzleBoard, Action> problem = new BidirectionalEightPuzzleProblem(board);
+		AnytimeRepairingAStarSearch<EightPuzzleBoard, Action> search = new AnytimeRepairingAStarSearch<>(
+				new NodeFactory<>(), EightPuzzleFunctions::getManhattanDistance, 3, 0.5);
+		Optional<List<Action>> actions = search.findActions(problem);
+		Assert.assertEquals(23, actions.map(List::size).orElse(0).intValue());
+		Assert.assertEquals(1.0, search.getMetrics().getDouble(AnytimeRepairingAStarSearch.METRIC_SUBOPTIMALITY_BOUND), 0);
+	}
+
+	@Test
+	public void testCancellationReturnsBestSolution() throws InterruptedException {
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		Problem<String, MoveToAction> problem = new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+				MapFunctions.createActionsFunction(romaniaMap),
+				MapFunctions.createResultFunction(),
+				Predicate.isEqual(SimplifiedRoadMapOfRomania.BUCHAREST),
+				MapFunctions.createDistanceStepCostFunction(romaniaMap));
+		AnytimeRepairingAStarSearch<String, MoveToAction> search = new AnytimeRepairingAStarSearch<>(
+				new NodeFactory<>(),
+				MapFunctions.createSLDHeuristicFunction(SimplifiedRoadMapOfRomania.BUCHAREST, romaniaMap), 5, 1);
+		// cancel the search as soon as the first solution has been found
+		search.setSolutionListener(node -> Tasks.cancel(Thread.currentThread()));
+		AtomicReference<Optional<List<MoveToAction>>> result = new AtomicReference<>();
+		Thread thread = Tasks.executeInBackground(() -> result.set(search.findActions(problem)));
+		thread.join();
+
+		Assert.assertEquals(3, result.get().map(List::size).orElse(0).intValue());
+		Assert.assertEquals("450.0", search.getMetrics().get(AnytimeRepairingAStarSearch.METRIC_PATH_COST));
+		Assert.assertEquals(1, search.getMetrics().getInt(AnytimeRepairingAStarSearch.METRIC_SOLUTIONS));
+	}
+
+	@Test
+	public void testTimeLimit() {
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		Problem<String, MoveToAction> problem = new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+				MapFunctions.createActionsFunction(romaniaMap),
+				MapFunctions.createResultFunction(),
+				Predicate.isEqual(SimplifiedRoadMapOfRomania.BUCHAREST),
+				MapFunctions.createDistanceStepCostFunction(romaniaMap));
+		AnytimeRepairingAStarSearch<String, MoveToAction> search = new AnytimeRepairingAStarSearch<>(
+				new NodeFactory<>(),
+				MapFunctions.createSLDHeuristicFunction(SimplifiedRoadMapOfRomania.BUCHAREST, romaniaMap), 5, 1);
+		search.setTimeLimit(50);
+		// after the first solution, each expansion takes longer than the time limit
+		boolean[] solved = new boolean[1];
+		search.setSolutionListener(node -> solved[0] = true);
+		search.addNodeListener(node -> {
+			if (solved[0]) {
+				try {
+					Thread.sleep(100);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		});
+		Optional<List<MoveToAction>> actions = search.findActions(problem);
+		Assert.assertTrue(actions.isPresent());
+		Assert.assertTrue(search.getMetrics().getDouble(AnytimeRepairingAStarSearch.METRIC_PATH_COST) >= 418);
+	}
+}
@@ -0,0 +1,90 @@
+package aima.test.core.unit.search.informed;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.BidirectionalEightPuzzleProblem;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.environment.map.*;
+import aima.core.search.framework.problem.GeneralProblem;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.informed.HashDistributedAStarSearch;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+public class HashDistributedAStarSearchTest {
+
+	@Test
+	public void testRomaniaSingleWorker() {
+		testRomania(1);
+	}
+
+	@Test
+	public void testRomaniaMultipleWorkers() {
+		testRomania(4);
+	}
+
+	private void testRomania(int numThreads) {
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		Problem<String, MoveToAction> problem = new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+				MapFunctions.createActionsFunction(romaniaMap),
+				MapFunctions.createResultFunction(),
+				Predicate.isEqual(SimplifiedRoadMapOfRomania.BUCHAREST),
+				MapFunctions.createDistanceStepCostFunction(romaniaMap));
+		HashDistributedAStarSearch<String, MoveToAction> search = new HashDistributedAStarSearch<>(
+				MapFunctions.createSLDHeuristicFunction(SimplifiedRoadMapOfRomania.BUCHAREST, romaniaMap),
+				numThreads);
+		Optional<List<MoveToAction>> actions = search.findActions(problem);
+
+		Assert.assertEquals(
+				"[Action[name=moveTo, location=Sibiu], Action[name=moveTo, location=RimnicuVilcea], Action[name=moveTo, location=Pitesti], Action[name=moveTo, location=Bucharest]]",
+				actions.map(Object::toString).orElse(""));
+		Assert.assertEquals("418.0", search.getMetrics().get(HashDistributedAStarSearch.METRIC_PATH_COST));
+		Assert.assertEquals(numThreads, search.getMetrics().getInt(HashDistributedAStarSearch.METRIC_THREADS));
+	}
+
+	@Test
+	public void testEightPuzzleFindsOptimalSolution() {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 });
+		Problem<EightPuzzleBoard, Action> problem = new BidirectionalEightPuzzleProblem(board);
+		HashDistributedAStarSearch<EightPuzzleBoard, Action> search = new HashDistributedAStarSearch<>(
+				EightPuzzleFunctions::getManhattanDistance, 4);
+
+		Optional<List<Action>> actions = search.findActions(problem);
+		Assert.assertTrue(actions.isPresent());
+		Assert.assertEquals(23, actions.get().size());
+		Assert.assertEquals(23.0, search.getMetrics().getDouble(HashDistributedAStarSearch.METRIC_PATH_COST), 0);
+		Assert.assertEquals(EightPuzzleFunctions.GOAL_STATE, search.findState(problem).orElse(null));
+	}
+
+	@Test
+	public void testUnreachableGoal() {
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		Problem<String, MoveToAction> problem = new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+				MapFunctions.createActionsFunction(romaniaMap),
+				MapFunctions.createResultFunction(),
+				state -> false,
+				MapFunctions.createDistanceStepCostFunction(romaniaMap));
+		HashDistributedAStarSearch<String, MoveToAction> search = new HashDistributedAStarSearch<>(
+				node -> 0.0, 3);
+
+		Assert.assertFalse(search.findActions(problem).isPresent());
+		// states can be reopened when cheaper paths arrive late from other workers
+		Assert.assertTrue(search.getMetrics().getInt(HashDistributedAStarSearch.METRIC_NODES_EXPANDED)
+				>= romaniaMap.getLocations().size());
+	}
+
+	@Test(expected = StackOverflowError.class, timeout = 10000)
+	public void testWorkerErrorIsRethrown() {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 });
+		HashDistributedAStarSearch<EightPuzzleBoard, Action> search = new HashDistributedAStarSearch<>(node -> {
+			if (node.getPathCost() == 3)
+				throw new StackOverflowError();
+			return EightPuzzleFunctions.getManhattanDistance(node);
+		}, 4);
+		search.findActions(new BidirectionalEightPuzzleProblem(board));
+	}
+}
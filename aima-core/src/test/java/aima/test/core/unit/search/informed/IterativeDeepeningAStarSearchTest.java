@@ -0,0 +1,128 @@
+package aima.test.core.unit.search.informed;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.BidirectionalEightPuzzleProblem;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.environment.eightpuzzle.PatternDatabaseBuilder;
+import aima.core.environment.map.*;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.NodeFactory;
+import aima.core.search.framework.problem.GeneralProblem;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.informed.IterativeDeepeningAStarSearch;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+public class IterativeDeepeningAStarSearchTest {
+
+	private final EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 });
+
+	@Test
+	public void testAIMA3eFigure3_24() {
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		Problem<String, MoveToAction> problem = new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+				MapFunctions.createActionsFunction(romaniaMap),
+				MapFunctions.createResultFunction(),
+				Predicate.isEqual(SimplifiedRoadMapOfRomania.BUCHAREST),
+				MapFunctions.createDistanceStepCostFunction(romaniaMap));
+		IterativeDeepeningAStarSearch<String, MoveToAction> search = new IterativeDeepeningAStarSearch<>(
+				MapFunctions.createSLDHeuristicFunction(SimplifiedRoadMapOfRomania.BUCHAREST, romaniaMap));
+		Optional<List<MoveToAction>> actions = search.findActions(problem);
+
+		Assert.assertEquals(
+				"[Action[name=moveTo, location=Sibiu], Action[name=moveTo, location=RimnicuVilcea], Action[name=moveTo, location=Pitesti], Action[name=moveTo, location=Bucharest]]",
+				actions.map(Object::toString).orElse(""));
+		Assert.assertEquals("418.0", search.getMetrics().get(IterativeDeepeningAStarSearch.METRIC_PATH_COST));
+		Assert.assertTrue(search.getMetrics().getInt(IterativeDeepeningAStarSearch.METRIC_ITERATIONS) > 1);
+	}
+
+	@Test
+	public void testFindState() {
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		Problem<String, MoveToAction> problem = new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+				MapFunctions.createActionsFunction(romaniaMap),
+				MapFunctions.createResultFunction(),
+				Predicate.isEqual(SimplifiedRoadMapOfRomania.BUCHAREST),
+				MapFunctions.createDistanceStepCostFunction(romaniaMap));
+		IterativeDeepeningAStarSearch<String, MoveToAction> search = new IterativeDeepeningAStarSearch<>(
+				MapFunctions.createSLDHeuristicFunction(SimplifiedRoadMapOfRomania.BUCHAREST, romaniaMap), 64);
+		Assert.assertEquals(Optional.of(SimplifiedRoadMapOfRomania.BUCHAREST),
+				search.findState(problem));
+	}
+
+	@Test
+	public void testEightPuzzle() {
+		Problem<EightPuzzleBoard, Action> problem = new BidirectionalEightPuzzleProblem(board);
+		IterativeDeepeningAStarSearch<EightPuzzleBoard, Action> search = new IterativeDeepeningAStarSearch<>(
+				EightPuzzleFunctions::getManhattanDistance);
+		int[] listenerCalls = new int[1];
+		search.addNodeListener(node -> listenerCalls[0]++);
+
+		Optional<List<Action>> actions = search.findActions(problem);
+		Assert.assertEquals(23, actions.map(List::size).orElse(0).intValue());
+		Assert.assertEquals("23.0", search.getMetrics().get(IterativeDeepeningAStarSearch.METRIC_PATH_COST));
+		Assert.assertEquals(search.getMetrics().getInt(IterativeDeepeningAStarSearch.METRIC_NODES_EXPANDED),
+				listenerCalls[0]);
+	}
+
+	@Test
+	public void testParentMovesCreateNoNodes() {
+		Problem<EightPuzzleBoard, Action> problem = new BidirectionalEightPuzzleProblem(board);
+		int[] created = new int[1];
+		NodeFactory<EightPuzzleBoard, Action> nodeFactory = new NodeFactory<EightPuzzleBoard, Action>() {
+			@Override
+			public Node<EightPuzzleBoard, Action> createNode(EightPuzzleBoard state,
+					Node<EightPuzzleBoard, Action> parent, Action action, double stepCost) {
+				Assert.assertFalse(parent.getParent() != null && state.equals(parent.getParent().getState()));
+				created[0]++;
+				return super.createNode(state, parent, action, stepCost);
+			}
+		};
+		IterativeDeepeningAStarSearch<EightPuzzleBoard, Action> search = new IterativeDeepeningAStarSearch<>(
+				nodeFactory, EightPuzzleFunctions::getManhattanDistance, 0);
+
+		Assert.assertEquals(23, search.findActions(problem).map(List::size).orElse(0).intValue());
+		Assert.assertTrue(created[0] > 0);
+	}
+
+	@Test
+	public void testTranspositionTable() {
+		Problem<EightPuzzleBoard, Action> problem = new BidirectionalEightPuzzleProblem(board);
+		IterativeDeepeningAStarSearch<EightPuzzleBoard, Action> plain = new IterativeDeepeningAStarSearch<>(
+				EightPuzzleFunctions::getManhattanDistance);
+		IterativeDeepeningAStarSearch<EightPuzzleBoard, Action> withTable = new IterativeDeepeningAStarSearch<>(
+				EightPuzzleFunctions::getManhattanDistance, 1 << 16);
+
+		Assert.assertEquals(23, plain.findActions(problem).map(List::size).orElse(0).intValue());
+		Assert.assertEquals(23, withTable.findActions(problem).map(List::size).orElse(0).intValue());
+		Assert.assertTrue(withTable.getMetrics().getInt(IterativeDeepeningAStarSearch.METRIC_TRANSPOSITIONS) > 0);
+		Assert.assertTrue(withTable.getMetrics().getInt(IterativeDeepeningAStarSearch.METRIC_NODES_EXPANDED)
+				< plain.getMetrics().getInt(IterativeDeepeningAStarSearch.METRIC_NODES_EXPANDED));
+	}
+
+	@Test
+	public void testPatternDatabaseHeuristic() {
+		Problem<EightPuzzleBoard, Action> problem = new BidirectionalEightPuzzleProblem(board);
+		IterativeDeepeningAStarSearch<EightPuzzleBoard, Action> search = new IterativeDeepeningAStarSearch<>(
+				EightPuzzleFunctions.createPatternDatabaseHeuristic(new PatternDatabaseBuilder(3)
+						.buildDisjoint(new int[] { 1, 2, 3, 4 }, new int[] { 5, 6, 7, 8 })));
+		Assert.assertEquals(23, search.findActions(problem).map(List::size).orElse(0).intValue());
+	}
+
+	@Test
+	public void testUnsolvable() {
+		// tiles 1 and 2 swapped
+		EightPuzzleBoard unsolvable = new EightPuzzleBoard(new int[] { 0, 2, 1, 3, 4, 5, 6, 7, 8 });
+		Problem<EightPuzzleBoard, Action> problem = new GeneralProblem<>(unsolvable, EightPuzzleFunctions::getActions,
+				EightPuzzleFunctions::getResult, Predicate.isEqual(EightPuzzleFunctions.GOAL_STATE));
+		// a dead-end heuristic bounds the search: infinite for all states after two moves
+		IterativeDeepeningAStarSearch<EightPuzzleBoard, Action> search = new IterativeDeepeningAStarSearch<>(
+				node -> node.getPathCost() > 2 ? Double.POSITIVE_INFINITY : 0);
+		Assert.assertFalse(search.findActions(problem).isPresent());
+	}
+}
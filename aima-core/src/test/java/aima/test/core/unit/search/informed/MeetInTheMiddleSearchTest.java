@@ -0,0 +1,99 @@
+package aima.test.core.unit.search.informed;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.BidirectionalEightPuzzleProblem;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.environment.map.*;
+import aima.core.search.framework.problem.GeneralProblem;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.framework.qsearch.QueueSearch;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.informed.MeetInTheMiddleSearch;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+public class MeetInTheMiddleSearchTest {
+
+	@Test
+	public void testAIMA3eFigure3_24() {
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		MeetInTheMiddleSearch<String, MoveToAction> search = createSearch(romaniaMap,
+				SimplifiedRoadMapOfRomania.ARAD, SimplifiedRoadMapOfRomania.BUCHAREST);
+		Optional<List<MoveToAction>> actions = search.findActions(new BidirectionalMapProblem(romaniaMap,
+				SimplifiedRoadMapOfRomania.ARAD, SimplifiedRoadMapOfRomania.BUCHAREST));
+
+		Assert.assertEquals(
+				"[Action[name=moveTo, location=Sibiu], Action[name=moveTo, location=RimnicuVilcea], Action[name=moveTo, location=Pitesti], Action[name=moveTo, location=Bucharest]]",
+				actions.map(Object::toString).orElse(""));
+		Assert.assertEquals("418.0", search.getMetrics().get(MeetInTheMiddleSearch.METRIC_PATH_COST));
+	}
+
+	@Test
+	public void testSameCostsAsAStar() {
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		for (String from : romaniaMap.getLocations()) {
+			for (String to : romaniaMap.getLocations()) {
+				MeetInTheMiddleSearch<String, MoveToAction> mm = createSearch(romaniaMap, from, to);
+				AStarSearch<String, MoveToAction> aStar = new AStarSearch<>(new GraphSearch<>(),
+						MapFunctions.createSLDHeuristicFunction(to, romaniaMap));
+				Problem<String, MoveToAction> problem = new BidirectionalMapProblem(romaniaMap, from, to);
+				Assert.assertEquals(aStar.findActions(problem).isPresent(), mm.findActions(problem).isPresent());
+				Assert.assertEquals(from + "->" + to, aStar.getMetrics().getDouble(QueueSearch.METRIC_PATH_COST),
+						mm.getMetrics().getDouble(MeetInTheMiddleSearch.METRIC_PATH_COST), 1e-9);
+			}
+		}
+	}
+
+	@Test
+	public void testStartIsGoal() {
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		MeetInTheMiddleSearch<String, MoveToAction> search = createSearch(romaniaMap,
+				SimplifiedRoadMapOfRomania.ARAD, SimplifiedRoadMapOfRomania.ARAD);
+		Optional<List<MoveToAction>> actions = search.findActions(new BidirectionalMapProblem(romaniaMap,
+				SimplifiedRoadMapOfRomania.ARAD, SimplifiedRoadMapOfRomania.ARAD));
+		Assert.assertEquals(Optional.of(0), actions.map(List::size));
+		Assert.assertEquals(0, search.getMetrics().getInt(MeetInTheMiddleSearch.METRIC_NODES_EXPANDED));
+	}
+
+	@Test
+	public void testEightPuzzle() {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 });
+		Problem<EightPuzzleBoard, Action> problem = new BidirectionalEightPuzzleProblem(board);
+		MeetInTheMiddleSearch<EightPuzzleBoard, Action> search = new MeetInTheMiddleSearch<>(
+				EightPuzzleFunctions::getManhattanDistance, node -> getManhattanDistance(node.getState(), board));
+
+		Optional<List<Action>> actions = search.findActions(problem);
+		Assert.assertEquals(23, actions.map(List::size).orElse(0).intValue());
+		Assert.assertEquals("23.0", search.getMetrics().get(MeetInTheMiddleSearch.METRIC_PATH_COST));
+		Assert.assertTrue(search.getMetrics().getInt(MeetInTheMiddleSearch.METRIC_NODES_EXPANDED_REVERSE) > 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNeedsBidirectionalProblem() {
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		createSearch(romaniaMap, SimplifiedRoadMapOfRomania.ARAD, SimplifiedRoadMapOfRomania.BUCHAREST)
+				.findActions(new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+						MapFunctions.createActionsFunction(romaniaMap), MapFunctions.createResultFunction(),
+						Predicate.isEqual(SimplifiedRoadMapOfRomania.BUCHAREST)));
+	}
+
+	private MeetInTheMiddleSearch<String, MoveToAction> createSearch(Map map, String from, String to) {
+		return new MeetInTheMiddleSearch<>(MapFunctions.createSLDHeuristicFunction(to, map),
+				MapFunctions.createSLDHeuristicFunction(from, map));
+	}
+
+	private static double getManhattanDistance(EightPuzzleBoard board1, EightPuzzleBoard board2) {
+		double result = 0;
+		for (int val = 1; val < 9; val++) {
+			result += Math.abs(board1.getLocationOf(val).getX() - board2.getLocationOf(val).getX());
+			result += Math.abs(board1.getLocationOf(val).getY() - board2.getLocationOf(val).getY());
+		}
+		return result;
+	}
+}
@@ -0,0 +1,106 @@
+package aima.test.core.unit.search.informed;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.BidirectionalEightPuzzleProblem;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.environment.map.*;
+import aima.core.search.framework.problem.GeneralProblem;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.informed.SMAStarSearch;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+public class SMAStarSearchTest {
+
+	@Test
+	public void testAIMA3eFigure3_24() {
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		Problem<String, MoveToAction> problem = new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+				MapFunctions.createActionsFunction(romaniaMap),
+				MapFunctions.createResultFunction(),
+				Predicate.isEqual(SimplifiedRoadMapOfRomania.BUCHAREST),
+				MapFunctions.createDistanceStepCostFunction(romaniaMap));
+		SMAStarSearch<String, MoveToAction> search = new SMAStarSearch<>(
+				MapFunctions.createSLDHeuristicFunction(SimplifiedRoadMapOfRomania.BUCHAREST, romaniaMap), 100);
+		Optional<List<MoveToAction>> actions = search.findActions(problem);
+
+		Assert.assertEquals(
+				"[Action[name=moveTo, location=Sibiu], Action[name=moveTo, location=RimnicuVilcea], Action[name=moveTo, location=Pitesti], Action[name=moveTo, location=Bucharest]]",
+				actions.map(Object::toString).orElse(""));
+		Assert.assertEquals("418.0", search.getMetrics().get(SMAStarSearch.METRIC_PATH_COST));
+		Assert.assertEquals(0, search.getMetrics().getInt(SMAStarSearch.METRIC_NODES_FORGOTTEN));
+	}
+
+	@Test
+	public void testSmallBudgetStillOptimal() {
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		Problem<String, MoveToAction> problem = new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+				MapFunctions.createActionsFunction(romaniaMap),
+				MapFunctions.createResultFunction(),
+				Predicate.isEqual(SimplifiedRoadMapOfRomania.BUCHAREST),
+				MapFunctions.createDistanceStepCostFunction(romaniaMap));
+		SMAStarSearch<String, MoveToAction> search = new SMAStarSearch<>(
+				MapFunctions.createSLDHeuristicFunction(SimplifiedRoadMapOfRomania.BUCHAREST, romaniaMap), 5);
+		Optional<List<MoveToAction>> actions = search.findActions(problem);
+
+		Assert.assertEquals(4, actions.map(List::size).orElse(0).intValue());
+		Assert.assertEquals("418.0", search.getMetrics().get(SMAStarSearch.METRIC_PATH_COST));
+		Assert.assertTrue(search.getMetrics().getInt(SMAStarSearch.METRIC_NODES_FORGOTTEN) > 0);
+		Assert.assertEquals(5, search.getMetrics().getInt(SMAStarSearch.METRIC_MAX_NODES_IN_MEMORY));
+	}
+
+	@Test
+	public void testBudgetOnlyAllowsSuboptimalSolution() {
+		// the optimal path needs five nodes, the path via Fagaras only four
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		Problem<String, MoveToAction> problem = new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+				MapFunctions.createActionsFunction(romaniaMap),
+				MapFunctions.createResultFunction(),
+				Predicate.isEqual(SimplifiedRoadMapOfRomania.BUCHAREST),
+				MapFunctions.createDistanceStepCostFunction(romaniaMap));
+		SMAStarSearch<String, MoveToAction> search = new SMAStarSearch<>(
+				MapFunctions.createSLDHeuristicFunction(SimplifiedRoadMapOfRomania.BUCHAREST, romaniaMap), 4);
+		Optional<List<MoveToAction>> actions = search.findActions(problem);
+
+		Assert.assertEquals(
+				"[Action[name=moveTo, location=Sibiu], Action[name=moveTo, location=Fagaras], Action[name=moveTo, location=Bucharest]]",
+				actions.map(Object::toString).orElse(""));
+		Assert.assertEquals("450.0", search.getMetrics().get(SMAStarSearch.METRIC_PATH_COST));
+		Assert.assertTrue(search.getMetrics().getInt(SMAStarSearch.METRIC_NODES_REGENERATED) > 0);
+	}
+
+	@Test
+	public void testBudgetTooSmall() {
+		Map romaniaMap = new SimplifiedRoadMapOfRomania();
+		Problem<String, MoveToAction> problem = new GeneralProblem<>(SimplifiedRoadMapOfRomania.ARAD,
+				MapFunctions.createActionsFunction(romaniaMap),
+				MapFunctions.createResultFunction(),
+				Predicate.isEqual(SimplifiedRoadMapOfRomania.BUCHAREST),
+				MapFunctions.createDistanceStepCostFunction(romaniaMap));
+		SMAStarSearch<String, MoveToAction> search = new SMAStarSearch<>(
+				MapFunctions.createSLDHeuristicFunction(SimplifiedRoadMapOfRomania.BUCHAREST, romaniaMap), 3);
+		Assert.assertFalse(search.findActions(problem).isPresent());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBudgetWithoutRoomForSuccessor() {
+		new SMAStarSearch<String, MoveToAction>(node -> 0, 1);
+	}
+
+	@Test
+	public void testEightPuzzle() {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 });
+		Problem<EightPuzzleBoard, Action> problem = new BidirectionalEightPuzzleProblem(board);
+		SMAStarSearch<EightPuzzleBoard, Action> search = new SMAStarSearch<>(
+				EightPuzzleFunctions::getManhattanDistance, 500);
+
+		Optional<List<Action>> actions = search.findActions(problem);
+		Assert.assertEquals(23, actions.map(List::size).orElse(0).intValue());
+		Assert.assertTrue(search.getMetrics().getInt(SMAStarSearch.METRIC_MAX_NODES_IN_MEMORY) <= 500);
+	}
+}
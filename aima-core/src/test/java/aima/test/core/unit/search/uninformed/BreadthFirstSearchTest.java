@@ -1,20 +1,28 @@
 package aima.test.core.unit.search.uninformed;
 
 import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleProblem;
+import aima.core.environment.eightpuzzle.EightPuzzleStateCodec;
 import aima.core.environment.nqueens.NQueensBoard;
 import aima.core.environment.nqueens.NQueensFunctions;
 import aima.core.environment.nqueens.QueenAction;
 import aima.core.search.agent.SearchAgent;
+import aima.core.search.framework.NodeFactory;
 import aima.core.search.framework.SearchForActions;
+import aima.core.search.framework.StateSetFactory;
 import aima.core.search.framework.problem.GeneralProblem;
 import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.GraphSearchBFS;
 import aima.core.search.framework.qsearch.TreeSearch;
 import aima.core.search.uninformed.BreadthFirstSearch;
 import org.junit.Assert;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
 
 public class BreadthFirstSearchTest {
 
@@ -42,6 +50,71 @@ public class BreadthFirstSearchTest {
 		Assert.assertEquals("0", agent.getInstrumentation().getProperty("pathCost"));
 	}
 
+	@Test
+	public void testParallelSearchFindsSameSolution() {
+		Problem<EightPuzzleBoard, Action> problem = new EightPuzzleProblem(
+				new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 }));
+		EightPuzzleStateCodec codec = new EightPuzzleStateCodec();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			for (boolean earlyGoalTest : new boolean[] { true, false }) {
+				GraphSearchBFS<EightPuzzleBoard, Action> impl = new GraphSearchBFS<>();
+				SearchForActions<EightPuzzleBoard, Action> search = new BreadthFirstSearch<>(impl);
+				impl.setEarlyGoalTest(earlyGoalTest);
+				Optional<List<Action>> expected = search.findActions(problem);
+				Assert.assertEquals(23, expected.get().size());
+
+				impl.setParallel(pool);
+				Assert.assertEquals(expected, search.findActions(problem));
+				impl.setParallel(pool, StateSetFactory.createStripedSet(() -> StateSetFactory.createLongSet(codec), 16));
+				Assert.assertEquals(expected, search.findActions(problem));
+				Assert.assertEquals("23.0", search.getMetrics().get("pathCost"));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelUnSuccessfulSearch() {
+		Problem<NQueensBoard, QueenAction> problem = new GeneralProblem<>(new NQueensBoard(3),
+				NQueensFunctions::getIFActions, NQueensFunctions::getResult, NQueensFunctions::testGoal);
+		GraphSearchBFS<NQueensBoard, QueenAction> impl = new GraphSearchBFS<>(new NodeFactory<>());
+		SearchForActions<NQueensBoard, QueenAction> search = new BreadthFirstSearch<>(impl);
+		Assert.assertFalse(search.findActions(problem).isPresent());
+		String nodesExpanded = search.getMetrics().get("nodesExpanded");
+		impl.setParallel(ForkJoinPool.commonPool());
+		Assert.assertFalse(search.findActions(problem).isPresent());
+		Assert.assertEquals(nodesExpanded, search.getMetrics().get("nodesExpanded"));
+	}
+
+	@Test
+	public void testParallelSearchNotifiesListenersInOrder() {
+		Problem<EightPuzzleBoard, Action> problem = new EightPuzzleProblem(
+				new EightPuzzleBoard(new int[] { 1, 4, 2, 7, 5, 8, 3, 0, 6 }));
+		GraphSearchBFS<EightPuzzleBoard, Action> impl = new GraphSearchBFS<>();
+		impl.setEarlyGoalTest(true);
+		SearchForActions<EightPuzzleBoard, Action> search = new BreadthFirstSearch<>(impl);
+		// not thread-safe
+		List<EightPuzzleBoard> expanded = new ArrayList<>();
+		search.addNodeListener(node -> expanded.add(node.getState()));
+		search.findActions(problem);
+		List<EightPuzzleBoard> expected = new ArrayList<>(expanded);
+
+		expanded.clear();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			impl.setParallel(pool);
+			search.findActions(problem);
+		} finally {
+			pool.shutdown();
+		}
+		// the last layer is expanded completely in parallel mode
+		Assert.assertTrue(expanded.size() > expected.size());
+		Assert.assertEquals(expected, expanded.subList(0, expected.size()));
+		Assert.assertEquals(expanded.size(), search.getMetrics().getInt("nodesExpanded"));
+	}
+
 	//
 	// PRIVATE METHODS
 	//
@@ -0,0 +1,77 @@
+package aima.test.core.unit.search.uninformed;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctions;
+import aima.core.environment.eightpuzzle.EightPuzzleProblem;
+import aima.core.environment.eightpuzzle.EightPuzzleStateCodec;
+import aima.core.search.framework.NodeFactory;
+import aima.core.search.framework.problem.GeneralProblem;
+import aima.core.search.framework.problem.Problem;
+import aima.core.search.uninformed.ExternalMemoryBreadthFirstSearch;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public class ExternalMemoryBreadthFirstSearchTest {
+
+	// number of eight puzzle states by distance from a board with the gap in a corner
+	private static final List<Long> EIGHT_PUZZLE_LAYERS = Arrays.asList(1L, 2L, 4L, 8L, 16L, 20L, 39L, 62L,
+			116L, 152L, 286L, 396L, 748L, 1024L, 1893L, 2512L, 4485L, 5638L, 9529L, 10878L, 16993L, 17110L,
+			23952L, 20224L, 24047L, 15578L, 14560L, 6274L, 3910L, 760L, 221L, 2L);
+
+	@Test
+	public void testFindState() {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 1, 4, 2, 7, 5, 8, 3, 0, 6 });
+		ExternalMemoryBreadthFirstSearch<EightPuzzleBoard, Action> search =
+				new ExternalMemoryBreadthFirstSearch<>(new EightPuzzleStateCodec());
+		Optional<EightPuzzleBoard> result = search.findState(new EightPuzzleProblem(board));
+		Assert.assertEquals(Optional.of(EightPuzzleFunctions.GOAL_STATE), result);
+		// the goal is found in the layer of distance 9
+		Assert.assertEquals(10, search.getLayerSizes().size());
+		Assert.assertEquals(10, search.getMetrics().getInt(ExternalMemoryBreadthFirstSearch.METRIC_LAYERS));
+	}
+
+	@Test
+	public void testExhaustiveAnalysis() throws IOException {
+		Path dir = Files.createTempDirectory("bfs-test");
+		try {
+			// small buffer, so that each layer is split into several run files
+			ExternalMemoryBreadthFirstSearch<EightPuzzleBoard, Action> search =
+					new ExternalMemoryBreadthFirstSearch<>(new NodeFactory<>(), new EightPuzzleStateCodec(), 5000, dir);
+			Assert.assertFalse(search.findState(createProblemWithoutGoal()).isPresent());
+			Assert.assertEquals(EIGHT_PUZZLE_LAYERS, search.getLayerSizes());
+			Assert.assertEquals(181440, search.getMetrics().getInt(ExternalMemoryBreadthFirstSearch.METRIC_STATES_REACHED));
+			Assert.assertEquals(181440, search.getMetrics().getInt(ExternalMemoryBreadthFirstSearch.METRIC_NODES_EXPANDED));
+			Assert.assertEquals(24047, search.getMetrics().getInt(ExternalMemoryBreadthFirstSearch.METRIC_MAX_LAYER_SIZE));
+			Assert.assertTrue(search.getMetrics().getInt(ExternalMemoryBreadthFirstSearch.METRIC_RUN_FILES) > 31);
+			try (Stream<Path> files = Files.list(dir)) {
+				Assert.assertEquals(0, files.count());
+			}
+		} finally {
+			Files.deleteIfExists(dir);
+		}
+	}
+
+	@Test
+	public void testDuplicateDetectionDepth() {
+		// all actions are reversible, so the last two layers are sufficient
+		ExternalMemoryBreadthFirstSearch<EightPuzzleBoard, Action> search =
+				new ExternalMemoryBreadthFirstSearch<>(new EightPuzzleStateCodec());
+		search.setDuplicateDetectionDepth(2);
+		search.findState(createProblemWithoutGoal());
+		Assert.assertEquals(EIGHT_PUZZLE_LAYERS, search.getLayerSizes());
+	}
+
+	private Problem<EightPuzzleBoard, Action> createProblemWithoutGoal() {
+		return new GeneralProblem<>(EightPuzzleFunctions.GOAL_STATE, EightPuzzleFunctions::getActions,
+				EightPuzzleFunctions::getResult, state -> false);
+	}
+}
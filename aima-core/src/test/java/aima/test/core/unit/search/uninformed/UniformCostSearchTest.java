@@ -9,6 +9,9 @@ import aima.core.search.agent.SearchAgent;
 import aima.core.search.framework.SearchForActions;
 import aima.core.search.framework.problem.GeneralProblem;
 import aima.core.search.framework.problem.Problem;
+import aima.core.search.framework.qsearch.GraphSearch;
+import aima.core.search.framework.qsearch.GraphSearch4e;
+import aima.core.search.framework.qsearch.GraphSearchReducedFrontier;
 import aima.core.search.framework.qsearch.QueueSearch;
 import aima.core.search.uninformed.UniformCostSearch;
 import org.junit.Assert;
@@ -100,4 +103,50 @@ public class UniformCostSearchTest {
 				actions.toString());
 		Assert.assertEquals("5.5", search.getMetrics().get(QueueSearch.METRIC_PATH_COST));
 	}
+
+	@Test
+	public void testIntegerCostFrontiers() throws Exception {
+		Problem<NQueensBoard, QueenAction> problem = new GeneralProblem<>(new NQueensBoard(8),
+				NQueensFunctions::getIFActions, NQueensFunctions::getResult, NQueensFunctions::testGoal);
+		for (int i = 0; i < 2; i++) {
+			SearchForActions<NQueensBoard, QueenAction> search = i == 0
+					? UniformCostSearch.createWithBucketQueue(new GraphSearch<>())
+					: UniformCostSearch.createWithRadixHeap(new GraphSearch<>());
+			SearchAgent<Object, NQueensBoard, QueenAction> agent = new SearchAgent<>(problem, search);
+			Assert.assertEquals(8, agent.getActions().size());
+			Assert.assertEquals("8.0", agent.getInstrumentation().getProperty("pathCost"));
+		}
+	}
+
+	@Test
+	public void testIntegerCostFrontiersWithReachedTable() {
+		// the direct link to the goal is found first, but the path via b is cheaper
+		ExtendableMap map = new ExtendableMap();
+		map.addBidirectionalLink("start", "goal", 10.0);
+		map.addBidirectionalLink("start", "b", 1.0);
+		map.addBidirectionalLink("b", "goal", 1.0);
+		Problem<String, MoveToAction> problem = new GeneralProblem<>("start", MapFunctions.createActionsFunction(map),
+				MapFunctions.createResultFunction(), Predicate.isEqual("goal"),
+				MapFunctions.createDistanceStepCostFunction(map));
+		for (int i = 0; i < 4; i++) {
+			QueueSearch<String, MoveToAction> impl = i < 2 ? new GraphSearch4e<>() : new GraphSearchReducedFrontier<>();
+			SearchForActions<String, MoveToAction> search = i % 2 == 0
+					? UniformCostSearch.createWithBucketQueue(impl)
+					: UniformCostSearch.createWithRadixHeap(impl);
+			Assert.assertEquals("[Action[name=moveTo, location=b], Action[name=moveTo, location=goal]]",
+					search.findActions(problem).map(Object::toString).orElse(""));
+			Assert.assertEquals("2.0", search.getMetrics().get(QueueSearch.METRIC_PATH_COST));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIntegerCostFrontierWithFractionalCosts() {
+		ExtendableMap map = new ExtendableMap();
+		map.addBidirectionalLink("start", "b", 2.5);
+		map.addBidirectionalLink("b", "goal", 1.0);
+		Problem<String, MoveToAction> problem = new GeneralProblem<>("start", MapFunctions.createActionsFunction(map),
+				MapFunctions.createResultFunction(), Predicate.isEqual("goal"),
+				MapFunctions.createDistanceStepCostFunction(map));
+		UniformCostSearch.<String, MoveToAction>createWithBucketQueue(new GraphSearch<>()).findActions(problem);
+	}
 }
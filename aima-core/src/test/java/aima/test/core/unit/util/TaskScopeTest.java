@@ -0,0 +1,114 @@
+package aima.test.core.unit.util;
+
+import aima.core.util.TaskScope;
+import aima.core.util.Tasks;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class TaskScopeTest {
+
+	@Test
+	public void testForkAndJoin() throws Exception {
+		try (TaskScope scope = TaskScope.open()) {
+			Assert.assertSame(scope, TaskScope.current());
+			Future<Integer> a = scope.fork(() -> 6 * 7);
+			Future<String> b = scope.fork(() -> TaskScope.current() == scope ? "child" : "other");
+			scope.join();
+			Assert.assertEquals(42, (int) a.get());
+			Assert.assertEquals("child", b.get());
+			Assert.assertFalse(Tasks.currIsCancelled());
+		}
+		Assert.assertNull(TaskScope.current());
+	}
+
+	@Test
+	public void testCancellationReachesNestedTasks() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		try (TaskScope scope = TaskScope.open()) {
+			Future<Boolean> outer = scope.fork(() -> {
+				try (TaskScope inner = TaskScope.open()) {
+					Future<Boolean> task = inner.fork(() -> {
+						started.countDown();
+						return waitForCancellation(10000);
+					});
+					return task.get();
+				}
+			});
+			started.await();
+			scope.cancel();
+			Assert.assertTrue(outer.get());
+		}
+	}
+
+	@Test
+	public void testDeadline() throws Exception {
+		long start = System.currentTimeMillis();
+		try (TaskScope scope = TaskScope.open(50)) {
+			Future<Boolean> task = scope.fork(() -> {
+				try (TaskScope inner = TaskScope.open(10000)) {
+					Assert.assertTrue(inner.getRemainingTime() <= 50);
+					return waitForCancellation(10000);
+				}
+			});
+			Assert.assertTrue(task.get());
+			Assert.assertTrue(scope.isCancelled());
+		}
+		Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+	}
+
+	@Test
+	public void testFailureCancelsSiblings() throws Exception {
+		try (TaskScope scope = TaskScope.open()) {
+			CountDownLatch started = new CountDownLatch(1);
+			Future<Boolean> sibling = scope.fork(() -> {
+				started.countDown();
+				return waitForCancellation(10000);
+			});
+			scope.fork(() -> {
+				started.await(); // otherwise, the sibling might be skipped
+				throw new IllegalStateException("failed");
+			});
+			try {
+				scope.join();
+				Assert.fail("Exception expected.");
+			} catch (ExecutionException e) {
+				Assert.assertTrue(e.getCause() instanceof IllegalStateException);
+			}
+			Assert.assertTrue(sibling.get());
+		}
+	}
+
+	@Test
+	public void testBackgroundTaskInheritsScope() throws Exception {
+		AtomicBoolean cancelled = new AtomicBoolean();
+		Thread thread;
+		try (TaskScope scope = TaskScope.open()) {
+			thread = Tasks.executeInBackground(() -> cancelled.set(waitForCancellation(10000)));
+			scope.cancel();
+			thread.join();
+		}
+		Assert.assertTrue(cancelled.get());
+
+		thread = Tasks.executeInBackground(() -> cancelled.set(waitForCancellation(10000)));
+		cancelled.set(false);
+		Tasks.cancel(thread);
+		thread.join();
+		Assert.assertTrue(cancelled.get());
+	}
+
+	/** Polls for cancellation and returns true if it was observed within the time limit. */
+	private static boolean waitForCancellation(long timeLimit) {
+		long end = System.currentTimeMillis() + timeLimit;
+		while (System.currentTimeMillis() < end) {
+			if (Tasks.currIsCancelled())
+				return true;
+			Thread.yield();
+		}
+		return false;
+	}
+}
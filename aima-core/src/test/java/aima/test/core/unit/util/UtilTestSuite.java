@@ -3,14 +3,19 @@ package aima.test.core.unit.util;
 import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
+import aima.test.core.unit.util.datastructure.AddressablePriorityQueueTest;
+import aima.test.core.unit.util.datastructure.BloomFilterTest;
+import aima.test.core.unit.util.datastructure.IntegerKeyQueueTest;
+import aima.test.core.unit.util.datastructure.LongHashSetTest;
+import aima.test.core.unit.util.datastructure.OffHeapByteArraySetTest;
 import aima.test.core.unit.util.datastructure.TableTest;
 import aima.test.core.unit.util.datastructure.XYLocationTest;
 import aima.test.core.unit.util.math.MixedRadixNumberTest;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({
-		TableTest.class, XYLocationTest.class, MixedRadixNumberTest.class,
-		DisjointSetsTest.class, SetOpsTest.class, UtilTest.class })
+		AddressablePriorityQueueTest.class, BloomFilterTest.class, IntegerKeyQueueTest.class, LongHashSetTest.class, OffHeapByteArraySetTest.class, TableTest.class, XYLocationTest.class, MixedRadixNumberTest.class,
+		DisjointSetsTest.class, SetOpsTest.class, TaskScopeTest.class, UtilTest.class })
 public class UtilTestSuite {
 
 }
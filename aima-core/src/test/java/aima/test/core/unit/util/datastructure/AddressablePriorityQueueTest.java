@@ -0,0 +1,135 @@
+package aima.test.core.unit.util.datastructure;
+
+import aima.core.util.datastructure.AddressablePriorityQueue;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+public class AddressablePriorityQueueTest {
+
+	/** Wraps an integer without overriding equals, like search nodes do. */
+	private static class Entry {
+		final int key;
+
+		Entry(int key) {
+			this.key = key;
+		}
+	}
+
+	/** Entry with many hash collisions, to exercise probing in the element index. */
+	private static class CollidingEntry extends Entry {
+		CollidingEntry(int key) {
+			super(key);
+		}
+
+		@Override
+		public int hashCode() {
+			return key % 3;
+		}
+	}
+
+	private static final Comparator<Entry> BY_KEY = Comparator.comparingInt(e -> e.key);
+
+	@Test
+	public void testSameOrderAsPriorityQueue() {
+		AddressablePriorityQueue<Entry> queue = new AddressablePriorityQueue<>(BY_KEY);
+		PriorityQueue<Entry> reference = new PriorityQueue<>(BY_KEY);
+		Random random = new Random(7);
+		for (int i = 0; i < 1000; i++) {
+			if (random.nextInt(3) == 0 && !reference.isEmpty()) {
+				Assert.assertSame(reference.poll(), queue.poll());
+			} else {
+				Entry e = new Entry(random.nextInt(50));
+				reference.add(e);
+				queue.add(e);
+			}
+		}
+		while (!reference.isEmpty())
+			Assert.assertSame(reference.poll(), queue.poll());
+		Assert.assertTrue(queue.isEmpty());
+	}
+
+	@Test
+	public void testRemove() {
+		AddressablePriorityQueue<Entry> queue = new AddressablePriorityQueue<>(BY_KEY);
+		List<Entry> entries = new ArrayList<>();
+		for (int key : new int[] { 5, 3, 9, 1, 7, 2, 8 }) {
+			Entry e = new Entry(key);
+			entries.add(e);
+			queue.add(e);
+		}
+		Assert.assertTrue(queue.remove(entries.get(3))); // key 1
+		Assert.assertTrue(queue.remove(entries.get(2))); // key 9
+		Assert.assertFalse(queue.remove(entries.get(2)));
+		Assert.assertFalse(queue.contains(entries.get(3)));
+		Assert.assertTrue(queue.contains(entries.get(0)));
+		Assert.assertEquals(5, queue.size());
+		int[] expected = { 2, 3, 5, 7, 8 };
+		for (int key : expected)
+			Assert.assertEquals(key, queue.poll().key);
+	}
+
+	@Test
+	public void testReplace() {
+		AddressablePriorityQueue<Entry> queue = new AddressablePriorityQueue<>(BY_KEY);
+		Entry e4 = new Entry(4);
+		Entry e6 = new Entry(6);
+		queue.add(new Entry(2));
+		queue.add(e4);
+		queue.add(e6);
+		queue.add(new Entry(8));
+		// decrease key
+		Assert.assertTrue(queue.replace(e6, new Entry(1)));
+		// increase key
+		Assert.assertTrue(queue.replace(e4, new Entry(9)));
+		Assert.assertFalse(queue.replace(e4, new Entry(3)));
+		int[] expected = { 1, 2, 8, 9 };
+		for (int key : expected)
+			Assert.assertEquals(key, queue.poll().key);
+		Assert.assertNull(queue.poll());
+	}
+
+	@Test
+	public void testIndexedOperationsAgainstReference() {
+		AddressablePriorityQueue<Entry> queue = new AddressablePriorityQueue<>(BY_KEY);
+		List<Entry> reference = new ArrayList<>();
+		Random random = new Random(11);
+		for (int i = 0; i < 5000; i++) {
+			int op = random.nextInt(6);
+			if (op == 0 && !reference.isEmpty()) {
+				Entry polled = queue.poll();
+				int min = reference.stream().mapToInt(e -> e.key).min().getAsInt();
+				Assert.assertEquals(min, polled.key);
+				Assert.assertTrue(reference.remove(polled));
+			} else if (op == 1 && !reference.isEmpty()) {
+				Entry e = reference.remove(random.nextInt(reference.size()));
+				Assert.assertTrue(queue.remove(e));
+				Assert.assertFalse(queue.contains(e));
+			} else if (op == 2 && !reference.isEmpty()) {
+				int idx = random.nextInt(reference.size());
+				Entry e = new CollidingEntry(random.nextInt(100));
+				Assert.assertTrue(queue.replace(reference.get(idx), e));
+				reference.set(idx, e);
+			} else {
+				Entry e = random.nextBoolean() ? new Entry(random.nextInt(100))
+						: new CollidingEntry(random.nextInt(100));
+				queue.add(e);
+				reference.add(e);
+			}
+			Assert.assertEquals(reference.size(), queue.size());
+			if (i % 100 == 0) {
+				for (Entry e : reference)
+					Assert.assertTrue(queue.contains(e));
+				Assert.assertFalse(queue.contains(new CollidingEntry(1)));
+			}
+		}
+		queue.clear();
+		for (Entry e : reference)
+			Assert.assertFalse(queue.contains(e));
+	}
+}
@@ -0,0 +1,112 @@
+package aima.test.core.unit.util.datastructure;
+
+import aima.core.util.datastructure.BloomFilter;
+import aima.core.util.datastructure.CountingBloomFilter;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Random;
+
+public class BloomFilterTest {
+
+	@Test
+	public void testNoFalseNegatives() {
+		BloomFilter filter = new BloomFilter(1 << 16, 3);
+		Assert.assertEquals(1 << 16, filter.getNumberOfBits());
+		Random random = new Random(5);
+		long[] values = random.longs(5000).toArray();
+		for (long value : values)
+			filter.add(value);
+		for (long value : values)
+			Assert.assertTrue(filter.mightContain(value));
+		Assert.assertFalse(filter.add(values[0]));
+		filter.clear();
+		Assert.assertEquals(0, filter.getFillRatio(), 0);
+		Assert.assertFalse(filter.mightContain(values[0]));
+	}
+
+	@Test
+	public void testFalsePositiveEstimate() {
+		int k = BloomFilter.optimalNumberOfHashFunctions(1 << 16, 8000);
+		Assert.assertEquals(6, k);
+		BloomFilter filter = new BloomFilter(1 << 16, k);
+		Random random = new Random(7);
+		random.longs(8000).forEach(filter::add);
+		int falsePositives = 0;
+		for (int i = 0; i < 100000; i++)
+			if (filter.mightContain(random.nextLong()))
+				falsePositives++;
+		double estimate = filter.getFalsePositiveProbability();
+		Assert.assertTrue(estimate > 0.01 && estimate < 0.05);
+		Assert.assertEquals(estimate, falsePositives / 100000.0, 0.01);
+	}
+
+	@Test
+	public void testMaximalSize() {
+		// 8 GB each: tolerate missing memory, but not negative array sizes
+		try {
+			Assert.assertEquals(BloomFilter.MAX_BITS, new BloomFilter(BloomFilter.MAX_BITS, 1).getNumberOfBits());
+		} catch (OutOfMemoryError e) {
+			// expected for small heaps
+		}
+		try {
+			Assert.assertEquals(CountingBloomFilter.MAX_COUNTERS,
+					new CountingBloomFilter(CountingBloomFilter.MAX_COUNTERS, 1).getNumberOfCounters());
+		} catch (OutOfMemoryError e) {
+			// expected for small heaps
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBitsAboveMaximum() {
+		new BloomFilter(BloomFilter.MAX_BITS + 1, 1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCountersAboveMaximum() {
+		new CountingBloomFilter(CountingBloomFilter.MAX_COUNTERS + 1, 1);
+	}
+
+	@Test
+	public void testCountingFilter() {
+		CountingBloomFilter filter = new CountingBloomFilter(1 << 12, 3);
+		Assert.assertEquals(1 << 12, filter.getNumberOfCounters());
+		Random random = new Random(3);
+		long[] values = random.longs(200).toArray();
+		for (long value : values)
+			Assert.assertTrue(filter.add(value));
+		for (long value : values)
+			Assert.assertTrue(filter.mightContain(value));
+		for (int i = 0; i < 100; i++)
+			Assert.assertTrue(filter.remove(values[i]));
+		for (int i = 100; i < 200; i++)
+			Assert.assertTrue(filter.mightContain(values[i]));
+		for (int i = 100; i < 200; i++)
+			filter.remove(values[i]);
+		Assert.assertEquals(0, filter.getFillRatio(), 0);
+		Assert.assertFalse(filter.remove(values[0]));
+	}
+
+	@Test
+	public void testCountingFilterCountsMultipleAdds() {
+		CountingBloomFilter filter = new CountingBloomFilter(1 << 12, 3);
+		Assert.assertTrue(filter.add(42));
+		Assert.assertFalse(filter.add(42));
+		Assert.assertTrue(filter.remove(42));
+		Assert.assertTrue(filter.mightContain(42));
+		Assert.assertTrue(filter.remove(42));
+		Assert.assertFalse(filter.mightContain(42));
+		Assert.assertEquals(0, filter.getFillRatio(), 0);
+	}
+
+	@Test
+	public void testCountingFilterSaturation() {
+		CountingBloomFilter filter = new CountingBloomFilter(16, 1);
+		for (int i = 0; i < 20; i++)
+			filter.add(42);
+		for (int i = 0; i < 20; i++)
+			filter.remove(42);
+		// saturated counters are never decremented
+		Assert.assertTrue(filter.mightContain(42));
+	}
+}
@@ -0,0 +1,80 @@
+package aima.test.core.unit.util.datastructure;
+
+import aima.core.util.datastructure.BucketQueue;
+import aima.core.util.datastructure.RadixHeap;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Random;
+
+public class IntegerKeyQueueTest {
+
+	@Test
+	public void testBucketQueueOrder() {
+		Queue<int[]> queue = new BucketQueue<>(e -> e[0]);
+		int[] a = { 5 }, b = { 3 }, c = { 5 }, d = { -2 };
+		queue.add(a);
+		queue.add(b);
+		queue.add(c);
+		queue.add(d); // smaller than all keys so far
+		Assert.assertEquals(4, queue.size());
+		Assert.assertSame(d, queue.peek());
+		Assert.assertSame(d, queue.poll());
+		Assert.assertSame(b, queue.poll());
+		Assert.assertTrue(queue.contains(c));
+		Assert.assertSame(a, queue.poll()); // insertion order for equal keys
+		Assert.assertTrue(queue.remove(c));
+		Assert.assertFalse(queue.contains(c));
+		Assert.assertTrue(queue.isEmpty());
+		Assert.assertNull(queue.poll());
+	}
+
+	@Test
+	public void testRadixHeapRejectsSmallerKeys() {
+		Queue<int[]> queue = new RadixHeap<>(e -> e[0]);
+		queue.add(new int[] { 7 });
+		queue.add(new int[] { 9 });
+		Assert.assertEquals(7, queue.poll()[0]);
+		queue.add(new int[] { 7 });
+		try {
+			queue.add(new int[] { 6 });
+			Assert.fail("Exception expected.");
+		} catch (IllegalArgumentException e) {
+			// monotonicity violated
+		}
+		queue.clear();
+		queue.add(new int[] { -100 });
+		Assert.assertEquals(-100, queue.poll()[0]);
+	}
+
+	@Test
+	public void testSameOrderAsPriorityQueue() {
+		Random random = new Random(17);
+		for (boolean radix : new boolean[] { false, true }) {
+			Queue<int[]> queue = radix ? new RadixHeap<>(e -> e[0]) : new BucketQueue<>(e -> e[0]);
+			PriorityQueue<int[]> reference = new PriorityQueue<>((e1, e2) -> Integer.compare(e1[0], e2[0]));
+			int min = -50;
+			for (int i = 0; i < 20000; i++) {
+				if (random.nextInt(3) > 0 || reference.isEmpty()) {
+					// monotone keys, as in uniform-cost search
+					int[] e = { min + random.nextInt(100) };
+					queue.add(e);
+					reference.add(e);
+				} else if (random.nextInt(4) == 0) {
+					int[] e = reference.iterator().next();
+					Assert.assertTrue(queue.remove(e));
+					reference.remove(e);
+				} else {
+					// ties may be broken differently
+					int[] e = queue.poll();
+					Assert.assertEquals(reference.peek()[0], e[0]);
+					Assert.assertTrue(reference.remove(e));
+					min = e[0];
+				}
+				Assert.assertEquals(reference.size(), queue.size());
+			}
+		}
+	}
+}
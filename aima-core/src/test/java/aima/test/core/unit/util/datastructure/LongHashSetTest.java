@@ -0,0 +1,53 @@
+package aima.test.core.unit.util.datastructure;
+
+import aima.core.util.datastructure.LongHashSet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class LongHashSetTest {
+
+	@Test
+	public void testAddContainsRemove() {
+		LongHashSet set = new LongHashSet();
+		Assert.assertTrue(set.isEmpty());
+		Assert.assertTrue(set.add(42));
+		Assert.assertFalse(set.add(42));
+		Assert.assertTrue(set.add(0));
+		Assert.assertFalse(set.add(0));
+		Assert.assertTrue(set.add(-1));
+		Assert.assertEquals(3, set.size());
+		Assert.assertTrue(set.contains(0));
+		Assert.assertTrue(set.contains(42));
+		Assert.assertFalse(set.contains(7));
+		Assert.assertTrue(set.remove(0));
+		Assert.assertFalse(set.remove(0));
+		Assert.assertFalse(set.contains(0));
+		Assert.assertEquals(2, set.size());
+		set.clear();
+		Assert.assertTrue(set.isEmpty());
+		Assert.assertFalse(set.contains(42));
+	}
+
+	@Test
+	public void testSameContentAsHashSet() {
+		LongHashSet set = new LongHashSet(4);
+		Set<Long> reference = new HashSet<>();
+		Random random = new Random(11);
+		for (int i = 0; i < 20000; i++) {
+			long key = random.nextInt(5000) * 0x9E3779B97F4A7C15L;
+			if (random.nextInt(3) == 0)
+				Assert.assertEquals(reference.remove(key), set.remove(key));
+			else
+				Assert.assertEquals(reference.add(key), set.add(key));
+		}
+		Assert.assertEquals(reference.size(), set.size());
+		for (int i = 0; i < 5000; i++) {
+			long key = i * 0x9E3779B97F4A7C15L;
+			Assert.assertEquals(reference.contains(key), set.contains(key));
+		}
+	}
+}
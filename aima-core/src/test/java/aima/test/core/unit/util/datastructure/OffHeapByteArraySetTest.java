@@ -0,0 +1,53 @@
+package aima.test.core.unit.util.datastructure;
+
+import aima.core.util.datastructure.OffHeapByteArraySet;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+public class OffHeapByteArraySetTest {
+
+	@Test
+	public void testAddContainsRemove() {
+		OffHeapByteArraySet set = new OffHeapByteArraySet(3);
+		byte[] keys = { 9, 1, 2, 3, 0, 0, 0, 9 };
+		Assert.assertTrue(set.isEmpty());
+		Assert.assertTrue(set.add(keys, 1));
+		Assert.assertFalse(set.add(new byte[] { 1, 2, 3 }, 0));
+		Assert.assertTrue(set.add(keys, 4)); // all-zero key
+		Assert.assertEquals(2, set.size());
+		Assert.assertTrue(set.contains(new byte[] { 0, 0, 0 }, 0));
+		Assert.assertFalse(set.contains(keys, 0));
+		Assert.assertTrue(set.remove(keys, 1));
+		Assert.assertFalse(set.remove(keys, 1));
+		Assert.assertFalse(set.contains(keys, 1));
+		Assert.assertEquals(1, set.size());
+		set.clear();
+		Assert.assertTrue(set.isEmpty());
+	}
+
+	@Test
+	public void testSameContentAsHashSet() {
+		OffHeapByteArraySet set = new OffHeapByteArraySet(Integer.BYTES, 4);
+		Set<Integer> reference = new HashSet<>();
+		byte[] key = new byte[Integer.BYTES];
+		Random random = new Random(13);
+		for (int i = 0; i < 20000; i++) {
+			int value = random.nextInt(5000);
+			ByteBuffer.wrap(key).putInt(value);
+			if (random.nextInt(3) == 0)
+				Assert.assertEquals(reference.remove(value), set.remove(key, 0));
+			else
+				Assert.assertEquals(reference.add(value), set.add(key, 0));
+		}
+		Assert.assertEquals(reference.size(), set.size());
+		for (int value = 0; value < 5000; value++) {
+			ByteBuffer.wrap(key).putInt(value);
+			Assert.assertEquals(reference.contains(value), set.contains(key, 0));
+		}
+	}
+}